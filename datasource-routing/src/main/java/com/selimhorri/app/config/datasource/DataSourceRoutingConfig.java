@@ -0,0 +1,49 @@
+package com.selimhorri.app.config.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.jdbc-url")
+public class DataSourceRoutingConfig {
+	
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+		return dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.build();
+	}
+	
+	@Bean
+	@ConfigurationProperties("app.datasource.replica")
+	public HikariDataSource replicaDataSource() {
+		final var replicaDataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.build();
+		replicaDataSource.setReadOnly(true);
+		return replicaDataSource;
+	}
+	
+	@Primary
+	@Bean
+	public DataSource dataSource(@Qualifier("primaryDataSource") final DataSource primaryDataSource,
+			@Qualifier("replicaDataSource") final DataSource replicaDataSource) {
+		return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+	}
+	
+	
+	
+}
+
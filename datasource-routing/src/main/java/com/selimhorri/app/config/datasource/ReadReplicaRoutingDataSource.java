@@ -0,0 +1,33 @@
+package com.selimhorri.app.config.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+	
+	public enum Route {
+		PRIMARY, REPLICA
+	}
+	
+	public ReadReplicaRoutingDataSource(final DataSource primaryDataSource, final DataSource replicaDataSource) {
+		this.setTargetDataSources(Map.<Object, Object>of(
+				Route.PRIMARY, primaryDataSource,
+				Route.REPLICA, replicaDataSource));
+		this.setDefaultTargetDataSource(primaryDataSource);
+		this.afterPropertiesSet();
+	}
+	
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return TransactionSynchronizationManager.isActualTransactionActive()
+				&& TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+	}
+	
+	
+	
+}
+
@@ -0,0 +1,77 @@
+package com.selimhorri.app.config.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DisplayName("Read Replica Routing DataSource Tests")
+class ReadReplicaRoutingDataSourceTest {
+
+    private static final String WHICH_DATABASE = "SELECT name FROM datasource_marker";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = markedDataSource("routing_primary");
+        DataSource replica = markedDataSource("routing_replica");
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("Should route read-only transactions to the replica")
+    void readOnlyTransaction_ShouldUseReplica() {
+        // When
+        String database = readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(WHICH_DATABASE, String.class));
+
+        // Then
+        assertEquals("routing_replica", database);
+    }
+
+    @Test
+    @DisplayName("Should route read-write transactions to the primary")
+    void readWriteTransaction_ShouldUsePrimary() {
+        // When
+        String database = readWriteTransaction.execute(status -> jdbcTemplate.queryForObject(WHICH_DATABASE, String.class));
+
+        // Then
+        assertEquals("routing_primary", database);
+    }
+
+    @Test
+    @DisplayName("Should route work outside any transaction to the primary")
+    void noTransaction_ShouldUsePrimary() {
+        // When
+        String database = jdbcTemplate.queryForObject(WHICH_DATABASE, String.class);
+
+        // Then
+        assertEquals("routing_primary", database);
+    }
+
+    private static DataSource markedDataSource(final String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS datasource_marker (name VARCHAR(64))");
+        jdbcTemplate.update("DELETE FROM datasource_marker");
+        jdbcTemplate.update("INSERT INTO datasource_marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+}
@@ -54,6 +54,10 @@ public final class Favourite extends AbstractMappedEntity implements Serializabl
 	@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT)
 	private LocalDateTime likeDate;
 	
+	// handed out by the sequencer once the row is committed, never written through the entity
+	@Column(name = "sequence_number", insertable = false, updatable = false)
+	private Long sequenceNumber;
+	
 }
 
 
@@ -1,6 +1,7 @@
 package com.selimhorri.app.dto;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 import javax.validation.constraints.NotNull;
@@ -44,6 +45,10 @@ public class FavouriteDto implements Serializable {
 	@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT)
 	private LocalDateTime likeDate;
 	
+	@JsonFormat(shape = Shape.STRING)
+	@JsonInclude(Include.NON_NULL)
+	private Instant createdAt;
+	
 	@JsonProperty("user")
 	@JsonInclude(Include.NON_NULL)
 	private UserDto userDto;
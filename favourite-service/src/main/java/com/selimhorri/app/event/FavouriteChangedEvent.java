@@ -0,0 +1,35 @@
+package com.selimhorri.app.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FavouriteChangedEvent {
+	
+	private final Integer userId;
+	private final Integer productId;
+	private final boolean deleted;
+	
+	public static FavouriteChangedEvent saved(final Integer userId, final Integer productId) {
+		return new FavouriteChangedEvent(userId, productId, false);
+	}
+	
+	public static FavouriteChangedEvent deleted(final Integer userId, final Integer productId) {
+		return new FavouriteChangedEvent(userId, productId, true);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,6 +1,7 @@
 package com.selimhorri.app.helper;
 
 import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
@@ -12,6 +13,7 @@ public interface FavouriteMappingHelper {
 				.userId(favourite.getUserId())
 				.productId(favourite.getProductId())
 				.likeDate(favourite.getLikeDate())
+				.createdAt(favourite.getCreatedAt())
 				.userDto(
 						UserDto.builder()
 							.userId(favourite.getUserId())
@@ -31,6 +33,14 @@ public interface FavouriteMappingHelper {
 				.build();
 	}
 	
+	public static FavouriteDto map(final FavouriteId favouriteId) {
+		return map(Favourite.builder()
+				.userId(favouriteId.getUserId())
+				.productId(favouriteId.getProductId())
+				.likeDate(favouriteId.getLikeDate())
+				.build());
+	}
+	
 	
 	
 }
@@ -0,0 +1,13 @@
+package com.selimhorri.app.repository;
+
+import java.util.Collection;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+
+public interface FavouriteBatchRepository {
+	
+	void batchInsert(final Collection<FavouriteId> favouriteIds);
+	void batchDelete(final Collection<FavouriteId> favouriteIds);
+	int sequencePending(final int limit);
+	
+}
@@ -0,0 +1,71 @@
+package com.selimhorri.app.repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class FavouriteBatchRepositoryImpl implements FavouriteBatchRepository {
+	
+	private static final String INSERT_SQL = "INSERT INTO favourites (user_id, product_id, like_date) VALUES (?, ?, ?)";
+	private static final String DELETE_SQL = "DELETE FROM favourites WHERE user_id = ? AND product_id = ? AND like_date = ?";
+	private static final String PENDING_SQL = "SELECT user_id, product_id, like_date FROM favourites WHERE sequence_number IS NULL "
+			+ "ORDER BY created_at, user_id, product_id, like_date LIMIT ? FOR UPDATE";
+	private static final String LAST_SEQUENCE_SQL = "SELECT MAX(sequence_number) FROM favourites";
+	private static final String SEQUENCE_SQL = "UPDATE favourites SET sequence_number = ? WHERE user_id = ? AND product_id = ? AND like_date = ?";
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	@Value("${app.favourite.write-behind.batch-size:500}")
+	private int batchSize;
+	
+	@Override
+	public void batchInsert(final Collection<FavouriteId> favouriteIds) {
+		this.batchUpdate(INSERT_SQL, favouriteIds);
+	}
+	
+	@Override
+	public void batchDelete(final Collection<FavouriteId> favouriteIds) {
+		this.batchUpdate(DELETE_SQL, favouriteIds);
+	}
+	
+	// numbers committed rows after the last one handed out; the rows stay locked until the caller commits,
+	// so sequencers of other instances queue behind this one instead of handing out the same numbers
+	@Override
+	public int sequencePending(final int limit) {
+		final var favouriteIds = this.jdbcTemplate.query(PENDING_SQL, (rs, rowNum) -> new FavouriteId(rs.getInt("user_id"),
+				rs.getInt("product_id"), rs.getTimestamp("like_date").toLocalDateTime()), limit);
+		if (favouriteIds.isEmpty())
+			return 0;
+		final long last = Objects.requireNonNullElse(this.jdbcTemplate.queryForObject(LAST_SEQUENCE_SQL, Long.class), 0L);
+		final var next = new AtomicLong(last);
+		this.jdbcTemplate.batchUpdate(SEQUENCE_SQL, favouriteIds, this.batchSize, (ps, favouriteId) -> {
+			ps.setLong(1, next.incrementAndGet());
+			ps.setInt(2, favouriteId.getUserId());
+			ps.setInt(3, favouriteId.getProductId());
+			ps.setTimestamp(4, Timestamp.valueOf(favouriteId.getLikeDate()));
+		});
+		return favouriteIds.size();
+	}
+	
+	private void batchUpdate(final String sql, final Collection<FavouriteId> favouriteIds) {
+		if (favouriteIds.isEmpty())
+			return;
+		this.jdbcTemplate.batchUpdate(sql, favouriteIds, this.batchSize, (ps, favouriteId) -> {
+			ps.setInt(1, favouriteId.getUserId());
+			ps.setInt(2, favouriteId.getProductId());
+			ps.setTimestamp(3, Timestamp.valueOf(favouriteId.getLikeDate()));
+		});
+	}
+	
+	
+	
+}
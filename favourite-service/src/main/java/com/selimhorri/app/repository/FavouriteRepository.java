@@ -1,11 +1,36 @@
 package com.selimhorri.app.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
 
-public interface FavouriteRepository extends JpaRepository<Favourite, FavouriteId> {
+public interface FavouriteRepository extends JpaRepository<Favourite, FavouriteId>, FavouriteBatchRepository {
+	
+	Page<Favourite> findAllByUserId(final Integer userId, final Pageable pageable);
+	
+	@Query("SELECT new com.selimhorri.app.domain.id.FavouriteId(f.userId, f.productId, f.likeDate) "
+			+ "FROM Favourite f WHERE f.userId = :userId")
+	List<FavouriteId> findIdsByUserId(@Param("userId") final Integer userId);
+	
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT new com.selimhorri.app.domain.id.FavouriteId(f.userId, f.productId, f.likeDate) FROM Favourite f")
+	Stream<FavouriteId> streamAllIds();
+	
+	@Query("SELECT f FROM Favourite f WHERE f.sequenceNumber > :after ORDER BY f.sequenceNumber ASC")
+	List<Favourite> findAllSequencedAfter(@Param("after") final Long after, final Pageable pageable);
 	
 	
 	
@@ -2,8 +2,11 @@ package com.selimhorri.app.resource;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Set;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.http.ResponseEntity;
@@ -14,12 +17,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.RecommendationDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.service.FavouriteIndexService;
+import com.selimhorri.app.service.FavouriteRecommendationService;
 import com.selimhorri.app.service.FavouriteService;
 
 import lombok.RequiredArgsConstructor;
@@ -32,6 +41,8 @@ import lombok.extern.slf4j.Slf4j;
 public class FavouriteResource {
 	
 	private final FavouriteService favouriteService;
+	private final FavouriteIndexService favouriteIndexService;
+	private final FavouriteRecommendationService favouriteRecommendationService;
 	
 	@GetMapping
 	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAll() {
@@ -50,6 +61,42 @@ public class FavouriteResource {
 						LocalDateTime.parse(likeDate, DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT)))));
 	}
 	
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<DtoPageResponse<FavouriteDto>> findAllByUserId(
+			@PathVariable("userId") final String userId,
+			@RequestParam(name = "page", defaultValue = "0") final int page,
+			@RequestParam(name = "size", defaultValue = "20") final int size) {
+		log.info("*** FavouriteDto Page, resource; fetch favourites by user id *");
+		return ResponseEntity.ok(this.favouriteService.findAllByUserId(Integer.parseInt(userId), page, size));
+	}
+	
+	@PostMapping("/user/{userId}/contains")
+	public ResponseEntity<Map<Integer, Boolean>> contains(
+			@PathVariable("userId") final String userId,
+			@RequestBody 
+			@NotEmpty(message = "Input must not be empty") 
+			@Valid final Set<Integer> productIds) {
+		log.info("*** Map, resource; check favourited products of user *");
+		return ResponseEntity.ok(this.favouriteIndexService.contains(Integer.parseInt(userId), productIds));
+	}
+	
+	@GetMapping("/recommendations/{productId}")
+	public ResponseEntity<DtoCollectionResponse<RecommendationDto>> findRecommendations(
+			@PathVariable("productId") final String productId,
+			@RequestParam(name = "limit", defaultValue = "10") final int limit) {
+		log.info("*** RecommendationDto List, resource; fetch products co-favourited with product *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteRecommendationService
+				.findRecommendations(Integer.parseInt(productId), limit)));
+	}
+	
+	@GetMapping("/feed")
+	public ResponseEntity<DtoFeedResponse<FavouriteDto>> findAllSequencedAfter(
+			@RequestParam(name = "after", defaultValue = "0") final Long after,
+			@RequestParam(name = "limit", defaultValue = "500") final int limit) {
+		log.info("*** FavouriteDto Feed, resource; fetch favourites sequenced after cursor *");
+		return ResponseEntity.ok(this.favouriteService.findAllSequencedAfter(after, limit));
+	}
+	
 	@GetMapping("/find")
 	public ResponseEntity<FavouriteDto> findById(
 			@RequestBody 
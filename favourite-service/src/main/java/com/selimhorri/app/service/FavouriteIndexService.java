@@ -0,0 +1,11 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface FavouriteIndexService {
+	
+	Map<Integer, Boolean> contains(final Integer userId, final Collection<Integer> productIds);
+	void evict(final Integer userId);
+	
+}
@@ -0,0 +1,13 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.RecommendationDto;
+
+public interface FavouriteRecommendationService {
+	
+	List<RecommendationDto> findRecommendations(final Integer productId, final int limit);
+	void rebuild();
+	void refresh();
+	
+}
@@ -4,11 +4,15 @@ import java.util.List;
 
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
 
 public interface FavouriteService {
 	
 	List<FavouriteDto> findAll();
 	FavouriteDto findById(final FavouriteId favouriteId);
+	DtoPageResponse<FavouriteDto> findAllByUserId(final Integer userId, final int page, final int size);
+	DtoFeedResponse<FavouriteDto> findAllSequencedAfter(final Long after, final int limit);
 	FavouriteDto save(final FavouriteDto favouriteDto);
 	FavouriteDto update(final FavouriteDto favouriteDto);
 	void deleteById(final FavouriteId favouriteId);
@@ -0,0 +1,17 @@
+package com.selimhorri.app.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+
+public interface FavouriteWriteBehindService {
+	
+	boolean isEnabled();
+	void enqueueSave(final FavouriteId favouriteId);
+	void enqueueDelete(final FavouriteId favouriteId);
+	Optional<Boolean> findPending(final FavouriteId favouriteId);
+	Map<FavouriteId, Boolean> findPendingByUserId(final Integer userId);
+	void flush();
+	
+}
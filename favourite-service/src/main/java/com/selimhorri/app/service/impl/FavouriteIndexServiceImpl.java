@@ -0,0 +1,126 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.selimhorri.app.event.FavouriteChangedEvent;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteIndexService;
+import com.selimhorri.app.service.FavouriteWriteBehindService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FavouriteIndexServiceImpl implements FavouriteIndexService {
+	
+	private static final int GENERATION_STRIPES = 64;
+	
+	private final FavouriteRepository favouriteRepository;
+	private final FavouriteWriteBehindService favouriteWriteBehindService;
+	// access ordered, so the users not asked about for longest leave first once the index is full
+	private final Map<Integer, BitSet> productsByUser = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Integer, BitSet> eldest) {
+			return this.size() > FavouriteIndexServiceImpl.this.maxUsers;
+		}
+		
+	});
+	// bumped on every change, a load that overlapped one of its stripe is served but not kept
+	private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+	
+	@Value("${app.favourite.index.max-users:10000}")
+	private int maxUsers;
+	
+	@Override
+	public Map<Integer, Boolean> contains(final Integer userId, final Collection<Integer> productIds) {
+		log.info("*** Map, service; check favourited products of user *");
+		final var products = Optional.ofNullable(this.productsByUser.get(userId))
+				.orElseGet(() -> this.loadAndCache(userId));
+		final Map<Integer, Boolean> contains = new LinkedHashMap<>();
+		productIds.forEach(productId -> contains.put(productId, productId != null && productId >= 0 && products.get(productId)));
+		return contains;
+	}
+	
+	@Override
+	public void evict(final Integer userId) {
+		this.generations.incrementAndGet(stripe(userId));
+		this.productsByUser.remove(userId);
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFavouriteChanged(final FavouriteChangedEvent event) {
+		if (event.isDeleted()) {
+			// another like_date of the same product may still exist, so reload lazily
+			this.evict(event.getUserId());
+			return;
+		}
+		this.generations.incrementAndGet(stripe(event.getUserId()));
+		this.productsByUser.computeIfPresent(event.getUserId(), (userId, products) -> {
+			if (products.get(event.getProductId()))
+				return products;
+			final var updated = (BitSet) products.clone();
+			updated.set(event.getProductId());
+			return updated;
+		});
+	}
+	
+	// the queries run outside the map lock, concurrent misses of one user may both load
+	private BitSet loadAndCache(final Integer userId) {
+		final int stripe = stripe(userId);
+		final long generation = this.generations.get(stripe);
+		final var products = this.load(userId);
+		synchronized (this.productsByUser) {
+			if (this.generations.get(stripe) == generation)
+				this.productsByUser.putIfAbsent(userId, products);
+		}
+		return products;
+	}
+	
+	// pending writes are read first, a flush committing in between is then already in the table
+	private BitSet load(final Integer userId) {
+		final var pending = this.favouriteWriteBehindService.findPendingByUserId(userId);
+		final var favouriteIds = new HashSet<>(this.favouriteRepository.findIdsByUserId(userId));
+		pending.forEach((favouriteId, liked) -> {
+			if (liked)
+				favouriteIds.add(favouriteId);
+			else
+				favouriteIds.remove(favouriteId);
+		});
+		final var products = new BitSet();
+		favouriteIds.forEach(favouriteId -> products.set(favouriteId.getProductId()));
+		return products;
+	}
+	
+	private static int stripe(final Integer userId) {
+		return Math.floorMod(userId.hashCode(), GENERATION_STRIPES);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,240 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.RecommendationDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.event.FavouriteChangedEvent;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteRecommendationService;
+import com.selimhorri.app.service.FavouriteWriteBehindService;
+import com.selimhorri.app.util.IntIntHashMap;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FavouriteRecommendationServiceImpl implements FavouriteRecommendationService {
+	
+	private static final int[] NO_PRODUCTS = {};
+	private static final ParameterizedTypeReference<DtoCollectionResponse<ProductDto>> PRODUCT_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>() {};
+	
+	private final FavouriteRepository favouriteRepository;
+	private final FavouriteWriteBehindService favouriteWriteBehindService;
+	private final RestTemplate restTemplate;
+	
+	private final Map<Integer, int[]> productsByUser = new HashMap<>();
+	private final Map<Integer, IntIntHashMap> cooccurrences = new HashMap<>();
+	private final Set<Integer> dirtyProducts = new HashSet<>();
+	private final Map<Integer, Neighbours> neighbours = new ConcurrentHashMap<>();
+	
+	@Value("${app.favourite.recommendation.max-neighbours:50}")
+	private int maxNeighbours;
+	
+	@Value("${app.favourite.recommendation.row-capacity:200}")
+	private int rowCapacity;
+	
+	@Override
+	public List<RecommendationDto> findRecommendations(final Integer productId, final int limit) {
+		log.info("*** RecommendationDto List, service; fetch products co-favourited with product *");
+		final var row = this.neighbours.get(productId);
+		if (row == null)
+			return List.of();
+		final var recommendations = IntStream.range(0, Math.min(Math.max(limit, 1), row.productIds.length))
+				.mapToObj(i -> RecommendationDto.builder()
+						.productId(row.productIds[i])
+						.cooccurrences(row.counts[i])
+						.build())
+				.collect(Collectors.toUnmodifiableList());
+		final Map<Integer, ProductDto> products = this.restTemplate.exchange(AppConstant.DiscoveredDomainsApi
+					.PRODUCT_SERVICE_API_URL + "?ids=" + recommendations.stream()
+							.map(r -> String.valueOf(r.getProductId()))
+							.collect(Collectors.joining(",")), HttpMethod.GET, null, PRODUCT_COLLECTION_TYPE)
+				.getBody()
+				.getCollection()
+				.stream()
+					.collect(Collectors.toMap(ProductDto::getProductId, Function.identity()));
+		recommendations.forEach(r -> r.setProductDto(products.get(r.getProductId())));
+		return recommendations;
+	}
+	
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public synchronized void rebuild() {
+		log.info("*** Void, service; rebuild favourite co-occurrence model *");
+		this.favouriteWriteBehindService.flush();
+		this.productsByUser.clear();
+		this.cooccurrences.clear();
+		this.neighbours.clear();
+		try (final var favouriteIds = this.favouriteRepository.streamAllIds()) {
+			favouriteIds.forEach(favouriteId -> this.link(favouriteId.getUserId(), favouriteId.getProductId()));
+		}
+		this.refresh();
+	}
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.favourite.recommendation.refresh-interval-ms:1000}")
+	public synchronized void refresh() {
+		this.dirtyProducts.forEach(productId -> {
+			final var row = this.cooccurrences.get(productId);
+			if (row == null)
+				this.neighbours.remove(productId);
+			else
+				this.neighbours.put(productId, this.topNeighbours(row));
+		});
+		this.dirtyProducts.clear();
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFavouriteChanged(final FavouriteChangedEvent event) {
+		if (!event.isDeleted())
+			this.link(event.getUserId(), event.getProductId());
+		else if (!this.isStillFavourited(event.getUserId(), event.getProductId()))
+			this.unlink(event.getUserId(), event.getProductId());
+	}
+	
+	synchronized void link(final int userId, final int productId) {
+		final var products = this.productsByUser.getOrDefault(userId, NO_PRODUCTS);
+		final int index = Arrays.binarySearch(products, productId);
+		if (index >= 0)
+			return;
+		for (final int other : products) {
+			this.increment(productId, other);
+			this.increment(other, productId);
+		}
+		final int insertAt = -index - 1;
+		final int[] updated = new int[products.length + 1];
+		System.arraycopy(products, 0, updated, 0, insertAt);
+		updated[insertAt] = productId;
+		System.arraycopy(products, insertAt, updated, insertAt + 1, products.length - insertAt);
+		this.productsByUser.put(userId, updated);
+	}
+	
+	synchronized void unlink(final int userId, final int productId) {
+		final var products = this.productsByUser.getOrDefault(userId, NO_PRODUCTS);
+		final int index = Arrays.binarySearch(products, productId);
+		if (index < 0)
+			return;
+		final int[] updated = new int[products.length - 1];
+		System.arraycopy(products, 0, updated, 0, index);
+		System.arraycopy(products, index + 1, updated, index, updated.length - index);
+		for (final int other : updated) {
+			this.decrement(productId, other);
+			this.decrement(other, productId);
+		}
+		if (updated.length == 0)
+			this.productsByUser.remove(userId);
+		else
+			this.productsByUser.put(userId, updated);
+	}
+	
+	private void increment(final int productId, final int neighbourId) {
+		final var row = this.cooccurrences.computeIfAbsent(productId, id -> new IntIntHashMap());
+		if (row.addTo(neighbourId, 1) == 1 && row.size() > 2 * this.rowCapacity) {
+			// keep only the strongest neighbours so a long tail of one-off pairs cannot grow the row without bound
+			final long[] ranked = rank(row);
+			for (int i = 0; i < ranked.length - this.rowCapacity; i++)
+				row.remove((int) ranked[i]);
+		}
+		this.dirtyProducts.add(productId);
+	}
+	
+	private void decrement(final int productId, final int neighbourId) {
+		final var row = this.cooccurrences.get(productId);
+		if (row == null || row.get(neighbourId) == 0)
+			return;
+		row.addTo(neighbourId, -1);
+		if (row.isEmpty())
+			this.cooccurrences.remove(productId);
+		this.dirtyProducts.add(productId);
+	}
+	
+	private Neighbours topNeighbours(final IntIntHashMap row) {
+		final long[] ranked = rank(row);
+		final int size = Math.min(ranked.length, this.maxNeighbours);
+		final int[] productIds = new int[size];
+		final int[] counts = new int[size];
+		for (int i = 0; i < size; i++) {
+			productIds[i] = (int) ranked[ranked.length - 1 - i];
+			counts[i] = (int) (ranked[ranked.length - 1 - i] >>> 32);
+		}
+		return new Neighbours(productIds, counts);
+	}
+	
+	// packs (count, neighbour id) into longs sorted weakest first
+	private static long[] rank(final IntIntHashMap row) {
+		final long[] ranked = new long[row.size()];
+		final int[] next = {0};
+		row.forEach((neighbourId, count) -> ranked[next[0]++] = (long) count << 32 | (neighbourId & 0xFFFFFFFFL));
+		Arrays.sort(ranked);
+		return ranked;
+	}
+	
+	private boolean isStillFavourited(final Integer userId, final Integer productId) {
+		final var pending = this.favouriteWriteBehindService.findPendingByUserId(userId);
+		final var favouriteIds = this.favouriteRepository.findIdsByUserId(userId)
+				.stream()
+					.filter(favouriteId -> favouriteId.getProductId().equals(productId))
+					.collect(Collectors.toCollection(HashSet::new));
+		pending.forEach((favouriteId, liked) -> {
+			if (!favouriteId.getProductId().equals(productId))
+				return;
+			if (liked)
+				favouriteIds.add(favouriteId);
+			else
+				favouriteIds.remove(favouriteId);
+		});
+		return !favouriteIds.isEmpty();
+	}
+	
+	private static final class Neighbours {
+		
+		private final int[] productIds;
+		private final int[] counts;
+		
+		private Neighbours(final int[] productIds, final int[] counts) {
+			this.productIds = productIds;
+			this.counts = counts;
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,11 +1,20 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
@@ -13,10 +22,15 @@ import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.event.FavouriteChangedEvent;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.helper.FavouriteMappingHelper;
 import com.selimhorri.app.repository.FavouriteRepository;
 import com.selimhorri.app.service.FavouriteService;
+import com.selimhorri.app.service.FavouriteWriteBehindService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,33 +41,51 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class FavouriteServiceImpl implements FavouriteService {
 	
+	private static final int MAX_PAGE_SIZE = 100;
+	private static final int MAX_FEED_SIZE = 1000;
+	private static final ParameterizedTypeReference<DtoCollectionResponse<UserDto>> USER_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<UserDto>>() {};
+	private static final ParameterizedTypeReference<DtoCollectionResponse<ProductDto>> PRODUCT_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>() {};
+	
 	private final FavouriteRepository favouriteRepository;
 	private final RestTemplate restTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final FavouriteWriteBehindService favouriteWriteBehindService;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<FavouriteDto> findAll() {
 		log.info("*** FavouriteDto List, service; fetch all favourites *");
-		return this.favouriteRepository.findAll()
+		this.favouriteWriteBehindService.flush();
+		final var favouriteDtos = this.favouriteRepository.findAll()
 				.stream()
 					.map(FavouriteMappingHelper::map)
-					.map(f -> {
-						f.setUserDto(this.restTemplate
-								.getForObject(AppConstant.DiscoveredDomainsApi
-										.USER_SERVICE_API_URL + "/" + f.getUserId(), UserDto.class));
-						f.setProductDto(this.restTemplate
-								.getForObject(AppConstant.DiscoveredDomainsApi
-										.PRODUCT_SERVICE_API_URL + "/" + f.getProductId(), ProductDto.class));
-						return f;
-					})
 					.distinct()
 					.collect(Collectors.toUnmodifiableList());
+		if (!favouriteDtos.isEmpty()) {
+			final var users = this.findAllUsersById(favouriteDtos.stream()
+					.map(FavouriteDto::getUserId)
+					.collect(Collectors.toUnmodifiableSet()));
+			final var products = this.findAllProductsById(favouriteDtos.stream()
+					.map(FavouriteDto::getProductId)
+					.collect(Collectors.toUnmodifiableSet()));
+			favouriteDtos.forEach(f -> {
+				f.setUserDto(users.get(f.getUserId()));
+				f.setProductDto(products.get(f.getProductId()));
+			});
+		}
+		return favouriteDtos;
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public FavouriteDto findById(final FavouriteId favouriteId) {
 		log.info("*** FavouriteDto, service; fetch favourite by id *");
-		return this.favouriteRepository.findById(favouriteId)
-				.map(FavouriteMappingHelper::map)
+		return this.favouriteWriteBehindService.findPending(favouriteId)
+				.map(liked -> liked ? Optional.of(FavouriteMappingHelper.map(favouriteId)) : Optional.<FavouriteDto>empty())
+				.orElseGet(() -> this.favouriteRepository.findById(favouriteId)
+						.map(FavouriteMappingHelper::map))
 				.map(f -> {
 					f.setUserDto(this.restTemplate
 							.getForObject(AppConstant.DiscoveredDomainsApi
@@ -67,21 +99,110 @@ public class FavouriteServiceImpl implements FavouriteService {
 						String.format("Favourite with id: [%s] not found!", favouriteId)));
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public DtoPageResponse<FavouriteDto> findAllByUserId(final Integer userId, final int page, final int size) {
+		log.info("*** FavouriteDto Page, service; fetch favourites by user id *");
+		this.favouriteWriteBehindService.flush();
+		final var favourites = this.favouriteRepository.findAllByUserId(userId, PageRequest.of(Math.max(page, 0),
+				Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by(Sort.Direction.DESC, "likeDate")));
+		final var favouriteDtos = favourites.getContent()
+				.stream()
+					.map(FavouriteMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList());
+		if (!favouriteDtos.isEmpty()) {
+			final var userDto = this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
+					.USER_SERVICE_API_URL + "/" + userId, UserDto.class);
+			final var products = this.findAllProductsById(favouriteDtos.stream()
+					.map(FavouriteDto::getProductId)
+					.collect(Collectors.toUnmodifiableSet()));
+			favouriteDtos.forEach(f -> {
+				f.setUserDto(userDto);
+				f.setProductDto(products.get(f.getProductId()));
+			});
+		}
+		return DtoPageResponse.<FavouriteDto>builder()
+				.collection(favouriteDtos)
+				.page(favourites.getNumber())
+				.size(favourites.getSize())
+				.totalElements(favourites.getTotalElements())
+				.totalPages(favourites.getTotalPages())
+				.build();
+	}
+	
+	// numbered in commit order, so a consumer resuming after its last number never skips a late commit
+	@Override
+	@Transactional(readOnly = true)
+	public DtoFeedResponse<FavouriteDto> findAllSequencedAfter(final Long after, final int limit) {
+		log.info("*** FavouriteDto Feed, service; fetch favourites sequenced after cursor *");
+		final var favourites = this.favouriteRepository.findAllSequencedAfter(after,
+				PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_FEED_SIZE)));
+		return DtoFeedResponse.<FavouriteDto>builder()
+				.collection(favourites.stream()
+						.map(FavouriteMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.cursor(favourites.isEmpty() ? after : favourites.get(favourites.size() - 1).getSequenceNumber())
+				.build();
+	}
+	
 	@Override
 	public FavouriteDto save(final FavouriteDto favouriteDto) {
-		return FavouriteMappingHelper.map(this.favouriteRepository
+		if (this.favouriteWriteBehindService.isEnabled())
+			return this.enqueueSave(favouriteDto);
+		final var saved = FavouriteMappingHelper.map(this.favouriteRepository
 				.save(FavouriteMappingHelper.map(favouriteDto)));
+		this.eventPublisher.publishEvent(FavouriteChangedEvent.saved(saved.getUserId(), saved.getProductId()));
+		return saved;
 	}
 	
 	@Override
 	public FavouriteDto update(final FavouriteDto favouriteDto) {
-		return FavouriteMappingHelper.map(this.favouriteRepository
+		final var saved = FavouriteMappingHelper.map(this.favouriteRepository
 				.save(FavouriteMappingHelper.map(favouriteDto)));
+		this.eventPublisher.publishEvent(FavouriteChangedEvent.saved(saved.getUserId(), saved.getProductId()));
+		return saved;
 	}
 	
 	@Override
 	public void deleteById(final FavouriteId favouriteId) {
-		this.favouriteRepository.deleteById(favouriteId);
+		if (this.favouriteWriteBehindService.isEnabled())
+			this.favouriteWriteBehindService.enqueueDelete(favouriteId);
+		else
+			this.favouriteRepository.deleteById(favouriteId);
+		this.eventPublisher.publishEvent(FavouriteChangedEvent.deleted(favouriteId.getUserId(), favouriteId.getProductId()));
+	}
+	
+	// one batched lookup per service instead of one call per favourite
+	private Map<Integer, UserDto> findAllUsersById(final Set<Integer> userIds) {
+		return this.restTemplate.exchange(AppConstant.DiscoveredDomainsApi
+					.USER_SERVICE_API_URL + "?ids=" + join(userIds), HttpMethod.GET, null, USER_COLLECTION_TYPE)
+				.getBody()
+				.getCollection()
+				.stream()
+					.collect(Collectors.toMap(UserDto::getUserId, Function.identity(), (left, right) -> left));
+	}
+	
+	private Map<Integer, ProductDto> findAllProductsById(final Set<Integer> productIds) {
+		return this.restTemplate.exchange(AppConstant.DiscoveredDomainsApi
+					.PRODUCT_SERVICE_API_URL + "?ids=" + join(productIds), HttpMethod.GET, null, PRODUCT_COLLECTION_TYPE)
+				.getBody()
+				.getCollection()
+				.stream()
+					.collect(Collectors.toMap(ProductDto::getProductId, Function.identity(), (left, right) -> left));
+	}
+	
+	private static String join(final Set<Integer> ids) {
+		return ids.stream()
+				.map(String::valueOf)
+				.collect(Collectors.joining(","));
+	}
+	
+	private FavouriteDto enqueueSave(final FavouriteDto favouriteDto) {
+		final var favouriteId = new FavouriteId(favouriteDto.getUserId(), favouriteDto.getProductId(),
+				favouriteDto.getLikeDate() == null ? LocalDateTime.now().withNano(0) : favouriteDto.getLikeDate());
+		this.favouriteWriteBehindService.enqueueSave(favouriteId);
+		this.eventPublisher.publishEvent(FavouriteChangedEvent.saved(favouriteId.getUserId(), favouriteId.getProductId()));
+		return FavouriteMappingHelper.map(favouriteId);
 	}
 	
 	
@@ -0,0 +1,233 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteWriteBehindService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FavouriteWriteBehindServiceImpl implements FavouriteWriteBehindService, MeterBinder {
+	
+	private final FavouriteRepository favouriteRepository;
+	private final PlatformTransactionManager transactionManager;
+	private final Object lock = new Object();
+	private Map<FavouriteId, Mutation> pending = new LinkedHashMap<>();
+	private volatile Map<FavouriteId, Mutation> inFlight = Map.of();
+	private long pendingSinceMillis;
+	private volatile long inFlightSinceMillis;
+	
+	@Value("${app.favourite.write-behind.enabled:false}")
+	private boolean enabled;
+	
+	@Value("${app.favourite.write-behind.batch-size:500}")
+	private int batchSize;
+	
+	@Value("${app.favourite.write-behind.max-pending:10000}")
+	private int maxPending;
+	
+	@Override
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+	
+	@Override
+	public void enqueueSave(final FavouriteId favouriteId) {
+		this.enqueue(favouriteId, true);
+	}
+	
+	@Override
+	public void enqueueDelete(final FavouriteId favouriteId) {
+		this.enqueue(favouriteId, false);
+	}
+	
+	@Override
+	public Optional<Boolean> findPending(final FavouriteId favouriteId) {
+		synchronized (this.lock) {
+			final Mutation mutation = this.pending.get(favouriteId);
+			if (mutation != null)
+				return Optional.of(mutation.isLiked());
+		}
+		return Optional.ofNullable(this.inFlight.get(favouriteId))
+				.map(Mutation::isLiked);
+	}
+	
+	@Override
+	public Map<FavouriteId, Boolean> findPendingByUserId(final Integer userId) {
+		final Map<FavouriteId, Boolean> userPending = new LinkedHashMap<>();
+		this.inFlight.forEach((favouriteId, mutation) -> {
+			if (favouriteId.getUserId().equals(userId))
+				userPending.put(favouriteId, mutation.isLiked());
+		});
+		synchronized (this.lock) {
+			this.pending.forEach((favouriteId, mutation) -> {
+				if (favouriteId.getUserId().equals(userId))
+					userPending.put(favouriteId, mutation.isLiked());
+			});
+		}
+		return Collections.unmodifiableMap(userPending);
+	}
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.favourite.write-behind.flush-interval-ms:1000}")
+	public synchronized void flush() {
+		final Map<FavouriteId, Mutation> drained;
+		synchronized (this.lock) {
+			if (this.pending.isEmpty())
+				return;
+			drained = this.pending;
+			this.inFlightSinceMillis = this.pendingSinceMillis;
+			this.inFlight = drained;
+			this.pending = new LinkedHashMap<>();
+		}
+		try {
+			this.write(drained);
+		}
+		catch (DataIntegrityViolationException e) {
+			log.warn("*** Void, service; favourite batch of {} rejected, writing one by one *", drained.size(), e);
+			final Map<FavouriteId, Mutation> failed = new LinkedHashMap<>();
+			drained.forEach((favouriteId, mutation) -> {
+				try {
+					this.write(Map.of(favouriteId, mutation));
+				}
+				catch (DataIntegrityViolationException ex) {
+					log.error("*** Void, service; dropping favourite mutation {} {} *", favouriteId, mutation, ex);
+				}
+				catch (RuntimeException ex) {
+					failed.put(favouriteId, mutation);
+				}
+			});
+			if (!failed.isEmpty()) {
+				log.error("*** Void, service; {} favourite mutations failed, retrying later *", failed.size());
+				this.restore(failed);
+			}
+		}
+		catch (RuntimeException e) {
+			log.error("*** Void, service; flush {} favourite mutations failed, retrying later *", drained.size(), e);
+			this.restore(drained);
+		}
+		finally {
+			this.inFlight = Map.of();
+		}
+	}
+	
+	@PreDestroy
+	public void flushOnShutdown() {
+		log.info("*** Void, service; flush favourite write-behind queue before shutdown *");
+		this.flush();
+	}
+	
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		Gauge.builder("favourite.write.behind.queue.depth", this, FavouriteWriteBehindServiceImpl::depth)
+				.description("Favourite mutations waiting to be written")
+				.register(registry);
+		Gauge.builder("favourite.write.behind.flush.lag", this, FavouriteWriteBehindServiceImpl::lagSeconds)
+				.description("Age of the oldest favourite mutation not yet written")
+				.baseUnit("seconds")
+				.register(registry);
+	}
+	
+	private void enqueue(final FavouriteId favouriteId, final boolean liked) {
+		if (this.depth() >= this.maxPending) {
+			this.flush();
+			if (this.depth() >= this.maxPending)
+				throw new IllegalStateException("Favourite write-behind queue is full");
+		}
+		final int depth;
+		synchronized (this.lock) {
+			if (this.pending.isEmpty())
+				this.pendingSinceMillis = System.currentTimeMillis();
+			this.pending.merge(favouriteId, Mutation.of(liked), Mutation::then);
+			depth = this.pending.size();
+		}
+		if (depth >= this.batchSize)
+			this.flush();
+	}
+	
+	// deletes go first, so a favourite unliked and liked again within one batch is written back
+	private void write(final Map<FavouriteId, Mutation> mutations) {
+		final var deletes = mutations.entrySet().stream()
+				.filter(e -> e.getValue() != Mutation.LIKE)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+		final var inserts = mutations.entrySet().stream()
+				.filter(e -> e.getValue().isLiked())
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+		new TransactionTemplate(this.transactionManager,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+				.executeWithoutResult(status -> {
+					this.favouriteRepository.batchDelete(deletes);
+					this.favouriteRepository.batchInsert(inserts);
+				});
+	}
+	
+	private void restore(final Map<FavouriteId, Mutation> drained) {
+		synchronized (this.lock) {
+			final Map<FavouriteId, Mutation> merged = new LinkedHashMap<>(drained);
+			this.pending.forEach((favouriteId, mutation) -> merged.merge(favouriteId, mutation, Mutation::then));
+			this.pending = merged;
+			this.pendingSinceMillis = this.inFlightSinceMillis;
+		}
+	}
+	
+	private int depth() {
+		synchronized (this.lock) {
+			return this.pending.size() + this.inFlight.size();
+		}
+	}
+	
+	private double lagSeconds() {
+		synchronized (this.lock) {
+			final long since = !this.inFlight.isEmpty() ? this.inFlightSinceMillis
+					: this.pending.isEmpty() ? 0 : this.pendingSinceMillis;
+			return since == 0 ? 0 : (System.currentTimeMillis() - since) / 1000.0;
+		}
+	}
+	
+	// the table may or may not hold the row already, so the last mutation wins and nothing cancels out
+	private enum Mutation {
+		
+		LIKE, UNLIKE, RELIKE;
+		
+		static Mutation of(final boolean liked) {
+			return liked ? LIKE : UNLIKE;
+		}
+		
+		boolean isLiked() {
+			return this != UNLIKE;
+		}
+		
+		Mutation then(final Mutation next) {
+			return next == UNLIKE ? UNLIKE : this == LIKE ? LIKE : RELIKE;
+		}
+		
+	}
+	
+	
+	
+}
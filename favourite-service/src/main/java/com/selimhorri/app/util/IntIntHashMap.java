@@ -0,0 +1,145 @@
+package com.selimhorri.app.util;
+
+public final class IntIntHashMap {
+	
+	private static final int MIN_CAPACITY = 8;
+	
+	// a zero value marks an empty slot, so zero counts are never stored
+	private int[] keys;
+	private int[] values;
+	private int size;
+	
+	public IntIntHashMap() {
+		this(MIN_CAPACITY);
+	}
+	
+	public IntIntHashMap(final int expectedSize) {
+		final int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, MIN_CAPACITY - 1)) << 1;
+		this.keys = new int[capacity];
+		this.values = new int[capacity];
+	}
+	
+	public int get(final int key) {
+		final int mask = this.keys.length - 1;
+		for (int slot = mix(key) & mask; this.values[slot] != 0; slot = (slot + 1) & mask)
+			if (this.keys[slot] == key)
+				return this.values[slot];
+		return 0;
+	}
+	
+	public int put(final int key, final int value) {
+		final int previous = this.remove(key);
+		if (value != 0)
+			this.insert(key, value);
+		return previous;
+	}
+	
+	public int addTo(final int key, final int delta) {
+		final int mask = this.keys.length - 1;
+		int slot = mix(key) & mask;
+		for (; this.values[slot] != 0; slot = (slot + 1) & mask) {
+			if (this.keys[slot] == key) {
+				final int value = this.values[slot] + delta;
+				if (value == 0)
+					this.removeSlot(slot);
+				else
+					this.values[slot] = value;
+				return value;
+			}
+		}
+		if (delta != 0)
+			this.insert(key, delta);
+		return delta;
+	}
+	
+	public int remove(final int key) {
+		final int mask = this.keys.length - 1;
+		for (int slot = mix(key) & mask; this.values[slot] != 0; slot = (slot + 1) & mask) {
+			if (this.keys[slot] == key) {
+				final int value = this.values[slot];
+				this.removeSlot(slot);
+				return value;
+			}
+		}
+		return 0;
+	}
+	
+	public int size() {
+		return this.size;
+	}
+	
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+	
+	public void forEach(final IntIntConsumer action) {
+		for (int slot = 0; slot < this.keys.length; slot++)
+			if (this.values[slot] != 0)
+				action.accept(this.keys[slot], this.values[slot]);
+	}
+	
+	private void insert(final int key, final int value) {
+		if ((this.size + 1) * 2 > this.keys.length)
+			this.resize(this.keys.length * 2);
+		final int mask = this.keys.length - 1;
+		int slot = mix(key) & mask;
+		while (this.values[slot] != 0)
+			slot = (slot + 1) & mask;
+		this.keys[slot] = key;
+		this.values[slot] = value;
+		this.size++;
+	}
+	
+	// backward-shift deletion keeps probe chains intact without tombstones
+	private void removeSlot(int slot) {
+		final int mask = this.keys.length - 1;
+		int next = (slot + 1) & mask;
+		while (this.values[next] != 0) {
+			final int home = mix(this.keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				this.keys[slot] = this.keys[next];
+				this.values[slot] = this.values[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		this.values[slot] = 0;
+		this.size--;
+	}
+	
+	private void resize(final int capacity) {
+		final int[] oldKeys = this.keys;
+		final int[] oldValues = this.values;
+		this.keys = new int[capacity];
+		this.values = new int[capacity];
+		this.size = 0;
+		for (int slot = 0; slot < oldKeys.length; slot++)
+			if (oldValues[slot] != 0)
+				this.insert(oldKeys[slot], oldValues[slot]);
+	}
+	
+	private static int mix(final int key) {
+		final int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	@FunctionalInterface
+	public interface IntIntConsumer {
+		
+		void accept(final int key, final int value);
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
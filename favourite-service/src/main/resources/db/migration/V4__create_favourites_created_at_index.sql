@@ -0,0 +1,3 @@
+
+CREATE INDEX idx_favourites_created_at ON favourites (created_at);
+
@@ -0,0 +1,5 @@
+
+ALTER TABLE favourites ADD COLUMN sequence_number BIGINT;
+
+CREATE UNIQUE INDEX uk_favourites_sequence_number ON favourites (sequence_number);
+
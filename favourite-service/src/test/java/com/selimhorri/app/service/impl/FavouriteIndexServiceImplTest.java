@@ -0,0 +1,183 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.event.FavouriteChangedEvent;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteWriteBehindService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Favourite Index Service Implementation Tests")
+class FavouriteIndexServiceImplTest {
+
+    private static final LocalDateTime LIKE_DATE = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    @Mock
+    private FavouriteWriteBehindService favouriteWriteBehindService;
+
+    @InjectMocks
+    private FavouriteIndexServiceImpl favouriteIndexService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(favouriteIndexService, "maxUsers", 2);
+    }
+
+    @Test
+    @DisplayName("Should answer membership for many products from one load per user")
+    void contains_ShouldLoadUserOnce() {
+        // Given
+        when(favouriteRepository.findIdsByUserId(1)).thenReturn(ids(2, 40, 1000));
+
+        // When
+        Map<Integer, Boolean> first = favouriteIndexService.contains(1, List.of(1, 2, 40));
+        Map<Integer, Boolean> second = favouriteIndexService.contains(1, List.of(1000, 1001));
+
+        // Then
+        assertEquals(Map.of(1, false, 2, true, 40, true), first);
+        assertEquals(Map.of(1000, true, 1001, false), second);
+        verify(favouriteRepository, times(1)).findIdsByUserId(1);
+    }
+
+    @Test
+    @DisplayName("Should add saved favourites to a loaded user without reloading")
+    void onFavouriteChanged_ShouldSetProduct_WhenSaved() {
+        // Given
+        when(favouriteRepository.findIdsByUserId(1)).thenReturn(ids(2));
+        favouriteIndexService.contains(1, List.of(2));
+
+        // When
+        favouriteIndexService.onFavouriteChanged(FavouriteChangedEvent.saved(1, 7));
+
+        // Then
+        assertTrue(favouriteIndexService.contains(1, List.of(7)).get(7));
+        verify(favouriteRepository, times(1)).findIdsByUserId(1);
+    }
+
+    @Test
+    @DisplayName("Should reload a user after one of their favourites is deleted")
+    void onFavouriteChanged_ShouldReload_WhenDeleted() {
+        // Given
+        when(favouriteRepository.findIdsByUserId(1)).thenReturn(ids(2, 3), ids(3));
+        favouriteIndexService.contains(1, List.of(2));
+
+        // When
+        favouriteIndexService.onFavouriteChanged(FavouriteChangedEvent.deleted(1, 2));
+
+        // Then
+        assertEquals(Map.of(2, false, 3, true), favouriteIndexService.contains(1, List.of(2, 3)));
+        verify(favouriteRepository, times(2)).findIdsByUserId(1);
+    }
+
+    @Test
+    @DisplayName("Should ignore saved favourites of users that were never loaded")
+    void onFavouriteChanged_ShouldNotLoad_WhenUserNotIndexed() {
+        // When
+        favouriteIndexService.onFavouriteChanged(FavouriteChangedEvent.saved(5, 7));
+
+        // Then
+        verifyNoInteractions(favouriteRepository);
+    }
+
+    @Test
+    @DisplayName("Should overlay buffered likes and unlikes when loading a user")
+    void contains_ShouldOverlayPendingWrites() {
+        // Given
+        when(favouriteRepository.findIdsByUserId(1)).thenReturn(ids(2, 3));
+        when(favouriteWriteBehindService.findPendingByUserId(1)).thenReturn(Map.of(
+                new FavouriteId(1, 3, LIKE_DATE), false,
+                new FavouriteId(1, 8, LIKE_DATE), true));
+
+        // When
+        Map<Integer, Boolean> result = favouriteIndexService.contains(1, List.of(2, 3, 8));
+
+        // Then
+        assertEquals(Map.of(2, true, 3, false, 8, true), result);
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently asked user once the index is full")
+    void contains_ShouldEvictLeastRecentlyUsedUser() {
+        // Given
+        when(favouriteRepository.findIdsByUserId(anyInt())).thenReturn(ids(2));
+        favouriteIndexService.contains(1, List.of(2));
+        favouriteIndexService.contains(2, List.of(2));
+        favouriteIndexService.contains(1, List.of(2));
+
+        // When
+        favouriteIndexService.contains(3, List.of(2));
+        favouriteIndexService.contains(1, List.of(2));
+        favouriteIndexService.contains(2, List.of(2));
+
+        // Then
+        verify(favouriteRepository, times(1)).findIdsByUserId(1);
+        verify(favouriteRepository, times(2)).findIdsByUserId(2);
+    }
+
+    @Test
+    @DisplayName("Should not keep a load that overlapped a change of the same user")
+    void contains_ShouldNotCacheLoad_WhenChangedWhileLoading() {
+        // Given
+        when(favouriteRepository.findIdsByUserId(1))
+                .thenAnswer(invocation -> {
+                    favouriteIndexService.onFavouriteChanged(FavouriteChangedEvent.deleted(1, 2));
+                    return ids(2, 3);
+                })
+                .thenReturn(ids(3));
+
+        // When
+        Map<Integer, Boolean> during = favouriteIndexService.contains(1, List.of(2));
+        Map<Integer, Boolean> after = favouriteIndexService.contains(1, List.of(2, 3));
+
+        // Then
+        assertEquals(Map.of(2, true), during);
+        assertEquals(Map.of(2, false, 3, true), after);
+        verify(favouriteRepository, times(2)).findIdsByUserId(1);
+    }
+
+    @Test
+    @DisplayName("Should read buffered writes before the table so a flush in between is not missed")
+    void contains_ShouldReadPendingBeforeTable() {
+        // Given
+        when(favouriteWriteBehindService.findPendingByUserId(1)).thenReturn(Map.of(new FavouriteId(1, 8, LIKE_DATE), true));
+        when(favouriteRepository.findIdsByUserId(1)).thenReturn(ids(8));
+
+        // When
+        Map<Integer, Boolean> result = favouriteIndexService.contains(1, List.of(8));
+
+        // Then
+        assertEquals(Map.of(8, true), result);
+        InOrder inOrder = inOrder(favouriteWriteBehindService, favouriteRepository);
+        inOrder.verify(favouriteWriteBehindService).findPendingByUserId(1);
+        inOrder.verify(favouriteRepository).findIdsByUserId(1);
+    }
+
+    private static List<FavouriteId> ids(final Integer... productIds) {
+        return Stream.of(productIds)
+                .map(productId -> new FavouriteId(1, productId, LIKE_DATE))
+                .collect(Collectors.toList());
+    }
+
+}
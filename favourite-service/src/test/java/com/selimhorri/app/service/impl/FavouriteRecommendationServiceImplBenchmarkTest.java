@@ -0,0 +1,119 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.dto.RecommendationDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.event.FavouriteChangedEvent;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteWriteBehindService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("benchmark")
+@Slf4j
+@DisplayName("Favourite Recommendation Service Benchmark")
+class FavouriteRecommendationServiceImplBenchmarkTest {
+
+    private static final int USERS = 100_000;
+    private static final int FAVOURITES_PER_USER = 10;
+    private static final int PRODUCTS = 20_000;
+    private static final int QUERIES = 100_000;
+    private static final int DELETES = 10_000;
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    @Mock
+    private FavouriteWriteBehindService favouriteWriteBehindService;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private FavouriteRecommendationServiceImpl favouriteRecommendationService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(favouriteRecommendationService, "maxNeighbours", 50);
+        ReflectionTestUtils.setField(favouriteRecommendationService, "rowCapacity", 200);
+        lenient().when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of())));
+    }
+
+    @Test
+    @DisplayName("Should absorb a million favourites incrementally and answer from the snapshot")
+    void onFavouriteChanged_ShouldScaleToAMillionFavourites() {
+        // Given
+        Random random = new Random(42);
+        int[][] favourites = new int[USERS][FAVOURITES_PER_USER];
+        for (int userId = 0; userId < USERS; userId++) {
+            for (int i = 0; i < FAVOURITES_PER_USER; i++)
+                favourites[userId][i] = skewedProduct(random);
+            // every tenth user likes the planted pair so it must surface as the top neighbour
+            if (userId % 10 == 0) {
+                favourites[userId][0] = PRODUCTS + 1;
+                favourites[userId][1] = PRODUCTS + 2;
+            }
+        }
+
+        // When
+        long updateStart = System.nanoTime();
+        for (int userId = 0; userId < USERS; userId++)
+            for (int productId : favourites[userId])
+                favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(userId, productId));
+        long updateNanos = System.nanoTime() - updateStart;
+
+        long refreshStart = System.nanoTime();
+        favouriteRecommendationService.refresh();
+        long refreshNanos = System.nanoTime() - refreshStart;
+
+        long queryStart = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++)
+            favouriteRecommendationService.findRecommendations(skewedProduct(random), 10);
+        long queryNanos = System.nanoTime() - queryStart;
+
+        long deleteStart = System.nanoTime();
+        for (int userId = 1; userId <= DELETES; userId++)
+            favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.deleted(userId, favourites[userId][2]));
+        long deleteNanos = System.nanoTime() - deleteStart;
+
+        // Then
+        List<RecommendationDto> recommendations = favouriteRecommendationService.findRecommendations(PRODUCTS + 1, 50);
+        assertEquals(PRODUCTS + 2, recommendations.get(0).getProductId());
+        assertTrue(recommendations.size() <= 50);
+        log.info("Co-occurrence model over {} favourites: {} updates/s, refresh {} ms, {} deletes/s, {} us per query",
+                USERS * FAVOURITES_PER_USER,
+                (long) USERS * FAVOURITES_PER_USER * 1_000_000_000L / updateNanos,
+                refreshNanos / 1_000_000,
+                DELETES * 1_000_000_000L / deleteNanos,
+                queryNanos / QUERIES / 1_000);
+    }
+
+    private static int skewedProduct(final Random random) {
+        final double uniform = random.nextDouble();
+        return (int) (uniform * uniform * PRODUCTS) + 1;
+    }
+
+}
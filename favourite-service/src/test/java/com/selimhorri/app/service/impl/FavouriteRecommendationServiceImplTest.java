@@ -0,0 +1,170 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.RecommendationDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.event.FavouriteChangedEvent;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteWriteBehindService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Favourite Recommendation Service Implementation Tests")
+class FavouriteRecommendationServiceImplTest {
+
+    private static final LocalDateTime LIKE_DATE = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    @Mock
+    private FavouriteWriteBehindService favouriteWriteBehindService;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private FavouriteRecommendationServiceImpl favouriteRecommendationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(favouriteRecommendationService, "maxNeighbours", 2);
+        ReflectionTestUtils.setField(favouriteRecommendationService, "rowCapacity", 3);
+    }
+
+    @Test
+    @DisplayName("Should rank products liked by the same users, strongest first")
+    void findRecommendations_ShouldRankByCooccurrence() {
+        // Given
+        stubProducts();
+        when(favouriteRepository.streamAllIds()).thenReturn(Stream.of(
+                id(1, 10), id(1, 20), id(1, 30),
+                id(2, 10), id(2, 20),
+                id(3, 10), id(3, 40)));
+        favouriteRecommendationService.rebuild();
+
+        // When
+        List<RecommendationDto> recommendations = favouriteRecommendationService.findRecommendations(10, 5);
+
+        // Then
+        assertEquals(List.of(20, 40), recommendations.stream()
+                .map(RecommendationDto::getProductId)
+                .collect(Collectors.toList()));
+        assertEquals(2, recommendations.get(0).getCooccurrences());
+        assertEquals(20, recommendations.get(0).getProductDto().getProductId());
+    }
+
+    @Test
+    @DisplayName("Should apply saves incrementally and publish them on refresh")
+    void onFavouriteChanged_ShouldLinkProducts_WhenSaved() {
+        // Given
+        stubProducts();
+        favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(1, 10));
+        favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(1, 20));
+        favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(1, 20));
+        assertTrue(favouriteRecommendationService.findRecommendations(10, 5).isEmpty());
+
+        // When
+        favouriteRecommendationService.refresh();
+
+        // Then
+        List<RecommendationDto> recommendations = favouriteRecommendationService.findRecommendations(10, 5);
+        assertEquals(1, recommendations.size());
+        assertEquals(20, recommendations.get(0).getProductId());
+        assertEquals(1, recommendations.get(0).getCooccurrences());
+        verifyNoInteractions(favouriteRepository);
+    }
+
+    @Test
+    @DisplayName("Should unlink a product only once the user has no favourite of it left")
+    void onFavouriteChanged_ShouldUnlink_WhenLastFavouriteDeleted() {
+        // Given
+        stubProducts();
+        favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(1, 10));
+        favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(1, 20));
+        favouriteRecommendationService.refresh();
+        when(favouriteRepository.findIdsByUserId(1)).thenReturn(
+                List.of(id(1, 10), id(1, 20), new FavouriteId(1, 20, LIKE_DATE.plusDays(1))),
+                List.of(id(1, 10), id(1, 20)));
+        when(favouriteWriteBehindService.findPendingByUserId(1)).thenReturn(
+                Map.of(), Map.of(id(1, 20), false));
+
+        // When
+        favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.deleted(1, 20));
+        favouriteRecommendationService.refresh();
+        boolean linkedAfterFirstDelete = favouriteRecommendationService.findRecommendations(10, 5).size() == 1;
+        favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.deleted(1, 20));
+        favouriteRecommendationService.refresh();
+
+        // Then
+        assertTrue(linkedAfterFirstDelete);
+        assertTrue(favouriteRecommendationService.findRecommendations(10, 5).isEmpty());
+        assertTrue(favouriteRecommendationService.findRecommendations(20, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should prune a product row back to its strongest neighbours once it outgrows its capacity")
+    void link_ShouldBoundNeighboursPerProduct() {
+        // Given
+        stubProducts();
+        ReflectionTestUtils.setField(favouriteRecommendationService, "maxNeighbours", 10);
+        ReflectionTestUtils.setField(favouriteRecommendationService, "rowCapacity", 2);
+        for (int userId = 1; userId <= 5; userId++) {
+            favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(userId, 10));
+            favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(userId, 20));
+        }
+        for (int productId = 30; productId <= 33; productId++)
+            favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(6, productId));
+
+        // When
+        favouriteRecommendationService.onFavouriteChanged(FavouriteChangedEvent.saved(6, 10));
+        favouriteRecommendationService.refresh();
+
+        // Then
+        List<RecommendationDto> recommendations = favouriteRecommendationService.findRecommendations(10, 10);
+        assertEquals(List.of(20, 33), recommendations.stream()
+                .map(RecommendationDto::getProductId)
+                .collect(Collectors.toList()));
+        assertEquals(5, recommendations.get(0).getCooccurrences());
+        assertEquals(1, recommendations.get(1).getCooccurrences());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubProducts() {
+        lenient().when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> {
+                    String url = invocation.getArgument(0);
+                    return ResponseEntity.ok(new DtoCollectionResponse<>(Stream.of(url.substring(url.indexOf("?ids=") + 5).split(","))
+                            .map(productId -> ProductDto.builder().productId(Integer.parseInt(productId)).build())
+                            .collect(Collectors.toList())));
+                });
+    }
+
+    private static FavouriteId id(final int userId, final int productId) {
+        return new FavouriteId(userId, productId, LIKE_DATE);
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.selimhorri.app.service.impl;
+
+import static com.selimhorri.app.support.ExecutionBudget.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.repository.FavouriteRepository;
+
+@DataJpaTest
+@Import({FavouriteServiceImpl.class, FavouriteWriteBehindServiceImpl.class})
+@ActiveProfiles("test")
+@DisplayName("Favourite Service Query Budget Tests")
+class FavouriteServiceImplQueryBudgetTest {
+
+    private static final int FAVOURITES = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FavouriteServiceImpl favouriteService;
+
+    @Autowired
+    private FavouriteRepository favouriteRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime likeDate = LocalDateTime.now().withNano(0);
+        for (int productId = 1; productId <= FAVOURITES; productId++)
+            entityManager.persist(Favourite.builder()
+                    .userId(1)
+                    .productId(productId)
+                    .likeDate(likeDate)
+                    .build());
+        entityManager.flush();
+        entityManager.clear();
+        when(restTemplate.getForObject(anyString(), eq(UserDto.class))).thenReturn(UserDto.builder().userId(1).build());
+        when(restTemplate.getForObject(anyString(), eq(ProductDto.class))).thenReturn(ProductDto.builder().build());
+        resetCounters(restTemplate);
+    }
+
+    @Test
+    @DisplayName("Should list favourites with one SELECT, one batched user lookup and one batched product lookup")
+    @SuppressWarnings("unchecked")
+    void findAll_ShouldStayWithinBudget() {
+        // Given
+        when(restTemplate.exchange(contains("/api/users"), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(UserDto.builder().userId(1).build()))));
+        when(restTemplate.exchange(contains("/api/products"), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(IntStream.rangeClosed(1, FAVOURITES)
+                        .mapToObj(productId -> ProductDto.builder().productId(productId).build())
+                        .collect(Collectors.toList()))));
+
+        // When
+        List<FavouriteDto> favourites = favouriteService.findAll();
+
+        // Then
+        assertEquals(FAVOURITES, favourites.size());
+        assertTrue(favourites.stream().allMatch(f -> f.getUserDto() != null
+                && f.getProductId().equals(f.getProductDto().getProductId())));
+        assertSelects(1);
+        assertRestCalls(restTemplate, 2);
+    }
+
+    @Test
+    @DisplayName("Should page a user's favourites with one SELECT, one user lookup and one batched product lookup")
+    @SuppressWarnings("unchecked")
+    void findAllByUserId_ShouldStayWithinBudget() {
+        // Given
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        ProductDto.builder().productId(1).build(),
+                        ProductDto.builder().productId(2).build()))));
+
+        // When
+        DtoPageResponse<FavouriteDto> favourites = favouriteService.findAllByUserId(1, 0, 2);
+
+        // Then
+        assertEquals(FAVOURITES, favourites.getTotalElements());
+        assertEquals(2, favourites.getCollection().size());
+        assertSelects(2);
+        assertRestCalls(restTemplate, 2);
+    }
+
+    @Test
+    @DisplayName("Should page the feed by sequence number with one SELECT per page and no remote calls")
+    void findAllSequencedAfter_ShouldResumeAfterCursor() {
+        // Given
+        assertEquals(FAVOURITES, favouriteRepository.sequencePending(FAVOURITES));
+        resetCounters(restTemplate);
+
+        // When
+        DtoFeedResponse<FavouriteDto> first = favouriteService.findAllSequencedAfter(0L, FAVOURITES - 1);
+        DtoFeedResponse<FavouriteDto> second = favouriteService.findAllSequencedAfter(first.getCursor(), FAVOURITES - 1);
+        DtoFeedResponse<FavouriteDto> empty = favouriteService.findAllSequencedAfter(second.getCursor(), FAVOURITES - 1);
+
+        // Then
+        assertEquals(FAVOURITES - 1, first.getCollection().size());
+        assertEquals(FAVOURITES - 1, first.getCursor());
+        assertEquals(1, second.getCollection().size());
+        assertEquals(FAVOURITES, second.getCursor());
+        assertTrue(empty.getCollection().isEmpty());
+        assertEquals(FAVOURITES, empty.getCursor());
+        assertSelects(3);
+        assertRestCalls(restTemplate, 0);
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.repository.FavouriteRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Favourite Write-Behind Service Implementation Tests")
+class FavouriteWriteBehindServiceImplTest {
+
+    private static final LocalDateTime LIKE_DATE = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private FavouriteWriteBehindServiceImpl favouriteWriteBehindService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(favouriteWriteBehindService, "enabled", true);
+        ReflectionTestUtils.setField(favouriteWriteBehindService, "batchSize", 10);
+        ReflectionTestUtils.setField(favouriteWriteBehindService, "maxPending", 100);
+    }
+
+    @Test
+    @DisplayName("Should only delete a like followed by an unlike of the same favourite")
+    void flush_ShouldDelete_WhenLikeThenUnlike() {
+        // Given
+        FavouriteId favouriteId = new FavouriteId(1, 2, LIKE_DATE);
+        favouriteWriteBehindService.enqueueSave(favouriteId);
+        favouriteWriteBehindService.enqueueDelete(favouriteId);
+
+        // When
+        favouriteWriteBehindService.flush();
+
+        // Then
+        assertEquals(Optional.empty(), favouriteWriteBehindService.findPending(favouriteId));
+        verify(favouriteRepository).batchDelete(List.of(favouriteId));
+        verify(favouriteRepository).batchInsert(List.of());
+    }
+
+    @Test
+    @DisplayName("Should keep a like following an unlike of the same favourite")
+    void flush_ShouldDeleteThenInsert_WhenUnlikeThenLike() {
+        // Given
+        FavouriteId favouriteId = new FavouriteId(1, 2, LIKE_DATE);
+        favouriteWriteBehindService.enqueueDelete(favouriteId);
+        favouriteWriteBehindService.enqueueSave(favouriteId);
+
+        // When
+        Optional<Boolean> buffered = favouriteWriteBehindService.findPending(favouriteId);
+        favouriteWriteBehindService.flush();
+
+        // Then
+        assertEquals(Optional.of(true), buffered);
+        InOrder inOrder = inOrder(favouriteRepository);
+        inOrder.verify(favouriteRepository).batchDelete(List.of(favouriteId));
+        inOrder.verify(favouriteRepository).batchInsert(List.of(favouriteId));
+    }
+
+    @Test
+    @DisplayName("Should write buffered likes and unlikes in one batch each")
+    void flush_ShouldBatchMutations() {
+        // Given
+        FavouriteId liked = new FavouriteId(1, 2, LIKE_DATE);
+        FavouriteId unliked = new FavouriteId(1, 3, LIKE_DATE);
+        favouriteWriteBehindService.enqueueSave(liked);
+        favouriteWriteBehindService.enqueueSave(liked);
+        favouriteWriteBehindService.enqueueDelete(unliked);
+
+        // When
+        favouriteWriteBehindService.flush();
+
+        // Then
+        verify(favouriteRepository).batchInsert(List.of(liked));
+        verify(favouriteRepository).batchDelete(List.of(unliked));
+        assertTrue(favouriteWriteBehindService.findPendingByUserId(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should flush on the caller thread once the batch size is reached")
+    void enqueue_ShouldFlush_WhenBatchSizeReached() {
+        // Given
+        ReflectionTestUtils.setField(favouriteWriteBehindService, "batchSize", 2);
+
+        // When
+        favouriteWriteBehindService.enqueueSave(new FavouriteId(1, 2, LIKE_DATE));
+        favouriteWriteBehindService.enqueueSave(new FavouriteId(1, 3, LIKE_DATE));
+
+        // Then
+        verify(favouriteRepository).batchInsert(anyList());
+    }
+
+    @Test
+    @DisplayName("Should keep mutations visible and retry them when a flush fails")
+    void flush_ShouldRestoreMutations_WhenWriteFails() {
+        // Given
+        FavouriteId favouriteId = new FavouriteId(1, 2, LIKE_DATE);
+        favouriteWriteBehindService.enqueueSave(favouriteId);
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .doNothing()
+                .when(favouriteRepository).batchInsert(anyList());
+
+        // When
+        favouriteWriteBehindService.flush();
+
+        // Then
+        assertEquals(Map.of(favouriteId, true), favouriteWriteBehindService.findPendingByUserId(1));
+        favouriteWriteBehindService.flush();
+        verify(favouriteRepository, times(2)).batchInsert(List.of(favouriteId));
+        assertEquals(Optional.empty(), favouriteWriteBehindService.findPending(favouriteId));
+    }
+
+    @Test
+    @DisplayName("Should retry mutations that failed for other reasons than integrity when writing one by one")
+    void flush_ShouldRestoreMutations_WhenSingleWriteFails() {
+        // Given
+        FavouriteId duplicate = new FavouriteId(1, 2, LIKE_DATE);
+        FavouriteId unlucky = new FavouriteId(1, 3, LIKE_DATE);
+        favouriteWriteBehindService.enqueueSave(duplicate);
+        favouriteWriteBehindService.enqueueSave(unlucky);
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(favouriteRepository).batchInsert(List.of(duplicate, unlucky));
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(favouriteRepository).batchInsert(List.of(duplicate));
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .when(favouriteRepository).batchInsert(List.of(unlucky));
+
+        // When
+        favouriteWriteBehindService.flush();
+
+        // Then
+        assertEquals(Map.of(unlucky, true), favouriteWriteBehindService.findPendingByUserId(1));
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.selimhorri.app.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Int Int Hash Map Tests")
+class IntIntHashMapTest {
+
+    @Test
+    @DisplayName("Should add, read and drop entries that reach zero")
+    void addTo_ShouldRemoveEntry_WhenCountReachesZero() {
+        // Given
+        IntIntHashMap map = new IntIntHashMap();
+
+        // When
+        map.addTo(7, 2);
+        map.addTo(7, 1);
+        map.addTo(-3, 1);
+        map.addTo(-3, -1);
+
+        // Then
+        assertEquals(3, map.get(7));
+        assertEquals(0, map.get(-3));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    @DisplayName("Should match a boxed map under random updates and removals")
+    void operations_ShouldMatchHashMap_WhenRandomised() {
+        // Given
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.getOrDefault(key, 0), map.remove(key));
+                expected.remove(key);
+            }
+            else {
+                int delta = random.nextInt(5) - 2;
+                int value = expected.getOrDefault(key, 0) + delta;
+                assertEquals(value, map.addTo(key, delta));
+                if (value == 0)
+                    expected.remove(key);
+                else
+                    expected.put(key, value);
+            }
+        }
+
+        // Then
+        Map<Integer, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    @DisplayName("Should replace values and return the previous one")
+    void put_ShouldReturnPreviousValue() {
+        // Given
+        IntIntHashMap map = new IntIntHashMap(2);
+        map.put(1, 5);
+
+        // When / Then
+        assertEquals(5, map.put(1, 9));
+        assertEquals(9, map.get(1));
+        assertEquals(9, map.put(1, 0));
+        assertTrue(map.isEmpty());
+    }
+
+}
@@ -0,0 +1,114 @@
+from locust import HttpUser, task, between, events
+import os
+import random
+import time
+
+# Every simulated user holds one status stream open, so the user count is the number
+# of concurrent subscribers. Ramp up until connections start failing (the instance
+# answers 400 once app.notification.max-subscribers is reached) and compare with the
+# proxy.notification.subscribers gauge on /app/actuator/prometheus.
+
+USERNAME = os.getenv("LOCUST_USERNAME", "selimhorri")
+PASSWORD = os.getenv("LOCUST_PASSWORD", "0000")
+HOLD_SECONDS = int(os.getenv("LOCUST_HOLD_SECONDS", "300"))
+
+
+def authenticate(client):
+    response = client.post(
+        "/app/api/authenticate",
+        json={"username": USERNAME, "password": PASSWORD},
+        name="/app/api/authenticate"
+    )
+    if response.status_code != 200:
+        return None
+    return {"Authorization": f"Bearer {response.json().get('jwtToken')}"}
+
+
+class StatusStreamSubscriber(HttpUser):
+    weight = 50
+    wait_time = between(1, 3)
+
+    def on_start(self):
+        """Called when a user starts"""
+        self.headers = authenticate(self.client)
+
+    @task
+    def hold_status_stream(self):
+        """Open the stream, report time to the first event, then hold it and count pushes"""
+        if self.headers is None:
+            self.headers = authenticate(self.client)
+            return
+        started = time.time()
+        subscribed = False
+        received = 0
+        with self.client.get(
+            "/app/api/notifications/stream",
+            headers={**self.headers, "Accept": "text/event-stream"},
+            name="/app/api/notifications/stream",
+            stream=True,
+            catch_response=True
+        ) as response:
+            if response.status_code != 200:
+                response.failure(f"stream refused with {response.status_code}")
+                return
+            response.success()
+            try:
+                for line in response.iter_lines(decode_unicode=True):
+                    if line and line.startswith("event:"):
+                        name = line[len("event:"):].strip()
+                        if name == "subscribed" and not subscribed:
+                            subscribed = True
+                            self.report("subscribed", started)
+                        elif name in ("order", "payment", "order-deleted"):
+                            received += 1
+                    if time.time() - started > HOLD_SECONDS:
+                        break
+            except Exception as e:
+                self.report("dropped", started, e)
+        if not subscribed:
+            self.report("subscribed", started, Exception("stream closed before the subscribed event"))
+
+    def report(self, name, started, exception=None):
+        events.request.fire(
+            request_type="SSE",
+            name=name,
+            response_time=(time.time() - started) * 1000,
+            response_length=0,
+            exception=exception,
+            context={}
+        )
+
+
+class PaymentStatusChanger(HttpUser):
+    """Generates the status changes pushed to the subscribers"""
+    weight = 1
+    wait_time = between(1, 2)
+
+    def on_start(self):
+        """Called when a user starts"""
+        self.headers = authenticate(self.client)
+
+    @task
+    def advance_payment(self):
+        """Move a payment through its statuses"""
+        if self.headers is None:
+            self.headers = authenticate(self.client)
+            return
+        payment_id = random.randint(1, 20)
+        response = self.client.get(
+            f"/app/api/payments/{payment_id}",
+            headers=self.headers,
+            name="/app/api/payments/[paymentId]"
+        )
+        if response.status_code != 200:
+            return
+        payment = response.json()
+        if payment.get("paymentStatus") == "COMPLETED":
+            return
+        payment["paymentStatus"] = "IN_PROGRESS" if payment.get("paymentStatus") == "NOT_STARTED" else "NOT_STARTED"
+        self.client.put(
+            "/app/api/payments",
+            json=payment,
+            headers=self.headers,
+            name="/app/api/payments"
+        )
@@ -0,0 +1,34 @@
+package com.selimhorri.app.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Getter
+public enum OrderFeeGranularity {
+	
+	HOUR(ChronoUnit.HOURS, true),
+	DAY(ChronoUnit.DAYS, true),
+	WEEK(ChronoUnit.WEEKS, false);
+	
+	private final ChronoUnit unit;
+	
+	// weeks are folded from the daily rollup at query time rather than stored
+	private final boolean stored;
+	
+	public LocalDateTime bucketOf(final LocalDateTime time) {
+		return this == WEEK
+				? time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+				: time.truncatedTo(this.unit);
+	}
+	
+	public LocalDateTime nextBucket(final LocalDateTime bucketStart) {
+		return bucketStart.plus(1, this.unit);
+	}
+	
+}
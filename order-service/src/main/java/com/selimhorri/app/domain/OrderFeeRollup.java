@@ -0,0 +1,65 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import com.selimhorri.app.domain.id.OrderFeeRollupId;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "order_fee_rollups")
+@IdClass(OrderFeeRollupId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class OrderFeeRollup extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(name = "granularity", nullable = false, updatable = false)
+	private OrderFeeGranularity granularity;
+	
+	@Id
+	@Column(name = "bucket_start", nullable = false, updatable = false)
+	private LocalDateTime bucketStart;
+	
+	@Column(name = "order_count", nullable = false)
+	private Long orderCount;
+	
+	@Column(name = "fee_sum", columnDefinition = "decimal", nullable = false)
+	private Double feeSum;
+	
+	@Column(name = "fee_min", columnDefinition = "decimal")
+	private Double feeMin;
+	
+	@Column(name = "fee_max", columnDefinition = "decimal")
+	private Double feeMax;
+	
+}
+
+
+
+
+
+
+
+
+
+
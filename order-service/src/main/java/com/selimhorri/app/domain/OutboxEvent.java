@@ -0,0 +1,68 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@DynamicUpdate
+@Table(name = "outbox_events")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class OutboxEvent extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(generator = "outbox_events_id_generator")
+	@GenericGenerator(name = "outbox_events_id_generator", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+		@Parameter(name = "table_name", value = "id_generators"),
+		@Parameter(name = "segment_value", value = "outbox_events"),
+		@Parameter(name = "increment_size", value = "50"),
+		@Parameter(name = "optimizer", value = "pooled-lo")
+	})
+	@Column(name = "event_id", unique = true, nullable = false, updatable = false)
+	private Long eventId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "aggregate_type", nullable = false, updatable = false)
+	private OutboxAggregateType aggregateType;
+	
+	@Column(name = "aggregate_id", nullable = false, updatable = false)
+	private Integer aggregateId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "event_type", nullable = false, updatable = false)
+	private OutboxEventType eventType;
+	
+	@Column(name = "payload", length = 4000, updatable = false)
+	private String payload;
+	
+	// assigned by the relay in commit order, unlike event ids which are handed out before their transaction commits
+	@Column(name = "sequence_number", unique = true)
+	private Long sequenceNumber;
+	
+	@Column(name = "published_at")
+	private Instant publishedAt;
+	
+}
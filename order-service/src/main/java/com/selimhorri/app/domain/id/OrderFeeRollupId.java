@@ -0,0 +1,31 @@
+package com.selimhorri.app.domain.id;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import com.selimhorri.app.domain.OrderFeeGranularity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class OrderFeeRollupId implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	private OrderFeeGranularity granularity;
+	private LocalDateTime bucketStart;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -43,6 +43,12 @@ public class OrderDto implements Serializable {
 	@JsonInclude(Include.NON_NULL)
 	private CartDto cartDto;
 	
+	public OrderDto(final Integer orderId, final LocalDateTime orderDate, final String orderDesc,
+			final Double orderFee, final Integer cartId) {
+		this(orderId, orderDate, orderDesc, orderFee,
+				cartId == null ? null : CartDto.builder().cartId(cartId).build());
+	}
+	
 }
 
 
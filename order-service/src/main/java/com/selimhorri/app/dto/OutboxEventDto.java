@@ -0,0 +1,40 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.selimhorri.app.domain.OutboxAggregateType;
+import com.selimhorri.app.domain.OutboxEventType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OutboxEventDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Long sequenceNumber;
+	private OutboxAggregateType aggregateType;
+	private Integer aggregateId;
+	private OutboxEventType eventType;
+	
+	@JsonFormat(shape = Shape.STRING)
+	private Instant occurredAt;
+	
+	// the saved order or cart as JSON, absent for deletions
+	@JsonRawValue
+	@JsonInclude(Include.NON_NULL)
+	private String payload;
+	
+}
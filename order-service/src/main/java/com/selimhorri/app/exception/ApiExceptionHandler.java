@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidRangeException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -44,6 +45,7 @@ public class ApiExceptionHandler {
 	@ExceptionHandler(value = {
 		CartNotFoundException.class,
 		OrderNotFoundException.class,
+		InvalidRangeException.class,
 		IllegalStateException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
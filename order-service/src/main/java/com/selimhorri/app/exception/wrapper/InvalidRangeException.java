@@ -0,0 +1,36 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class InvalidRangeException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidRangeException() {
+		super();
+	}
+	
+	public InvalidRangeException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public InvalidRangeException(String message) {
+		super(message);
+	}
+	
+	public InvalidRangeException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
+
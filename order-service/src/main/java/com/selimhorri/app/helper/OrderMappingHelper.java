@@ -1,5 +1,7 @@
 package com.selimhorri.app.helper;
 
+import java.util.Optional;
+
 import com.selimhorri.app.domain.Cart;
 import com.selimhorri.app.domain.Order;
 import com.selimhorri.app.dto.CartDto;
@@ -16,6 +18,7 @@ public interface OrderMappingHelper {
 				.cartDto(
 						CartDto.builder()
 							.cartId(order.getCart().getCartId())
+							.userId(order.getCart().getUserId())
 							.build())
 				.build();
 	}
@@ -33,6 +36,13 @@ public interface OrderMappingHelper {
 				.build();
 	}
 	
+	public static Order patch(final Order order, final OrderDto orderDto) {
+		Optional.ofNullable(orderDto.getOrderDate()).ifPresent(order::setOrderDate);
+		Optional.ofNullable(orderDto.getOrderDesc()).ifPresent(order::setOrderDesc);
+		Optional.ofNullable(orderDto.getOrderFee()).ifPresent(order::setOrderFee);
+		return order;
+	}
+	
 	
 	
 }
@@ -0,0 +1,21 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.dto.OutboxEventDto;
+
+public interface OutboxEventMappingHelper {
+	
+	public static OutboxEventDto map(final OutboxEvent outboxEvent) {
+		return OutboxEventDto.builder()
+				.sequenceNumber(outboxEvent.getSequenceNumber())
+				.aggregateType(outboxEvent.getAggregateType())
+				.aggregateId(outboxEvent.getAggregateId())
+				.eventType(outboxEvent.getEventType())
+				.occurredAt(outboxEvent.getCreatedAt())
+				.payload(outboxEvent.getPayload())
+				.build();
+	}
+	
+	
+	
+}
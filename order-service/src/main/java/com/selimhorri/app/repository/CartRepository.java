@@ -1,11 +1,23 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Cart;
 
 public interface CartRepository extends JpaRepository<Cart, Integer> {
 	
+	List<Cart> findAllByUserId(final Integer userId);
+	
+	@Modifying
+	@Query("DELETE FROM Cart c WHERE c.cartId IN :cartIds")
+	int deleteAllCartsByIdIn(@Param("cartIds") final Collection<Integer> cartIds);
+	
 	
 	
 }
@@ -0,0 +1,11 @@
+package com.selimhorri.app.repository;
+
+import java.util.Collection;
+
+import com.selimhorri.app.domain.id.OrderFeeRollupId;
+
+public interface OrderFeeRollupBatchRepository {
+	
+	void insertMissingBuckets(final Collection<OrderFeeRollupId> bucketIds);
+	
+}
@@ -0,0 +1,50 @@
+package com.selimhorri.app.repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.id.OrderFeeRollupId;
+
+public class OrderFeeRollupBatchRepositoryImpl implements OrderFeeRollupBatchRepository {
+	
+	private static final String MYSQL_INSERT_MISSING_SQL = "INSERT INTO order_fee_rollups (granularity, bucket_start, order_count, fee_sum) "
+			+ "VALUES (?, ?, 0, 0) ON DUPLICATE KEY UPDATE order_count = order_count";
+	private static final String INSERT_MISSING_SQL = "MERGE INTO order_fee_rollups r "
+			+ "USING (SELECT CAST(? AS VARCHAR(8)) granularity, CAST(? AS TIMESTAMP) bucket_start) s "
+			+ "ON (r.granularity = s.granularity AND r.bucket_start = s.bucket_start) "
+			+ "WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, order_count, fee_sum) VALUES (s.granularity, s.bucket_start, 0, 0)";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	// an existing bucket is left as it is, so concurrent first orders of a bucket meet on one row
+	// inside the caller's transaction instead of failing on the primary key
+	@Override
+	@Transactional
+	public void insertMissingBuckets(final Collection<OrderFeeRollupId> bucketIds) {
+		if (bucketIds.isEmpty())
+			return;
+		this.entityManager.unwrap(Session.class).doWork(connection -> {
+			final var sql = "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())
+					? MYSQL_INSERT_MISSING_SQL
+					: INSERT_MISSING_SQL;
+			try (final var insert = connection.prepareStatement(sql)) {
+				for (final var bucketId : bucketIds) {
+					insert.setString(1, bucketId.getGranularity().name());
+					insert.setTimestamp(2, Timestamp.valueOf(bucketId.getBucketStart()));
+					insert.addBatch();
+				}
+				insert.executeBatch();
+			}
+		});
+	}
+	
+	
+	
+}
@@ -0,0 +1,61 @@
+package com.selimhorri.app.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OrderFeeGranularity;
+import com.selimhorri.app.domain.OrderFeeRollup;
+import com.selimhorri.app.domain.id.OrderFeeRollupId;
+import com.selimhorri.app.dto.OrderFeeRollupDto;
+
+public interface OrderFeeRollupRepository extends JpaRepository<OrderFeeRollup, OrderFeeRollupId>, OrderFeeRollupBatchRepository {
+	
+	@Query("SELECT new com.selimhorri.app.dto.OrderFeeRollupDto(r.granularity, r.bucketStart, r.orderCount, r.feeSum, r.feeMin, r.feeMax) "
+			+ "FROM OrderFeeRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to "
+			+ "ORDER BY r.bucketStart ASC")
+	List<OrderFeeRollupDto> findAllDtosInRange(@Param("granularity") final OrderFeeGranularity granularity, 
+			@Param("from") final LocalDateTime from, @Param("to") final LocalDateTime to);
+	
+	@Modifying
+	@Query("UPDATE OrderFeeRollup r SET r.orderCount = r.orderCount + :orderCount, r.feeSum = r.feeSum + :feeSum, "
+			+ "r.feeMin = CASE WHEN r.feeMin IS NULL OR r.feeMin > :feeMin THEN :feeMin ELSE r.feeMin END, "
+			+ "r.feeMax = CASE WHEN r.feeMax IS NULL OR r.feeMax < :feeMax THEN :feeMax ELSE r.feeMax END "
+			+ "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart")
+	int addToBucket(@Param("granularity") final OrderFeeGranularity granularity, @Param("bucketStart") final LocalDateTime bucketStart, 
+			@Param("orderCount") final Long orderCount, @Param("feeSum") final Double feeSum, 
+			@Param("feeMin") final Double feeMin, @Param("feeMax") final Double feeMax);
+	
+	@Modifying
+	@Query("UPDATE OrderFeeRollup r SET r.orderCount = r.orderCount + :orderCount "
+			+ "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart")
+	int addCountToBucket(@Param("granularity") final OrderFeeGranularity granularity, @Param("bucketStart") final LocalDateTime bucketStart, 
+			@Param("orderCount") final Long orderCount);
+	
+	@Modifying
+	@Query("UPDATE OrderFeeRollup r SET r.orderCount = :orderCount, r.feeSum = :feeSum, r.feeMin = :feeMin, r.feeMax = :feeMax "
+			+ "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart")
+	int overwriteBucket(@Param("granularity") final OrderFeeGranularity granularity, @Param("bucketStart") final LocalDateTime bucketStart, 
+			@Param("orderCount") final Long orderCount, @Param("feeSum") final Double feeSum, 
+			@Param("feeMin") final Double feeMin, @Param("feeMax") final Double feeMax);
+	
+	// rows are taken in key order, so writers of overlapping buckets queue instead of deadlocking
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT r FROM OrderFeeRollup r WHERE r.bucketStart IN :bucketStarts ORDER BY r.granularity ASC, r.bucketStart ASC")
+	List<OrderFeeRollup> lockAllByBucketStartIn(@Param("bucketStarts") final Collection<LocalDateTime> bucketStarts);
+	
+	@Modifying
+	@Query("DELETE FROM OrderFeeRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+	int deleteAllInRange(@Param("from") final LocalDateTime from, @Param("to") final LocalDateTime to);
+	
+	
+	
+}
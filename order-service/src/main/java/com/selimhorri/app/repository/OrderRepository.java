@@ -1,11 +1,65 @@
 package com.selimhorri.app.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderFeeRollupDto;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 	
+	@Query("SELECT new com.selimhorri.app.dto.OrderDto(o.orderId, o.orderDate, o.orderDesc, o.orderFee, c.cartId) "
+			+ "FROM Order o LEFT JOIN o.cart c")
+	List<OrderDto> findAllDtos();
+	
+	@Query("SELECT new com.selimhorri.app.dto.OrderDto(o.orderId, o.orderDate, o.orderDesc, o.orderFee, c.cartId) "
+			+ "FROM Order o LEFT JOIN o.cart c WHERE o.orderId IN :orderIds")
+	List<OrderDto> findAllDtosByIdIn(@Param("orderIds") final Collection<Integer> orderIds);
+	
+	@Query("SELECT new com.selimhorri.app.dto.OrderDto(o.orderId, o.orderDate, o.orderDesc, o.orderFee, c.cartId) "
+			+ "FROM Order o JOIN o.cart c WHERE c.cartId IN :cartIds")
+	List<OrderDto> findAllDtosByCartIdIn(@Param("cartIds") final Collection<Integer> cartIds);
+	
+	@Query("SELECT new com.selimhorri.app.dto.OrderDto(o.orderId, o.orderDate, o.orderDesc, o.orderFee, c.cartId) "
+			+ "FROM Order o LEFT JOIN o.cart c WHERE o.orderDate >= :from AND o.orderDate < :to")
+	List<OrderDto> findAllDtosByOrderDateInRange(@Param("from") final LocalDateTime from, @Param("to") final LocalDateTime to);
+	
+	@Query("SELECT new com.selimhorri.app.dto.OrderFeeRollupDto(COUNT(o), SUM(o.orderFee), MIN(o.orderFee), MAX(o.orderFee)) "
+			+ "FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :to")
+	OrderFeeRollupDto summarizeFeesInRange(@Param("from") final LocalDateTime from, @Param("to") final LocalDateTime to);
+	
+	@Query("SELECT MIN(o.orderDate) FROM Order o")
+	LocalDateTime findFirstOrderDate();
+	
+	@Query("SELECT MAX(o.orderDate) FROM Order o")
+	LocalDateTime findLastOrderDate();
+	
+	@Query(value = "SELECT new com.selimhorri.app.dto.OrderDto(o.orderId, o.orderDate, o.orderDesc, o.orderFee, c.cartId) "
+			+ "FROM Order o JOIN o.cart c WHERE c.userId = :userId ORDER BY o.orderDate DESC, o.orderId DESC",
+			countQuery = "SELECT COUNT(o) FROM Order o JOIN o.cart c WHERE c.userId = :userId")
+	Page<OrderDto> findAllDtosByUserId(@Param("userId") final Integer userId, final Pageable pageable);
+	
+	@Modifying
+	@Query("DELETE FROM Order o WHERE o.orderId = :orderId")
+	int deleteOrderById(@Param("orderId") final Integer orderId);
+	
+	@Modifying
+	@Query("DELETE FROM Order o WHERE o.orderId IN :orderIds")
+	int deleteAllOrdersByIdIn(@Param("orderIds") final Collection<Integer> orderIds);
+	
+	@Modifying
+	@Query("DELETE FROM Order o WHERE o.cart.cartId IN :cartIds")
+	int deleteAllOrdersByCartIdIn(@Param("cartIds") final Collection<Integer> cartIds);
+	
 	
 	
 }
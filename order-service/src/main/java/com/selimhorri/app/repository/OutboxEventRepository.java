@@ -0,0 +1,37 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.dto.OutboxEventDto;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT e FROM OutboxEvent e WHERE e.sequenceNumber IS NULL ORDER BY e.eventId ASC")
+	List<OutboxEvent> findAllUnpublished(final Pageable pageable);
+	
+	@Query("SELECT MAX(e.sequenceNumber) FROM OutboxEvent e")
+	Long findLastSequenceNumber();
+	
+	@Query("SELECT new com.selimhorri.app.dto.OutboxEventDto(e.sequenceNumber, e.aggregateType, e.aggregateId, e.eventType, e.createdAt, e.payload) "
+			+ "FROM OutboxEvent e WHERE e.sequenceNumber > :after ORDER BY e.sequenceNumber ASC")
+	List<OutboxEventDto> findAllDtosPublishedAfter(@Param("after") final Long after, final Pageable pageable);
+	
+	@Modifying
+	@Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before AND e.sequenceNumber < :below")
+	int deleteAllPublishedBefore(@Param("before") final Instant before, @Param("below") final Long below);
+	
+	
+	
+}
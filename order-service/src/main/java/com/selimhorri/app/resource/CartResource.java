@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.dto.CartDto;
@@ -44,6 +47,15 @@ public class CartResource {
 		return ResponseEntity.ok(this.cartService.findById(Integer.parseInt(cartId)));
 	}
 	
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<DtoCollectionResponse<CartDto>> findAllByUserId(
+			@PathVariable("userId")
+			@NotBlank(message = "Input must not be blank")
+			@Valid final String userId) {
+		log.info("*** CartDto List, resource; fetch carts by user id *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.cartService.findAllByUserId(Integer.parseInt(userId))));
+	}
+	
 	@PostMapping
 	public ResponseEntity<CartDto> save(
 			@RequestBody 
@@ -81,6 +93,15 @@ public class CartResource {
 		return ResponseEntity.ok(true);
 	}
 	
+	@DeleteMapping
+	public ResponseEntity<Integer> deleteAllById(
+			@RequestParam("ids")
+			@NotNull(message = "Input must not be NULL")
+			@Valid final Set<Integer> cartIds) {
+		log.info("*** Integer, resource; delete carts by ids *");
+		return ResponseEntity.ok(this.cartService.deleteAllById(cartIds));
+	}
+	
 	
 	
 }
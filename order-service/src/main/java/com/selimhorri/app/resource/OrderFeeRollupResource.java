@@ -0,0 +1,57 @@
+package com.selimhorri.app.resource;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.domain.OrderFeeGranularity;
+import com.selimhorri.app.dto.OrderFeeRollupDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.OrderFeeRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/orders/fee-rollups")
+@Slf4j
+@RequiredArgsConstructor
+public class OrderFeeRollupResource {
+	
+	private final OrderFeeRollupService orderFeeRollupService;
+	
+	@GetMapping
+	public ResponseEntity<DtoCollectionResponse<OrderFeeRollupDto>> findAllInRange(
+			@RequestParam(name = "granularity", defaultValue = "DAY") final OrderFeeGranularity granularity,
+			@RequestParam("from") @DateTimeFormat(iso = ISO.DATE_TIME) final LocalDateTime from,
+			@RequestParam("to") @DateTimeFormat(iso = ISO.DATE_TIME) final LocalDateTime to) {
+		log.info("*** OrderFeeRollupDto List, resource; fetch order fee rollups in range *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderFeeRollupService.findAllInRange(granularity, from, to)));
+	}
+	
+	@PostMapping("/backfill")
+	public ResponseEntity<Integer> backfill() {
+		log.info("*** Integer, resource; backfill order fee rollups from order history *");
+		return ResponseEntity.ok(this.orderFeeRollupService.backfill());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
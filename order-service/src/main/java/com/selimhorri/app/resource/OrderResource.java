@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -7,15 +9,18 @@ import javax.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
 import com.selimhorri.app.service.OrderService;
 
 import lombok.RequiredArgsConstructor;
@@ -35,6 +40,13 @@ public class OrderResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAll()));
 	}
 	
+	@GetMapping(params = "ids")
+	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAllById(
+			@RequestParam("ids") final Set<Integer> orderIds) {
+		log.info("*** OrderDto List, resource; fetch orders by ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAllById(orderIds)));
+	}
+	
 	@GetMapping("/{orderId}")
 	public ResponseEntity<OrderDto> findById(
 			@PathVariable("orderId") 
@@ -44,6 +56,17 @@ public class OrderResource {
 		return ResponseEntity.ok(this.orderService.findById(Integer.parseInt(orderId)));
 	}
 	
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<DtoPageResponse<OrderDto>> findAllByUserId(
+			@PathVariable("userId")
+			@NotBlank(message = "Input must not be blank")
+			@Valid final String userId,
+			@RequestParam(name = "page", defaultValue = "0") final int page,
+			@RequestParam(name = "size", defaultValue = "20") final int size) {
+		log.info("*** OrderDto Page, resource; fetch orders by user id *");
+		return ResponseEntity.ok(this.orderService.findAllByUserId(Integer.parseInt(userId), page, size));
+	}
+	
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
 			@RequestBody 
@@ -74,6 +97,18 @@ public class OrderResource {
 		return ResponseEntity.ok(this.orderService.update(Integer.parseInt(orderId), orderDto));
 	}
 	
+	@PatchMapping("/{orderId}")
+	public ResponseEntity<OrderDto> patch(
+			@PathVariable("orderId")
+			@NotBlank(message = "Input must not be blank")
+			@Valid final String orderId,
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") 
+			@Valid final OrderDto orderDto) {
+		log.info("*** OrderDto, resource; patch order with orderId *");
+		return ResponseEntity.ok(this.orderService.patch(Integer.parseInt(orderId), orderDto));
+	}
+	
 	@DeleteMapping("/{orderId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("orderId") final String orderId) {
 		log.info("*** Boolean, resource; delete order by id *");
@@ -81,6 +116,15 @@ public class OrderResource {
 		return ResponseEntity.ok(true);
 	}
 	
+	@DeleteMapping
+	public ResponseEntity<Integer> deleteAllById(
+			@RequestParam("ids")
+			@NotNull(message = "Input must not be NULL")
+			@Valid final Set<Integer> orderIds) {
+		log.info("*** Integer, resource; delete orders by ids *");
+		return ResponseEntity.ok(this.orderService.deleteAllById(orderIds));
+	}
+	
 	
 	
 }
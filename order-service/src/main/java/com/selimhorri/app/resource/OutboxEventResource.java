@@ -0,0 +1,34 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.service.OutboxService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/outbox/events")
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxEventResource {
+	
+	private final OutboxService outboxService;
+	
+	@GetMapping
+	public ResponseEntity<DtoFeedResponse<OutboxEventDto>> findAllPublishedAfter(
+			@RequestParam(name = "after", defaultValue = "0") final Long after,
+			@RequestParam(name = "limit", defaultValue = "100") final int limit) {
+		log.info("*** OutboxEventDto Feed, resource; fetch outbox events published after cursor *");
+		return ResponseEntity.ok(this.outboxService.findAllPublishedAfter(after, limit));
+	}
+	
+	
+	
+}
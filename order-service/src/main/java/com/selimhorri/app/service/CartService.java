@@ -1,6 +1,7 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.Set;
 
 import com.selimhorri.app.dto.CartDto;
 
@@ -8,9 +9,11 @@ public interface CartService {
 	
 	List<CartDto> findAll();
 	CartDto findById(final Integer cartId);
+	List<CartDto> findAllByUserId(final Integer userId);
 	CartDto save(final CartDto cartDto);
 	CartDto update(final CartDto cartDto);
 	CartDto update(final Integer cartId, final CartDto cartDto);
 	void deleteById(final Integer cartId);
+	int deleteAllById(final Set<Integer> cartIds);
 	
 }
@@ -0,0 +1,17 @@
+package com.selimhorri.app.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.selimhorri.app.domain.OrderFeeGranularity;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderFeeRollupDto;
+
+public interface OrderFeeRollupService {
+	
+	List<OrderFeeRollupDto> findAllInRange(final OrderFeeGranularity granularity, final LocalDateTime from, final LocalDateTime to);
+	void record(final Collection<OrderDto> removedOrders, final Collection<OrderDto> addedOrders);
+	int backfill();
+	
+}
@@ -1,16 +1,22 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.Set;
 
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
 
 public interface OrderService {
 	
 	List<OrderDto> findAll();
 	OrderDto findById(final Integer orderId);
+	List<OrderDto> findAllById(final Set<Integer> orderIds);
+	DtoPageResponse<OrderDto> findAllByUserId(final Integer userId, final int page, final int size);
 	OrderDto save(final OrderDto orderDto);
 	OrderDto update(final OrderDto orderDto);
 	OrderDto update(final Integer orderId, final OrderDto orderDto);
+	OrderDto patch(final Integer orderId, final OrderDto orderDto);
 	void deleteById(final Integer orderId);
+	int deleteAllById(final Set<Integer> orderIds);
 	
 }
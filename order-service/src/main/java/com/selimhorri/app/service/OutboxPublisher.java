@@ -0,0 +1,11 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+
+public interface OutboxPublisher {
+	
+	void publish(final List<OutboxEventDto> events);
+	
+}
@@ -0,0 +1,8 @@
+package com.selimhorri.app.service;
+
+public interface OutboxRelayService {
+	
+	int relay();
+	int purge();
+	
+}
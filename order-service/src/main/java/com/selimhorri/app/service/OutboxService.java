@@ -0,0 +1,15 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+
+import com.selimhorri.app.domain.OutboxAggregateType;
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+
+public interface OutboxService {
+	
+	DtoFeedResponse<OutboxEventDto> findAllPublishedAfter(final Long after, final int limit);
+	void recordSaved(final OutboxAggregateType aggregateType, final Integer aggregateId, final Object payload);
+	void recordDeleted(final OutboxAggregateType aggregateType, final Collection<Integer> aggregateIds);
+	
+}
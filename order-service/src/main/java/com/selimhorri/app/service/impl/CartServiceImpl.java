@@ -1,20 +1,31 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.OutboxAggregateType;
 import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.helper.CartMappingHelper;
 import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderRepository;
 import com.selimhorri.app.service.CartService;
+import com.selimhorri.app.service.OrderFeeRollupService;
+import com.selimhorri.app.service.OutboxService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,25 +36,43 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class CartServiceImpl implements CartService {
 	
+	private static final ParameterizedTypeReference<DtoCollectionResponse<UserDto>> USER_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<UserDto>>() {};
+	
 	private final CartRepository cartRepository;
+	private final OrderRepository orderRepository;
+	private final OrderFeeRollupService orderFeeRollupService;
+	private final OutboxService outboxService;
 	private final RestTemplate restTemplate;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<CartDto> findAll() {
 		log.info("*** CartDto List, service; fetch all carts *");
-		return this.cartRepository.findAll()
+		final var cartDtos = this.cartRepository.findAll()
 				.stream()
 					.map(CartMappingHelper::map)
-					.map(c -> {
-						c.setUserDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.USER_SERVICE_API_URL + "/" + c.getUserDto().getUserId(), UserDto.class));
-						return c;
-					})
 					.distinct()
 					.collect(Collectors.toUnmodifiableList());
+		if (cartDtos.isEmpty())
+			return cartDtos;
+		// one batched user lookup instead of one call per cart
+		final Map<Integer, UserDto> users = this.restTemplate.exchange(AppConstant.DiscoveredDomainsApi
+					.USER_SERVICE_API_URL + "?ids=" + cartDtos.stream()
+							.map(c -> c.getUserDto().getUserId())
+							.distinct()
+							.map(String::valueOf)
+							.collect(Collectors.joining(",")), HttpMethod.GET, null, USER_COLLECTION_TYPE)
+				.getBody()
+				.getCollection()
+				.stream()
+					.collect(Collectors.toMap(UserDto::getUserId, Function.identity(), (left, right) -> left));
+		cartDtos.forEach(c -> c.setUserDto(users.getOrDefault(c.getUserDto().getUserId(), c.getUserDto())));
+		return cartDtos;
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public CartDto findById(final Integer cartId) {
 		log.info("*** CartDto, service; fetch cart by id *");
 		return this.cartRepository.findById(cartId)
@@ -57,31 +86,79 @@ public class CartServiceImpl implements CartService {
 						.format("Cart with id: %d not found", cartId)));
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public List<CartDto> findAllByUserId(final Integer userId) {
+		log.info("*** CartDto List, service; fetch carts by user id *");
+		final var carts = this.cartRepository.findAllByUserId(userId);
+		if (carts.isEmpty())
+			return List.of();
+		final var userDto = this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
+				.USER_SERVICE_API_URL + "/" + userId, UserDto.class);
+		return carts.stream()
+				.map(CartMappingHelper::map)
+				.map(c -> {
+					c.setUserDto(userDto);
+					return c;
+				})
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
 	@Override
 	public CartDto save(final CartDto cartDto) {
 		log.info("*** CartDto, service; save cart *");
-		return CartMappingHelper.map(this.cartRepository
-				.save(CartMappingHelper.map(cartDto)));
+		return this.saveAndRecord(CartMappingHelper.map(cartDto));
 	}
 	
 	@Override
 	public CartDto update(final CartDto cartDto) {
 		log.info("*** CartDto, service; update cart *");
-		return CartMappingHelper.map(this.cartRepository
-				.save(CartMappingHelper.map(cartDto)));
+		return this.saveAndRecord(CartMappingHelper.map(cartDto));
 	}
 	
 	@Override
 	public CartDto update(final Integer cartId, final CartDto cartDto) {
 		log.info("*** CartDto, service; update cart with cartId *");
-		return CartMappingHelper.map(this.cartRepository
-				.save(CartMappingHelper.map(this.findById(cartId))));
+		return this.saveAndRecord(CartMappingHelper.map(this.findById(cartId)));
 	}
 	
 	@Override
 	public void deleteById(final Integer cartId) {
 		log.info("*** Void, service; delete cart by id *");
-		this.cartRepository.deleteById(cartId);
+		this.deleteAllOrdersByCartIdIn(Set.of(cartId));
+		if (this.cartRepository.deleteAllCartsByIdIn(Set.of(cartId)) == 0)
+			throw new CartNotFoundException(String
+					.format("Cart with id: %d not found", cartId));
+		this.outboxService.recordDeleted(OutboxAggregateType.CART, Set.of(cartId));
+	}
+	
+	@Override
+	public int deleteAllById(final Set<Integer> cartIds) {
+		log.info("*** Integer, service; delete carts by ids *");
+		if (cartIds.isEmpty())
+			return 0;
+		this.deleteAllOrdersByCartIdIn(cartIds);
+		final int deleted = this.cartRepository.deleteAllCartsByIdIn(cartIds);
+		// unknown ids are announced too, subscribers treat the deletion of a cart they never saw as a no-op
+		this.outboxService.recordDeleted(OutboxAggregateType.CART, cartIds);
+		return deleted;
+	}
+	
+	private CartDto saveAndRecord(final Cart cart) {
+		final var saved = CartMappingHelper.map(this.cartRepository.save(cart));
+		this.outboxService.recordSaved(OutboxAggregateType.CART, saved.getCartId(), saved);
+		return saved;
+	}
+	
+	private void deleteAllOrdersByCartIdIn(final Set<Integer> cartIds) {
+		final var removed = this.orderRepository.findAllDtosByCartIdIn(cartIds);
+		if (removed.isEmpty())
+			return;
+		this.orderRepository.deleteAllOrdersByCartIdIn(cartIds);
+		this.orderFeeRollupService.record(removed, List.of());
+		this.outboxService.recordDeleted(OutboxAggregateType.ORDER, removed.stream()
+				.map(OrderDto::getOrderId)
+				.collect(Collectors.toUnmodifiableList()));
 	}
 	
 	
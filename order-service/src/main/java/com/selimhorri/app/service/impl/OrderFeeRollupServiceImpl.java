@@ -0,0 +1,224 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OrderFeeGranularity;
+import com.selimhorri.app.domain.OrderFeeRollup;
+import com.selimhorri.app.domain.id.OrderFeeRollupId;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderFeeRollupDto;
+import com.selimhorri.app.exception.wrapper.InvalidRangeException;
+import com.selimhorri.app.repository.OrderFeeRollupRepository;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.OrderFeeRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class OrderFeeRollupServiceImpl implements OrderFeeRollupService {
+	
+	private static final List<OrderFeeGranularity> STORED_GRANULARITIES = Stream.of(OrderFeeGranularity.values())
+			.filter(OrderFeeGranularity::isStored)
+			.collect(Collectors.toUnmodifiableList());
+	private static final Comparator<OrderFeeRollupId> BUCKET_ORDER = Comparator
+			.comparing(OrderFeeRollupId::getGranularity)
+			.thenComparing(OrderFeeRollupId::getBucketStart);
+	
+	private final OrderFeeRollupRepository orderFeeRollupRepository;
+	private final OrderRepository orderRepository;
+	private final PlatformTransactionManager transactionManager;
+	
+	@Value("${app.order.fee-rollup.backfill-chunk-days:7}")
+	private int backfillChunkDays;
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<OrderFeeRollupDto> findAllInRange(final OrderFeeGranularity granularity,
+			final LocalDateTime from, final LocalDateTime to) {
+		log.info("*** OrderFeeRollupDto List, service; fetch order fee rollups in range *");
+		if (!from.isBefore(to))
+			throw new InvalidRangeException("Range end must be after its start");
+		// every bucket overlapping [from, to) is returned whole
+		final var start = granularity.bucketOf(from);
+		final var end = granularity.bucketOf(to).equals(to) ? to : granularity.nextBucket(granularity.bucketOf(to));
+		if (granularity.isStored())
+			return this.orderFeeRollupRepository.findAllDtosInRange(granularity, start, end);
+		final Map<LocalDateTime, OrderFeeRollupDto> buckets = new TreeMap<>();
+		this.orderFeeRollupRepository.findAllDtosInRange(OrderFeeGranularity.DAY, start, end)
+				.forEach(day -> buckets.merge(granularity.bucketOf(day.getBucketStart()),
+						OrderFeeRollupDto.builder()
+							.granularity(granularity)
+							.bucketStart(granularity.bucketOf(day.getBucketStart()))
+							.orderCount(day.getOrderCount())
+							.feeSum(day.getFeeSum())
+							.feeMin(day.getFeeMin())
+							.feeMax(day.getFeeMax())
+							.build(),
+						OrderFeeRollupServiceImpl::merge));
+		return List.copyOf(buckets.values());
+	}
+	
+	// runs in the caller's transaction: additions fold into their buckets in place, while a bucket that
+	// lost an order is recomputed from the orders table since its min and max cannot be rolled back;
+	// every bucket touched is locked first, so no other writer changes it between the sum and the overwrite
+	@Override
+	public void record(final Collection<OrderDto> removedOrders, final Collection<OrderDto> addedOrders) {
+		// an order saved again with the same fee and date leaves every bucket as it was
+		final Set<Integer> unchanged = removedOrders.stream()
+				.filter(previous -> addedOrders.stream().anyMatch(current -> isUnchanged(previous, current)))
+				.map(OrderDto::getOrderId)
+				.collect(Collectors.toSet());
+		final Set<OrderFeeRollupId> recomputed = new HashSet<>();
+		removedOrders.stream()
+				.filter(o -> !unchanged.contains(o.getOrderId()))
+				.forEach(o -> STORED_GRANULARITIES.forEach(g -> recomputed.add(bucketOf(g, o))));
+		final Map<OrderFeeRollupId, OrderFeeRollupDto> added = new HashMap<>();
+		addedOrders.stream()
+				.filter(o -> !unchanged.contains(o.getOrderId()))
+				.forEach(o -> STORED_GRANULARITIES.forEach(g -> {
+					final var bucketId = bucketOf(g, o);
+					if (!recomputed.contains(bucketId))
+						added.merge(bucketId, single(o), OrderFeeRollupServiceImpl::merge);
+				}));
+		if (recomputed.isEmpty() && added.isEmpty())
+			return;
+		final var bucketStarts = Stream.concat(recomputed.stream(), added.keySet().stream())
+				.map(OrderFeeRollupId::getBucketStart)
+				.collect(Collectors.toSet());
+		// rows created here are held by this transaction until it commits, just like the ones locked
+		final Set<OrderFeeRollupId> existing = this.orderFeeRollupRepository.lockAllByBucketStartIn(bucketStarts)
+				.stream()
+					.map(r -> new OrderFeeRollupId(r.getGranularity(), r.getBucketStart()))
+					.collect(Collectors.toSet());
+		this.orderFeeRollupRepository.insertMissingBuckets(Stream.concat(recomputed.stream(), added.keySet().stream())
+				.filter(bucketId -> !existing.contains(bucketId))
+				.sorted(BUCKET_ORDER)
+				.collect(Collectors.toList()));
+		added.forEach((bucketId, delta) -> {
+			if (delta.getFeeMin() == null)
+				this.orderFeeRollupRepository.addCountToBucket(bucketId.getGranularity(), bucketId.getBucketStart(),
+						delta.getOrderCount());
+			else
+				this.orderFeeRollupRepository.addToBucket(bucketId.getGranularity(), bucketId.getBucketStart(),
+						delta.getOrderCount(), delta.getFeeSum(), delta.getFeeMin(), delta.getFeeMax());
+		});
+		recomputed.forEach(bucketId -> {
+			final var summary = this.orderRepository.summarizeFeesInRange(bucketId.getBucketStart(),
+					bucketId.getGranularity().nextBucket(bucketId.getBucketStart()));
+			this.orderFeeRollupRepository.overwriteBucket(bucketId.getGranularity(), bucketId.getBucketStart(),
+					summary.getOrderCount(), Objects.requireNonNullElse(summary.getFeeSum(), 0.0),
+					summary.getFeeMin(), summary.getFeeMax());
+		});
+	}
+	
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public int backfill() {
+		log.info("*** Integer, service; backfill order fee rollups from order history *");
+		final var first = this.orderRepository.findFirstOrderDate();
+		if (first == null)
+			return 0;
+		final var last = this.orderRepository.findLastOrderDate();
+		final int chunkDays = Math.max(this.backfillChunkDays, 1);
+		int processed = 0;
+		for (var from = OrderFeeGranularity.DAY.bucketOf(first); !from.isAfter(last); from = from.plusDays(chunkDays))
+			processed += this.rebuildChunk(from, from.plusDays(chunkDays));
+		log.info("*** Integer, service; backfilled order fee rollups from {} orders *", processed);
+		return processed;
+	}
+	
+	// replaces every stored bucket of [from, to) in one short transaction
+	private int rebuildChunk(final LocalDateTime from, final LocalDateTime to) {
+		return new TransactionTemplate(this.transactionManager,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+				.execute(status -> {
+					this.orderFeeRollupRepository.deleteAllInRange(from, to);
+					final var orders = this.orderRepository.findAllDtosByOrderDateInRange(from, to);
+					final Map<OrderFeeRollupId, OrderFeeRollupDto> buckets = new HashMap<>();
+					orders.forEach(o -> STORED_GRANULARITIES.forEach(g ->
+							buckets.merge(bucketOf(g, o), single(o), OrderFeeRollupServiceImpl::merge)));
+					this.orderFeeRollupRepository.saveAll(buckets.entrySet()
+							.stream()
+								.map(e -> OrderFeeRollup.builder()
+										.granularity(e.getKey().getGranularity())
+										.bucketStart(e.getKey().getBucketStart())
+										.orderCount(e.getValue().getOrderCount())
+										.feeSum(e.getValue().getFeeSum())
+										.feeMin(e.getValue().getFeeMin())
+										.feeMax(e.getValue().getFeeMax())
+										.build())
+								.collect(Collectors.toList()));
+					return orders.size();
+				});
+	}
+	
+	private static OrderFeeRollupId bucketOf(final OrderFeeGranularity granularity, final OrderDto orderDto) {
+		// orders saved without a date take the database default, which is the current time
+		return new OrderFeeRollupId(granularity, granularity.bucketOf(
+				Objects.requireNonNullElseGet(orderDto.getOrderDate(), LocalDateTime::now)));
+	}
+	
+	private static boolean isUnchanged(final OrderDto previous, final OrderDto current) {
+		return previous.getOrderId() != null
+				&& previous.getOrderId().equals(current.getOrderId())
+				&& previous.getOrderDate() != null
+				&& previous.getOrderDate().equals(current.getOrderDate())
+				&& Objects.equals(previous.getOrderFee(), current.getOrderFee());
+	}
+	
+	private static OrderFeeRollupDto single(final OrderDto orderDto) {
+		return OrderFeeRollupDto.builder()
+				.orderCount(1L)
+				.feeSum(Objects.requireNonNullElse(orderDto.getOrderFee(), 0.0))
+				.feeMin(orderDto.getOrderFee())
+				.feeMax(orderDto.getOrderFee())
+				.build();
+	}
+	
+	private static OrderFeeRollupDto merge(final OrderFeeRollupDto left, final OrderFeeRollupDto right) {
+		left.setOrderCount(left.getOrderCount() + right.getOrderCount());
+		left.setFeeSum(left.getFeeSum() + right.getFeeSum());
+		left.setFeeMin(left.getFeeMin() == null ? right.getFeeMin()
+				: right.getFeeMin() == null ? left.getFeeMin() : Math.min(left.getFeeMin(), right.getFeeMin()));
+		left.setFeeMax(left.getFeeMax() == null ? right.getFeeMax()
+				: right.getFeeMax() == null ? left.getFeeMax() : Math.max(left.getFeeMax(), right.getFeeMax()));
+		return left;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
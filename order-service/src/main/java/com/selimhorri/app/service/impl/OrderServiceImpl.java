@@ -1,17 +1,27 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.OutboxAggregateType;
+import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
 import com.selimhorri.app.helper.OrderMappingHelper;
+import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.OrderFeeRollupService;
 import com.selimhorri.app.service.OrderService;
+import com.selimhorri.app.service.OutboxService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,19 +32,25 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 	
+	private static final int MAX_PAGE_SIZE = 100;
+	
 	private final OrderRepository orderRepository;
+	private final CartRepository cartRepository;
+	private final OrderFeeRollupService orderFeeRollupService;
+	private final OutboxService outboxService;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<OrderDto> findAll() {
 		log.info("*** OrderDto List, service; fetch all orders *");
-		return this.orderRepository.findAll()
+		return this.orderRepository.findAllDtos()
 				.stream()
-					.map(OrderMappingHelper::map)
 					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public OrderDto findById(final Integer orderId) {
 		log.info("*** OrderDto, service; fetch order by id *");
 		return this.orderRepository.findById(orderId)
@@ -43,33 +59,122 @@ public class OrderServiceImpl implements OrderService {
 						.format("Order with id: %d not found", orderId)));
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public List<OrderDto> findAllById(final Set<Integer> orderIds) {
+		log.info("*** OrderDto List, service; fetch orders by ids *");
+		return orderIds.isEmpty() ? List.of() : this.orderRepository.findAllDtosByIdIn(orderIds);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public DtoPageResponse<OrderDto> findAllByUserId(final Integer userId, final int page, final int size) {
+		log.info("*** OrderDto Page, service; fetch orders by user id *");
+		final var orders = this.orderRepository.findAllDtosByUserId(userId,
+				PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+		return DtoPageResponse.<OrderDto>builder()
+				.collection(orders.getContent())
+				.page(orders.getNumber())
+				.size(orders.getSize())
+				.totalElements(orders.getTotalElements())
+				.totalPages(orders.getTotalPages())
+				.build();
+	}
+	
 	@Override
 	public OrderDto save(final OrderDto orderDto) {
 		log.info("*** OrderDto, service; save order *");
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(orderDto)));
+		return this.saveAndRecord(this.findPrevious(orderDto.getOrderId()), orderDto);
 	}
 	
 	@Override
 	public OrderDto update(final OrderDto orderDto) {
 		log.info("*** OrderDto, service; update order *");
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(orderDto)));
+		return this.saveAndRecord(this.findPrevious(orderDto.getOrderId()), orderDto);
 	}
 	
+	// PUT replaces the whole order, the path id wins over whatever id the body carries
 	@Override
 	public OrderDto update(final Integer orderId, final OrderDto orderDto) {
 		log.info("*** OrderDto, service; update order with orderId *");
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(this.findById(orderId))));
+		final var previous = this.findPrevious(orderId);
+		if (previous.isEmpty())
+			throw new OrderNotFoundException(String
+					.format("Order with id: %d not found", orderId));
+		Optional.ofNullable(orderDto.getCartDto())
+				.map(CartDto::getCartId)
+				.ifPresent(this::findCartById);
+		orderDto.setOrderId(orderId);
+		return this.saveAndRecord(previous, orderDto);
+	}
+	
+	@Override
+	public OrderDto patch(final Integer orderId, final OrderDto orderDto) {
+		log.info("*** OrderDto, service; patch order with orderId *");
+		final var order = this.orderRepository.findById(orderId)
+				.orElseThrow(() -> new OrderNotFoundException(String
+						.format("Order with id: %d not found", orderId)));
+		final var previous = OrderMappingHelper.map(order);
+		OrderMappingHelper.patch(order, orderDto);
+		Optional.ofNullable(orderDto.getCartDto())
+				.map(CartDto::getCartId)
+				.filter(cartId -> order.getCart() == null || !cartId.equals(order.getCart().getCartId()))
+				.ifPresent(cartId -> order.setCart(this.findCartById(cartId)));
+		final var updated = OrderMappingHelper.map(order);
+		this.orderFeeRollupService.record(List.of(previous), List.of(updated));
+		// a patch changing nothing is not announced, subscribers would only re-read the same order
+		if (!previous.equals(updated))
+			this.outboxService.recordSaved(OutboxAggregateType.ORDER, orderId, updated);
+		return updated;
 	}
 	
 	@Override
 	public void deleteById(final Integer orderId) {
 		log.info("*** Void, service; delete order by id *");
-		this.orderRepository.delete(OrderMappingHelper.map(this.findById(orderId)));
+		final var removed = this.orderRepository.findAllDtosByIdIn(Set.of(orderId));
+		if (this.orderRepository.deleteOrderById(orderId) == 0)
+			throw new OrderNotFoundException(String
+					.format("Order with id: %d not found", orderId));
+		this.orderFeeRollupService.record(removed, List.of());
+		this.outboxService.recordDeleted(OutboxAggregateType.ORDER, Set.of(orderId));
+	}
+	
+	@Override
+	public int deleteAllById(final Set<Integer> orderIds) {
+		log.info("*** Integer, service; delete orders by ids *");
+		if (orderIds.isEmpty())
+			return 0;
+		final var removed = this.orderRepository.findAllDtosByIdIn(orderIds);
+		final int deleted = this.orderRepository.deleteAllOrdersByIdIn(orderIds);
+		this.orderFeeRollupService.record(removed, List.of());
+		this.outboxService.recordDeleted(OutboxAggregateType.ORDER, removed.stream()
+				.map(OrderDto::getOrderId)
+				.collect(Collectors.toUnmodifiableList()));
+		return deleted;
+	}
+	
+	// an incoming id may overwrite an existing order, whose old fee has to leave the rollups first
+	private List<OrderDto> findPrevious(final Integer orderId) {
+		return orderId == null
+				? List.of()
+				: this.orderRepository.findAllDtosByIdIn(Set.of(orderId));
 	}
 	
+	private OrderDto saveAndRecord(final List<OrderDto> previous, final OrderDto orderDto) {
+		final var saved = OrderMappingHelper.map(this.orderRepository
+				.save(OrderMappingHelper.map(orderDto)));
+		this.orderFeeRollupService.record(previous, List.of(saved));
+		this.outboxService.recordSaved(OutboxAggregateType.ORDER, saved.getOrderId(), saved);
+		return saved;
+	}
+	
+	private Cart findCartById(final Integer cartId) {
+		return this.cartRepository.findById(cartId)
+				.orElseThrow(() -> new CartNotFoundException(String
+						.format("Cart with id: %d not found", cartId)));
+	}
+	
+	
 	
 	
 }
@@ -0,0 +1,112 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.helper.OutboxEventMappingHelper;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.service.OutboxPublisher;
+import com.selimhorri.app.service.OutboxRelayService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final OutboxPublisher outboxPublisher;
+	private final PlatformTransactionManager transactionManager;
+	
+	@Value("${app.outbox.relay-batch-size:200}")
+	private int batchSize;
+	
+	@Value("${app.outbox.retention-days:7}")
+	private int retentionDays;
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:500}",
+			initialDelayString = "${app.outbox.relay-interval-ms:500}")
+	public synchronized int relay() {
+		final int size = Math.max(this.batchSize, 1);
+		int relayed = 0;
+		List<OutboxEventDto> batch;
+		do {
+			batch = this.sequenceBatch(size);
+			if (!batch.isEmpty())
+				this.deliver(batch);
+			relayed += batch.size();
+		}
+		while (batch.size() == size);
+		if (relayed > 0)
+			log.info("*** Integer, service; relayed {} outbox events *", relayed);
+		return relayed;
+	}
+	
+	// the latest event is always kept so that sequence numbers never restart below a subscriber's cursor
+	@Override
+	@Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}",
+			initialDelayString = "${app.outbox.purge-interval-ms:3600000}")
+	@Transactional
+	public int purge() {
+		final var last = this.outboxEventRepository.findLastSequenceNumber();
+		if (last == null)
+			return 0;
+		final int purged = this.outboxEventRepository.deleteAllPublishedBefore(
+				Instant.now().minus(this.retentionDays, ChronoUnit.DAYS), last);
+		if (purged > 0)
+			log.info("*** Integer, service; purged {} published outbox events *", purged);
+		return purged;
+	}
+	
+	// numbers the oldest unpublished events after the last published one; the rows stay locked until commit,
+	// so relays of other instances queue behind this one instead of handing out the same numbers
+	private List<OutboxEventDto> sequenceBatch(final int size) {
+		return new TransactionTemplate(this.transactionManager,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+				.execute(status -> {
+					final var events = this.outboxEventRepository.findAllUnpublished(PageRequest.of(0, size));
+					if (events.isEmpty())
+						return List.<OutboxEventDto>of();
+					long next = Objects.requireNonNullElse(this.outboxEventRepository.findLastSequenceNumber(), 0L);
+					final var publishedAt = Instant.now();
+					for (final var event : events) {
+						event.setSequenceNumber(++next);
+						event.setPublishedAt(publishedAt);
+					}
+					return events.stream()
+							.map(OutboxEventMappingHelper::map)
+							.collect(Collectors.toUnmodifiableList());
+				});
+	}
+	
+	// pushes happen after the numbers are committed: a subscriber that misses one catches up from the feed
+	private void deliver(final List<OutboxEventDto> batch) {
+		try {
+			this.outboxPublisher.publish(batch);
+		}
+		catch (RuntimeException e) {
+			log.warn("*** Void, service; outbox events {}..{} were not pushed: {} *", 
+					batch.get(0).getSequenceNumber(), batch.get(batch.size() - 1).getSequenceNumber(), e.getMessage());
+		}
+	}
+	
+	
+	
+}
@@ -0,0 +1,86 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.domain.OutboxAggregateType;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.service.OutboxService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+	
+	private static final int MAX_FEED_SIZE = 500;
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final ObjectMapper objectMapper;
+	
+	@Override
+	@Transactional(readOnly = true)
+	public DtoFeedResponse<OutboxEventDto> findAllPublishedAfter(final Long after, final int limit) {
+		log.info("*** OutboxEventDto Feed, service; fetch outbox events published after cursor *");
+		final var events = this.outboxEventRepository.findAllDtosPublishedAfter(after,
+				PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_FEED_SIZE)));
+		return DtoFeedResponse.<OutboxEventDto>builder()
+				.collection(events)
+				.cursor(events.isEmpty() ? after : events.get(events.size() - 1).getSequenceNumber())
+				.build();
+	}
+	
+	// joins the caller's transaction so the event commits or rolls back together with the change it describes
+	@Override
+	public void recordSaved(final OutboxAggregateType aggregateType, final Integer aggregateId, final Object payload) {
+		try {
+			this.outboxEventRepository.save(event(aggregateType, aggregateId, OutboxEventType.SAVED,
+					this.objectMapper.writer()
+						.without(SerializationFeature.INDENT_OUTPUT)
+						.writeValueAsString(payload)));
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException(String
+					.format("%s with id: %d could not be written to the outbox", aggregateType, aggregateId), e);
+		}
+	}
+	
+	@Override
+	public void recordDeleted(final OutboxAggregateType aggregateType, final Collection<Integer> aggregateIds) {
+		if (aggregateIds.isEmpty())
+			return;
+		this.outboxEventRepository.saveAll(aggregateIds.stream()
+				.map(aggregateId -> event(aggregateType, aggregateId, OutboxEventType.DELETED, null))
+				.collect(Collectors.toList()));
+	}
+	
+	private static OutboxEvent event(final OutboxAggregateType aggregateType, final Integer aggregateId, 
+			final OutboxEventType eventType, final String payload) {
+		final var outboxEvent = OutboxEvent.builder()
+				.aggregateType(aggregateType)
+				.aggregateId(aggregateId)
+				.eventType(eventType)
+				.payload(payload)
+				.build();
+		outboxEvent.setCreatedAt(Instant.now());
+		return outboxEvent;
+	}
+	
+	
+	
+}
@@ -0,0 +1,52 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.OutboxPublisher;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WebhookOutboxPublisher implements OutboxPublisher {
+	
+	static final String SECRET_HEADER = "X-Notification-Secret";
+	
+	private final RestTemplate restTemplate;
+	
+	// resolved through the load-balanced client, so registered services are addressed by their discovery name
+	@Value("${app.outbox.webhook-urls:}")
+	private List<String> webhookUrls;
+	
+	@Value("${app.outbox.webhook-secret:}")
+	private String webhookSecret;
+	
+	@Override
+	public void publish(final List<OutboxEventDto> events) {
+		final var headers = new HttpHeaders();
+		headers.set(SECRET_HEADER, this.webhookSecret);
+		final var body = new HttpEntity<>(new DtoCollectionResponse<>(events), headers);
+		this.webhookUrls.forEach(webhookUrl -> {
+			try {
+				this.restTemplate.postForEntity(webhookUrl, body, Void.class);
+			}
+			catch (RestClientException e) {
+				log.warn("*** Void, service; outbox webhook {} unreachable, it will catch up from the feed *", webhookUrl);
+			}
+		});
+	}
+	
+	
+	
+}
@@ -0,0 +1,17 @@
+
+CREATE TABLE outbox_events (
+	event_id BIGINT NOT NULL PRIMARY KEY,
+	aggregate_type VARCHAR(16) NOT NULL,
+	aggregate_id INT(11) NOT NULL,
+	event_type VARCHAR(16) NOT NULL,
+	payload VARCHAR(4000),
+	sequence_number BIGINT,
+	published_at TIMESTAMP,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX uk_outbox_events_sequence_number ON outbox_events (sequence_number);
+
+INSERT INTO id_generators (sequence_name, next_val) VALUES ('outbox_events', 1);
+
@@ -0,0 +1,12 @@
+
+CREATE TABLE IF NOT EXISTS id_generators (
+	sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+	next_val BIGINT
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'carts', COALESCE(MAX(cart_id), 0) + 1 FROM carts;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'orders', COALESCE(MAX(order_id), 0) + 1 FROM orders;
+
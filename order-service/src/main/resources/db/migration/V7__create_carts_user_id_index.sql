@@ -0,0 +1,4 @@
+
+CREATE INDEX idx_carts_user_id ON carts (user_id);
+CREATE INDEX idx_orders_cart_id_order_date ON orders (cart_id, order_date);
+
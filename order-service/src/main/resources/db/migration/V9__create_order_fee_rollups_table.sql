@@ -0,0 +1,13 @@
+
+CREATE TABLE order_fee_rollups (
+	granularity VARCHAR(8) NOT NULL,
+	bucket_start TIMESTAMP NOT NULL,
+	order_count BIGINT NOT NULL,
+	fee_sum DECIMAL(19, 2) NOT NULL,
+	fee_min DECIMAL(7, 2),
+	fee_max DECIMAL(7, 2),
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP,
+	PRIMARY KEY (granularity, bucket_start)
+);
+
@@ -0,0 +1,125 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.helper.OrderMappingHelper;
+
+import lombok.extern.slf4j.Slf4j;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+@Slf4j
+@DisplayName("Order Listing Projection Benchmark")
+class OrderProjectionBenchmarkTest {
+
+    private static final int ORDERS = 100_000;
+    private static final int CARTS = 1_000;
+    private static final int CHUNK = 5_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Cart> carts = cartRepository.saveAll(IntStream.rangeClosed(1, CARTS)
+                .mapToObj(userId -> Cart.builder().userId(userId).build())
+                .collect(Collectors.toList()));
+        for (int from = 0; from < ORDERS; from += CHUNK) {
+            int start = from;
+            transactionTemplate.executeWithoutResult(status -> orderRepository.saveAll(IntStream.range(start, start + CHUNK)
+                    .mapToObj(i -> Order.builder()
+                            .orderDate(LocalDateTime.now())
+                            .orderDesc("order " + i)
+                            .orderFee((double) (i % 100 + 1))
+                            .cart(carts.get(i % CARTS))
+                            .build())
+                    .collect(Collectors.toList())));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAllInBatch();
+        cartRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should list 100k orders with less heap allocation through the DTO projection")
+    void findAllDtos_ShouldAllocateLessThanEntityListing() {
+        // Given
+        Supplier<List<OrderDto>> entityListing = () -> orderRepository.findAll()
+                .stream()
+                .map(OrderMappingHelper::map)
+                .collect(Collectors.toUnmodifiableList());
+        Supplier<List<OrderDto>> projectionListing = orderRepository::findAllDtos;
+        measure(entityListing);
+        measure(projectionListing);
+
+        // When
+        long entityStart = System.nanoTime();
+        long entityBytes = measure(entityListing);
+        long entityMillis = (System.nanoTime() - entityStart) / 1_000_000;
+
+        long projectionStart = System.nanoTime();
+        long projectionBytes = measure(projectionListing);
+        long projectionMillis = (System.nanoTime() - projectionStart) / 1_000_000;
+
+        // Then
+        assertTrue(projectionBytes < entityBytes);
+        log.info("Listed {} orders: entity path {} ms ({} MB allocated), projection path {} ms ({} MB allocated)",
+                ORDERS, entityMillis, entityBytes / (1024 * 1024), projectionMillis, projectionBytes / (1024 * 1024));
+    }
+
+    private long measure(final Supplier<List<OrderDto>> listing) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        List<OrderDto> orders = readOnlyTransaction.execute(status -> listing.get());
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(ORDERS, orders.size());
+        return allocated;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Order;
+
+import lombok.extern.slf4j.Slf4j;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+@Slf4j
+@DisplayName("Order Bulk Insert Benchmark")
+class OrderRepositoryBenchmarkTest {
+
+    private static final int ORDERS = 10_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        orderRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should insert 10k orders in batches instead of one round trip per row")
+    void saveAll_ShouldBatchInsertsWithPooledIds() {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        statistics.clear();
+        long rowStart = System.nanoTime();
+        orders("row").forEach(order -> transactionTemplate.executeWithoutResult(status -> orderRepository.saveAndFlush(order)));
+        long rowMillis = (System.nanoTime() - rowStart) / 1_000_000;
+        long rowStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long batchStart = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> orderRepository.saveAll(orders("batch")));
+        long batchMillis = (System.nanoTime() - batchStart) / 1_000_000;
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        assertEquals(2L * ORDERS, orderRepository.count());
+        assertTrue(rowStatements >= ORDERS);
+        assertTrue(batchStatements <= 3L * ORDERS / 50 + 3);
+        log.info("Inserted {} orders: per-row path {} ms ({} statements, {} orders/s), batched path {} ms ({} statements, {} orders/s)",
+                ORDERS, rowMillis, rowStatements, ORDERS * 1000L / Math.max(rowMillis, 1),
+                batchMillis, batchStatements, ORDERS * 1000L / Math.max(batchMillis, 1));
+    }
+
+    private static List<Order> orders(final String prefix) {
+        return IntStream.rangeClosed(1, ORDERS)
+                .mapToObj(i -> Order.builder()
+                        .orderDate(LocalDateTime.now())
+                        .orderDesc(prefix + " order " + i)
+                        .orderFee((double) (i % 100 + 1))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+}
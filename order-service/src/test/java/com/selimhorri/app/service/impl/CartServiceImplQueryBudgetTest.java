@@ -0,0 +1,182 @@
+package com.selimhorri.app.service.impl;
+
+import static com.selimhorri.app.support.ExecutionBudget.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+
+@DataJpaTest
+@Import({CartServiceImpl.class, OrderServiceImpl.class, OrderFeeRollupServiceImpl.class, OutboxServiceImpl.class, MapperConfig.class})
+@ActiveProfiles("test")
+@DisplayName("Cart Service Query Budget Tests")
+class CartServiceImplQueryBudgetTest {
+
+    private static final int CARTS = 5;
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2021, 3, 1, 10, 30);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CartServiceImpl cartService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (int userId = 1; userId <= CARTS; userId++) {
+            Cart cart = entityManager.persist(Cart.builder().userId(userId).build());
+            entityManager.persist(Order.builder().orderDesc("order " + userId).orderDate(ORDER_DATE).orderFee(10.0).cart(cart).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        when(restTemplate.getForObject(anyString(), eq(UserDto.class)))
+                .thenAnswer(invocation -> UserDto.builder().firstName("user").build());
+        resetCounters(restTemplate);
+    }
+
+    @Test
+    @DisplayName("Should list carts with one SELECT and one batched user lookup")
+    @SuppressWarnings("unchecked")
+    void findAll_ShouldStayWithinBudget() {
+        // Given
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(IntStream.rangeClosed(1, CARTS)
+                        .mapToObj(userId -> UserDto.builder().userId(userId).firstName("user" + userId).build())
+                        .collect(Collectors.toList()))));
+
+        // When
+        List<CartDto> carts = cartService.findAll();
+
+        // Then
+        assertEquals(CARTS, carts.size());
+        assertTrue(carts.stream().allMatch(c -> ("user" + c.getUserId()).equals(c.getUserDto().getFirstName())));
+        assertSelects(1);
+        assertRestCalls(restTemplate, 1);
+    }
+
+    @Test
+    @DisplayName("Should list orders with their carts in one SELECT and no outbound calls")
+    void findAllOrders_ShouldStayWithinBudget() {
+        // When
+        orderService.findAll();
+
+        // Then
+        assertSelects(1);
+        assertRestCalls(restTemplate, 0);
+    }
+
+    @Test
+    @DisplayName("Should page a user's orders newest first with one SELECT")
+    void findAllOrdersByUserId_ShouldStayWithinBudget() {
+        // Given
+        Cart cart = entityManager.getEntityManager()
+                .createQuery("SELECT c FROM Cart c WHERE c.userId = 3", Cart.class)
+                .getSingleResult();
+        entityManager.persist(Order.builder().orderDesc("latest").orderFee(5.0)
+                .orderDate(LocalDateTime.now().plusDays(1)).cart(cart).build());
+        entityManager.flush();
+        entityManager.clear();
+        resetCounters(restTemplate);
+
+        // When
+        DtoPageResponse<OrderDto> orders = orderService.findAllByUserId(3, 0, 20);
+
+        // Then
+        assertEquals(2, orders.getTotalElements());
+        assertEquals("latest", orders.getCollection().iterator().next().getOrderDesc());
+        assertSelects(1);
+        assertRestCalls(restTemplate, 0);
+    }
+
+    @Test
+    @DisplayName("Should list a user's carts with one SELECT and a single user lookup")
+    void findAllCartsByUserId_ShouldStayWithinBudget() {
+        // When
+        List<CartDto> carts = cartService.findAllByUserId(2);
+
+        // Then
+        assertEquals(1, carts.size());
+        assertEquals(2, carts.get(0).getUserId());
+        assertSelects(1);
+        assertRestCalls(restTemplate, 1);
+    }
+
+    @Test
+    @DisplayName("Should delete an order with one DELETE and recompute only its hour and day fee buckets")
+    void deleteOrderById_ShouldStayWithinBudget() {
+        // Given
+        Integer orderId = entityManager.getEntityManager()
+                .createQuery("SELECT o.orderId FROM Order o", Integer.class)
+                .setMaxResults(1)
+                .getSingleResult();
+        resetCounters();
+
+        // When
+        orderService.deleteById(orderId);
+
+        // Then
+        // the deleted order, the existing buckets and one fee summary per bucket
+        assertSelects(4);
+        assertDeletes(1);
+        assertThrows(OrderNotFoundException.class, () -> orderService.deleteById(orderId));
+    }
+
+    @Test
+    @DisplayName("Should purge carts and their orders with two DELETEs and one fee recompute per bucket")
+    void deleteAllCartsById_ShouldStayWithinBudget() {
+        // Given
+        Set<Integer> cartIds = entityManager.getEntityManager()
+                .createQuery("SELECT c.cartId FROM Cart c", Integer.class)
+                .getResultStream()
+                .collect(Collectors.toSet());
+        resetCounters(restTemplate);
+
+        // When
+        int deleted = cartService.deleteAllById(cartIds);
+
+        // Then
+        assertEquals(CARTS, deleted);
+        // the purged orders, the existing buckets and one fee summary per bucket
+        assertSelects(4);
+        assertDeletes(2);
+        assertRestCalls(restTemplate, 0);
+        assertThrows(CartNotFoundException.class, () -> cartService.deleteById(cartIds.iterator().next()));
+    }
+
+}
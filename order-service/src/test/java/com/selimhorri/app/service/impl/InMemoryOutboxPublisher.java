@@ -0,0 +1,34 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.service.OutboxPublisher;
+
+class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final List<OutboxEventDto> published = new CopyOnWriteArrayList<>();
+    private volatile boolean failing;
+
+    @Override
+    public void publish(final List<OutboxEventDto> events) {
+        if (failing)
+            throw new IllegalStateException("subscriber unavailable");
+        published.addAll(events);
+    }
+
+    List<OutboxEventDto> getPublished() {
+        return published;
+    }
+
+    void setFailing(final boolean failing) {
+        this.failing = failing;
+    }
+
+    void clear() {
+        published.clear();
+        failing = false;
+    }
+
+}
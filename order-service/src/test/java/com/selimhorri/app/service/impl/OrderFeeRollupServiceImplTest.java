@@ -0,0 +1,280 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.OrderFeeGranularity;
+import com.selimhorri.app.domain.OrderFeeRollup;
+import com.selimhorri.app.domain.id.OrderFeeRollupId;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderFeeRollupDto;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidRangeException;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderFeeRollupRepository;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+@DataJpaTest
+@Import({OrderServiceImpl.class, OrderFeeRollupServiceImpl.class, OutboxServiceImpl.class, MapperConfig.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Order Fee Rollup Service Tests")
+class OrderFeeRollupServiceImplTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2021, 3, 1, 0, 0);
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderFeeRollupServiceImpl orderFeeRollupService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderFeeRollupRepository orderFeeRollupRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Integer cartId;
+
+    @BeforeEach
+    void setUp() {
+        cartId = cartRepository.save(Cart.builder().userId(1).build()).getCartId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderFeeRollupRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        cartRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should fold saved orders into their hour and day buckets")
+    void save_ShouldMaintainHourlyAndDailyBuckets() {
+        // Given
+        save(MONDAY.plusHours(10).plusMinutes(15), 10.0);
+        save(MONDAY.plusHours(10).plusMinutes(45), 30.0);
+        save(MONDAY.plusHours(11).plusMinutes(5), 20.0);
+
+        // When
+        List<OrderFeeRollupDto> hours = orderFeeRollupService.findAllInRange(OrderFeeGranularity.HOUR,
+                MONDAY.plusHours(10), MONDAY.plusHours(12));
+        List<OrderFeeRollupDto> days = orderFeeRollupService.findAllInRange(OrderFeeGranularity.DAY,
+                MONDAY, MONDAY.plusDays(1));
+
+        // Then
+        assertEquals(2, hours.size());
+        assertBucket(hours.get(0), 2L, 40.0, 10.0, 30.0);
+        assertBucket(hours.get(1), 1L, 20.0, 20.0, 20.0);
+        assertEquals(1, days.size());
+        assertBucket(days.get(0), 3L, 60.0, 10.0, 30.0);
+    }
+
+    @Test
+    @DisplayName("Should recompute the minimum and maximum once their order is deleted")
+    void deleteById_ShouldRecomputeExtremes() {
+        // Given
+        Integer cheapest = save(MONDAY.plusHours(9), 10.0).getOrderId();
+        save(MONDAY.plusHours(13), 20.0);
+        Integer dearest = save(MONDAY.plusHours(17), 50.0).getOrderId();
+
+        // When
+        orderService.deleteById(cheapest);
+        orderService.deleteById(dearest);
+
+        // Then
+        List<OrderFeeRollupDto> days = orderFeeRollupService.findAllInRange(OrderFeeGranularity.DAY,
+                MONDAY, MONDAY.plusDays(1));
+        assertBucket(days.get(0), 1L, 20.0, 20.0, 20.0);
+        assertBucket(orderFeeRollupService.findAllInRange(OrderFeeGranularity.HOUR,
+                MONDAY.plusHours(9), MONDAY.plusHours(10)).get(0), 0L, 0.0, null, null);
+    }
+
+    @Test
+    @DisplayName("Should move an order between buckets when its date is patched")
+    void update_ShouldMoveOrderBetweenBuckets() {
+        // Given
+        save(MONDAY.plusHours(8), 15.0);
+        Integer orderId = save(MONDAY.plusHours(9), 25.0).getOrderId();
+
+        // When
+        orderService.patch(orderId, OrderDto.builder().orderDate(MONDAY.plusDays(2).plusHours(9)).build());
+
+        // Then
+        List<OrderFeeRollupDto> days = orderFeeRollupService.findAllInRange(OrderFeeGranularity.DAY,
+                MONDAY, MONDAY.plusDays(3));
+        assertEquals(List.of(MONDAY, MONDAY.plusDays(2)), days.stream()
+                .map(OrderFeeRollupDto::getBucketStart)
+                .collect(Collectors.toList()));
+        assertBucket(days.get(0), 1L, 15.0, 15.0, 15.0);
+        assertBucket(days.get(1), 1L, 25.0, 25.0, 25.0);
+    }
+
+    @Test
+    @DisplayName("Should replace the whole order when it is updated by id")
+    void update_ShouldReplaceWholeOrder() {
+        // Given
+        Integer orderId = save(MONDAY.plusHours(9), 25.0).getOrderId();
+        orderService.patch(orderId, OrderDto.builder().orderDesc("gift").build());
+
+        // When
+        OrderDto updated = orderService.update(orderId, OrderDto.builder()
+                .orderDate(MONDAY.plusHours(9))
+                .orderFee(35.0)
+                .cartDto(CartDto.builder().cartId(cartId).build())
+                .build());
+
+        // Then
+        assertEquals(orderId, updated.getOrderId());
+        assertNull(orderService.findById(orderId).getOrderDesc());
+        assertBucket(orderFeeRollupService.findAllInRange(OrderFeeGranularity.DAY,
+                MONDAY, MONDAY.plusDays(1)).get(0), 1L, 35.0, 35.0, 35.0);
+    }
+
+    @Test
+    @DisplayName("Should leave the buckets alone when neither fee nor date changed")
+    void patch_ShouldSkipRollups_WhenFeeAndDateUnchanged() {
+        // Given
+        Integer orderId = save(MONDAY.plusHours(9), 25.0).getOrderId();
+        OrderFeeRollup day = orderFeeRollupRepository.findById(new OrderFeeRollupId(OrderFeeGranularity.DAY, MONDAY)).orElseThrow();
+        day.setOrderCount(7L);
+        day.setFeeSum(99.0);
+        orderFeeRollupRepository.save(day);
+
+        // When
+        orderService.patch(orderId, OrderDto.builder().orderDesc("gift").orderFee(25.0).build());
+
+        // Then
+        assertBucket(orderFeeRollupService.findAllInRange(OrderFeeGranularity.DAY,
+                MONDAY, MONDAY.plusDays(1)).get(0), 7L, 99.0, 25.0, 25.0);
+    }
+
+    @Test
+    @DisplayName("Should write no outbox event for a patch that changes nothing")
+    void patch_ShouldNotRecordOutboxEvent_WhenNothingChanged() {
+        // Given
+        Integer orderId = save(MONDAY.plusHours(9), 25.0).getOrderId();
+        orderService.patch(orderId, OrderDto.builder().orderDesc("gift").build());
+        long events = outboxEventRepository.count();
+
+        // When
+        OrderDto patched = orderService.patch(orderId, OrderDto.builder().orderDesc("gift").orderFee(25.0).build());
+
+        // Then
+        assertEquals("gift", patched.getOrderDesc());
+        assertEquals(events, outboxEventRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should reject a range that ends before it starts")
+    void findAllInRange_ShouldRejectInvertedRange() {
+        assertThrows(InvalidRangeException.class, () -> orderFeeRollupService.findAllInRange(OrderFeeGranularity.DAY,
+                MONDAY.plusDays(1), MONDAY));
+    }
+
+    @Test
+    @DisplayName("Should reject a patch moving the order to an unknown cart")
+    void patch_ShouldRejectUnknownCart() {
+        // Given
+        Integer orderId = save(MONDAY.plusHours(9), 25.0).getOrderId();
+
+        // When
+        assertThrows(CartNotFoundException.class, () -> orderService.patch(orderId, OrderDto.builder()
+                .orderFee(50.0)
+                .cartDto(CartDto.builder().cartId(cartId + 1000).build())
+                .build()));
+
+        // Then
+        assertEquals(cartId, orderService.findById(orderId).getCartDto().getCartId());
+        assertBucket(orderFeeRollupService.findAllInRange(OrderFeeGranularity.DAY,
+                MONDAY, MONDAY.plusDays(1)).get(0), 1L, 25.0, 25.0, 25.0);
+    }
+
+    @Test
+    @DisplayName("Should fold daily buckets into Monday-based weeks")
+    void findAllInRange_ShouldFoldDaysIntoWeeks() {
+        // Given
+        save(MONDAY.plusHours(12), 10.0);
+        save(MONDAY.plusDays(2).plusHours(12), 30.0);
+        save(MONDAY.plusDays(7).plusHours(12), 5.0);
+
+        // When
+        List<OrderFeeRollupDto> weeks = orderFeeRollupService.findAllInRange(OrderFeeGranularity.WEEK,
+                MONDAY.plusDays(3), MONDAY.plusDays(8));
+
+        // Then
+        assertEquals(2, weeks.size());
+        assertEquals(MONDAY, weeks.get(0).getBucketStart());
+        assertBucket(weeks.get(0), 2L, 40.0, 10.0, 30.0);
+        assertBucket(weeks.get(1), 1L, 5.0, 5.0, 5.0);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the rollups from order history in day chunks")
+    void backfill_ShouldRebuildFromHistory() {
+        // Given
+        Cart cart = cartRepository.findById(cartId).orElseThrow();
+        orderRepository.saveAll(List.of(
+                Order.builder().orderDate(MONDAY.plusHours(1)).orderFee(10.0).cart(cart).build(),
+                Order.builder().orderDate(MONDAY.plusHours(23)).orderFee(20.0).cart(cart).build(),
+                Order.builder().orderDate(MONDAY.plusDays(3)).orderFee(40.0).cart(cart).build()));
+        ReflectionTestUtils.setField(orderFeeRollupService, "backfillChunkDays", 1);
+
+        // When
+        int processed = orderFeeRollupService.backfill();
+
+        // Then
+        assertEquals(3, processed);
+        List<OrderFeeRollupDto> days = orderFeeRollupService.findAllInRange(OrderFeeGranularity.DAY,
+                MONDAY, MONDAY.plusDays(7));
+        assertEquals(2, days.size());
+        assertBucket(days.get(0), 2L, 30.0, 10.0, 20.0);
+        assertBucket(days.get(1), 1L, 40.0, 40.0, 40.0);
+        assertEquals(3, orderFeeRollupService.findAllInRange(OrderFeeGranularity.HOUR,
+                MONDAY, MONDAY.plusDays(7)).size());
+    }
+
+    private OrderDto save(final LocalDateTime orderDate, final double orderFee) {
+        return orderService.save(OrderDto.builder()
+                .orderDate(orderDate)
+                .orderFee(orderFee)
+                .cartDto(CartDto.builder().cartId(cartId).build())
+                .build());
+    }
+
+    private static void assertBucket(final OrderFeeRollupDto bucket, final Long orderCount, final Double feeSum,
+            final Double feeMin, final Double feeMax) {
+        assertEquals(orderCount, bucket.getOrderCount());
+        assertEquals(feeSum, bucket.getFeeSum(), 0.001);
+        assertEquals(feeMin, bucket.getFeeMin());
+        assertEquals(feeMax, bucket.getFeeMax());
+    }
+
+}
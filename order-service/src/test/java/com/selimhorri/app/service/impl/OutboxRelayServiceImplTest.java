@@ -0,0 +1,214 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.OutboxAggregateType;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderFeeRollupRepository;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+@DataJpaTest
+@Import({CartServiceImpl.class, OrderServiceImpl.class, OrderFeeRollupServiceImpl.class, OutboxServiceImpl.class,
+        OutboxRelayServiceImpl.class, InMemoryOutboxPublisher.class, MapperConfig.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Outbox Relay Service Tests")
+class OutboxRelayServiceImplTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2021, 3, 1, 10, 30);
+
+    @Autowired
+    private CartServiceImpl cartService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OutboxServiceImpl outboxService;
+
+    @Autowired
+    private OutboxRelayServiceImpl outboxRelayService;
+
+    @Autowired
+    private InMemoryOutboxPublisher outboxPublisher;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderFeeRollupRepository orderFeeRollupRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    private Integer cartId;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAllInBatch();
+        outboxPublisher.clear();
+        cartId = cartRepository.save(Cart.builder().userId(1).build()).getCartId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+        orderFeeRollupRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        cartRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should record order changes with the order and relay them in commit order")
+    void relay_ShouldPublishOrderChangesInCommitOrder() {
+        // Given
+        OrderDto saved = save(10.0);
+        orderService.patch(saved.getOrderId(), OrderDto.builder().orderFee(12.5).build());
+        orderService.deleteById(saved.getOrderId());
+
+        // When
+        int relayed = outboxRelayService.relay();
+
+        // Then
+        assertEquals(3, relayed);
+        List<OutboxEventDto> published = outboxPublisher.getPublished();
+        assertEquals(List.of(1L, 2L, 3L), published.stream()
+                .map(OutboxEventDto::getSequenceNumber)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(OutboxEventType.SAVED, OutboxEventType.SAVED, OutboxEventType.DELETED), published.stream()
+                .map(OutboxEventDto::getEventType)
+                .collect(Collectors.toList()));
+        assertTrue(published.stream().allMatch(e -> e.getAggregateType() == OutboxAggregateType.ORDER
+                && e.getAggregateId().equals(saved.getOrderId())));
+        assertTrue(published.get(1).getPayload().contains("12.5"));
+        assertNull(published.get(2).getPayload());
+        assertEquals(0, outboxRelayService.relay());
+    }
+
+    @Test
+    @DisplayName("Should leave no event behind when the change rolls back")
+    void recordSaved_ShouldRollBackWithTheChange() {
+        // When
+        // the order references a cart that does not exist, so its insert fails on commit
+        assertThrows(RuntimeException.class, () -> orderService.save(OrderDto.builder()
+                .orderDate(ORDER_DATE)
+                .orderFee(10.0)
+                .cartDto(CartDto.builder().cartId(cartId + 1000).build())
+                .build()));
+
+        // Then
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(0, outboxRelayService.relay());
+    }
+
+    @Test
+    @DisplayName("Should announce the orders purged with their carts")
+    void deleteAllById_ShouldRecordCartsAndTheirOrders() {
+        // Given
+        Integer orderId = save(20.0).getOrderId();
+        outboxRelayService.relay();
+        outboxPublisher.clear();
+
+        // When
+        cartService.deleteAllById(Set.of(cartId));
+        outboxRelayService.relay();
+
+        // Then
+        assertEquals(List.of(OutboxAggregateType.ORDER + ":" + orderId, OutboxAggregateType.CART + ":" + cartId),
+                outboxPublisher.getPublished().stream()
+                        .map(e -> e.getAggregateType() + ":" + e.getAggregateId())
+                        .collect(Collectors.toList()));
+        assertTrue(outboxPublisher.getPublished().stream()
+                .allMatch(e -> e.getEventType() == OutboxEventType.DELETED));
+    }
+
+    @Test
+    @DisplayName("Should keep numbering events when the push fails so subscribers can catch up from the feed")
+    void relay_ShouldFallBackToFeedWhenPushFails() {
+        // Given
+        ReflectionTestUtils.setField(outboxRelayService, "batchSize", 2);
+        save(10.0);
+        save(20.0);
+        save(30.0);
+        outboxPublisher.setFailing(true);
+
+        // When
+        int relayed = outboxRelayService.relay();
+        DtoFeedResponse<OutboxEventDto> first = outboxService.findAllPublishedAfter(0L, 2);
+        DtoFeedResponse<OutboxEventDto> second = outboxService.findAllPublishedAfter(first.getCursor(), 2);
+        DtoFeedResponse<OutboxEventDto> drained = outboxService.findAllPublishedAfter(second.getCursor(), 2);
+
+        // Then
+        assertEquals(3, relayed);
+        assertTrue(outboxPublisher.getPublished().isEmpty());
+        assertEquals(2, first.getCollection().size());
+        assertEquals(2L, first.getCursor());
+        assertEquals(1, second.getCollection().size());
+        assertEquals(3L, second.getCursor());
+        assertTrue(drained.getCollection().isEmpty());
+        assertEquals(3L, drained.getCursor());
+    }
+
+    @Test
+    @DisplayName("Should purge old published events but keep the latest sequence number")
+    void purge_ShouldKeepLatestEvent() {
+        // Given
+        save(10.0);
+        save(20.0);
+        outboxRelayService.relay();
+        ReflectionTestUtils.setField(outboxRelayService, "retentionDays", -1);
+
+        // When
+        int purged = outboxRelayService.purge();
+
+        // Then
+        assertEquals(1, purged);
+        save(30.0);
+        outboxRelayService.relay();
+        assertEquals(List.of(2L, 3L), outboxService.findAllPublishedAfter(0L, 10).getCollection().stream()
+                .map(OutboxEventDto::getSequenceNumber)
+                .collect(Collectors.toList()));
+    }
+
+    private OrderDto save(final double orderFee) {
+        return orderService.save(OrderDto.builder()
+                .orderDate(ORDER_DATE)
+                .orderFee(orderFee)
+                .cartDto(CartDto.builder().cartId(cartId).build())
+                .build());
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.selimhorri.app.config.executor;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+	
+	@Bean
+	public Executor snapshotExecutor() {
+		final var executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("snapshot-");
+		executor.initialize();
+		return executor;
+	}
+	
+	
+	
+}
+
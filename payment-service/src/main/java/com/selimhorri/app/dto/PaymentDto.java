@@ -28,6 +28,10 @@ public class PaymentDto implements Serializable {
 	@JsonInclude(Include.NON_NULL)
 	private OrderDto orderDto;
 	
+	public PaymentDto(final Integer paymentId, final Boolean isPayed, final PaymentStatus paymentStatus, final Integer orderId) {
+		this(paymentId, isPayed, paymentStatus, OrderDto.builder().orderId(orderId).build());
+	}
+	
 }
 
 
@@ -0,0 +1,19 @@
+package com.selimhorri.app.dto.response.collection;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DtoFeedResponse<T> {
+	
+	private Collection<T> collection;
+	private Long cursor;
+	
+}
@@ -0,0 +1,28 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.OrderSnapshot;
+import com.selimhorri.app.dto.OrderDto;
+
+public interface OrderSnapshotMappingHelper {
+	
+	public static OrderSnapshot map(final OrderDto orderDto, final Long sequenceNumber) {
+		return OrderSnapshot.builder()
+				.orderId(orderDto.getOrderId())
+				.orderDate(orderDto.getOrderDate())
+				.orderDesc(orderDto.getOrderDesc())
+				.orderFee(orderDto.getOrderFee())
+				.sequenceNumber(sequenceNumber)
+				.build();
+	}
+	
+	public static OrderSnapshot patch(final OrderSnapshot orderSnapshot, final OrderDto orderDto, final Long sequenceNumber) {
+		orderSnapshot.setOrderDate(orderDto.getOrderDate());
+		orderSnapshot.setOrderDesc(orderDto.getOrderDesc());
+		orderSnapshot.setOrderFee(orderDto.getOrderFee());
+		orderSnapshot.setSequenceNumber(sequenceNumber);
+		return orderSnapshot;
+	}
+	
+	
+	
+}
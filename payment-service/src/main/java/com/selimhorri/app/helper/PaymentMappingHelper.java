@@ -1,5 +1,7 @@
 package com.selimhorri.app.helper;
 
+import java.util.Optional;
+
 import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
@@ -27,6 +29,12 @@ public interface PaymentMappingHelper {
 				.build();
 	}
 	
+	public static Payment patch(final Payment payment, final PaymentDto paymentDto) {
+		Optional.ofNullable(paymentDto.getIsPayed()).ifPresent(payment::setIsPayed);
+		Optional.ofNullable(paymentDto.getPaymentStatus()).ifPresent(payment::setPaymentStatus);
+		return payment;
+	}
+	
 	
 	
 }
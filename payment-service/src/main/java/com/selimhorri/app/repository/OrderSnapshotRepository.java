@@ -0,0 +1,29 @@
+package com.selimhorri.app.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OrderSnapshot;
+import com.selimhorri.app.dto.OrderDto;
+
+public interface OrderSnapshotRepository extends JpaRepository<OrderSnapshot, Integer> {
+	
+	@Query("SELECT new com.selimhorri.app.dto.OrderDto(s.orderId, s.orderDate, s.orderDesc, s.orderFee) "
+			+ "FROM OrderSnapshot s WHERE s.orderId IN :orderIds")
+	List<OrderDto> findAllDtosByIdIn(@Param("orderIds") final Collection<Integer> orderIds);
+	
+	@Query("SELECT s.orderId FROM OrderSnapshot s WHERE s.orderId IN :orderIds")
+	List<Integer> findAllIdsByIdIn(@Param("orderIds") final Collection<Integer> orderIds);
+	
+	@Modifying
+	@Query("DELETE FROM OrderSnapshot s WHERE s.orderId IN :orderIds")
+	int deleteAllByIdIn(@Param("orderIds") final Collection<Integer> orderIds);
+	
+	
+	
+}
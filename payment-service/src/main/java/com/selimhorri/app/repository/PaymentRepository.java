@@ -1,11 +1,22 @@
 package com.selimhorri.app.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.dto.PaymentDto;
 
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
 	
+	@Query("SELECT new com.selimhorri.app.dto.PaymentDto(p.paymentId, p.isPayed, p.paymentStatus, p.orderId) "
+			+ "FROM Payment p")
+	List<PaymentDto> findAllDtos();
+	
+	@Query("SELECT DISTINCT p.orderId FROM Payment p WHERE p.orderId IS NOT NULL")
+	List<Integer> findAllOrderIds();
+	
 	
 	
 }
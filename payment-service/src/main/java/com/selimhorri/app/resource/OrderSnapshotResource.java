@@ -0,0 +1,44 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.OrderSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/order-snapshots")
+@Slf4j
+@RequiredArgsConstructor
+public class OrderSnapshotResource {
+	
+	private final OrderSnapshotService orderSnapshotService;
+	
+	@PostMapping("/events")
+	public ResponseEntity<Integer> receive(@RequestBody final DtoCollectionResponse<OrderEventDto> orderEvents) {
+		log.info("*** Integer, resource; receive pushed order events *");
+		return ResponseEntity.ok(this.orderSnapshotService.receive(orderEvents.getCollection()));
+	}
+	
+	@PostMapping("/sync")
+	public ResponseEntity<Integer> sync() {
+		log.info("*** Integer, resource; sync order snapshots from the change feed *");
+		return ResponseEntity.ok(this.orderSnapshotService.sync());
+	}
+	
+	@PostMapping("/backfill")
+	public ResponseEntity<Integer> backfill() {
+		log.info("*** Integer, resource; backfill order snapshots of paid orders *");
+		return ResponseEntity.ok(this.orderSnapshotService.backfill());
+	}
+	
+	
+	
+}
@@ -7,6 +7,7 @@ import javax.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -62,6 +63,18 @@ public class PaymentResource {
 		return ResponseEntity.ok(this.paymentService.update(paymentDto));
 	}
 	
+	@PatchMapping("/{paymentId}")
+	public ResponseEntity<PaymentDto> patch(
+			@PathVariable("paymentId")
+			@NotBlank(message = "Input must not be blank")
+			@Valid final String paymentId,
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") 
+			@Valid final PaymentDto paymentDto) {
+		log.info("*** PaymentDto, resource; patch payment with paymentId *");
+		return ResponseEntity.ok(this.paymentService.update(Integer.parseInt(paymentId), paymentDto));
+	}
+	
 	@DeleteMapping("/{paymentId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("paymentId") final String paymentId) {
 		log.info("*** Boolean, resource; delete payment by id *");
@@ -0,0 +1,17 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderEventDto;
+
+public interface OrderSnapshotService {
+	
+	Map<Integer, OrderDto> findAllById(final Set<Integer> orderIds);
+	int sync();
+	int receive(final Collection<OrderEventDto> orderEvents);
+	int backfill();
+	
+}
@@ -0,0 +1,10 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.PaymentDto;
+
+public interface PaymentNotificationService {
+	
+	void notifyChanged(final PaymentDto paymentDto);
+	int flush();
+	
+}
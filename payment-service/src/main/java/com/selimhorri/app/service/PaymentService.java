@@ -10,6 +10,7 @@ public interface PaymentService {
 	PaymentDto findById(final Integer paymentId);
 	PaymentDto save(final PaymentDto paymentDto);
 	PaymentDto update(final PaymentDto paymentDto);
+	PaymentDto update(final Integer paymentId, final PaymentDto paymentDto);
 	void deleteById(final Integer paymentId);
 	
 }
@@ -0,0 +1,8 @@
+package com.selimhorri.app.service;
+
+public interface StockHoldConfirmationService {
+	
+	void confirmAfterCommit(final Integer orderId);
+	int flush();
+	
+}
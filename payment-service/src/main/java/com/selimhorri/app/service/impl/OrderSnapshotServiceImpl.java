@@ -0,0 +1,313 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.FeedCursor;
+import com.selimhorri.app.domain.OrderSnapshot;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.helper.OrderSnapshotMappingHelper;
+import com.selimhorri.app.repository.FeedCursorRepository;
+import com.selimhorri.app.repository.OrderSnapshotRepository;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.OrderSnapshotService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderSnapshotServiceImpl implements OrderSnapshotService, MeterBinder {
+	
+	static final String ORDER_FEED = "order-service.outbox";
+	private static final String ORDER_AGGREGATE = "ORDER";
+	private static final String DELETED = "DELETED";
+	private static final int FETCH_CHUNK_SIZE = 100;
+	private static final ParameterizedTypeReference<DtoFeedResponse<OrderEventDto>> ORDER_EVENT_FEED_TYPE =
+			new ParameterizedTypeReference<DtoFeedResponse<OrderEventDto>>() {};
+	private static final ParameterizedTypeReference<DtoCollectionResponse<OrderDto>> ORDER_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<OrderDto>>() {};
+	
+	private final OrderSnapshotRepository orderSnapshotRepository;
+	private final FeedCursorRepository feedCursorRepository;
+	private final PaymentRepository paymentRepository;
+	private final RestTemplate restTemplate;
+	private final PlatformTransactionManager transactionManager;
+	private final Executor snapshotExecutor;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private volatile long syncedAtMillis = System.currentTimeMillis();
+	
+	@Value("${app.order-snapshot.sync-enabled:true}")
+	private boolean syncEnabled;
+	
+	@Value("${app.order-snapshot.batch-size:200}")
+	private int batchSize;
+	
+	// orders without a snapshot yet are fetched from order-service once and kept until the feed takes them over,
+	// and simply stay bare when it is unreachable
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Integer, OrderDto> findAllById(final Set<Integer> orderIds) {
+		if (orderIds.isEmpty())
+			return Map.of();
+		final Map<Integer, OrderDto> orders = new HashMap<>();
+		this.orderSnapshotRepository.findAllDtosByIdIn(orderIds)
+				.forEach(orderDto -> orders.put(orderDto.getOrderId(), orderDto));
+		this.hits.addAndGet(orders.size());
+		final var missing = orderIds.stream()
+				.filter(orderId -> !orders.containsKey(orderId))
+				.collect(Collectors.toUnmodifiableList());
+		if (missing.isEmpty())
+			return orders;
+		this.misses.addAndGet(missing.size());
+		final List<OrderDto> fetched;
+		try {
+			fetched = this.fetchAll(missing);
+		}
+		catch (RestClientException e) {
+			log.warn("*** OrderDto Map, service; order-service unreachable, {} orders left without details *", missing.size());
+			return orders;
+		}
+		fetched.forEach(orderDto -> orders.put(orderDto.getOrderId(), orderDto));
+		this.remember(fetched);
+		return orders;
+	}
+	
+	@Scheduled(fixedDelayString = "${app.order-snapshot.poll-interval-ms:1000}")
+	public void poll() {
+		if (this.syncEnabled)
+			this.sync();
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!this.syncEnabled)
+			return;
+		// order-service may be slow or down at startup, which must not hold back readiness
+		this.snapshotExecutor.execute(() -> {
+			this.backfill();
+			this.sync();
+		});
+	}
+	
+	@Override
+	public synchronized int sync() {
+		final int size = Math.max(this.batchSize, 1);
+		int applied = 0;
+		try {
+			Collection<OrderEventDto> orderEvents;
+			do {
+				final long cursor = this.findCursor();
+				orderEvents = this.restTemplate.exchange(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST
+							+ "/api/outbox/events?after=" + cursor + "&limit=" + size, HttpMethod.GET, null, ORDER_EVENT_FEED_TYPE)
+						.getBody()
+						.getCollection();
+				applied += this.apply(orderEvents, cursor);
+			}
+			while (orderEvents.size() == size);
+			this.syncedAtMillis = System.currentTimeMillis();
+		}
+		catch (RestClientException e) {
+			log.warn("*** Integer, service; order change feed unreachable, serving the last order snapshots *");
+		}
+		return applied;
+	}
+	
+	// pushed batches are applied directly when they continue the cursor, any gap is read from the feed instead
+	@Override
+	public synchronized int receive(final Collection<OrderEventDto> orderEvents) {
+		log.info("*** Integer, service; receive pushed order events *");
+		final long cursor = this.findCursor();
+		final var pending = orderEvents.stream()
+				.filter(e -> e.getSequenceNumber() > cursor)
+				.sorted(Comparator.comparing(OrderEventDto::getSequenceNumber))
+				.collect(Collectors.toUnmodifiableList());
+		for (int i = 0; i < pending.size(); i++)
+			if (pending.get(i).getSequenceNumber() != cursor + 1 + i)
+				return this.sync();
+		return this.apply(pending, cursor);
+	}
+	
+	// creates the snapshots of paid orders that predate the change feed, existing snapshots are left to the feed
+	@Override
+	public synchronized int backfill() {
+		log.info("*** Integer, service; backfill order snapshots of paid orders *");
+		final var orderIds = this.paymentRepository.findAllOrderIds();
+		int created = 0;
+		for (int from = 0; from < orderIds.size(); from += FETCH_CHUNK_SIZE) {
+			final var chunk = orderIds.subList(from, Math.min(from + FETCH_CHUNK_SIZE, orderIds.size()));
+			final Set<Integer> missing = new HashSet<>(chunk);
+			this.orderSnapshotRepository.findAllIdsByIdIn(chunk).forEach(missing::remove);
+			if (missing.isEmpty())
+				continue;
+			try {
+				created += this.orderSnapshotRepository.saveAll(this.fetchAll(missing)
+						.stream()
+							.map(orderDto -> OrderSnapshotMappingHelper.map(orderDto, null))
+							.collect(Collectors.toList()))
+						.size();
+			}
+			catch (RestClientException e) {
+				log.warn("*** Integer, service; order-service unreachable, order snapshot backfill stopped *");
+				break;
+			}
+			catch (DataAccessException e) {
+				log.warn("*** Integer, service; order snapshots written concurrently, skipping chunk *");
+			}
+		}
+		return created;
+	}
+	
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		FunctionCounter.builder("payment.order.snapshot.lookups", this.hits, AtomicLong::get)
+				.description("Order lookups answered from the local snapshot")
+				.tag("result", "hit")
+				.register(registry);
+		FunctionCounter.builder("payment.order.snapshot.lookups", this.misses, AtomicLong::get)
+				.description("Order lookups that fell back to order-service")
+				.tag("result", "miss")
+				.register(registry);
+		Gauge.builder("payment.order.snapshot.lag", this, OrderSnapshotServiceImpl::lagSeconds)
+				.description("Time since the order change feed was last read to its end")
+				.baseUnit("seconds")
+				.register(registry);
+	}
+	
+	private double lagSeconds() {
+		return (System.currentTimeMillis() - this.syncedAtMillis) / 1000.0;
+	}
+	
+	// the last change of every order in the batch wins, and the cursor moves in the same transaction
+	private int apply(final Collection<OrderEventDto> orderEvents, final long cursor) {
+		final var pending = orderEvents.stream()
+				.filter(e -> e.getSequenceNumber() > cursor)
+				.collect(Collectors.toUnmodifiableList());
+		if (pending.isEmpty())
+			return 0;
+		return new TransactionTemplate(this.transactionManager,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+				.execute(status -> {
+					final Map<Integer, OrderEventDto> latest = new LinkedHashMap<>();
+					pending.stream()
+							.filter(e -> ORDER_AGGREGATE.equals(e.getAggregateType()))
+							.forEach(e -> latest.put(e.getAggregateId(), e));
+					final var deleted = latest.values()
+							.stream()
+								.filter(e -> DELETED.equals(e.getEventType()) || e.getPayload() == null)
+								.map(OrderEventDto::getAggregateId)
+								.collect(Collectors.toUnmodifiableSet());
+					if (!deleted.isEmpty())
+						this.orderSnapshotRepository.deleteAllByIdIn(deleted);
+					latest.keySet().removeAll(deleted);
+					if (!latest.isEmpty())
+						this.upsert(latest.values());
+					this.feedCursorRepository.save(FeedCursor.builder()
+							.feedName(ORDER_FEED)
+							.lastSequenceNumber(pending.get(pending.size() - 1).getSequenceNumber())
+							.build());
+					return pending.size();
+				});
+	}
+	
+	private void upsert(final Collection<OrderEventDto> savedEvents) {
+		final Map<Integer, OrderSnapshot> existing = this.orderSnapshotRepository.findAllById(savedEvents
+					.stream()
+						.map(OrderEventDto::getAggregateId)
+						.collect(Collectors.toUnmodifiableList()))
+				.stream()
+					.collect(Collectors.toMap(OrderSnapshot::getOrderId, Function.identity()));
+		final List<OrderSnapshot> created = new ArrayList<>();
+		savedEvents.forEach(e -> {
+			final var snapshot = existing.get(e.getAggregateId());
+			if (snapshot == null)
+				created.add(OrderSnapshotMappingHelper.map(e.getPayload(), e.getSequenceNumber()));
+			else if (snapshot.getSequenceNumber() == null || snapshot.getSequenceNumber() < e.getSequenceNumber())
+				OrderSnapshotMappingHelper.patch(snapshot, e.getPayload(), e.getSequenceNumber());
+		});
+		this.orderSnapshotRepository.saveAll(created);
+	}
+	
+	// stored without a sequence number like backfilled ones, so the next change from the feed overwrites them
+	private void remember(final List<OrderDto> orderDtos) {
+		if (orderDtos.isEmpty())
+			return;
+		try {
+			new TransactionTemplate(this.transactionManager,
+					new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+					.executeWithoutResult(status -> {
+						final Set<Integer> existing = new HashSet<>(this.orderSnapshotRepository.findAllIdsByIdIn(orderDtos
+								.stream()
+									.map(OrderDto::getOrderId)
+									.collect(Collectors.toUnmodifiableList())));
+						this.orderSnapshotRepository.saveAll(orderDtos.stream()
+								.filter(orderDto -> !existing.contains(orderDto.getOrderId()))
+								.map(orderDto -> OrderSnapshotMappingHelper.map(orderDto, null))
+								.collect(Collectors.toList()));
+					});
+		}
+		catch (DataAccessException e) {
+			log.warn("*** Void, service; order snapshots written concurrently, fetched orders not kept *");
+		}
+	}
+	
+	private long findCursor() {
+		return this.feedCursorRepository.findById(ORDER_FEED)
+				.map(FeedCursor::getLastSequenceNumber)
+				.orElse(0L);
+	}
+	
+	private List<OrderDto> fetchAll(final Collection<Integer> orderIds) {
+		final var ids = List.copyOf(orderIds);
+		final List<OrderDto> orders = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += FETCH_CHUNK_SIZE)
+			orders.addAll(this.restTemplate.exchange(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "?ids="
+						+ ids.subList(from, Math.min(from + FETCH_CHUNK_SIZE, ids.size()))
+							.stream()
+								.map(String::valueOf)
+								.collect(Collectors.joining(",")), HttpMethod.GET, null, ORDER_COLLECTION_TYPE)
+					.getBody()
+					.getCollection());
+		return orders;
+	}
+	
+	
+	
+}
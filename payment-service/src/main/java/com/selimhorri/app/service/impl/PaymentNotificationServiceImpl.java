@@ -0,0 +1,110 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.PaymentNotificationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentNotificationServiceImpl implements PaymentNotificationService {
+	
+	static final String SECRET_HEADER = "X-Notification-Secret";
+	
+	private final RestTemplate restTemplate;
+	private final Queue<PaymentDto> pending = new ConcurrentLinkedQueue<>();
+	
+	// resolved through the load-balanced client, so registered services are addressed by their discovery name
+	@Value("${app.payment-notification.webhook-urls:}")
+	private List<String> webhookUrls;
+	
+	@Value("${app.payment-notification.webhook-secret:}")
+	private String webhookSecret;
+	
+	@Value("${app.payment-notification.batch-size:200}")
+	private int batchSize;
+	
+	// only the ids travel, receivers read the payment itself, and a rolled back write is never announced
+	@Override
+	public void notifyChanged(final PaymentDto paymentDto) {
+		if (this.webhookUrls.isEmpty() || paymentDto.getPaymentId() == null)
+			return;
+		final var notification = PaymentDto.builder()
+				.paymentId(paymentDto.getPaymentId())
+				.orderDto(OrderDto.builder()
+						.orderId(Optional.ofNullable(paymentDto.getOrderDto())
+								.map(OrderDto::getOrderId)
+								.orElse(null))
+						.build())
+				.build();
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.pending.add(notification);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCommit() {
+				pending.add(notification);
+			}
+			
+		});
+	}
+	
+	@Scheduled(fixedDelayString = "${app.payment-notification.flush-interval-ms:250}",
+			initialDelayString = "${app.payment-notification.flush-interval-ms:250}")
+	public void poll() {
+		this.flush();
+	}
+	
+	// notifications are best effort, a receiver that missed one reads the current state when its client reconnects
+	@Override
+	public int flush() {
+		final int size = Math.max(this.batchSize, 1);
+		int sent = 0;
+		while (!this.pending.isEmpty()) {
+			final Map<Integer, PaymentDto> batch = new LinkedHashMap<>();
+			for (PaymentDto notification; batch.size() < size && (notification = this.pending.poll()) != null; )
+				batch.put(notification.getPaymentId(), notification);
+			final var headers = new HttpHeaders();
+			headers.set(SECRET_HEADER, this.webhookSecret);
+			final var body = new HttpEntity<>(new DtoCollectionResponse<>(new ArrayList<>(batch.values())), headers);
+			this.webhookUrls.forEach(webhookUrl -> {
+				try {
+					this.restTemplate.postForEntity(webhookUrl, body, Void.class);
+				}
+				catch (RestClientException e) {
+					log.warn("*** Integer, service; payment notification webhook {} unreachable, {} notifications dropped *",
+							webhookUrl, batch.size());
+				}
+			});
+			sent += batch.size();
+		}
+		return sent;
+	}
+	
+	
+	
+}
@@ -1,20 +1,22 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.selimhorri.app.constant.AppConstant;
-import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.helper.PaymentMappingHelper;
 import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.OrderSnapshotService;
+import com.selimhorri.app.service.PaymentNotificationService;
 import com.selimhorri.app.service.PaymentService;
+import com.selimhorri.app.service.StockHoldConfirmationService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,17 +28,24 @@ import lombok.extern.slf4j.Slf4j;
 public class PaymentServiceImpl implements PaymentService {
 	
 	private final PaymentRepository paymentRepository;
-	private final RestTemplate restTemplate;
+	private final OrderSnapshotService orderSnapshotService;
+	private final PaymentNotificationService paymentNotificationService;
+	private final StockHoldConfirmationService stockHoldConfirmationService;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<PaymentDto> findAll() {
 		log.info("*** PaymentDto List, service; fetch all payments *");
-		return this.paymentRepository.findAll()
-				.stream()
-					.map(PaymentMappingHelper::map)
+		final var payments = this.paymentRepository.findAllDtos();
+		final var orders = this.orderSnapshotService.findAllById(payments.stream()
+				.map(p -> p.getOrderDto().getOrderId())
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableSet()));
+		return payments.stream()
 					.map(p -> {
-						p.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.ORDER_SERVICE_API_URL + "/" + p.getOrderDto().getOrderId(), OrderDto.class));
+						final var orderId = p.getOrderDto().getOrderId();
+						if (orderId != null)
+							p.setOrderDto(orders.getOrDefault(orderId, p.getOrderDto()));
 						return p;
 					})
 					.distinct()
@@ -44,13 +53,16 @@ public class PaymentServiceImpl implements PaymentService {
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public PaymentDto findById(final Integer paymentId) {
 		log.info("*** PaymentDto, service; fetch payment by id *");
 		return this.paymentRepository.findById(paymentId)
 				.map(PaymentMappingHelper::map)
 				.map(p -> {
-					p.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-							.ORDER_SERVICE_API_URL + "/" + p.getOrderDto().getOrderId(), OrderDto.class));
+					final var orderId = p.getOrderDto().getOrderId();
+					if (orderId != null)
+						p.setOrderDto(this.orderSnapshotService.findAllById(Set.of(orderId))
+								.getOrDefault(orderId, p.getOrderDto()));
 					return p;
 				})
 				.orElseThrow(() -> new PaymentNotFoundException(String.format("Payment with id: %d not found", paymentId)));
@@ -59,23 +71,48 @@ public class PaymentServiceImpl implements PaymentService {
 	@Override
 	public PaymentDto save(final PaymentDto paymentDto) {
 		log.info("*** PaymentDto, service; save payment *");
-		return PaymentMappingHelper.map(this.paymentRepository
-				.save(PaymentMappingHelper.map(paymentDto)));
+		return this.notifyChanged(this.confirmStockHolds(PaymentMappingHelper.map(this.paymentRepository
+				.save(PaymentMappingHelper.map(paymentDto)))));
 	}
 	
 	@Override
 	public PaymentDto update(final PaymentDto paymentDto) {
 		log.info("*** PaymentDto, service; update payment *");
-		return PaymentMappingHelper.map(this.paymentRepository
-				.save(PaymentMappingHelper.map(paymentDto)));
+		return this.notifyChanged(this.confirmStockHolds(PaymentMappingHelper.map(this.paymentRepository
+				.save(PaymentMappingHelper.map(paymentDto)))));
+	}
+	
+	@Override
+	public PaymentDto update(final Integer paymentId, final PaymentDto paymentDto) {
+		log.info("*** PaymentDto, service; update payment with paymentId *");
+		final var payment = this.paymentRepository.findById(paymentId)
+				.orElseThrow(() -> new PaymentNotFoundException(String.format("Payment with id: %d not found", paymentId)));
+		final var previousStatus = payment.getPaymentStatus();
+		final var updated = PaymentMappingHelper.map(PaymentMappingHelper.patch(payment, paymentDto));
+		return this.notifyChanged(previousStatus == PaymentStatus.COMPLETED ? updated : this.confirmStockHolds(updated));
 	}
 	
+	// read first, a deleted payment can no longer tell receivers which order it belonged to
 	@Override
 	public void deleteById(final Integer paymentId) {
 		log.info("*** Void, service; delete payment by id *");
+		this.paymentRepository.findById(paymentId)
+				.map(PaymentMappingHelper::map)
+				.ifPresent(this::notifyChanged);
 		this.paymentRepository.deleteById(paymentId);
 	}
 	
+	private PaymentDto confirmStockHolds(final PaymentDto paymentDto) {
+		if (paymentDto.getPaymentStatus() == PaymentStatus.COMPLETED)
+			this.stockHoldConfirmationService.confirmAfterCommit(paymentDto.getOrderDto().getOrderId());
+		return paymentDto;
+	}
+	
+	private PaymentDto notifyChanged(final PaymentDto paymentDto) {
+		this.paymentNotificationService.notifyChanged(paymentDto);
+		return paymentDto;
+	}
+	
 	
 	
 }
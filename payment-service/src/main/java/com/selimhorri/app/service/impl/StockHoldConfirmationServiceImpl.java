@@ -0,0 +1,83 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.service.StockHoldConfirmationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockHoldConfirmationServiceImpl implements StockHoldConfirmationService {
+	
+	private final RestTemplate restTemplate;
+	private final Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+	
+	// the payment commits first and product-service is called afterwards, off the request's connection,
+	// so a rolled back payment never confirms holds and a slow product-service never holds a payment transaction open
+	@Override
+	public void confirmAfterCommit(final Integer orderId) {
+		if (orderId == null)
+			return;
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.pending.add(orderId);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCommit() {
+				pending.add(orderId);
+			}
+			
+		});
+	}
+	
+	@Scheduled(fixedDelayString = "${app.stock-hold-confirmation.flush-interval-ms:250}",
+			initialDelayString = "${app.stock-hold-confirmation.flush-interval-ms:250}")
+	public void poll() {
+		this.flush();
+	}
+	
+	// confirming by order only moves active holds, so a retried or duplicated confirmation is a no-op;
+	// unreachable product-service keeps the order queued for the next poll, a rejected order is dropped
+	@Override
+	public int flush() {
+		final Set<Integer> orderIds = new LinkedHashSet<>();
+		for (Integer orderId; (orderId = this.pending.poll()) != null; )
+			orderIds.add(orderId);
+		int confirmed = 0;
+		for (final var orderId : orderIds) {
+			try {
+				this.restTemplate.postForObject(AppConstant.DiscoveredDomainsApi
+						.PRODUCT_SERVICE_HOST + "/api/holds/order/" + orderId + "/confirm", null, Integer.class);
+				confirmed++;
+			}
+			catch (HttpClientErrorException e) {
+				log.warn("*** Integer, service; stock holds of order {} rejected: {} *", orderId, e.getStatusCode());
+			}
+			catch (RestClientException e) {
+				log.warn("*** Integer, service; product-service unreachable, stock holds of order {} retried later *", orderId);
+				this.pending.add(orderId);
+			}
+		}
+		return confirmed;
+	}
+	
+	
+	
+}
@@ -0,0 +1,11 @@
+
+CREATE TABLE order_snapshots (
+	order_id INT(11) NOT NULL PRIMARY KEY,
+	order_date TIMESTAMP,
+	order_desc VARCHAR(255),
+	order_fee DECIMAL(7, 2),
+	sequence_number BIGINT,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
@@ -0,0 +1,8 @@
+
+CREATE TABLE feed_cursors (
+	feed_name VARCHAR(64) NOT NULL PRIMARY KEY,
+	last_sequence_number BIGINT NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
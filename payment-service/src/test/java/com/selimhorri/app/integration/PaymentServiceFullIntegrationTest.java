@@ -1,8 +1,13 @@
 package com.selimhorri.app.integration;
 
+import static com.selimhorri.app.support.ExecutionBudget.assertRestCalls;
+import static com.selimhorri.app.support.ExecutionBudget.assertSelects;
+import static com.selimhorri.app.support.ExecutionBudget.resetCounters;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -21,19 +26,19 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.domain.OrderSnapshot;
 import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.repository.OrderSnapshotRepository;
 import com.selimhorri.app.repository.PaymentRepository;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
-@Transactional
 @DisplayName("Payment Service Integration Tests with TestRestTemplate")
 class PaymentServiceFullIntegrationTest {
 
@@ -46,6 +51,9 @@ class PaymentServiceFullIntegrationTest {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private OrderSnapshotRepository orderSnapshotRepository;
+
     @MockBean
     private RestTemplate externalRestTemplate;
 
@@ -53,19 +61,21 @@ class PaymentServiceFullIntegrationTest {
     private OrderDto mockOrderDto;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
-        baseUrl = "http://localhost:" + port + "/api/payments";
+        baseUrl = "http://localhost:" + port + "/payment-service/api/payments";
         
         // Clean repository
         paymentRepository.deleteAll();
+        orderSnapshotRepository.deleteAll();
 
         // Setup mock external service response
         mockOrderDto = OrderDto.builder()
                 .orderId(1)
                 .build();
 
-        when(externalRestTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenReturn(mockOrderDto);
+        when(externalRestTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(mockOrderDto))));
     }
 
     @Test
@@ -86,6 +96,8 @@ class PaymentServiceFullIntegrationTest {
 
         paymentRepository.save(payment1);
         paymentRepository.save(payment2);
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(1).orderFee(10.0).build());
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(2).orderFee(20.0).build());
 
         // When
         ResponseEntity<DtoCollectionResponse<PaymentDto>> response = restTemplate.exchange(
@@ -137,6 +149,58 @@ class PaymentServiceFullIntegrationTest {
         assertEquals(1, payment.getOrderDto().getOrderId());
     }
 
+    @Test
+    @DisplayName("Should list payments within one payment and one snapshot query and no remote call")
+    void getAllPayments_ShouldStayWithinBudget() {
+        // Given
+        paymentRepository.save(Payment.builder().orderId(1).isPayed(false).paymentStatus(PaymentStatus.NOT_STARTED).build());
+        paymentRepository.save(Payment.builder().orderId(2).isPayed(true).paymentStatus(PaymentStatus.COMPLETED).build());
+        paymentRepository.save(Payment.builder().orderId(3).isPayed(false).paymentStatus(PaymentStatus.IN_PROGRESS).build());
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(1).orderFee(10.0).build());
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(2).orderFee(20.0).build());
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(3).orderFee(30.0).build());
+        resetCounters(externalRestTemplate);
+
+        // When
+        ResponseEntity<DtoCollectionResponse<PaymentDto>> response = restTemplate.exchange(
+                baseUrl,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<DtoCollectionResponse<PaymentDto>>() {}
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().getCollection().size());
+        assertSelects(2);
+        assertRestCalls(externalRestTemplate, 0);
+    }
+
+    @Test
+    @DisplayName("Should read a payment within one payment and one snapshot query and no remote call")
+    void getPaymentById_ShouldStayWithinBudget() {
+        // Given
+        Payment savedPayment = paymentRepository.save(Payment.builder()
+                .orderId(1)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build());
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(1).orderFee(10.0).build());
+        resetCounters(externalRestTemplate);
+
+        // When
+        ResponseEntity<PaymentDto> response = restTemplate.getForEntity(
+                baseUrl + "/" + savedPayment.getPaymentId(),
+                PaymentDto.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(10.0, response.getBody().getOrderDto().getOrderFee());
+        assertSelects(2);
+        assertRestCalls(externalRestTemplate, 0);
+    }
+
     @Test
     @DisplayName("Should create payment - End to End")
     void createPayment_EndToEnd() {
@@ -250,7 +314,7 @@ class PaymentServiceFullIntegrationTest {
         );
 
         // Then
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
     @Test
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.PaymentDto;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -111,6 +113,38 @@ class PaymentRepositoryIntegrationTest {
         assertTrue(payments.stream().anyMatch(p -> p.getOrderId().equals(2)));
     }
 
+    @Test
+    @DisplayName("Should project all payments straight into DTOs without managed entities")
+    void findAllDtos_ShouldReturnDtosWithoutManagedEntities() {
+        // Given
+        Payment payment1 = Payment.builder()
+                .orderId(1)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build();
+
+        Payment payment2 = Payment.builder()
+                .orderId(2)
+                .isPayed(true)
+                .paymentStatus(PaymentStatus.COMPLETED)
+                .build();
+
+        entityManager.persistAndFlush(payment1);
+        entityManager.persistAndFlush(payment2);
+        entityManager.clear();
+
+        // When
+        List<PaymentDto> payments = paymentRepository.findAllDtos();
+
+        // Then
+        assertEquals(2, payments.size());
+        assertTrue(payments.stream().anyMatch(p -> p.getOrderDto().getOrderId().equals(1)
+                && PaymentStatus.NOT_STARTED.equals(p.getPaymentStatus())));
+        assertTrue(payments.stream().anyMatch(p -> p.getOrderDto().getOrderId().equals(2) && p.getIsPayed()));
+        assertFalse(entityManager.getEntityManager().contains(payment1));
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
     // @Test
     // @DisplayName("Should update payment successfully")
     // void save_ShouldUpdateExistingPayment() {
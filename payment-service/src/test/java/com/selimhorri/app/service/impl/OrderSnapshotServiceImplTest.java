@@ -0,0 +1,214 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.config.executor.ExecutorConfig;
+import com.selimhorri.app.domain.OrderSnapshot;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.repository.FeedCursorRepository;
+import com.selimhorri.app.repository.OrderSnapshotRepository;
+import com.selimhorri.app.repository.PaymentRepository;
+
+@DataJpaTest
+@Import({OrderSnapshotServiceImpl.class, ExecutorConfig.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Order Snapshot Service Tests")
+class OrderSnapshotServiceImplTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2021, 3, 1, 10, 30);
+
+    @Autowired
+    private OrderSnapshotServiceImpl orderSnapshotService;
+
+    @Autowired
+    private OrderSnapshotRepository orderSnapshotRepository;
+
+    @Autowired
+    private FeedCursorRepository feedCursorRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        orderSnapshotRepository.deleteAllInBatch();
+        feedCursorRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderSnapshotRepository.deleteAllInBatch();
+        feedCursorRepository.deleteAllInBatch();
+        paymentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should apply the last change of every order and move the cursor")
+    void sync_ShouldApplyLatestChangePerOrder() {
+        // Given
+        stubFeed(0L, List.of(
+                saved(1L, 1, 10.0),
+                saved(2L, 2, 20.0),
+                saved(3L, 1, 15.0),
+                deleted(4L, 2),
+                cartEvent(5L)));
+
+        // When
+        int applied = orderSnapshotService.sync();
+
+        // Then
+        assertEquals(5, applied);
+        assertEquals(List.of(1), orderSnapshotRepository.findAllIdsByIdIn(Set.of(1, 2)));
+        OrderSnapshot snapshot = orderSnapshotRepository.findById(1).orElseThrow();
+        assertEquals(15.0, snapshot.getOrderFee());
+        assertEquals(3L, snapshot.getSequenceNumber());
+        assertEquals(5L, feedCursorRepository.findById(OrderSnapshotServiceImpl.ORDER_FEED).orElseThrow().getLastSequenceNumber());
+    }
+
+    @Test
+    @DisplayName("Should apply a contiguous push directly and read a gap from the feed")
+    void receive_ShouldFallBackToFeedOnGap() {
+        // Given
+        orderSnapshotService.receive(List.of(saved(1L, 1, 10.0), saved(2L, 2, 20.0)));
+        stubFeed(2L, List.of(saved(3L, 3, 30.0), saved(4L, 4, 40.0)));
+
+        // When
+        int applied = orderSnapshotService.receive(List.of(saved(4L, 4, 40.0)));
+
+        // Then
+        assertEquals(2, applied);
+        assertEquals(4, orderSnapshotRepository.count());
+        verify(restTemplate, times(1)).exchange(contains("/api/outbox/events?after=2"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @DisplayName("Should answer from snapshots and fetch only the missing orders in one call, once")
+    @SuppressWarnings("unchecked")
+    void findAllById_ShouldFetchOnlyMisses() {
+        // Given
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(1).orderDate(ORDER_DATE).orderFee(10.0).build());
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(OrderDto.builder().orderId(2).orderFee(20.0).build()))));
+
+        // When
+        Map<Integer, OrderDto> orders = orderSnapshotService.findAllById(Set.of(1, 2));
+        Map<Integer, OrderDto> reread = orderSnapshotService.findAllById(Set.of(1, 2));
+
+        // Then
+        assertEquals(10.0, orders.get(1).getOrderFee());
+        assertEquals(ORDER_DATE, orders.get(1).getOrderDate());
+        assertEquals(20.0, orders.get(2).getOrderFee());
+        assertEquals(20.0, reread.get(2).getOrderFee());
+        assertNull(orderSnapshotRepository.findById(2).orElseThrow().getSequenceNumber());
+        verify(restTemplate, times(1)).exchange(endsWith("/api/orders?ids=2"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @DisplayName("Should keep serving snapshots when order-service is unreachable")
+    @SuppressWarnings("unchecked")
+    void findAllById_ShouldDegradeWhenOrderServiceIsDown() {
+        // Given
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(1).orderFee(10.0).build());
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenThrow(new ResourceAccessException("order-service down"));
+
+        // When
+        Map<Integer, OrderDto> orders = orderSnapshotService.findAllById(Set.of(1, 2));
+
+        // Then
+        assertEquals(Set.of(1), orders.keySet());
+        assertEquals(0, orderSnapshotService.sync());
+    }
+
+    @Test
+    @DisplayName("Should backfill snapshots only for paid orders that have none")
+    @SuppressWarnings("unchecked")
+    void backfill_ShouldCreateMissingSnapshots() {
+        // Given
+        paymentRepository.saveAll(List.of(
+                Payment.builder().orderId(1).isPayed(true).paymentStatus(PaymentStatus.COMPLETED).build(),
+                Payment.builder().orderId(2).isPayed(false).paymentStatus(PaymentStatus.IN_PROGRESS).build()));
+        orderSnapshotRepository.save(OrderSnapshot.builder().orderId(1).orderFee(10.0).sequenceNumber(7L).build());
+        when(restTemplate.exchange(endsWith("?ids=2"), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(OrderDto.builder().orderId(2).orderFee(20.0).build()))));
+
+        // When
+        int created = orderSnapshotService.backfill();
+
+        // Then
+        assertEquals(1, created);
+        assertEquals(20.0, orderSnapshotRepository.findById(2).orElseThrow().getOrderFee());
+        assertEquals(7L, orderSnapshotRepository.findById(1).orElseThrow().getSequenceNumber());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubFeed(final Long after, final List<OrderEventDto> orderEvents) {
+        when(restTemplate.exchange(contains("/api/outbox/events?after=" + after + "&"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoFeedResponse<>(orderEvents, after + orderEvents.size())));
+    }
+
+    private static OrderEventDto saved(final Long sequenceNumber, final Integer orderId, final Double orderFee) {
+        return OrderEventDto.builder()
+                .sequenceNumber(sequenceNumber)
+                .aggregateType("ORDER")
+                .aggregateId(orderId)
+                .eventType("SAVED")
+                .payload(OrderDto.builder().orderId(orderId).orderDate(ORDER_DATE).orderFee(orderFee).build())
+                .build();
+    }
+
+    private static OrderEventDto deleted(final Long sequenceNumber, final Integer orderId) {
+        return OrderEventDto.builder()
+                .sequenceNumber(sequenceNumber)
+                .aggregateType("ORDER")
+                .aggregateId(orderId)
+                .eventType("DELETED")
+                .build();
+    }
+
+    private static OrderEventDto cartEvent(final Long sequenceNumber) {
+        return OrderEventDto.builder()
+                .sequenceNumber(sequenceNumber)
+                .aggregateType("CART")
+                .aggregateId(1)
+                .eventType("SAVED")
+                .build();
+    }
+
+}
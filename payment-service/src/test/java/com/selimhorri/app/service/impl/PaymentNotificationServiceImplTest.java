@@ -0,0 +1,103 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Notification Service Implementation Tests")
+class PaymentNotificationServiceImplTest {
+
+    private static final String WEBHOOK_URL = "http://PROXY-CLIENT/app/api/notifications/events/payments";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private PaymentNotificationServiceImpl paymentNotificationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentNotificationService, "webhookUrls", List.of(WEBHOOK_URL));
+        ReflectionTestUtils.setField(paymentNotificationService, "batchSize", 10);
+        ReflectionTestUtils.setField(paymentNotificationService, "webhookSecret", "s3cret");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should send one id-only notification per changed payment")
+    @SuppressWarnings("unchecked")
+    void flush_ShouldSendIdsOnlyOncePerPayment() {
+        // Given
+        paymentNotificationService.notifyChanged(payment(1, 7, PaymentStatus.IN_PROGRESS));
+        paymentNotificationService.notifyChanged(payment(2, 8, PaymentStatus.NOT_STARTED));
+        paymentNotificationService.notifyChanged(payment(1, 7, PaymentStatus.COMPLETED));
+
+        // When
+        int sent = paymentNotificationService.flush();
+
+        // Then
+        assertEquals(2, sent);
+        ArgumentCaptor<HttpEntity<DtoCollectionResponse<PaymentDto>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(1)).postForEntity(eq(WEBHOOK_URL), request.capture(), eq(Void.class));
+        assertEquals("s3cret", request.getValue().getHeaders().getFirst(PaymentNotificationServiceImpl.SECRET_HEADER));
+        PaymentDto notification = request.getValue().getBody().getCollection().iterator().next();
+        assertEquals(1, notification.getPaymentId());
+        assertEquals(7, notification.getOrderDto().getOrderId());
+        assertNull(notification.getPaymentStatus());
+        assertEquals(0, paymentNotificationService.flush());
+    }
+
+    @Test
+    @DisplayName("Should hold a notification back until its transaction commits")
+    void notifyChanged_ShouldWaitForCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        paymentNotificationService.notifyChanged(payment(1, 7, PaymentStatus.COMPLETED));
+
+        // When
+        int sentBeforeCommit = paymentNotificationService.flush();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertEquals(0, sentBeforeCommit);
+        assertEquals(1, paymentNotificationService.flush());
+    }
+
+    private static PaymentDto payment(final Integer paymentId, final Integer orderId, final PaymentStatus paymentStatus) {
+        return PaymentDto.builder()
+                .paymentId(paymentId)
+                .isPayed(paymentStatus == PaymentStatus.COMPLETED)
+                .paymentStatus(paymentStatus)
+                .orderDto(OrderDto.builder().orderId(orderId).build())
+                .build();
+    }
+
+}
@@ -1,12 +1,15 @@
 package com.selimhorri.app.service.impl;
 
+import static com.selimhorri.app.support.ExecutionBudget.assertRestCalls;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,6 +26,9 @@ import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.OrderSnapshotService;
+import com.selimhorri.app.service.PaymentNotificationService;
+import com.selimhorri.app.service.StockHoldConfirmationService;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Payment Service Implementation Tests")
@@ -34,6 +40,15 @@ class PaymentServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private OrderSnapshotService orderSnapshotService;
+
+    @Mock
+    private PaymentNotificationService paymentNotificationService;
+
+    @Mock
+    private StockHoldConfirmationService stockHoldConfirmationService;
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -66,9 +81,10 @@ class PaymentServiceImplTest {
     @DisplayName("Should return all payments successfully")
     void findAll_ShouldReturnAllPayments() {
         // Given
-        List<Payment> payments = Arrays.asList(payment);
-        when(paymentRepository.findAll()).thenReturn(payments);
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenReturn(orderDto);
+        List<PaymentDto> payments = Arrays.asList(new PaymentDto(
+                payment.getPaymentId(), payment.getIsPayed(), payment.getPaymentStatus(), payment.getOrderId()));
+        when(paymentRepository.findAllDtos()).thenReturn(payments);
+        when(orderSnapshotService.findAllById(Set.of(1))).thenReturn(Map.of(1, orderDto));
 
         // When
         List<PaymentDto> result = paymentService.findAll();
@@ -80,15 +96,40 @@ class PaymentServiceImplTest {
         assertEquals(payment.getIsPayed(), result.get(0).getIsPayed());
         assertEquals(payment.getPaymentStatus(), result.get(0).getPaymentStatus());
         
-        verify(paymentRepository).findAll();
-        verify(restTemplate).getForObject(anyString(), eq(OrderDto.class));
+        assertSame(orderDto, result.get(0).getOrderDto());
+        
+        verify(paymentRepository).findAllDtos();
+        verify(paymentRepository, never()).findAll();
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    @DisplayName("Should fetch payments with one repository query, one snapshot lookup and no order-service call")
+    void findAll_ShouldStayWithinBudget() {
+        // Given
+        when(paymentRepository.findAllDtos()).thenReturn(Arrays.asList(
+                new PaymentDto(1, false, PaymentStatus.NOT_STARTED, 1),
+                new PaymentDto(2, true, PaymentStatus.COMPLETED, 2),
+                new PaymentDto(3, false, PaymentStatus.IN_PROGRESS, 3)));
+        when(orderSnapshotService.findAllById(Set.of(1, 2, 3))).thenReturn(Map.of(1, orderDto));
+
+        // When
+        List<PaymentDto> result = paymentService.findAll();
+
+        // Then
+        assertEquals(3, result.size());
+        assertEquals(2, result.get(1).getOrderDto().getOrderId());
+        verify(paymentRepository, times(1)).findAllDtos();
+        verifyNoMoreInteractions(paymentRepository);
+        verify(orderSnapshotService, times(1)).findAllById(anySet());
+        assertRestCalls(restTemplate, 0);
     }
 
     @Test
     @DisplayName("Should return empty list when no payments exist")
     void findAll_ShouldReturnEmptyList_WhenNoPaymentsExist() {
         // Given
-        when(paymentRepository.findAll()).thenReturn(Arrays.asList());
+        when(paymentRepository.findAllDtos()).thenReturn(Arrays.asList());
 
         // When
         List<PaymentDto> result = paymentService.findAll();
@@ -96,8 +137,9 @@ class PaymentServiceImplTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(paymentRepository).findAll();
-        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
+        verify(paymentRepository).findAllDtos();
+        verify(orderSnapshotService).findAllById(Set.of());
+        verifyNoInteractions(restTemplate);
     }
 
     @Test
@@ -106,7 +148,7 @@ class PaymentServiceImplTest {
         // Given
         Integer paymentId = 1;
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenReturn(orderDto);
+        when(orderSnapshotService.findAllById(Set.of(1))).thenReturn(Map.of(1, orderDto));
 
         // When
         PaymentDto result = paymentService.findById(paymentId);
@@ -119,7 +161,7 @@ class PaymentServiceImplTest {
         assertNotNull(result.getOrderDto());
         
         verify(paymentRepository).findById(paymentId);
-        verify(restTemplate).getForObject(anyString(), eq(OrderDto.class));
+        verifyNoInteractions(restTemplate);
     }
 
     @Test
@@ -137,7 +179,7 @@ class PaymentServiceImplTest {
 
         assertEquals("Payment with id: 999 not found", exception.getMessage());
         verify(paymentRepository).findById(paymentId);
-        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
+        verifyNoInteractions(orderSnapshotService);
     }
 
     @Test
@@ -156,6 +198,8 @@ class PaymentServiceImplTest {
         assertEquals(payment.getPaymentStatus(), result.getPaymentStatus());
         
         verify(paymentRepository).save(any(Payment.class));
+        verifyNoInteractions(stockHoldConfirmationService);
+        verify(paymentNotificationService).notifyChanged(result);
     }
 
     @Test
@@ -188,6 +232,56 @@ class PaymentServiceImplTest {
         assertEquals(updatedPayment.getPaymentStatus(), result.getPaymentStatus());
         
         verify(paymentRepository).save(any(Payment.class));
+        verify(stockHoldConfirmationService).confirmAfterCommit(1);
+    }
+
+    @Test
+    @DisplayName("Should patch only provided fields of the loaded payment without saving")
+    void updateById_ShouldPatchLoadedPayment_WithoutSave() {
+        // Given
+        PaymentDto patch = PaymentDto.builder()
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .build();
+        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
+
+        // When
+        PaymentDto result = paymentService.update(1, patch);
+
+        // Then
+        assertEquals(PaymentStatus.IN_PROGRESS, result.getPaymentStatus());
+        assertFalse(result.getIsPayed());
+        assertEquals(1, result.getOrderDto().getOrderId());
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verifyNoInteractions(stockHoldConfirmationService);
+    }
+
+    @Test
+    @DisplayName("Should confirm stock holds once when patched payment becomes completed")
+    void updateById_ShouldConfirmStockHolds_WhenStatusBecomesCompleted() {
+        // Given
+        PaymentDto patch = PaymentDto.builder()
+                .isPayed(true)
+                .paymentStatus(PaymentStatus.COMPLETED)
+                .build();
+        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
+
+        // When
+        paymentService.update(1, patch);
+        paymentService.update(1, patch);
+
+        // Then
+        verify(stockHoldConfirmationService, times(1)).confirmAfterCommit(1);
+    }
+
+    @Test
+    @DisplayName("Should throw PaymentNotFoundException when patching unknown payment")
+    void updateById_ShouldThrowException_WhenPaymentNotFound() {
+        // Given
+        when(paymentRepository.findById(999)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.update(999, paymentDto));
+        verify(paymentRepository, never()).save(any(Payment.class));
     }
 
     @Test
@@ -203,6 +297,21 @@ class PaymentServiceImplTest {
         verify(paymentRepository).deleteById(paymentId);
     }
 
+    @Test
+    @DisplayName("Should announce a deleted payment together with its order")
+    void deleteById_ShouldNotifyChange_WhenPaymentExists() {
+        // Given
+        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
+
+        // When
+        paymentService.deleteById(1);
+
+        // Then
+        verify(paymentNotificationService).notifyChanged(argThat(notification -> notification.getPaymentId() == 1
+                && notification.getOrderDto().getOrderId() == 1));
+        verify(paymentRepository).deleteById(1);
+    }
+
     @Test
     @DisplayName("Should handle null payment dto gracefully")
     void save_ShouldHandleNullPaymentDto() {
@@ -225,7 +334,6 @@ class PaymentServiceImplTest {
                 .build();
 
         when(paymentRepository.findById(2)).thenReturn(Optional.of(inProgressPayment));
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenReturn(orderDto);
 
         // When
         PaymentDto result = paymentService.findById(2);
@@ -0,0 +1,73 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Stock Hold Confirmation Service Implementation Tests")
+class StockHoldConfirmationServiceImplTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private StockHoldConfirmationServiceImpl stockHoldConfirmationService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should confirm holds only once the payment transaction commits")
+    void confirmAfterCommit_ShouldWaitForCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        stockHoldConfirmationService.confirmAfterCommit(1);
+        stockHoldConfirmationService.confirmAfterCommit(1);
+
+        // When
+        int confirmedBeforeCommit = stockHoldConfirmationService.flush();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        int confirmed = stockHoldConfirmationService.flush();
+
+        // Then
+        assertEquals(0, confirmedBeforeCommit);
+        assertEquals(1, confirmed);
+        verify(restTemplate, times(1)).postForObject(endsWith("/api/holds/order/1/confirm"), isNull(), eq(Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should keep an order queued while product-service is unreachable")
+    void flush_ShouldRetry_WhenProductServiceUnreachable() {
+        // Given
+        stockHoldConfirmationService.confirmAfterCommit(1);
+        when(restTemplate.postForObject(anyString(), isNull(), eq(Integer.class)))
+                .thenThrow(new ResourceAccessException("connection refused"))
+                .thenReturn(1);
+
+        // When
+        int confirmedWhileDown = stockHoldConfirmationService.flush();
+        int confirmed = stockHoldConfirmationService.flush();
+
+        // Then
+        assertEquals(0, confirmedWhileDown);
+        assertEquals(1, confirmed);
+        assertEquals(0, stockHoldConfirmationService.flush());
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.selimhorri.app.config.hold;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.util.HashedTimingWheel;
+
+@Configuration
+public class StockHoldConfig {
+	
+	@Bean
+	public HashedTimingWheel<Integer> stockHoldTimingWheel(
+			@Value("${app.stock.hold.tick-ms:1000}") final long tickMillis,
+			@Value("${app.stock.hold.wheel-size:512}") final int wheelSize) {
+		return new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+	}
+	
+	
+	
+}
@@ -0,0 +1,25 @@
+package com.selimhorri.app.config.trending;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.util.DecayingHeavyHitters;
+
+@Configuration
+public class TrendingConfig {
+	
+	@Bean
+	public DecayingHeavyHitters trendingSketch(
+			@Value("${app.trending.top-k:100}") final int capacity,
+			@Value("${app.trending.width:2048}") final int width,
+			@Value("${app.trending.depth:4}") final int depth,
+			@Value("${app.trending.half-life:6h}") final Duration halfLife) {
+		return new DecayingHeavyHitters(capacity, width, depth, halfLife, System.currentTimeMillis());
+	}
+	
+	
+	
+}
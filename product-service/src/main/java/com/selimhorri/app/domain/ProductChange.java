@@ -0,0 +1,43 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.DynamicUpdate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@DynamicUpdate
+@Table(name = "product_changes")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class ProductChange extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "product_id", unique = true, nullable = false, updatable = false)
+	private Integer productId;
+	
+	// reassigned by the sequencer once a pending change is committed; the old number stays until then,
+	// so the highest number handed out never goes away and renumbering always continues above it
+	@Column(name = "sequence_number", unique = true)
+	private Long sequenceNumber;
+	
+	// set by every write of the product, cleared by the sequencer
+	@Column(name = "pending", nullable = false)
+	private Boolean pending;
+	
+}
@@ -0,0 +1,63 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "stock_holds")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class StockHold extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "hold_id", unique = true, nullable = false, updatable = false)
+	private Integer holdId;
+	
+	@Column(name = "product_id", nullable = false, updatable = false)
+	private Integer productId;
+	
+	@Column(name = "order_id")
+	private Integer orderId;
+	
+	@Column(name = "quantity", nullable = false, updatable = false)
+	private Integer quantity;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "hold_status", nullable = false)
+	private HoldStatus holdStatus;
+	
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+	
+}
+
+
+
+
+
+
+
+
+
+
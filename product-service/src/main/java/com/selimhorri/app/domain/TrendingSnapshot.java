@@ -0,0 +1,52 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "trending_snapshots")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class TrendingSnapshot extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "snapshot_id", unique = true, nullable = false, updatable = false)
+	private Integer snapshotId;
+	
+	@Column(name = "favourite_cursor", nullable = false)
+	private Long favouriteCursor;
+	
+	@Column(name = "order_item_cursor", nullable = false)
+	private Long orderItemCursor;
+	
+	@Lob
+	@Column(name = "payload", nullable = false)
+	private byte[] payload;
+	
+}
+
+
+
+
+
+
+
+
+
+
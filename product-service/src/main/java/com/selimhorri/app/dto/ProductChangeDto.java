@@ -0,0 +1,30 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductChangeDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Long sequenceNumber;
+	private Integer productId;
+	
+	// the product as it is now, absent once it has been deleted
+	@JsonProperty("product")
+	@JsonInclude(Include.NON_NULL)
+	private ProductDto productDto;
+	
+}
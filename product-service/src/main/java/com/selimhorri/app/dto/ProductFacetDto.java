@@ -0,0 +1,33 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductFacetDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	private Integer matchCount;
+	private Integer inStockCount;
+	private Map<Integer, Integer> categoryCounts;
+	private Map<String, Integer> priceRangeCounts;
+	
+}
+
+
+
+
+
+
+
+
+
+
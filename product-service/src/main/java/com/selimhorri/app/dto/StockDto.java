@@ -0,0 +1,38 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	private Integer productId;
+	
+	@NotNull(message = "Quantity must not be NULL!")
+	@Positive(message = "Quantity must be positive!")
+	private Integer quantity;
+	
+	private Integer remainingQuantity;
+	
+}
+
+
+
+
+
+
+
+
+
+
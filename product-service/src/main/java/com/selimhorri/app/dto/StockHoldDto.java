@@ -0,0 +1,51 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.selimhorri.app.domain.HoldStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockHoldDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	private Integer holdId;
+	
+	@NotNull(message = "Product id must not be NULL!")
+	private Integer productId;
+	
+	private Integer orderId;
+	
+	@NotNull(message = "Quantity must not be NULL!")
+	@Positive(message = "Quantity must be positive!")
+	private Integer quantity;
+	
+	private HoldStatus holdStatus;
+	
+	@JsonFormat(shape = Shape.STRING)
+	private Instant expiresAt;
+	
+}
+
+
+
+
+
+
+
+
+
+
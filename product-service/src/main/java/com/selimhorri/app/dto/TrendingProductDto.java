@@ -0,0 +1,37 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class TrendingProductDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	private Double score;
+	
+	@JsonProperty("product")
+	@JsonInclude(Include.NON_NULL)
+	private ProductDto productDto;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,40 @@
+package com.selimhorri.app.event;
+
+import com.selimhorri.app.dto.ProductDto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ProductChangedEvent {
+	
+	private final Integer productId;
+	private final ProductDto productDto;
+	
+	public static ProductChangedEvent saved(final ProductDto productDto) {
+		return new ProductChangedEvent(productDto.getProductId(), productDto);
+	}
+	
+	public static ProductChangedEvent deleted(final Integer productId) {
+		return new ProductChangedEvent(productId, null);
+	}
+	
+	public boolean isDeleted() {
+		return this.productDto == null;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
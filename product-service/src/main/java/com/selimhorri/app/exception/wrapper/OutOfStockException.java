@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class OutOfStockException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public OutOfStockException() {
+		super();
+	}
+	
+	public OutOfStockException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public OutOfStockException(String message) {
+		super(message);
+	}
+	
+	public OutOfStockException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
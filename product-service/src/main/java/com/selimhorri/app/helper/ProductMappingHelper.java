@@ -1,5 +1,7 @@
 package com.selimhorri.app.helper;
 
+import java.util.Optional;
+
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.CategoryDto;
@@ -15,12 +17,13 @@ public interface ProductMappingHelper {
 				.sku(product.getSku())
 				.priceUnit(product.getPriceUnit())
 				.quantity(product.getQuantity())
-				.categoryDto(
-						CategoryDto.builder()
-							.categoryId(product.getCategory().getCategoryId())
-							.categoryTitle(product.getCategory().getCategoryTitle())
-							.imageUrl(product.getCategory().getImageUrl())
+				.categoryDto(Optional.ofNullable(product.getCategory())
+						.map(category -> CategoryDto.builder()
+							.categoryId(category.getCategoryId())
+							.categoryTitle(category.getCategoryTitle())
+							.imageUrl(category.getImageUrl())
 							.build())
+						.orElse(null))
 				.build();
 	}
 	
@@ -32,15 +35,25 @@ public interface ProductMappingHelper {
 				.sku(productDto.getSku())
 				.priceUnit(productDto.getPriceUnit())
 				.quantity(productDto.getQuantity())
-				.category(
-						Category.builder()
-							.categoryId(productDto.getCategoryDto().getCategoryId())
-							.categoryTitle(productDto.getCategoryDto().getCategoryTitle())
-							.imageUrl(productDto.getCategoryDto().getImageUrl())
+				.category(Optional.ofNullable(productDto.getCategoryDto())
+						.map(categoryDto -> Category.builder()
+							.categoryId(categoryDto.getCategoryId())
+							.categoryTitle(categoryDto.getCategoryTitle())
+							.imageUrl(categoryDto.getImageUrl())
 							.build())
+						.orElse(null))
 				.build();
 	}
 	
+	public static Product patch(final Product product, final ProductDto productDto) {
+		Optional.ofNullable(productDto.getProductTitle()).ifPresent(product::setProductTitle);
+		Optional.ofNullable(productDto.getImageUrl()).ifPresent(product::setImageUrl);
+		Optional.ofNullable(productDto.getSku()).ifPresent(product::setSku);
+		Optional.ofNullable(productDto.getPriceUnit()).ifPresent(product::setPriceUnit);
+		Optional.ofNullable(productDto.getQuantity()).ifPresent(product::setQuantity);
+		return product;
+	}
+	
 	
 	
 }
@@ -0,0 +1,32 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.StockHold;
+import com.selimhorri.app.dto.StockHoldDto;
+
+public interface StockHoldMappingHelper {
+	
+	public static StockHoldDto map(final StockHold stockHold) {
+		return StockHoldDto.builder()
+				.holdId(stockHold.getHoldId())
+				.productId(stockHold.getProductId())
+				.orderId(stockHold.getOrderId())
+				.quantity(stockHold.getQuantity())
+				.holdStatus(stockHold.getHoldStatus())
+				.expiresAt(stockHold.getExpiresAt())
+				.build();
+	}
+	
+	public static StockHold map(final StockHoldDto stockHoldDto) {
+		return StockHold.builder()
+				.holdId(stockHoldDto.getHoldId())
+				.productId(stockHoldDto.getProductId())
+				.orderId(stockHoldDto.getOrderId())
+				.quantity(stockHoldDto.getQuantity())
+				.holdStatus(stockHoldDto.getHoldStatus())
+				.expiresAt(stockHoldDto.getExpiresAt())
+				.build();
+	}
+	
+	
+	
+}
@@ -0,0 +1,34 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.ProductChange;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Integer> {
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT c FROM ProductChange c WHERE c.pending = TRUE ORDER BY c.productId ASC")
+	List<ProductChange> findAllPending(final Pageable pageable);
+	
+	@Query("SELECT MAX(c.sequenceNumber) FROM ProductChange c")
+	Long findLastSequenceNumber();
+	
+	@Query("SELECT c FROM ProductChange c WHERE c.sequenceNumber > :after ORDER BY c.sequenceNumber ASC")
+	List<ProductChange> findAllSequencedAfter(@Param("after") final Long after, final Pageable pageable);
+	
+	@Modifying
+	@Query("UPDATE ProductChange c SET c.pending = TRUE WHERE c.productId = :productId")
+	int markPending(@Param("productId") final Integer productId);
+	
+	
+	
+}
@@ -1,10 +1,45 @@
 package com.selimhorri.app.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
 
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, ProductStockRepository {
+	
+	@Override
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	List<Product> findAll();
+	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	@Query("SELECT new com.selimhorri.app.dto.ProductDto(p.productId, p.productTitle, p.imageUrl, p.sku, p.priceUnit, p.quantity, "
+			+ "c.categoryId, c.categoryTitle, c.imageUrl) "
+			+ "FROM Product p LEFT JOIN p.category c")
+	List<ProductDto> findAllDtos();
+	
+	@Query("SELECT new com.selimhorri.app.dto.ProductDto(p.productId, p.productTitle, p.imageUrl, p.sku, p.priceUnit, p.quantity, "
+			+ "c.categoryId, c.categoryTitle, c.imageUrl) "
+			+ "FROM Product p LEFT JOIN p.category c WHERE p.productId IN :productIds")
+	List<ProductDto> findAllDtosByIdIn(@Param("productIds") final Collection<Integer> productIds);
+	
+	@Query("SELECT p.quantity FROM Product p WHERE p.productId = :productId")
+	Optional<Integer> findQuantityById(@Param("productId") final Integer productId);
+	
+	@Modifying
+	@Query("DELETE FROM Product p WHERE p.productId = :productId")
+	int deleteProductById(@Param("productId") final Integer productId);
 	
 	
 	
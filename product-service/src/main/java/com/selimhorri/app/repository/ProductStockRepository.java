@@ -0,0 +1,9 @@
+package com.selimhorri.app.repository;
+
+public interface ProductStockRepository {
+	
+	int decrementQuantity(final Integer productId, final Integer quantity);
+	
+	int incrementQuantity(final Integer productId, final Integer quantity);
+	
+}
@@ -0,0 +1,84 @@
+package com.selimhorri.app.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.selimhorri.app.domain.Product;
+
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+	
+	// a bulk update synchronized on the products table would make Hibernate drop the whole products region,
+	// so stock writes declare a space no entity maps to and evict the one product they changed
+	private static final String STOCK_QUERY_SPACE = "product_stock";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Override
+	@Transactional
+	public int decrementQuantity(final Integer productId, final Integer quantity) {
+		return this.updateQuantity("UPDATE products SET quantity = quantity - :quantity "
+				+ "WHERE product_id = :productId AND quantity >= :quantity", productId, quantity);
+	}
+	
+	@Override
+	@Transactional
+	public int incrementQuantity(final Integer productId, final Integer quantity) {
+		return this.updateQuantity("UPDATE products SET quantity = quantity + :quantity WHERE product_id = :productId",
+				productId, quantity);
+	}
+	
+	private int updateQuantity(final String sql, final Integer productId, final Integer quantity) {
+		this.entityManager.flush();
+		final int updated = this.entityManager.createNativeQuery(sql)
+				.unwrap(NativeQuery.class)
+				.addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+				.setParameter("productId", productId)
+				.setParameter("quantity", quantity)
+				.executeUpdate();
+		if (updated > 0) {
+			this.detach(productId);
+			this.evict(productId);
+		}
+		return updated;
+	}
+	
+	// only the changed product is stale in this persistence context, the caller's other entities stay managed
+	private void detach(final Integer productId) {
+		final var session = this.entityManager.unwrap(SessionImplementor.class);
+		final var persister = session.getFactory().getMetamodel().entityPersister(Product.class);
+		final Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(productId, persister));
+		if (managed != null)
+			this.entityManager.detach(managed);
+	}
+	
+	// evicted again after commit, a concurrent reader may have cached the old row while the update was uncommitted;
+	// cached findAllDtos rows carry the quantity too, so the query results go with it
+	private void evict(final Integer productId) {
+		final var cache = this.entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+		final Runnable eviction = () -> {
+			cache.evictEntityData(Product.class, productId);
+			cache.evictDefaultQueryRegion();
+		};
+		eviction.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				
+				@Override
+				public void afterCompletion(final int status) {
+					eviction.run();
+				}
+				
+			});
+	}
+	
+	
+	
+}
@@ -0,0 +1,26 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.HoldStatus;
+import com.selimhorri.app.domain.StockHold;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, Integer> {
+	
+	List<StockHold> findAllByHoldStatus(final HoldStatus holdStatus);
+	List<StockHold> findAllByOrderIdAndHoldStatus(final Integer orderId, final HoldStatus holdStatus);
+	
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE StockHold h SET h.holdStatus = :to WHERE h.holdId = :holdId AND h.holdStatus = :from")
+	int updateHoldStatus(@Param("holdId") final Integer holdId, @Param("from") final HoldStatus from, @Param("to") final HoldStatus to);
+	
+	
+	
+}
@@ -0,0 +1,11 @@
+package com.selimhorri.app.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.selimhorri.app.domain.TrendingSnapshot;
+
+public interface TrendingSnapshotRepository extends JpaRepository<TrendingSnapshot, Integer> {
+	
+	
+	
+}
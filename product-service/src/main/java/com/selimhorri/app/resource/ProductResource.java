@@ -1,5 +1,8 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -7,16 +10,27 @@ import javax.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.dto.ProductChangeDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.ProductFacetDto;
+import com.selimhorri.app.dto.StockDto;
+import com.selimhorri.app.dto.TrendingProductDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ProductChangeService;
+import com.selimhorri.app.service.ProductFacetService;
 import com.selimhorri.app.service.ProductService;
+import com.selimhorri.app.service.StockService;
+import com.selimhorri.app.service.TrendingService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +42,10 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductResource {
 	
 	private final ProductService productService;
+	private final ProductFacetService productFacetService;
+	private final StockService stockService;
+	private final TrendingService trendingService;
+	private final ProductChangeService productChangeService;
 	
 	@GetMapping
 	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAll() {
@@ -35,6 +53,38 @@ public class ProductResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAll()));
 	}
 	
+	@GetMapping(params = "ids")
+	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAllById(
+			@RequestParam("ids") final Set<Integer> productIds) {
+		log.info("*** ProductDto List, resource; fetch products by ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAllById(productIds)));
+	}
+	
+	@GetMapping("/facets")
+	public ResponseEntity<ProductFacetDto> findFacets(
+			@RequestParam(name = "categoryId", required = false) final Set<Integer> categoryIds,
+			@RequestParam(name = "minPrice", required = false) final Double minPrice,
+			@RequestParam(name = "maxPrice", required = false) final Double maxPrice,
+			@RequestParam(name = "inStock", required = false) final Boolean inStock) {
+		log.info("*** ProductFacetDto, resource; fetch product facets *");
+		return ResponseEntity.ok(this.productFacetService.findFacets(categoryIds, minPrice, maxPrice, inStock));
+	}
+	
+	@GetMapping("/trending")
+	public ResponseEntity<DtoCollectionResponse<TrendingProductDto>> findTrending(
+			@RequestParam(name = "limit", defaultValue = "20") final int limit) {
+		log.info("*** TrendingProductDto List, resource; fetch trending products *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.trendingService.findTrending(limit)));
+	}
+	
+	@GetMapping("/changes")
+	public ResponseEntity<DtoChangeFeedResponse<ProductChangeDto>> findAllChangedAfter(
+			@RequestParam(name = "after", defaultValue = "0") final Long after,
+			@RequestParam(name = "limit", defaultValue = "100") final int limit) {
+		log.info("*** ProductChangeDto Feed, resource; fetch product changes after cursor *");
+		return ResponseEntity.ok(this.productChangeService.findAllChangedAfter(after, limit));
+	}
+	
 	@GetMapping("/{productId}")
 	public ResponseEntity<ProductDto> findById(
 			@PathVariable("productId") 
@@ -74,6 +124,30 @@ public class ProductResource {
 		return ResponseEntity.ok(this.productService.update(Integer.parseInt(productId), productDto));
 	}
 	
+	@PatchMapping("/{productId}")
+	public ResponseEntity<ProductDto> patch(
+			@PathVariable("productId")
+			@NotBlank(message = "Input must not be blank!")
+			@Valid final String productId,
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final ProductDto productDto) {
+		log.info("*** ProductDto, resource; patch product with productId *");
+		return ResponseEntity.ok(this.productService.patch(Integer.parseInt(productId), productDto));
+	}
+	
+	@PostMapping("/{productId}/stock/decrement")
+	public ResponseEntity<StockDto> decrementStock(
+			@PathVariable("productId")
+			@NotBlank(message = "Input must not be blank!")
+			@Valid final String productId,
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final StockDto stockDto) {
+		log.info("*** StockDto, resource; decrement product stock *");
+		return ResponseEntity.ok(this.stockService.decrement(Integer.parseInt(productId), stockDto.getQuantity()));
+	}
+	
 	@DeleteMapping("/{productId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("productId") final String productId) {
 		log.info("*** Boolean, resource; delete product by id *");
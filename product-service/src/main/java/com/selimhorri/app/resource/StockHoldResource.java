@@ -0,0 +1,76 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.StockHoldDto;
+import com.selimhorri.app.service.StockHoldService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/holds")
+@Slf4j
+@RequiredArgsConstructor
+public class StockHoldResource {
+	
+	private final StockHoldService stockHoldService;
+	
+	@GetMapping("/{holdId}")
+	public ResponseEntity<StockHoldDto> findById(
+			@PathVariable("holdId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String holdId) {
+		log.info("*** StockHoldDto, resource; fetch stock hold by id *");
+		return ResponseEntity.ok(this.stockHoldService.findById(Integer.parseInt(holdId)));
+	}
+	
+	@PostMapping
+	public ResponseEntity<StockHoldDto> save(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final StockHoldDto stockHoldDto) {
+		log.info("*** StockHoldDto, resource; save stock hold *");
+		return ResponseEntity.ok(this.stockHoldService.save(stockHoldDto));
+	}
+	
+	@PostMapping("/{holdId}/confirm")
+	public ResponseEntity<StockHoldDto> confirm(
+			@PathVariable("holdId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String holdId) {
+		log.info("*** StockHoldDto, resource; confirm stock hold *");
+		return ResponseEntity.ok(this.stockHoldService.confirm(Integer.parseInt(holdId)));
+	}
+	
+	@PostMapping("/{holdId}/release")
+	public ResponseEntity<StockHoldDto> release(
+			@PathVariable("holdId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String holdId) {
+		log.info("*** StockHoldDto, resource; release stock hold *");
+		return ResponseEntity.ok(this.stockHoldService.release(Integer.parseInt(holdId)));
+	}
+	
+	@PostMapping("/order/{orderId}/confirm")
+	public ResponseEntity<Integer> confirmByOrderId(
+			@PathVariable("orderId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String orderId) {
+		log.info("*** Integer, resource; confirm stock holds by order id *");
+		return ResponseEntity.ok(this.stockHoldService.confirmByOrderId(Integer.parseInt(orderId)));
+	}
+	
+	
+	
+}
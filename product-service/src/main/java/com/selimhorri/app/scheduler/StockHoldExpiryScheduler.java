@@ -0,0 +1,49 @@
+package com.selimhorri.app.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.service.StockHoldService;
+import com.selimhorri.app.util.HashedTimingWheel;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StockHoldExpiryScheduler {
+	
+	private final HashedTimingWheel<Integer> stockHoldTimingWheel;
+	private final StockHoldService stockHoldService;
+	
+	@Value("${app.stock.hold.tick-ms:1000}")
+	private long tickMillis;
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void reloadActiveHolds() {
+		final var activeHolds = this.stockHoldService.findAllActive();
+		activeHolds.forEach(h -> this.stockHoldTimingWheel.schedule(h.getHoldId(), h.getExpiresAt().toEpochMilli()));
+		log.info("*** Void, scheduler; reloaded {} active stock holds *", activeHolds.size());
+	}
+	
+	@Scheduled(fixedRateString = "${app.stock.hold.tick-ms:1000}")
+	public void tick() {
+		final long now = System.currentTimeMillis();
+		this.stockHoldTimingWheel.advance(now).forEach(holdId -> {
+			try {
+				this.stockHoldService.expire(holdId);
+			}
+			catch (RuntimeException e) {
+				log.error("*** Void, scheduler; expire stock hold {} failed, retrying next tick *", holdId, e);
+				this.stockHoldTimingWheel.schedule(holdId, now + this.tickMillis);
+			}
+		});
+	}
+	
+	
+	
+}
@@ -0,0 +1,12 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.ProductChangeDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+
+public interface ProductChangeService {
+	
+	DtoChangeFeedResponse<ProductChangeDto> findAllChangedAfter(final Long after, final int limit);
+	void record(final Integer productId);
+	int sequence();
+	
+}
@@ -0,0 +1,12 @@
+package com.selimhorri.app.service;
+
+import java.util.Set;
+
+import com.selimhorri.app.dto.ProductFacetDto;
+
+public interface ProductFacetService {
+	
+	ProductFacetDto findFacets(final Set<Integer> categoryIds, final Double minPrice, final Double maxPrice, final Boolean inStock);
+	void rebuild();
+	
+}
@@ -1,6 +1,7 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.Set;
 
 import com.selimhorri.app.dto.ProductDto;
 
@@ -8,9 +9,11 @@ public interface ProductService {
 	
 	List<ProductDto> findAll();
 	ProductDto findById(final Integer productId);
+	List<ProductDto> findAllById(final Set<Integer> productIds);
 	ProductDto save(final ProductDto productDto);
 	ProductDto update(final ProductDto productDto);
 	ProductDto update(final Integer productId, final ProductDto productDto);
+	ProductDto patch(final Integer productId, final ProductDto productDto);
 	void deleteById(final Integer productId);
 	
 }
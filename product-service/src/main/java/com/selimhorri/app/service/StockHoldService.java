@@ -0,0 +1,17 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.StockHoldDto;
+
+public interface StockHoldService {
+	
+	List<StockHoldDto> findAllActive();
+	StockHoldDto findById(final Integer holdId);
+	StockHoldDto save(final StockHoldDto stockHoldDto);
+	StockHoldDto confirm(final Integer holdId);
+	Integer confirmByOrderId(final Integer orderId);
+	StockHoldDto release(final Integer holdId);
+	void expire(final Integer holdId);
+	
+}
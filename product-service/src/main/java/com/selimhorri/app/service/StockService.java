@@ -0,0 +1,11 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.StockDto;
+
+public interface StockService {
+	
+	StockDto decrement(final Integer productId, final Integer quantity);
+	void increment(final Integer productId, final Integer quantity);
+	void flush();
+	
+}
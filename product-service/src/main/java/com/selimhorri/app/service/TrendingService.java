@@ -0,0 +1,13 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.TrendingProductDto;
+
+public interface TrendingService {
+	
+	List<TrendingProductDto> findTrending(final int limit);
+	void poll();
+	void snapshot();
+	
+}
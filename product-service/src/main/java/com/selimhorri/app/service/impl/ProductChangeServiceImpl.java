@@ -0,0 +1,116 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.ProductChange;
+import com.selimhorri.app.dto.ProductChangeDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+import com.selimhorri.app.repository.ProductChangeRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductChangeService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductChangeServiceImpl implements ProductChangeService {
+	
+	private static final int MAX_FEED_SIZE = 500;
+	
+	private final ProductChangeRepository productChangeRepository;
+	private final ProductRepository productRepository;
+	private final PlatformTransactionManager transactionManager;
+	
+	@Value("${app.product-change.sequence-batch-size:200}")
+	private int batchSize;
+	
+	// every change carries the product as it is at read time, so a consumer only ever needs the latest entry per product
+	@Override
+	@Transactional(readOnly = true)
+	public DtoChangeFeedResponse<ProductChangeDto> findAllChangedAfter(final Long after, final int limit) {
+		log.info("*** ProductChangeDto Feed, service; fetch product changes after cursor *");
+		final var changes = this.productChangeRepository.findAllSequencedAfter(after,
+				PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_FEED_SIZE)));
+		if (changes.isEmpty())
+			return new DtoChangeFeedResponse<>(List.of(), after);
+		final Map<Integer, ProductDto> products = this.productRepository.findAllDtosByIdIn(changes.stream()
+					.map(ProductChange::getProductId)
+					.collect(Collectors.toUnmodifiableSet()))
+				.stream()
+					.collect(Collectors.toMap(ProductDto::getProductId, Function.identity(), (left, right) -> left));
+		return DtoChangeFeedResponse.<ProductChangeDto>builder()
+				.collection(changes.stream()
+						.map(c -> ProductChangeDto.builder()
+								.sequenceNumber(c.getSequenceNumber())
+								.productId(c.getProductId())
+								.productDto(products.get(c.getProductId()))
+								.build())
+						.collect(Collectors.toUnmodifiableList()))
+				.cursor(changes.get(changes.size() - 1).getSequenceNumber())
+				.build();
+	}
+	
+	// runs in the caller's transaction: one row per product, so repeated writes of a product collapse into a single change
+	@Override
+	@Transactional
+	public void record(final Integer productId) {
+		if (this.productChangeRepository.markPending(productId) == 0)
+			this.productChangeRepository.save(ProductChange.builder()
+					.productId(productId)
+					.pending(true)
+					.build());
+	}
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.product-change.sequence-interval-ms:500}",
+			initialDelayString = "${app.product-change.sequence-interval-ms:500}")
+	public synchronized int sequence() {
+		final int size = Math.max(this.batchSize, 1);
+		int sequenced = 0;
+		int batch;
+		do {
+			batch = this.sequenceBatch(size);
+			sequenced += batch;
+		}
+		while (batch == size);
+		if (sequenced > 0)
+			log.info("*** Integer, service; sequenced {} product changes *", sequenced);
+		return sequenced;
+	}
+	
+	// numbers committed changes after the last one handed out; the rows stay locked until commit,
+	// so sequencers of other instances queue behind this one instead of handing out the same numbers
+	private int sequenceBatch(final int size) {
+		return new TransactionTemplate(this.transactionManager,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+				.execute(status -> {
+					final var changes = this.productChangeRepository.findAllPending(PageRequest.of(0, size));
+					long next = Objects.requireNonNullElse(this.productChangeRepository.findLastSequenceNumber(), 0L);
+					for (final var change : changes) {
+						change.setSequenceNumber(++next);
+						change.setPending(false);
+					}
+					return changes.size();
+				});
+	}
+	
+	
+	
+}
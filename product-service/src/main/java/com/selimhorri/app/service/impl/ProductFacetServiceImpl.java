@@ -0,0 +1,261 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.ProductFacetDto;
+import com.selimhorri.app.event.ProductChangedEvent;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductFacetService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductFacetServiceImpl implements ProductFacetService {
+	
+	private static final double[] PRICE_RANGE_BOUNDS = {10, 50, 100, 500, 1000};
+	private static final int NO_CATEGORY = -1;
+	private static final int INITIAL_CAPACITY = 64;
+	
+	private final ProductRepository productRepository;
+	
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Integer, Integer> slots = new HashMap<>();
+	private final Deque<Integer> freeSlots = new ArrayDeque<>();
+	private final BitSet live = new BitSet();
+	private final BitSet inStock = new BitSet();
+	private final Map<Integer, BitSet> categories = new HashMap<>();
+	private final BitSet[] priceRanges = newPriceRanges();
+	private int[] categoryIds = new int[INITIAL_CAPACITY];
+	private double[] prices = new double[INITIAL_CAPACITY];
+	private int slotCount;
+	
+	@Override
+	public ProductFacetDto findFacets(final Set<Integer> categoryIds, final Double minPrice,
+			final Double maxPrice, final Boolean inStock) {
+		log.info("*** ProductFacetDto, service; fetch product facets *");
+		this.lock.readLock().lock();
+		try {
+			final var base = (BitSet) this.live.clone();
+			if (inStock != null) {
+				if (inStock)
+					base.and(this.inStock);
+				else
+					base.andNot(this.inStock);
+			}
+			
+			final var categoryFilter = this.categoryFilter(categoryIds);
+			final var priceFilter = this.priceFilter(minPrice, maxPrice);
+			final var withPrice = intersect(base, priceFilter);
+			final var withCategory = intersect(base, categoryFilter);
+			
+			final Map<Integer, Integer> categoryCounts = new TreeMap<>();
+			this.categories.forEach((categoryId, categorySlots) -> {
+				final int count = intersectionCount(withPrice, categorySlots);
+				if (categoryId != NO_CATEGORY && count > 0)
+					categoryCounts.put(categoryId, count);
+			});
+			
+			final Map<String, Integer> priceRangeCounts = new LinkedHashMap<>();
+			for (int i = 0; i < this.priceRanges.length; i++)
+				priceRangeCounts.put(priceRangeLabel(i), intersectionCount(withCategory, this.priceRanges[i]));
+			
+			return ProductFacetDto.builder()
+					.matchCount(intersect(withPrice, categoryFilter).cardinality())
+					.inStockCount(intersectionCount(intersect(intersect(this.live, categoryFilter), priceFilter), this.inStock))
+					.categoryCounts(categoryCounts)
+					.priceRangeCounts(priceRangeCounts)
+					.build();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+	
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		log.info("*** Void, service; rebuild product facet index *");
+		final var products = this.productRepository.findAll();
+		this.lock.writeLock().lock();
+		try {
+			this.slots.clear();
+			this.freeSlots.clear();
+			this.live.clear();
+			this.inStock.clear();
+			this.categories.clear();
+			Arrays.stream(this.priceRanges).forEach(BitSet::clear);
+			this.slotCount = 0;
+			products.forEach(p -> this.index(p.getProductId(),
+					Optional.ofNullable(p.getCategory()).map(Category::getCategoryId).orElse(NO_CATEGORY),
+					p.getPriceUnit(),
+					p.getQuantity()));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(final ProductChangedEvent event) {
+		this.lock.writeLock().lock();
+		try {
+			if (event.isDeleted()) {
+				this.remove(event.getProductId());
+			}
+			else {
+				final ProductDto productDto = event.getProductDto();
+				this.index(productDto.getProductId(),
+						Optional.ofNullable(productDto.getCategoryDto()).map(CategoryDto::getCategoryId).orElse(NO_CATEGORY),
+						productDto.getPriceUnit(),
+						productDto.getQuantity());
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	private void index(final Integer productId, final Integer categoryId, final Double price, final Integer quantity) {
+		final int slot = this.slots.computeIfAbsent(productId, id -> this.allocateSlot());
+		this.clearSlot(slot);
+		this.categoryIds[slot] = categoryId == null ? NO_CATEGORY : categoryId;
+		this.prices[slot] = price == null ? 0 : price;
+		this.live.set(slot);
+		if (quantity != null && quantity > 0)
+			this.inStock.set(slot);
+		this.categories.computeIfAbsent(this.categoryIds[slot], c -> new BitSet()).set(slot);
+		this.priceRanges[priceRangeOf(this.prices[slot])].set(slot);
+	}
+	
+	private void remove(final Integer productId) {
+		final Integer slot = this.slots.remove(productId);
+		if (slot != null) {
+			this.clearSlot(slot);
+			this.freeSlots.push(slot);
+		}
+	}
+	
+	private void clearSlot(final int slot) {
+		if (!this.live.get(slot))
+			return;
+		this.live.clear(slot);
+		this.inStock.clear(slot);
+		final var categorySlots = this.categories.get(this.categoryIds[slot]);
+		if (categorySlots != null) {
+			categorySlots.clear(slot);
+			if (categorySlots.isEmpty())
+				this.categories.remove(this.categoryIds[slot]);
+		}
+		this.priceRanges[priceRangeOf(this.prices[slot])].clear(slot);
+	}
+	
+	private int allocateSlot() {
+		if (!this.freeSlots.isEmpty())
+			return this.freeSlots.pop();
+		if (this.slotCount == this.categoryIds.length) {
+			this.categoryIds = Arrays.copyOf(this.categoryIds, this.slotCount * 2);
+			this.prices = Arrays.copyOf(this.prices, this.slotCount * 2);
+		}
+		return this.slotCount++;
+	}
+	
+	private BitSet categoryFilter(final Set<Integer> categoryIds) {
+		if (categoryIds == null || categoryIds.isEmpty())
+			return null;
+		final var filter = new BitSet();
+		categoryIds.stream()
+				.map(this.categories::get)
+				.filter(categorySlots -> categorySlots != null)
+				.forEach(filter::or);
+		return filter;
+	}
+	
+	private BitSet priceFilter(final Double minPrice, final Double maxPrice) {
+		if (minPrice == null && maxPrice == null)
+			return null;
+		final double low = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+		final double high = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+		final var filter = new BitSet();
+		for (int i = 0; i < this.priceRanges.length; i++) {
+			final double rangeLow = i == 0 ? Double.NEGATIVE_INFINITY : PRICE_RANGE_BOUNDS[i - 1];
+			final double rangeHigh = i == PRICE_RANGE_BOUNDS.length ? Double.POSITIVE_INFINITY : PRICE_RANGE_BOUNDS[i];
+			if (rangeHigh <= low || rangeLow > high)
+				continue;
+			if (rangeLow >= low && rangeHigh <= high) {
+				filter.or(this.priceRanges[i]);
+				continue;
+			}
+			final var range = this.priceRanges[i];
+			for (int slot = range.nextSetBit(0); slot >= 0; slot = range.nextSetBit(slot + 1))
+				if (this.prices[slot] >= low && this.prices[slot] <= high)
+					filter.set(slot);
+		}
+		return filter;
+	}
+	
+	private static BitSet intersect(final BitSet left, final BitSet right) {
+		if (right == null)
+			return left;
+		final var result = (BitSet) left.clone();
+		result.and(right);
+		return result;
+	}
+	
+	private static int intersectionCount(final BitSet left, final BitSet right) {
+		return intersect(left, right).cardinality();
+	}
+	
+	private static int priceRangeOf(final double price) {
+		for (int i = 0; i < PRICE_RANGE_BOUNDS.length; i++)
+			if (price < PRICE_RANGE_BOUNDS[i])
+				return i;
+		return PRICE_RANGE_BOUNDS.length;
+	}
+	
+	private static String priceRangeLabel(final int range) {
+		if (range == PRICE_RANGE_BOUNDS.length)
+			return String.format("%.0f+", PRICE_RANGE_BOUNDS[range - 1]);
+		return String.format("%.0f-%.0f", range == 0 ? 0 : PRICE_RANGE_BOUNDS[range - 1], PRICE_RANGE_BOUNDS[range]);
+	}
+	
+	private static BitSet[] newPriceRanges() {
+		final var ranges = new BitSet[PRICE_RANGE_BOUNDS.length + 1];
+		for (int i = 0; i < ranges.length; i++)
+			ranges[i] = new BitSet();
+		return ranges;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
@@ -1,16 +1,23 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.event.ProductChangedEvent;
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.helper.ProductMappingHelper;
+import com.selimhorri.app.repository.CategoryRepository;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductChangeService;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,18 +30,22 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductServiceImpl implements ProductService {
 	
 	private final ProductRepository productRepository;
+	private final CategoryRepository categoryRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ProductChangeService productChangeService;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<ProductDto> findAll() {
 		log.info("*** ProductDto List, service; fetch all products *");
-		return this.productRepository.findAll()
+		return this.productRepository.findAllDtos()
 				.stream()
-					.map(ProductMappingHelper::map)
 					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public ProductDto findById(final Integer productId) {
 		log.info("*** ProductDto, service; fetch product by id *");
 		return this.productRepository.findById(productId)
@@ -42,32 +53,69 @@ public class ProductServiceImpl implements ProductService {
 				.orElseThrow(() -> new ProductNotFoundException(String.format("Product with id: %d not found", productId)));
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public List<ProductDto> findAllById(final Set<Integer> productIds) {
+		log.info("*** ProductDto List, service; fetch products by ids *");
+		return productIds.isEmpty() ? List.of() : this.productRepository.findAllDtosByIdIn(productIds);
+	}
+	
 	@Override
 	public ProductDto save(final ProductDto productDto) {
 		log.info("*** ProductDto, service; save product *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(productDto)));
+		return this.publishSaved(ProductMappingHelper.map(this.productRepository
+				.save(ProductMappingHelper.map(productDto))));
 	}
 	
 	@Override
 	public ProductDto update(final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(productDto)));
+		return this.publishSaved(ProductMappingHelper.map(this.productRepository
+				.save(ProductMappingHelper.map(productDto))));
 	}
 	
+	// PUT replaces the whole product, the path id wins over whatever id the body carries
 	@Override
 	public ProductDto update(final Integer productId, final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product with productId *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(this.findById(productId))));
+		if (!this.productRepository.existsById(productId))
+			throw new ProductNotFoundException(String.format("Product with id: %d not found", productId));
+		productDto.setProductId(productId);
+		return this.publishSaved(ProductMappingHelper.map(this.productRepository
+				.save(ProductMappingHelper.map(productDto))));
+	}
+	
+	@Override
+	public ProductDto patch(final Integer productId, final ProductDto productDto) {
+		log.info("*** ProductDto, service; patch product with productId *");
+		final var product = this.productRepository.findById(productId)
+				.orElseThrow(() -> new ProductNotFoundException(String.format("Product with id: %d not found", productId)));
+		final var previous = ProductMappingHelper.map(product);
+		ProductMappingHelper.patch(product, productDto);
+		Optional.ofNullable(productDto.getCategoryDto())
+				.map(CategoryDto::getCategoryId)
+				.filter(categoryId -> product.getCategory() == null || !categoryId.equals(product.getCategory().getCategoryId()))
+				.ifPresent(categoryId -> product.setCategory(this.categoryRepository.findById(categoryId)
+						.orElseThrow(() -> new CategoryNotFoundException(String.format("Category with id: %d not found", categoryId)))));
+		final var patched = ProductMappingHelper.map(product);
+		// a patch changing nothing stays out of the change log, projections would only re-read the same product
+		return previous.equals(patched) ? patched : this.publishSaved(patched);
 	}
 	
 	@Override
 	public void deleteById(final Integer productId) {
 		log.info("*** Void, service; delete product by id *");
-		this.productRepository.delete(ProductMappingHelper
-				.map(this.findById(productId)));
+		if (this.productRepository.deleteProductById(productId) == 0)
+			throw new ProductNotFoundException(String.format("Product with id: %d not found", productId));
+		this.productChangeService.record(productId);
+		this.eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
+	}
+	
+	// only catalogue writes enter the change log, stock movements keep it quiet during sales
+	private ProductDto publishSaved(final ProductDto productDto) {
+		this.productChangeService.record(productDto.getProductId());
+		this.eventPublisher.publishEvent(ProductChangedEvent.saved(productDto));
+		return productDto;
 	}
 	
 	
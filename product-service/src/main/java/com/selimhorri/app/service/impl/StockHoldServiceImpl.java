@@ -0,0 +1,114 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.domain.HoldStatus;
+import com.selimhorri.app.dto.StockHoldDto;
+import com.selimhorri.app.exception.wrapper.StockHoldNotFoundException;
+import com.selimhorri.app.helper.StockHoldMappingHelper;
+import com.selimhorri.app.repository.StockHoldRepository;
+import com.selimhorri.app.service.StockHoldService;
+import com.selimhorri.app.service.StockService;
+import com.selimhorri.app.util.HashedTimingWheel;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class StockHoldServiceImpl implements StockHoldService {
+	
+	private final StockHoldRepository stockHoldRepository;
+	private final StockService stockService;
+	private final HashedTimingWheel<Integer> stockHoldTimingWheel;
+	
+	@Value("${app.stock.hold.ttl:10m}")
+	private Duration holdTtl;
+	
+	@Override
+	public List<StockHoldDto> findAllActive() {
+		log.info("*** StockHoldDto List, service; fetch all active stock holds *");
+		return this.stockHoldRepository.findAllByHoldStatus(HoldStatus.ACTIVE)
+				.stream()
+					.map(StockHoldMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	@Override
+	public StockHoldDto findById(final Integer holdId) {
+		log.info("*** StockHoldDto, service; fetch stock hold by id *");
+		return this.stockHoldRepository.findById(holdId)
+				.map(StockHoldMappingHelper::map)
+				.orElseThrow(() -> new StockHoldNotFoundException(String.format("Stock hold with id: %d not found", holdId)));
+	}
+	
+	@Override
+	public StockHoldDto save(final StockHoldDto stockHoldDto) {
+		log.info("*** StockHoldDto, service; save stock hold *");
+		this.stockService.decrement(stockHoldDto.getProductId(), stockHoldDto.getQuantity());
+		stockHoldDto.setHoldId(null);
+		stockHoldDto.setHoldStatus(HoldStatus.ACTIVE);
+		stockHoldDto.setExpiresAt(Instant.now().plus(this.holdTtl));
+		final var saved = StockHoldMappingHelper.map(this.stockHoldRepository
+				.save(StockHoldMappingHelper.map(stockHoldDto)));
+		this.stockHoldTimingWheel.schedule(saved.getHoldId(), saved.getExpiresAt().toEpochMilli());
+		return saved;
+	}
+	
+	@Override
+	public StockHoldDto confirm(final Integer holdId) {
+		log.info("*** StockHoldDto, service; confirm stock hold *");
+		this.transition(holdId, HoldStatus.CONFIRMED);
+		return this.findById(holdId);
+	}
+	
+	@Override
+	public Integer confirmByOrderId(final Integer orderId) {
+		log.info("*** Integer, service; confirm stock holds by order id *");
+		return (int) this.stockHoldRepository.findAllByOrderIdAndHoldStatus(orderId, HoldStatus.ACTIVE)
+				.stream()
+					.filter(h -> this.stockHoldRepository
+							.updateHoldStatus(h.getHoldId(), HoldStatus.ACTIVE, HoldStatus.CONFIRMED) == 1)
+					.count();
+	}
+	
+	@Override
+	public StockHoldDto release(final Integer holdId) {
+		log.info("*** StockHoldDto, service; release stock hold *");
+		final var stockHoldDto = this.findById(holdId);
+		this.transition(holdId, HoldStatus.RELEASED);
+		this.stockService.increment(stockHoldDto.getProductId(), stockHoldDto.getQuantity());
+		stockHoldDto.setHoldStatus(HoldStatus.RELEASED);
+		return stockHoldDto;
+	}
+	
+	@Override
+	public void expire(final Integer holdId) {
+		this.stockHoldRepository.findById(holdId)
+				.filter(h -> h.getHoldStatus() == HoldStatus.ACTIVE)
+				.filter(h -> this.stockHoldRepository
+						.updateHoldStatus(holdId, HoldStatus.ACTIVE, HoldStatus.EXPIRED) == 1)
+				.ifPresent(h -> {
+					log.info("*** Void, service; expire stock hold {} *", holdId);
+					this.stockService.increment(h.getProductId(), h.getQuantity());
+				});
+	}
+	
+	private void transition(final Integer holdId, final HoldStatus to) {
+		if (this.stockHoldRepository.updateHoldStatus(holdId, HoldStatus.ACTIVE, to) == 0)
+			throw new StockHoldNotFoundException(String.format("Active stock hold with id: %d not found", holdId));
+	}
+	
+	
+	
+}
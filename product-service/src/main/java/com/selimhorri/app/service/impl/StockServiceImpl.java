@@ -0,0 +1,167 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.selimhorri.app.dto.StockDto;
+import com.selimhorri.app.event.ProductChangedEvent;
+import com.selimhorri.app.exception.wrapper.OutOfStockException;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.helper.ProductMappingHelper;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.StockService;
+import com.selimhorri.app.util.StripedStockCounter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class StockServiceImpl implements StockService {
+	
+	private final ProductRepository productRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Map<Integer, StripedStockCounter> hotCounters = new ConcurrentHashMap<>();
+	
+	@Value("${app.stock.hot-product-ids:}")
+	private Set<Integer> hotProductIds;
+	
+	@Value("${app.stock.stripes:8}")
+	private int stripes;
+	
+	@Override
+	public StockDto decrement(final Integer productId, final Integer quantity) {
+		log.info("*** StockDto, service; decrement product stock *");
+		if (this.hotProductIds.contains(productId))
+			return this.decrementHot(productId, quantity);
+		
+		if (this.productRepository.decrementQuantity(productId, quantity) == 0) {
+			this.productRepository.findQuantityById(productId)
+					.orElseThrow(() -> new ProductNotFoundException(String.format("Product with id: %d not found", productId)));
+			throw new OutOfStockException(String.format("Product with id: %d has not enough stock for quantity: %d", productId, quantity));
+		}
+		
+		final var productDto = this.productRepository.findById(productId)
+				.map(ProductMappingHelper::map)
+				.orElseThrow(() -> new ProductNotFoundException(String.format("Product with id: %d not found", productId)));
+		this.eventPublisher.publishEvent(ProductChangedEvent.saved(productDto));
+		return StockDto.builder()
+				.productId(productId)
+				.quantity(quantity)
+				.remainingQuantity(productDto.getQuantity())
+				.build();
+	}
+	
+	@Override
+	public void increment(final Integer productId, final Integer quantity) {
+		log.info("*** Void, service; increment product stock *");
+		final var counter = this.hotCounters.get(productId);
+		if (counter != null) {
+			counter.release(quantity);
+			return;
+		}
+		
+		if (this.productRepository.incrementQuantity(productId, quantity) == 0)
+			throw new ProductNotFoundException(String.format("Product with id: %d not found", productId));
+		this.productRepository.findById(productId)
+				.map(ProductMappingHelper::map)
+				.ifPresent(productDto -> this.eventPublisher.publishEvent(ProductChangedEvent.saved(productDto)));
+	}
+	
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	@Scheduled(fixedDelayString = "${app.stock.flush-interval-ms:500}")
+	public void flush() {
+		this.hotCounters.forEach(this::flush);
+	}
+	
+	@PreDestroy
+	public void flushOnShutdown() {
+		log.info("*** Void, service; flush hot stock before shutdown *");
+		this.flush();
+	}
+	
+	// any committed quantity write moves the persisted stock under the counter, so it is reseeded from the row;
+	// this includes the flush's own write, which leaves only the sales made since the drain pending
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(final ProductChangedEvent event) {
+		if (event.isDeleted()) {
+			this.hotCounters.remove(event.getProductId());
+			return;
+		}
+		final var counter = this.hotCounters.get(event.getProductId());
+		if (counter == null)
+			return;
+		synchronized (counter) {
+			this.productRepository.findQuantityById(event.getProductId())
+					.ifPresent(counter::reseed);
+		}
+	}
+	
+	// sold units stay pending until the row takes them: a row that cannot absorb them keeps them for the next flush
+	// instead of dropping them, and the counter is reseeded so nothing more is sold meanwhile
+	private void flush(final Integer productId, final StripedStockCounter counter) {
+		synchronized (counter) {
+			final int pending = counter.drainPending();
+			if (pending == 0)
+				return;
+			try {
+				if (this.productRepository.decrementQuantity(productId, pending) == 0) {
+					counter.restorePending(pending);
+					final int quantity = this.productRepository.findQuantityById(productId).orElse(0);
+					log.warn("*** Void, service; hot stock of product {} diverged, {} sold units wait on stock {} *",
+							productId, pending, quantity);
+					counter.reseed(quantity);
+					return;
+				}
+				this.productRepository.findById(productId)
+						.map(ProductMappingHelper::map)
+						.ifPresent(productDto -> this.eventPublisher.publishEvent(ProductChangedEvent.saved(productDto)));
+			}
+			catch (RuntimeException e) {
+				log.error("*** Void, service; flush hot stock of product {} failed, retrying later *", productId, e);
+				counter.restorePending(pending);
+			}
+		}
+	}
+	
+	private StockDto decrementHot(final Integer productId, final Integer quantity) {
+		final var counter = this.hotCounters.computeIfAbsent(productId, id -> new StripedStockCounter(
+				this.productRepository.findQuantityById(id)
+						.orElseThrow(() -> new ProductNotFoundException(String.format("Product with id: %d not found", id))),
+				this.stripes));
+		if (!counter.tryDecrement(quantity))
+			throw new OutOfStockException(String.format("Product with id: %d has not enough stock for quantity: %d", productId, quantity));
+		return StockDto.builder()
+				.productId(productId)
+				.quantity(quantity)
+				.remainingQuantity(counter.available())
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
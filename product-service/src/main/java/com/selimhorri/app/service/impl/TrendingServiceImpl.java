@@ -0,0 +1,174 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.TrendingSnapshot;
+import com.selimhorri.app.dto.PopularitySignalDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.TrendingProductDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.event.ProductChangedEvent;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.TrendingSnapshotRepository;
+import com.selimhorri.app.service.TrendingService;
+import com.selimhorri.app.util.DecayingHeavyHitters;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TrendingServiceImpl implements TrendingService {
+	
+	private static final int SNAPSHOT_ID = 1;
+	private static final int MAX_PAGES_PER_POLL = 20;
+	private static final ParameterizedTypeReference<DtoFeedResponse<PopularitySignalDto>> SIGNAL_FEED_TYPE =
+			new ParameterizedTypeReference<DtoFeedResponse<PopularitySignalDto>>() {};
+	
+	private final DecayingHeavyHitters trendingSketch;
+	private final ProductRepository productRepository;
+	private final TrendingSnapshotRepository trendingSnapshotRepository;
+	private final RestTemplate restTemplate;
+	
+	private Long favouriteCursor = 0L;
+	private Long orderItemCursor = 0L;
+	
+	@Value("${app.trending.top-k:100}")
+	private int maxLimit;
+	
+	@Value("${app.trending.feed-batch-size:500}")
+	private int feedBatchSize;
+	
+	@Value("${app.trending.favourite-weight:1.0}")
+	private double favouriteWeight;
+	
+	@Value("${app.trending.order-item-weight:3.0}")
+	private double orderItemWeight;
+	
+	@Override
+	public List<TrendingProductDto> findTrending(final int limit) {
+		log.info("*** TrendingProductDto List, service; fetch trending products *");
+		final var scores = this.trendingSketch.top(Math.min(Math.max(limit, 1), this.maxLimit), System.currentTimeMillis());
+		if (scores.isEmpty())
+			return List.of();
+		final Map<Integer, ProductDto> products = this.productRepository.findAllDtosByIdIn(scores.keySet())
+				.stream()
+					.collect(Collectors.toMap(ProductDto::getProductId, Function.identity()));
+		return scores.entrySet()
+				.stream()
+					.filter(e -> products.containsKey(e.getKey()))
+					.map(e -> TrendingProductDto.builder()
+							.score(e.getValue())
+							.productDto(products.get(e.getKey()))
+							.build())
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.trending.poll-interval-ms:10000}")
+	public synchronized void poll() {
+		this.favouriteCursor = this.drain(AppConstant.DiscoveredDomainsApi.FAVOURITE_SERVICE_API_URL,
+				this.favouriteCursor, s -> this.favouriteWeight);
+		this.orderItemCursor = this.drain(AppConstant.DiscoveredDomainsApi.SHIPPING_SERVICE_API_URL,
+				this.orderItemCursor, s -> this.orderItemWeight * Math.max(Objects.requireNonNullElse(s.getOrderedQuantity(), 1), 1));
+	}
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.trending.snapshot-interval-ms:300000}",
+			initialDelayString = "${app.trending.snapshot-interval-ms:300000}")
+	public synchronized void snapshot() {
+		log.info("*** Void, service; snapshot trending sketch *");
+		this.trendingSnapshotRepository.save(TrendingSnapshot.builder()
+				.snapshotId(SNAPSHOT_ID)
+				.favouriteCursor(this.favouriteCursor)
+				.orderItemCursor(this.orderItemCursor)
+				.payload(this.trendingSketch.toByteArray())
+				.build());
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void restore() {
+		this.trendingSnapshotRepository.findById(SNAPSHOT_ID).ifPresent(snapshot -> {
+			try {
+				this.trendingSketch.restore(snapshot.getPayload());
+				this.favouriteCursor = snapshot.getFavouriteCursor();
+				this.orderItemCursor = snapshot.getOrderItemCursor();
+				log.info("*** Void, service; restored trending sketch with {} products *", this.trendingSketch.size());
+			}
+			catch (IllegalArgumentException e) {
+				log.warn("*** Void, service; trending snapshot unusable, rebuilding from feeds *", e);
+			}
+		});
+	}
+	
+	@PreDestroy
+	public void snapshotOnShutdown() {
+		log.info("*** Void, service; snapshot trending sketch before shutdown *");
+		try {
+			this.snapshot();
+		}
+		catch (RuntimeException e) {
+			log.error("*** Void, service; snapshot trending sketch on shutdown failed *", e);
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(final ProductChangedEvent event) {
+		if (event.isDeleted())
+			this.trendingSketch.remove(event.getProductId());
+	}
+	
+	private Long drain(final String apiUrl, final Long cursor, final ToDoubleFunction<PopularitySignalDto> weight) {
+		var current = cursor;
+		try {
+			for (int page = 0; page < MAX_PAGES_PER_POLL; page++) {
+				final var feed = this.restTemplate.exchange(apiUrl + "/feed?after=" + current + "&limit=" + this.feedBatchSize,
+						HttpMethod.GET, null, SIGNAL_FEED_TYPE).getBody();
+				if (feed == null || feed.getCollection().isEmpty() || feed.getCursor() <= current)
+					return current;
+				// each signal decays from its own creation time, the feed is ordered by commit rather than by time
+				final long pollMillis = System.currentTimeMillis();
+				feed.getCollection().forEach(s -> this.trendingSketch.add(s.getProductId(), weight.applyAsDouble(s),
+						s.getCreatedAt() == null ? pollMillis : s.getCreatedAt().toEpochMilli()));
+				current = feed.getCursor();
+			}
+		}
+		catch (RuntimeException e) {
+			log.warn("*** Void, service; poll {} failed, retrying from {} *", apiUrl, current, e);
+		}
+		return current;
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
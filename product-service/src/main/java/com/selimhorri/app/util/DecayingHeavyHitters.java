@@ -0,0 +1,257 @@
+package com.selimhorri.app.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+public final class DecayingHeavyHitters {
+	
+	private static final int FORMAT_VERSION = 1;
+	private static final double MAX_EXPONENT = 64;
+	
+	private final int capacity;
+	private final int width;
+	private final int depth;
+	private final double lambda;
+	private final double[][] counters;
+	private final int[] heapKeys;
+	private final double[] heapScores;
+	private final Map<Integer, Integer> heapIndex = new HashMap<>();
+	private int heapSize;
+	private long landmarkMillis;
+	
+	public DecayingHeavyHitters(final int capacity, final int width, final int depth,
+			final Duration halfLife, final long startMillis) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive");
+		if (width < 1 || Integer.bitCount(width) != 1)
+			throw new IllegalArgumentException("Width must be a power of two");
+		if (depth < 1)
+			throw new IllegalArgumentException("Depth must be positive");
+		if (halfLife.isZero() || halfLife.isNegative())
+			throw new IllegalArgumentException("Half-life must be positive");
+		this.capacity = capacity;
+		this.width = width;
+		this.depth = depth;
+		this.lambda = Math.log(2) / halfLife.toMillis();
+		this.counters = new double[depth][width];
+		this.heapKeys = new int[capacity];
+		this.heapScores = new double[capacity];
+		this.landmarkMillis = startMillis;
+	}
+	
+	public synchronized void add(final int key, final double weight, final long eventMillis) {
+		if (weight <= 0)
+			return;
+		double exponent = this.lambda * (eventMillis - this.landmarkMillis);
+		if (exponent > MAX_EXPONENT) {
+			this.rescale(eventMillis);
+			exponent = 0;
+		}
+		// forward decay: scale the increment up instead of decaying every counter, so heap order is time-invariant
+		final int[] buckets = this.buckets(key);
+		double estimate = Double.MAX_VALUE;
+		for (int row = 0; row < this.depth; row++)
+			estimate = Math.min(estimate, this.counters[row][buckets[row]]);
+		// conservative update: only raise the counters that fall below the new estimate
+		final double target = estimate + weight * Math.exp(exponent);
+		for (int row = 0; row < this.depth; row++)
+			this.counters[row][buckets[row]] = Math.max(this.counters[row][buckets[row]], target);
+		this.offer(key, target);
+	}
+	
+	public synchronized double estimate(final int key, final long nowMillis) {
+		final int[] buckets = this.buckets(key);
+		double estimate = Double.MAX_VALUE;
+		for (int row = 0; row < this.depth; row++)
+			estimate = Math.min(estimate, this.counters[row][buckets[row]]);
+		return estimate * this.decayFactor(nowMillis);
+	}
+	
+	public synchronized Map<Integer, Double> top(final int limit, final long nowMillis) {
+		final double decay = this.decayFactor(nowMillis);
+		final Map<Integer, Double> top = new LinkedHashMap<>();
+		IntStream.range(0, this.heapSize)
+				.boxed()
+				.sorted(Comparator.comparingDouble((Integer i) -> this.heapScores[i]).reversed())
+				.limit(Math.max(limit, 0))
+				.forEach(i -> top.put(this.heapKeys[i], this.heapScores[i] * decay));
+		return top;
+	}
+	
+	public synchronized void remove(final int key) {
+		final Integer index = this.heapIndex.remove(key);
+		if (index == null)
+			return;
+		this.heapSize--;
+		if (index == this.heapSize)
+			return;
+		this.heapKeys[index] = this.heapKeys[this.heapSize];
+		this.heapScores[index] = this.heapScores[this.heapSize];
+		this.heapIndex.put(this.heapKeys[index], index);
+		this.siftDown(this.siftUp(index));
+	}
+	
+	public synchronized int size() {
+		return this.heapSize;
+	}
+	
+	public synchronized byte[] toByteArray() {
+		final var bytes = new ByteArrayOutputStream();
+		try (final var out = new DataOutputStream(bytes)) {
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(this.width);
+			out.writeInt(this.depth);
+			out.writeLong(this.landmarkMillis);
+			for (final double[] row : this.counters)
+				for (final double counter : row)
+					out.writeDouble(counter);
+			out.writeInt(this.heapSize);
+			for (int i = 0; i < this.heapSize; i++) {
+				out.writeInt(this.heapKeys[i]);
+				out.writeDouble(this.heapScores[i]);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+	
+	public synchronized void restore(final byte[] snapshot) {
+		try (final var in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+			if (in.readInt() != FORMAT_VERSION || in.readInt() != this.width || in.readInt() != this.depth)
+				throw new IllegalArgumentException("Snapshot does not match the sketch dimensions");
+			final long landmarkMillis = in.readLong();
+			final double[][] counters = new double[this.depth][this.width];
+			for (final double[] row : counters)
+				for (int i = 0; i < this.width; i++)
+					row[i] = in.readDouble();
+			final int entries = in.readInt();
+			final Map<Integer, Double> heap = new HashMap<>();
+			for (int i = 0; i < entries; i++)
+				heap.put(in.readInt(), in.readDouble());
+			
+			this.landmarkMillis = landmarkMillis;
+			for (int row = 0; row < this.depth; row++)
+				System.arraycopy(counters[row], 0, this.counters[row], 0, this.width);
+			this.heapIndex.clear();
+			this.heapSize = 0;
+			heap.forEach(this::offer);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Snapshot is truncated or corrupt", e);
+		}
+	}
+	
+	private void offer(final int key, final double score) {
+		final Integer index = this.heapIndex.get(key);
+		if (index != null) {
+			this.heapScores[index] = Math.max(this.heapScores[index], score);
+			this.siftDown(index);
+		}
+		else if (this.heapSize < this.capacity) {
+			this.heapKeys[this.heapSize] = key;
+			this.heapScores[this.heapSize] = score;
+			this.heapIndex.put(key, this.heapSize);
+			this.siftUp(this.heapSize++);
+		}
+		else if (score > this.heapScores[0]) {
+			this.heapIndex.remove(this.heapKeys[0]);
+			this.heapKeys[0] = key;
+			this.heapScores[0] = score;
+			this.heapIndex.put(key, 0);
+			this.siftDown(0);
+		}
+	}
+	
+	private int siftUp(int index) {
+		while (index > 0) {
+			final int parent = (index - 1) / 2;
+			if (this.heapScores[parent] <= this.heapScores[index])
+				break;
+			this.swap(index, parent);
+			index = parent;
+		}
+		return index;
+	}
+	
+	private void siftDown(int index) {
+		while (true) {
+			final int left = 2 * index + 1;
+			final int right = left + 1;
+			int smallest = index;
+			if (left < this.heapSize && this.heapScores[left] < this.heapScores[smallest])
+				smallest = left;
+			if (right < this.heapSize && this.heapScores[right] < this.heapScores[smallest])
+				smallest = right;
+			if (smallest == index)
+				return;
+			this.swap(index, smallest);
+			index = smallest;
+		}
+	}
+	
+	private void swap(final int i, final int j) {
+		final int key = this.heapKeys[i];
+		final double score = this.heapScores[i];
+		this.heapKeys[i] = this.heapKeys[j];
+		this.heapScores[i] = this.heapScores[j];
+		this.heapKeys[j] = key;
+		this.heapScores[j] = score;
+		this.heapIndex.put(this.heapKeys[i], i);
+		this.heapIndex.put(this.heapKeys[j], j);
+	}
+	
+	private void rescale(final long nowMillis) {
+		final double factor = Math.exp(-this.lambda * (nowMillis - this.landmarkMillis));
+		for (final double[] row : this.counters)
+			for (int i = 0; i < this.width; i++)
+				row[i] *= factor;
+		for (int i = 0; i < this.heapSize; i++)
+			this.heapScores[i] *= factor;
+		this.landmarkMillis = nowMillis;
+	}
+	
+	private double decayFactor(final long nowMillis) {
+		return Math.exp(-this.lambda * (nowMillis - this.landmarkMillis));
+	}
+	
+	private int[] buckets(final int key) {
+		final int[] buckets = new int[this.depth];
+		for (int row = 0; row < this.depth; row++)
+			buckets[row] = mix(key ^ (0x9E3779B9 * (row + 1))) & (this.width - 1);
+		return buckets;
+	}
+	
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,98 @@
+package com.selimhorri.app.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class HashedTimingWheel<T> {
+	
+	private final long tickMillis;
+	private final long startMillis;
+	private final int mask;
+	private final List<ArrayDeque<Entry<T>>> buckets;
+	private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private long currentTick;
+	
+	public HashedTimingWheel(final long tickMillis, final int wheelSize, final long startMillis) {
+		if (tickMillis < 1)
+			throw new IllegalArgumentException("Tick duration must be positive");
+		if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1)
+			throw new IllegalArgumentException("Wheel size must be a power of two");
+		this.tickMillis = tickMillis;
+		this.startMillis = startMillis;
+		this.mask = wheelSize - 1;
+		this.buckets = new ArrayList<>(wheelSize);
+		for (int i = 0; i < wheelSize; i++)
+			this.buckets.add(new ArrayDeque<>());
+	}
+	
+	public void schedule(final T item, final long deadlineMillis) {
+		this.pending.offer(new Entry<>(item, deadlineMillis));
+		this.size.incrementAndGet();
+	}
+	
+	public synchronized List<T> advance(final long nowMillis) {
+		final long targetTick = Math.floorDiv(nowMillis - this.startMillis, this.tickMillis);
+		final List<T> expired = new ArrayList<>();
+		while (this.currentTick <= targetTick) {
+			this.transferPending();
+			final var bucket = this.buckets.get((int) (this.currentTick & this.mask));
+			for (int i = bucket.size(); i > 0; i--) {
+				final var entry = bucket.poll();
+				if (entry.remainingRounds <= 0) {
+					expired.add(entry.item);
+					this.size.decrementAndGet();
+				}
+				else {
+					entry.remainingRounds--;
+					bucket.offer(entry);
+				}
+			}
+			this.currentTick++;
+		}
+		return expired;
+	}
+	
+	public int size() {
+		return this.size.get();
+	}
+	
+	private void transferPending() {
+		for (Entry<T> entry = this.pending.poll(); entry != null; entry = this.pending.poll()) {
+			final long deadlineTick = Math.max(this.currentTick,
+					-Math.floorDiv(this.startMillis - entry.deadlineMillis, this.tickMillis));
+			entry.remainingRounds = (deadlineTick - this.currentTick) / this.buckets.size();
+			this.buckets.get((int) (deadlineTick & this.mask)).offer(entry);
+		}
+	}
+	
+	private static final class Entry<T> {
+		
+		private final T item;
+		private final long deadlineMillis;
+		private long remainingRounds;
+		
+		private Entry(final T item, final long deadlineMillis) {
+			this.item = item;
+			this.deadlineMillis = deadlineMillis;
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
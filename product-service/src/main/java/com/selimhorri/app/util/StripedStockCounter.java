@@ -0,0 +1,114 @@
+package com.selimhorri.app.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class StripedStockCounter {
+	
+	private static final int PADDING = 16;
+	
+	private final int stripeCount;
+	private final AtomicIntegerArray stripes;
+	private final LongAdder pending = new LongAdder();
+	
+	public StripedStockCounter(final int available, final int stripeCount) {
+		if (stripeCount < 1)
+			throw new IllegalArgumentException("Stripe count must be positive");
+		this.stripeCount = stripeCount;
+		this.stripes = new AtomicIntegerArray(stripeCount * PADDING);
+		this.reset(available);
+	}
+	
+	// counted as pending before a stripe is touched, so a reseed racing this call errs towards less stock, never more
+	public boolean tryDecrement(final int quantity) {
+		if (quantity < 1)
+			throw new IllegalArgumentException("Quantity must be positive");
+		this.pending.add(quantity);
+		final int start = (int) (Thread.currentThread().getId() % this.stripeCount);
+		for (int i = 0; i < this.stripeCount; i++) {
+			final int index = ((start + i) % this.stripeCount) * PADDING;
+			int current = this.stripes.get(index);
+			while (current >= quantity) {
+				if (this.stripes.compareAndSet(index, current, current - quantity))
+					return true;
+				current = this.stripes.get(index);
+			}
+		}
+		if (this.tryDecrementAcrossStripes(quantity))
+			return true;
+		this.pending.add(-quantity);
+		return false;
+	}
+	
+	public void release(final int quantity) {
+		if (quantity < 1)
+			throw new IllegalArgumentException("Quantity must be positive");
+		final int index = (int) (Thread.currentThread().getId() % this.stripeCount) * PADDING;
+		this.stripes.addAndGet(index, quantity);
+		this.pending.add(-quantity);
+	}
+	
+	public int available() {
+		int available = 0;
+		for (int i = 0; i < this.stripeCount; i++)
+			available += this.stripes.get(i * PADDING);
+		return available;
+	}
+	
+	public int drainPending() {
+		return (int) this.pending.sumThenReset();
+	}
+	
+	public void restorePending(final int quantity) {
+		this.pending.add(quantity);
+	}
+	
+	// the persisted quantity does not include what is still pending, so that much stays taken
+	public synchronized void reseed(final int persisted) {
+		this.reset(persisted - (int) this.pending.sum());
+	}
+	
+	public synchronized void reset(final int available) {
+		final int share = Math.max(available, 0) / this.stripeCount;
+		final int remainder = Math.max(available, 0) % this.stripeCount;
+		for (int i = 0; i < this.stripeCount; i++)
+			this.stripes.set(i * PADDING, share + (i < remainder ? 1 : 0));
+	}
+	
+	private synchronized boolean tryDecrementAcrossStripes(final int quantity) {
+		final int[] taken = new int[this.stripeCount];
+		int remaining = quantity;
+		for (int i = 0; i < this.stripeCount && remaining > 0; i++) {
+			final int index = i * PADDING;
+			int current = this.stripes.get(index);
+			while (current > 0) {
+				final int take = Math.min(current, remaining);
+				if (this.stripes.compareAndSet(index, current, current - take)) {
+					taken[i] = take;
+					remaining -= take;
+					break;
+				}
+				current = this.stripes.get(index);
+			}
+		}
+		if (remaining == 0)
+			return true;
+		for (int i = 0; i < this.stripeCount; i++)
+			if (taken[i] > 0)
+				this.stripes.addAndGet(i * PADDING, taken[i]);
+		return false;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
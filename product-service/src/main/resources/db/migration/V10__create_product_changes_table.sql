@@ -0,0 +1,13 @@
+
+CREATE TABLE product_changes (
+	product_id INT(11) NOT NULL PRIMARY KEY,
+	sequence_number BIGINT,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX uk_product_changes_sequence_number ON product_changes (sequence_number);
+
+INSERT INTO product_changes (product_id)
+SELECT product_id FROM products;
+
@@ -0,0 +1,4 @@
+ALTER TABLE product_changes ADD COLUMN pending BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE product_changes SET pending = TRUE WHERE sequence_number IS NULL;
+
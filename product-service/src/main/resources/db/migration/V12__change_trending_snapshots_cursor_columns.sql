@@ -0,0 +1,8 @@
+
+DELETE FROM trending_snapshots;
+
+ALTER TABLE trending_snapshots DROP COLUMN favourite_cursor;
+ALTER TABLE trending_snapshots DROP COLUMN order_item_cursor;
+ALTER TABLE trending_snapshots ADD COLUMN favourite_cursor BIGINT NOT NULL;
+ALTER TABLE trending_snapshots ADD COLUMN order_item_cursor BIGINT NOT NULL;
+
@@ -0,0 +1,15 @@
+
+CREATE TABLE stock_holds (
+	hold_id INT(11) NOT NULL PRIMARY KEY AUTO_INCREMENT,
+	product_id INT(11) NOT NULL,
+	order_id INT(11),
+	quantity INT(11) NOT NULL,
+	hold_status VARCHAR(255) NOT NULL,
+	expires_at TIMESTAMP NOT NULL,
+	created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+	updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_stock_holds_hold_status ON stock_holds (hold_status);
+CREATE INDEX idx_stock_holds_order_id ON stock_holds (order_id);
+
@@ -0,0 +1,12 @@
+
+CREATE TABLE IF NOT EXISTS id_generators (
+	sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+	next_val BIGINT
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'categories', COALESCE(MAX(category_id), 0) + 1 FROM categories;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'products', COALESCE(MAX(product_id), 0) + 1 FROM products;
+
@@ -0,0 +1,10 @@
+
+CREATE TABLE trending_snapshots (
+	snapshot_id INT(11) NOT NULL PRIMARY KEY,
+	favourite_cursor TIMESTAMP NOT NULL,
+	order_item_cursor TIMESTAMP NOT NULL,
+	payload BLOB NOT NULL,
+	created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+	updated_at TIMESTAMP
+);
+
@@ -0,0 +1,97 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.Product;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stockdb;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+@DisplayName("Product Repository Concurrency Tests")
+class ProductRepositoryConcurrencyTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should never oversell under thousands of parallel decrements")
+    void decrementQuantity_ShouldNotOversell_WhenContended() throws Exception {
+        // Given
+        int stock = 1_000;
+        int attempts = 3_000;
+        Product product = productRepository.save(Product.builder()
+                .productTitle("flash-sale")
+                .sku("flash-sale-sku")
+                .priceUnit(9.99)
+                .quantity(stock)
+                .build());
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < attempts; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return productRepository.decrementQuantity(product.getProductId(), 1);
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Integer> result : results)
+            succeeded += result.get();
+        executor.shutdown();
+
+        // Then
+        assertEquals(stock, succeeded);
+        assertEquals(0, productRepository.findQuantityById(product.getProductId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should reject a decrement larger than the remaining stock")
+    void decrementQuantity_ShouldReturnZero_WhenStockIsInsufficient() {
+        // Given
+        Product product = productRepository.save(Product.builder()
+                .productTitle("scarce")
+                .sku("scarce-sku")
+                .priceUnit(1.0)
+                .quantity(2)
+                .build());
+
+        // When
+        int updated = productRepository.decrementQuantity(product.getProductId(), 3);
+
+        // Then
+        assertEquals(0, updated);
+        assertEquals(2, productRepository.findQuantityById(product.getProductId()).orElseThrow());
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Product Second-Level Cache Tests")
+class ProductSecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Integer productId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Category category = categoryRepository.save(Category.builder()
+                .categoryTitle("Books")
+                .build());
+        productId = productRepository.save(Product.builder()
+                .productTitle("Refactoring")
+                .sku("refactoring-sku")
+                .priceUnit(39.99)
+                .quantity(10)
+                .category(category)
+                .build())
+                .getProductId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should serve a repeated findById and its category from the second-level cache")
+    void findById_ShouldHitCache_OnRepeatedReads() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> productRepository.findById(productId).orElseThrow());
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+
+        // When
+        Product product = transactionTemplate.execute(status -> {
+            Product cached = productRepository.findById(productId).orElseThrow();
+            assertEquals("Books", cached.getCategory().getCategoryTitle());
+            return cached;
+        });
+
+        // Then
+        assertEquals("Refactoring", product.getProductTitle());
+        assertTrue(statementsAfterFirstRead > 0);
+        assertEquals(statementsAfterFirstRead, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    @DisplayName("Should cache findAll results until a product is written")
+    void findAll_ShouldUseQueryCache_UntilInvalidated() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> productRepository.findAll());
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> productRepository.findAll());
+        long hitsBeforeWrite = statistics.getQueryCacheHitCount();
+        productRepository.decrementQuantity(productId, 1);
+        transactionTemplate.executeWithoutResult(status -> productRepository.findAll());
+
+        // Then
+        assertEquals(1, hitsBeforeWrite);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(2, statistics.getQueryCacheMissCount());
+    }
+
+    @Test
+    @DisplayName("Should evict only the product whose stock changed")
+    void decrementQuantity_ShouldEvictOnlyTheChangedProduct() {
+        // Given
+        Integer otherProductId = productRepository.save(Product.builder()
+                .productTitle("Domain-Driven Design")
+                .sku("ddd-sku")
+                .priceUnit(49.99)
+                .quantity(5)
+                .build())
+                .getProductId();
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.findById(productId).orElseThrow();
+            productRepository.findById(otherProductId).orElseThrow();
+        });
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> productRepository.decrementQuantity(productId, 1));
+
+        // Then
+        assertFalse(entityManagerFactory.getCache().contains(Product.class, productId));
+        assertTrue(entityManagerFactory.getCache().contains(Product.class, otherProductId));
+        Product product = transactionTemplate.execute(status -> productRepository.findById(productId).orElseThrow());
+        assertEquals(9, product.getQuantity());
+    }
+
+}
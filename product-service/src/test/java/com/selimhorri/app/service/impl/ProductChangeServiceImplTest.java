@@ -0,0 +1,131 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductChangeDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+import com.selimhorri.app.repository.ProductChangeRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+@DataJpaTest
+@Import({ProductChangeServiceImpl.class, ProductServiceImpl.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Product Change Service Tests")
+class ProductChangeServiceImplTest {
+
+    @Autowired
+    private ProductChangeServiceImpl productChangeService;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productChangeRepository.deleteAllInBatch();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should collapse repeated writes of a product into one change, visible once sequenced")
+    void record_ShouldCollapseWritesOfSameProduct() {
+        // Given
+        Product product = saveProduct("asus");
+        productChangeService.record(product.getProductId());
+        productChangeService.record(product.getProductId());
+        productChangeService.record(product.getProductId());
+        assertTrue(productChangeService.findAllChangedAfter(0L, 100).getCollection().isEmpty());
+
+        // When
+        int sequenced = productChangeService.sequence();
+        DtoChangeFeedResponse<ProductChangeDto> feed = productChangeService.findAllChangedAfter(0L, 100);
+
+        // Then
+        assertEquals(1, sequenced);
+        assertEquals(1, feed.getCollection().size());
+        ProductChangeDto change = feed.getCollection().iterator().next();
+        assertEquals(product.getProductId(), change.getProductId());
+        assertEquals("asus", change.getProductDto().getProductTitle());
+        assertEquals(change.getSequenceNumber(), feed.getCursor());
+    }
+
+    @Test
+    @DisplayName("Should log no change for a patch that leaves the product as it was")
+    void patch_ShouldNotRecordChange_WhenNothingChanged() {
+        // Given
+        Product product = saveProduct("asus");
+
+        // When
+        productService.patch(product.getProductId(), ProductDto.builder().productTitle("asus").build());
+        long unchanged = productChangeRepository.count();
+        productService.patch(product.getProductId(), ProductDto.builder().productTitle("asus rog").build());
+
+        // Then
+        assertEquals(0L, unchanged);
+        assertEquals(1L, productChangeRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should move a rewritten product after the cursor and report deleted products without payload")
+    void sequence_ShouldRenumberChangedProducts() {
+        // Given
+        Product kept = saveProduct("asus");
+        Product deleted = saveProduct("hp");
+        productChangeService.record(kept.getProductId());
+        productChangeService.record(deleted.getProductId());
+        productChangeService.sequence();
+        long cursor = productChangeService.findAllChangedAfter(0L, 100).getCursor();
+
+        // When
+        productChangeService.record(kept.getProductId());
+        productRepository.deleteById(deleted.getProductId());
+        productChangeService.record(deleted.getProductId());
+        productChangeService.sequence();
+        DtoChangeFeedResponse<ProductChangeDto> feed = productChangeService.findAllChangedAfter(cursor, 100);
+
+        // Then
+        List<ProductChangeDto> changes = List.copyOf(feed.getCollection());
+        assertEquals(List.of(cursor + 1, cursor + 2), changes.stream()
+                .map(ProductChangeDto::getSequenceNumber)
+                .collect(Collectors.toList()));
+        assertEquals("asus", changes.stream()
+                .filter(c -> c.getProductId().equals(kept.getProductId()))
+                .findFirst().orElseThrow().getProductDto().getProductTitle());
+        assertNull(changes.stream()
+                .filter(c -> c.getProductId().equals(deleted.getProductId()))
+                .findFirst().orElseThrow().getProductDto());
+        assertEquals(cursor + 2, feed.getCursor());
+        assertEquals(0, productChangeService.findAllChangedAfter(feed.getCursor(), 100).getCollection().size());
+    }
+
+    private Product saveProduct(final String productTitle) {
+        return productRepository.save(Product.builder()
+                .productTitle(productTitle)
+                .sku(productTitle + "-sku")
+                .priceUnit(9.99)
+                .quantity(10)
+                .build());
+    }
+
+}
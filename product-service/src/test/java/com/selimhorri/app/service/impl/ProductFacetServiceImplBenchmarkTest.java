@@ -0,0 +1,105 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.dto.ProductFacetDto;
+import com.selimhorri.app.repository.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+@Slf4j
+@DisplayName("Product Facet Service Benchmark")
+class ProductFacetServiceImplBenchmarkTest {
+
+    private static final int CATEGORIES = 50;
+    private static final int PRODUCTS = 50_000;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private ProductFacetServiceImpl productFacetService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.batchUpdate("INSERT INTO categories (category_id, category_title) VALUES (?, ?)",
+                IntStream.rangeClosed(1, CATEGORIES)
+                        .mapToObj(i -> new Object[] { i, "category-" + i })
+                        .collect(Collectors.toList()));
+        jdbcTemplate.batchUpdate("INSERT INTO products (product_id, product_title, sku, price_unit, quantity, category_id) VALUES (?, ?, ?, ?, ?, ?)",
+                IntStream.rangeClosed(1, PRODUCTS)
+                        .mapToObj(i -> new Object[] { i, "product-" + i, "sku-" + i, (i * 37) % 1500 + 0.99, i % 7, i % CATEGORIES + 1 })
+                        .collect(Collectors.toList()));
+
+        productFacetService = new ProductFacetServiceImpl(productRepository);
+        long start = System.nanoTime();
+        productFacetService.rebuild();
+        log.info("Facet index rebuilt from {} products in {} ms", PRODUCTS, (System.nanoTime() - start) / 1_000_000);
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should match SQL GROUP BY counts while answering faster")
+    void findFacets_ShouldMatchSqlCounts() {
+        // Given
+        Set<Integer> categoryIds = Set.of(3, 7, 11);
+
+        // When
+        long sqlStart = System.nanoTime();
+        Map<Integer, Integer> sqlCounts = new HashMap<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sqlCounts.clear();
+            entityManager.createQuery(
+                    "SELECT p.category.categoryId, COUNT(p) FROM Product p "
+                            + "WHERE p.priceUnit BETWEEN :minPrice AND :maxPrice AND p.quantity > 0 "
+                            + "GROUP BY p.category.categoryId", Object[].class)
+                    .setParameter("minPrice", 100.0)
+                    .setParameter("maxPrice", 750.0)
+                    .getResultList()
+                    .forEach(row -> sqlCounts.put((Integer) row[0], ((Long) row[1]).intValue()));
+        }
+        long sqlNanos = System.nanoTime() - sqlStart;
+
+        long indexStart = System.nanoTime();
+        ProductFacetDto facets = null;
+        for (int i = 0; i < ITERATIONS; i++)
+            facets = productFacetService.findFacets(categoryIds, 100.0, 750.0, true);
+        long indexNanos = System.nanoTime() - indexStart;
+
+        // Then
+        assertEquals(sqlCounts, facets.getCategoryCounts());
+        assertEquals(categoryIds.stream().mapToInt(sqlCounts::get).sum(), facets.getMatchCount());
+        log.info("Facet counts over {} iterations: SQL GROUP BY {} ms, bitset index {} ms",
+                ITERATIONS, sqlNanos / 1_000_000, indexNanos / 1_000_000);
+    }
+
+}
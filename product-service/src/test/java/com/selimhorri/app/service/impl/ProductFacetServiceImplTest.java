@@ -0,0 +1,132 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.ProductFacetDto;
+import com.selimhorri.app.event.ProductChangedEvent;
+import com.selimhorri.app.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Facet Service Implementation Tests")
+class ProductFacetServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductFacetServiceImpl productFacetService;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAll()).thenReturn(List.of(
+                product(1, 1, 5.0, 10),
+                product(2, 1, 60.0, 0),
+                product(3, 2, 120.0, 3),
+                product(4, 3, 45.0, 1)));
+        productFacetService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should count every product when no filter is given")
+    void findFacets_ShouldCountAll_WhenNoFilter() {
+        // When
+        ProductFacetDto result = productFacetService.findFacets(null, null, null, null);
+
+        // Then
+        assertEquals(4, result.getMatchCount());
+        assertEquals(3, result.getInStockCount());
+        assertEquals(Map.of(1, 2, 2, 1, 3, 1), result.getCategoryCounts());
+        assertEquals(1, result.getPriceRangeCounts().get("0-10"));
+        assertEquals(1, result.getPriceRangeCounts().get("10-50"));
+        assertEquals(1, result.getPriceRangeCounts().get("50-100"));
+        assertEquals(1, result.getPriceRangeCounts().get("100-500"));
+        assertEquals(0, result.getPriceRangeCounts().get("500-1000"));
+        assertEquals(0, result.getPriceRangeCounts().get("1000+"));
+        verify(productRepository).findAll();
+    }
+
+    @Test
+    @DisplayName("Should count categories without applying the category filter itself")
+    void findFacets_ShouldKeepSiblingCategoryCounts_WhenFilteringByCategory() {
+        // When
+        ProductFacetDto result = productFacetService.findFacets(Set.of(1), null, null, true);
+
+        // Then
+        assertEquals(1, result.getMatchCount());
+        assertEquals(1, result.getInStockCount());
+        assertEquals(Map.of(1, 1, 2, 1, 3, 1), result.getCategoryCounts());
+        assertEquals(1, result.getPriceRangeCounts().get("0-10"));
+        assertEquals(0, result.getPriceRangeCounts().get("50-100"));
+    }
+
+    @Test
+    @DisplayName("Should apply exact price bounds inside partially covered ranges")
+    void findFacets_ShouldFilterByExactPrice() {
+        // When
+        ProductFacetDto result = productFacetService.findFacets(null, 40.0, 100.0, null);
+
+        // Then
+        assertEquals(2, result.getMatchCount());
+        assertEquals(Map.of(1, 1, 3, 1), result.getCategoryCounts());
+        assertEquals(1, result.getInStockCount());
+    }
+
+    @Test
+    @DisplayName("Should update counts incrementally on product changes")
+    void onProductChanged_ShouldUpdateIndexIncrementally() {
+        // Given
+        ProductDto saved = ProductDto.builder()
+                .productId(5)
+                .priceUnit(700.0)
+                .quantity(5)
+                .categoryDto(CategoryDto.builder().categoryId(2).build())
+                .build();
+        ProductDto soldOut = ProductDto.builder()
+                .productId(3)
+                .priceUnit(120.0)
+                .quantity(0)
+                .categoryDto(CategoryDto.builder().categoryId(2).build())
+                .build();
+
+        // When
+        productFacetService.onProductChanged(ProductChangedEvent.saved(saved));
+        productFacetService.onProductChanged(ProductChangedEvent.saved(soldOut));
+        productFacetService.onProductChanged(ProductChangedEvent.deleted(1));
+        ProductFacetDto result = productFacetService.findFacets(null, null, null, null);
+
+        // Then
+        assertEquals(4, result.getMatchCount());
+        assertEquals(2, result.getInStockCount());
+        assertEquals(Map.of(1, 1, 2, 2, 3, 1), result.getCategoryCounts());
+        assertEquals(0, result.getPriceRangeCounts().get("0-10"));
+        assertEquals(1, result.getPriceRangeCounts().get("500-1000"));
+        verify(productRepository, times(1)).findAll();
+    }
+
+    private static Product product(final int productId, final int categoryId, final double price, final int quantity) {
+        return Product.builder()
+                .productId(productId)
+                .priceUnit(price)
+                .quantity(quantity)
+                .category(Category.builder().categoryId(categoryId).build())
+                .build();
+    }
+
+}
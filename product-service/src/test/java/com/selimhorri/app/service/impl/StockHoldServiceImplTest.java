@@ -0,0 +1,158 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.selimhorri.app.domain.HoldStatus;
+import com.selimhorri.app.domain.StockHold;
+import com.selimhorri.app.dto.StockHoldDto;
+import com.selimhorri.app.exception.wrapper.OutOfStockException;
+import com.selimhorri.app.exception.wrapper.StockHoldNotFoundException;
+import com.selimhorri.app.repository.StockHoldRepository;
+import com.selimhorri.app.service.StockService;
+import com.selimhorri.app.util.HashedTimingWheel;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Stock Hold Service Implementation Tests")
+class StockHoldServiceImplTest {
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private StockService stockService;
+
+    private HashedTimingWheel<Integer> timingWheel;
+    private StockHoldServiceImpl stockHoldService;
+    private StockHold activeHold;
+
+    @BeforeEach
+    void setUp() {
+        timingWheel = new HashedTimingWheel<>(1_000, 64, System.currentTimeMillis());
+        stockHoldService = new StockHoldServiceImpl(stockHoldRepository, stockService, timingWheel);
+        ReflectionTestUtils.setField(stockHoldService, "holdTtl", Duration.ofMinutes(5));
+
+        activeHold = StockHold.builder()
+                .holdId(1)
+                .productId(10)
+                .orderId(100)
+                .quantity(3)
+                .holdStatus(HoldStatus.ACTIVE)
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should take stock, persist an active hold and schedule its expiry")
+    void save_ShouldDecrementStockAndScheduleExpiry() {
+        // Given
+        StockHoldDto request = StockHoldDto.builder()
+                .productId(10)
+                .orderId(100)
+                .quantity(3)
+                .build();
+        when(stockHoldRepository.save(any(StockHold.class))).thenReturn(activeHold);
+
+        // When
+        StockHoldDto result = stockHoldService.save(request);
+
+        // Then
+        assertEquals(1, result.getHoldId());
+        assertEquals(HoldStatus.ACTIVE, result.getHoldStatus());
+        assertEquals(1, timingWheel.size());
+        verify(stockService).decrement(10, 3);
+        verify(stockHoldRepository).save(argThat(h -> h.getHoldStatus() == HoldStatus.ACTIVE
+                && h.getExpiresAt().isAfter(Instant.now().plusSeconds(290))));
+    }
+
+    @Test
+    @DisplayName("Should not persist a hold when stock is insufficient")
+    void save_ShouldFail_WhenOutOfStock() {
+        // Given
+        StockHoldDto request = StockHoldDto.builder()
+                .productId(10)
+                .quantity(3)
+                .build();
+        when(stockService.decrement(10, 3)).thenThrow(new OutOfStockException("out of stock"));
+
+        // When & Then
+        assertThrows(OutOfStockException.class, () -> stockHoldService.save(request));
+        verify(stockHoldRepository, never()).save(any(StockHold.class));
+        assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    @DisplayName("Should give stock back when an active hold expires")
+    void expire_ShouldReturnStock_WhenHoldIsActive() {
+        // Given
+        when(stockHoldRepository.findById(1)).thenReturn(Optional.of(activeHold));
+        when(stockHoldRepository.updateHoldStatus(1, HoldStatus.ACTIVE, HoldStatus.EXPIRED)).thenReturn(1);
+
+        // When
+        stockHoldService.expire(1);
+
+        // Then
+        verify(stockService).increment(10, 3);
+    }
+
+    @Test
+    @DisplayName("Should ignore expiry of a hold confirmed in the meantime")
+    void expire_ShouldDoNothing_WhenHoldWasConfirmedConcurrently() {
+        // Given
+        when(stockHoldRepository.findById(1)).thenReturn(Optional.of(activeHold));
+        when(stockHoldRepository.updateHoldStatus(1, HoldStatus.ACTIVE, HoldStatus.EXPIRED)).thenReturn(0);
+
+        // When
+        stockHoldService.expire(1);
+
+        // Then
+        verify(stockService, never()).increment(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should confirm only the active holds of an order")
+    void confirmByOrderId_ShouldCountConfirmedHolds() {
+        // Given
+        StockHold other = StockHold.builder()
+                .holdId(2)
+                .productId(11)
+                .orderId(100)
+                .quantity(1)
+                .holdStatus(HoldStatus.ACTIVE)
+                .build();
+        when(stockHoldRepository.findAllByOrderIdAndHoldStatus(100, HoldStatus.ACTIVE)).thenReturn(List.of(activeHold, other));
+        when(stockHoldRepository.updateHoldStatus(1, HoldStatus.ACTIVE, HoldStatus.CONFIRMED)).thenReturn(1);
+        when(stockHoldRepository.updateHoldStatus(2, HoldStatus.ACTIVE, HoldStatus.CONFIRMED)).thenReturn(0);
+
+        // When
+        Integer confirmed = stockHoldService.confirmByOrderId(100);
+
+        // Then
+        assertEquals(1, confirmed);
+    }
+
+    @Test
+    @DisplayName("Should reject confirming a hold that is no longer active")
+    void confirm_ShouldThrowException_WhenHoldIsNotActive() {
+        // Given
+        when(stockHoldRepository.updateHoldStatus(1, HoldStatus.ACTIVE, HoldStatus.CONFIRMED)).thenReturn(0);
+
+        // When & Then
+        assertThrows(StockHoldNotFoundException.class, () -> stockHoldService.confirm(1));
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.config.trending.TrendingConfig;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.TrendingSnapshot;
+import com.selimhorri.app.dto.PopularitySignalDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.TrendingProductDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.event.ProductChangedEvent;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.TrendingSnapshotRepository;
+import com.selimhorri.app.util.DecayingHeavyHitters;
+
+@DataJpaTest(properties = "app.trending.poll-interval-ms=3600000")
+@Import({TrendingServiceImpl.class, TrendingConfig.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Trending Service Tests")
+class TrendingServiceImplTest {
+
+    private static final String FAVOURITE_FEED = "/favourite-service/api/favourites/feed?after=";
+    private static final String ORDER_ITEM_FEED = "/shipping-service/api/shippings/feed?after=";
+
+    @Autowired
+    private TrendingServiceImpl trendingService;
+
+    @Autowired
+    private DecayingHeavyHitters trendingSketch;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TrendingSnapshotRepository trendingSnapshotRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // the scheduled poll runs once at startup, wait for it before counting feed reads
+        synchronized (trendingService) {
+            clearInvocations(restTemplate);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.findAll().forEach(product -> trendingSketch.remove(product.getProductId()));
+        ReflectionTestUtils.setField(trendingService, "favouriteCursor", 0L);
+        ReflectionTestUtils.setField(trendingService, "orderItemCursor", 0L);
+        trendingSnapshotRepository.deleteAllInBatch();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should drain both feeds page by page, weigh ordered quantities and stop once the cursor stalls")
+    void poll_ShouldDrainFeedsAndAdvanceCursors() {
+        // Given
+        Product liked = saveProduct("asus");
+        Product ordered = saveProduct("hp");
+        stubFeed(FAVOURITE_FEED + 0, List.of(signal(liked, null), signal(liked, null)), 2L);
+        stubFeed(FAVOURITE_FEED + 2, List.of(), 2L);
+        stubFeed(ORDER_ITEM_FEED + 0, List.of(signal(ordered, 2)), 5L);
+        stubFeed(ORDER_ITEM_FEED + 5, List.of(signal(ordered, 2)), 5L);
+
+        // When
+        trendingService.poll();
+        trendingService.poll();
+
+        // Then
+        List<TrendingProductDto> trending = trendingService.findTrending(10);
+        assertEquals(List.of(ordered.getProductId(), liked.getProductId()), trending.stream()
+                .map(TrendingProductDto::getProductDto)
+                .map(ProductDto::getProductId)
+                .collect(Collectors.toUnmodifiableList()));
+        assertEquals(6.0, trending.get(0).getScore(), 0.01);
+        assertEquals(2.0, trending.get(1).getScore(), 0.01);
+        verifyFeedReads(FAVOURITE_FEED + 0, 1);
+        verifyFeedReads(FAVOURITE_FEED + 2, 2);
+        verifyFeedReads(ORDER_ITEM_FEED + 0, 1);
+        verifyFeedReads(ORDER_ITEM_FEED + 5, 2);
+    }
+
+    @Test
+    @DisplayName("Should restore the sketch together with the cursors it was built up to")
+    void snapshot_ShouldRestoreSketchAndCursors() {
+        // Given
+        Product product = saveProduct("asus");
+        trendingSketch.add(product.getProductId(), 4.0, System.currentTimeMillis());
+        ReflectionTestUtils.setField(trendingService, "favouriteCursor", 7L);
+        ReflectionTestUtils.setField(trendingService, "orderItemCursor", 11L);
+        trendingService.snapshot();
+        trendingSketch.remove(product.getProductId());
+        ReflectionTestUtils.setField(trendingService, "favouriteCursor", 0L);
+        ReflectionTestUtils.setField(trendingService, "orderItemCursor", 0L);
+
+        // When
+        trendingService.restore();
+
+        // Then
+        TrendingSnapshot snapshot = trendingSnapshotRepository.findAll().get(0);
+        assertEquals(7L, snapshot.getFavouriteCursor());
+        assertEquals(11L, snapshot.getOrderItemCursor());
+        assertEquals(7L, ReflectionTestUtils.getField(trendingService, "favouriteCursor"));
+        assertEquals(11L, ReflectionTestUtils.getField(trendingService, "orderItemCursor"));
+        assertEquals(product.getProductId(), trendingService.findTrending(10).get(0).getProductDto().getProductId());
+    }
+
+    @Test
+    @DisplayName("Should forget deleted products and keep saved ones")
+    void onProductChanged_ShouldRemoveDeletedProducts() {
+        // Given
+        Product kept = saveProduct("asus");
+        Product deleted = saveProduct("hp");
+        trendingSketch.add(kept.getProductId(), 1.0, System.currentTimeMillis());
+        trendingSketch.add(deleted.getProductId(), 2.0, System.currentTimeMillis());
+
+        // When
+        trendingService.onProductChanged(ProductChangedEvent.saved(ProductDto.builder().productId(kept.getProductId()).build()));
+        trendingService.onProductChanged(ProductChangedEvent.deleted(deleted.getProductId()));
+
+        // Then
+        assertEquals(List.of(kept.getProductId()), trendingService.findTrending(10).stream()
+                .map(TrendingProductDto::getProductDto)
+                .map(ProductDto::getProductId)
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubFeed(final String feed, final List<PopularitySignalDto> signals, final Long cursor) {
+        when(restTemplate.exchange(contains(feed + "&"), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoFeedResponse<>(signals, cursor)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyFeedReads(final String feed, final int times) {
+        verify(restTemplate, times(times)).exchange(contains(feed + "&"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+    }
+
+    private Product saveProduct(final String productTitle) {
+        return productRepository.save(Product.builder()
+                .productTitle(productTitle)
+                .sku(productTitle + "-sku")
+                .priceUnit(9.99)
+                .quantity(10)
+                .build());
+    }
+
+    private static PopularitySignalDto signal(final Product product, final Integer orderedQuantity) {
+        return PopularitySignalDto.builder()
+                .productId(product.getProductId())
+                .orderedQuantity(orderedQuantity)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+}
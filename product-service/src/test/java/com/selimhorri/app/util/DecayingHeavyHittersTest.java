@@ -0,0 +1,125 @@
+package com.selimhorri.app.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Decaying Heavy Hitters Tests")
+class DecayingHeavyHittersTest {
+
+    private static final Duration HALF_LIFE = Duration.ofHours(1);
+    private static final long HOUR = HALF_LIFE.toMillis();
+
+    @Test
+    @DisplayName("Should rank the heaviest keys first")
+    void top_ShouldRankHeaviestKeysFirst() {
+        // Given
+        DecayingHeavyHitters sketch = new DecayingHeavyHitters(3, 256, 4, HALF_LIFE, 0);
+        for (int key = 1; key <= 10; key++)
+            for (int i = 0; i < key; i++)
+                sketch.add(key, 1, 0);
+
+        // When
+        Map<Integer, Double> top = sketch.top(3, 0);
+
+        // Then
+        assertEquals(List.of(10, 9, 8), List.copyOf(top.keySet()));
+        assertEquals(10, top.get(10), 1e-9);
+        assertEquals(3, sketch.size());
+    }
+
+    @Test
+    @DisplayName("Should halve scores after one half-life")
+    void top_ShouldDecayScoresByHalfLife() {
+        // Given
+        DecayingHeavyHitters sketch = new DecayingHeavyHitters(5, 256, 4, HALF_LIFE, 0);
+        sketch.add(1, 8, 0);
+
+        // When / Then
+        assertEquals(4, sketch.top(1, HOUR).get(1), 1e-9);
+        assertEquals(2, sketch.estimate(1, 2 * HOUR), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should let recent activity overtake an older burst")
+    void add_ShouldFavourRecentActivity() {
+        // Given
+        DecayingHeavyHitters sketch = new DecayingHeavyHitters(5, 256, 4, HALF_LIFE, 0);
+        sketch.add(1, 10, 0);
+
+        // When
+        sketch.add(2, 4, 3 * HOUR);
+
+        // Then
+        Map<Integer, Double> top = sketch.top(2, 3 * HOUR);
+        assertEquals(List.of(2, 1), List.copyOf(top.keySet()));
+        assertEquals(1.25, top.get(1), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should keep scores consistent across a landmark rescale")
+    void add_ShouldRescaleWithoutChangingScores() {
+        // Given
+        DecayingHeavyHitters sketch = new DecayingHeavyHitters(5, 256, 4, HALF_LIFE, 0);
+        sketch.add(1, 1, 0);
+        long later = 200 * HOUR;
+
+        // When
+        sketch.add(2, 1, later);
+
+        // Then
+        assertEquals(1, sketch.top(1, later).get(2), 1e-9);
+        assertEquals(Math.pow(2, -200), sketch.estimate(1, later), 1e-70);
+    }
+
+    @Test
+    @DisplayName("Should drop removed keys from the top-k")
+    void remove_ShouldDropKeyFromTop() {
+        // Given
+        DecayingHeavyHitters sketch = new DecayingHeavyHitters(5, 256, 4, HALF_LIFE, 0);
+        sketch.add(1, 3, 0);
+        sketch.add(2, 2, 0);
+        sketch.add(3, 1, 0);
+
+        // When
+        sketch.remove(1);
+
+        // Then
+        assertEquals(List.of(2, 3), List.copyOf(sketch.top(5, 0).keySet()));
+    }
+
+    @Test
+    @DisplayName("Should restore the same ranking from a snapshot")
+    void restore_ShouldRoundTripSnapshot() {
+        // Given
+        DecayingHeavyHitters sketch = new DecayingHeavyHitters(3, 256, 4, HALF_LIFE, 0);
+        for (int key = 1; key <= 6; key++)
+            sketch.add(key, key, key * 1_000L);
+        DecayingHeavyHitters restored = new DecayingHeavyHitters(3, 256, 4, HALF_LIFE, 999_999);
+
+        // When
+        restored.restore(sketch.toByteArray());
+
+        // Then
+        assertEquals(sketch.top(3, HOUR), restored.top(3, HOUR));
+        assertEquals(sketch.estimate(2, HOUR), restored.estimate(2, HOUR), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Should reject a snapshot with different dimensions")
+    void restore_ShouldRejectMismatchedSnapshot() {
+        // Given
+        byte[] snapshot = new DecayingHeavyHitters(3, 128, 4, HALF_LIFE, 0).toByteArray();
+        DecayingHeavyHitters sketch = new DecayingHeavyHitters(3, 256, 4, HALF_LIFE, 0);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> sketch.restore(snapshot));
+        assertThrows(IllegalArgumentException.class, () -> sketch.restore(new byte[] {0, 0, 0, 1}));
+    }
+
+}
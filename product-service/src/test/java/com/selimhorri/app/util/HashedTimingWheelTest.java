@@ -0,0 +1,107 @@
+package com.selimhorri.app.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Hashed Timing Wheel Tests")
+class HashedTimingWheelTest {
+
+    @Test
+    @DisplayName("Should expire items on the first tick at or after their deadline")
+    void advance_ShouldExpireItemsAtDeadline() {
+        // Given
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 1_000);
+        wheel.schedule("c", 50);
+
+        // When / Then
+        assertEquals(List.of(), wheel.advance(99));
+        assertEquals(List.of("c"), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(299));
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertEquals(List.of(), wheel.advance(999));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("b"), wheel.advance(1_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should expire overdue items on the next advance")
+    void advance_ShouldExpireOverdueItemsImmediately() {
+        // Given
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(100, 8, 1_000);
+        wheel.advance(5_000);
+
+        // When
+        wheel.schedule(1, 200);
+        List<Integer> expired = wheel.advance(5_000);
+
+        // Then
+        assertEquals(List.of(), expired);
+        assertEquals(List.of(1), wheel.advance(5_100));
+    }
+
+    @Test
+    @DisplayName("Should keep items several rotations ahead until their round comes")
+    void advance_ShouldHonourRemainingRounds() {
+        // Given
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(10, 4, 0);
+        wheel.schedule(7, 170);
+
+        // When / Then
+        assertEquals(List.of(), wheel.advance(169));
+        assertEquals(List.of(7), wheel.advance(170));
+    }
+
+    @Test
+    @DisplayName("Should reject wheel sizes that are not a power of two")
+    void constructor_ShouldRejectInvalidWheelSize() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<>(100, 6, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<>(0, 8, 0));
+    }
+
+    @Test
+    @DisplayName("Should expire every concurrently scheduled item exactly once")
+    void schedule_ShouldAcceptConcurrentProducers() throws Exception {
+        // Given
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(10, 512, 0);
+        int producers = 8;
+        int perProducer = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++)
+                    wheel.schedule(offset + i, (offset + i) % 60_000);
+            }));
+        }
+        Set<Integer> expired = new HashSet<>();
+        for (long now = 0; now <= 60_000; now += 1_000)
+            for (Integer item : wheel.advance(now))
+                assertTrue(expired.add(item));
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+        for (Integer item : wheel.advance(60_010))
+            assertTrue(expired.add(item));
+
+        // Then
+        assertEquals(producers * perProducer, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+}
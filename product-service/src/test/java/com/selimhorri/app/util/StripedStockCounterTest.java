@@ -0,0 +1,130 @@
+package com.selimhorri.app.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Striped Stock Counter Tests")
+class StripedStockCounterTest {
+
+    @Test
+    @DisplayName("Should spread available stock evenly across stripes")
+    void constructor_ShouldDistributeStock() {
+        // When
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        // Then
+        assertEquals(10, counter.available());
+        assertEquals(0, counter.drainPending());
+    }
+
+    @Test
+    @DisplayName("Should take quantities larger than a single stripe from several stripes")
+    void tryDecrement_ShouldSpanStripes_WhenQuantityExceedsStripe() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        // When
+        boolean taken = counter.tryDecrement(9);
+        boolean rejected = counter.tryDecrement(2);
+
+        // Then
+        assertTrue(taken);
+        assertFalse(rejected);
+        assertEquals(1, counter.available());
+        assertEquals(9, counter.drainPending());
+        assertEquals(0, counter.drainPending());
+    }
+
+    @Test
+    @DisplayName("Should keep pending quantity when a flush is restored")
+    void restorePending_ShouldKeepQuantityForNextDrain() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(5, 2);
+        counter.tryDecrement(3);
+
+        // When
+        counter.restorePending(counter.drainPending());
+
+        // Then
+        assertEquals(3, counter.drainPending());
+        assertEquals(2, counter.available());
+    }
+
+    @Test
+    @DisplayName("Should keep pending quantity out of a reseeded counter")
+    void reseed_ShouldSubtractPendingQuantity() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(5, 2);
+        counter.tryDecrement(3);
+
+        // When
+        counter.reseed(20);
+
+        // Then
+        assertEquals(17, counter.available());
+        assertEquals(3, counter.drainPending());
+    }
+
+    @Test
+    @DisplayName("Should not count a rejected decrement as pending")
+    void tryDecrement_ShouldLeavePendingUntouched_WhenRejected() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(2, 2);
+
+        // When
+        boolean taken = counter.tryDecrement(3);
+
+        // Then
+        assertFalse(taken);
+        assertEquals(2, counter.available());
+        assertEquals(0, counter.drainPending());
+    }
+
+    @Test
+    @DisplayName("Should never oversell under thousands of parallel decrements")
+    void tryDecrement_ShouldNotOversell_WhenContended() throws Exception {
+        // Given
+        int stock = 5_000;
+        int attempts = 20_000;
+        int threads = 16;
+        StripedStockCounter counter = new StripedStockCounter(stock, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            int quantity = t % 3 + 1;
+            Callable<Integer> task = () -> {
+                start.await();
+                int sold = 0;
+                for (int i = 0; i < attempts / threads; i++)
+                    if (counter.tryDecrement(quantity))
+                        sold += quantity;
+                return sold;
+            };
+            results.add(executor.submit(task));
+        }
+        start.countDown();
+        int sold = 0;
+        for (Future<Integer> result : results)
+            sold += result.get();
+        executor.shutdown();
+
+        // Then
+        assertEquals(stock, sold + counter.available());
+        assertEquals(sold, counter.drainPending());
+        assertTrue(counter.available() >= 0);
+    }
+
+}
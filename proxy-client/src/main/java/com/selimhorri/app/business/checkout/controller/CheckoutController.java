@@ -0,0 +1,41 @@
+package com.selimhorri.app.business.checkout.controller;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.checkout.model.request.CheckoutRequest;
+import com.selimhorri.app.business.checkout.model.response.CheckoutResponse;
+import com.selimhorri.app.business.checkout.service.CheckoutService;
+import com.selimhorri.app.business.user.model.UserDetailsImpl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/checkout")
+@Slf4j
+@RequiredArgsConstructor
+public class CheckoutController {
+	
+	private final CheckoutService checkoutService;
+	
+	@PostMapping
+	public ResponseEntity<CheckoutResponse> checkout(
+			@AuthenticationPrincipal final UserDetailsImpl userDetails,
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final CheckoutRequest checkoutRequest) {
+		log.info("*** CheckoutResponse, controller; checkout *");
+		return ResponseEntity.ok(this.checkoutService.checkout(userDetails.getUserId(), checkoutRequest));
+	}
+	
+	
+	
+}
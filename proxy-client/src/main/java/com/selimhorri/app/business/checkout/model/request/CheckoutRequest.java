@@ -0,0 +1,30 @@
+package com.selimhorri.app.business.checkout.model.request;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+
+import com.selimhorri.app.business.checkout.model.CheckoutItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CheckoutRequest implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private String orderDesc;
+	private Double orderFee;
+	
+	@NotEmpty(message = "Checkout must contain at least one item!")
+	private List<@Valid CheckoutItem> items;
+	
+}
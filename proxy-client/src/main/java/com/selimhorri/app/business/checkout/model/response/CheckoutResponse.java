@@ -0,0 +1,41 @@
+package com.selimhorri.app.business.checkout.model.response;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.product.model.StockHoldDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CheckoutResponse implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@JsonProperty("cart")
+	private CartDto cartDto;
+	
+	@JsonProperty("order")
+	private OrderDto orderDto;
+	
+	@JsonProperty("orderItems")
+	private List<OrderItemDto> orderItemDtos;
+	
+	@JsonProperty("stockHolds")
+	private List<StockHoldDto> stockHoldDtos;
+	
+	@JsonProperty("payment")
+	private PaymentDto paymentDto;
+	
+}
@@ -0,0 +1,44 @@
+package com.selimhorri.app.business.checkout.service.impl;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+final class CheckoutSaga {
+	
+	private final Deque<Compensation> compensations = new ConcurrentLinkedDeque<>();
+	
+	void record(final String step, final Runnable action) {
+		this.compensations.addLast(new Compensation(step, action));
+	}
+	
+	int compensate() {
+		int failed = 0;
+		for (Compensation compensation = this.compensations.pollLast(); compensation != null;
+				compensation = this.compensations.pollLast()) {
+			try {
+				compensation.action.run();
+				log.info("*** Void, saga; compensated {} *", compensation.step);
+			}
+			catch (RuntimeException e) {
+				failed++;
+				log.error("*** Void, saga; compensation {} failed *", compensation.step, e);
+			}
+		}
+		return failed;
+	}
+	
+	@RequiredArgsConstructor
+	private static final class Compensation {
+		
+		private final String step;
+		private final Runnable action;
+		
+	}
+	
+	
+	
+}
@@ -0,0 +1,137 @@
+package com.selimhorri.app.business.checkout.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.checkout.model.CheckoutItem;
+import com.selimhorri.app.business.checkout.model.request.CheckoutRequest;
+import com.selimhorri.app.business.checkout.model.response.CheckoutResponse;
+import com.selimhorri.app.business.checkout.service.CheckoutService;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.orderItem.service.OrderItemClientService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.PaymentStatus;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.product.model.StockHoldDto;
+import com.selimhorri.app.business.product.service.StockHoldClientService;
+import com.selimhorri.app.exception.wrapper.CheckoutFailedException;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CheckoutServiceImpl implements CheckoutService {
+	
+	private final CartClientService cartClientService;
+	private final OrderClientService orderClientService;
+	private final OrderItemClientService orderItemClientService;
+	private final StockHoldClientService stockHoldClientService;
+	private final PaymentClientService paymentClientService;
+	private final Executor checkoutExecutor;
+	
+	// the cart is opened for the authenticated user, never for one named in the request
+	@Override
+	public CheckoutResponse checkout(final Integer userId, final CheckoutRequest checkoutRequest) {
+		log.info("*** CheckoutResponse, service; checkout *");
+		final var saga = new CheckoutSaga();
+		try {
+			final var cartDto = this.cartClientService.save(CartDto.builder()
+					.userId(userId)
+					.build()).getBody();
+			saga.record("cart " + cartDto.getCartId(),
+					() -> this.cartClientService.deleteById(String.valueOf(cartDto.getCartId())));
+			
+			final var orderDto = this.orderClientService.save(OrderDto.builder()
+					.orderDate(LocalDateTime.now())
+					.orderDesc(checkoutRequest.getOrderDesc())
+					.orderFee(checkoutRequest.getOrderFee())
+					.cartDto(CartDto.builder()
+							.cartId(cartDto.getCartId())
+							.build())
+					.build()).getBody();
+			saga.record("order " + orderDto.getOrderId(),
+					() -> this.orderClientService.deleteById(String.valueOf(orderDto.getOrderId())));
+			
+			final List<CompletableFuture<CheckedOutItem>> itemFutures = checkoutRequest.getItems().stream()
+					.map(item -> CompletableFuture.supplyAsync(
+							() -> this.checkoutItem(saga, orderDto.getOrderId(), item), this.checkoutExecutor))
+					.collect(Collectors.toUnmodifiableList());
+			CompletableFuture.allOf(itemFutures.toArray(CompletableFuture[]::new)).join();
+			final var items = itemFutures.stream()
+					.map(CompletableFuture::join)
+					.collect(Collectors.toUnmodifiableList());
+			
+			final var paymentDto = this.paymentClientService.save(PaymentDto.builder()
+					.isPayed(false)
+					.paymentStatus(PaymentStatus.NOT_STARTED)
+					.orderDto(com.selimhorri.app.business.payment.model.OrderDto.builder()
+							.orderId(orderDto.getOrderId())
+							.build())
+					.build()).getBody();
+			
+			return CheckoutResponse.builder()
+					.cartDto(cartDto)
+					.orderDto(orderDto)
+					.orderItemDtos(items.stream()
+							.map(CheckedOutItem::getOrderItemDto)
+							.collect(Collectors.toUnmodifiableList()))
+					.stockHoldDtos(items.stream()
+							.map(CheckedOutItem::getStockHoldDto)
+							.collect(Collectors.toUnmodifiableList()))
+					.paymentDto(paymentDto)
+					.build();
+		}
+		catch (RuntimeException e) {
+			final var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+			log.error("*** CheckoutResponse, service; checkout failed, compensating *", cause);
+			final int failedCompensations = saga.compensate();
+			throw new CheckoutFailedException(String.format("Checkout for user with id: %d failed (%d compensation(s) failed): %s",
+					userId, failedCompensations, cause.getMessage()), cause);
+		}
+	}
+	
+	private CheckedOutItem checkoutItem(final CheckoutSaga saga, final Integer orderId, final CheckoutItem item) {
+		final var stockHoldDto = this.stockHoldClientService.save(StockHoldDto.builder()
+				.productId(item.getProductId())
+				.orderId(orderId)
+				.quantity(item.getOrderedQuantity())
+				.build()).getBody();
+		saga.record("stock hold " + stockHoldDto.getHoldId(),
+				() -> this.stockHoldClientService.release(String.valueOf(stockHoldDto.getHoldId())));
+		
+		final var orderItemDto = this.orderItemClientService.save(OrderItemDto.builder()
+				.orderId(orderId)
+				.productId(item.getProductId())
+				.orderedQuantity(item.getOrderedQuantity())
+				.build()).getBody();
+		saga.record("order item " + orderId + "/" + item.getProductId(),
+				() -> this.orderItemClientService.deleteById(String.valueOf(orderId), String.valueOf(item.getProductId())));
+		
+		return new CheckedOutItem(orderItemDto, stockHoldDto);
+	}
+	
+	@Getter
+	@RequiredArgsConstructor
+	private static final class CheckedOutItem {
+		
+		private final OrderItemDto orderItemDto;
+		private final StockHoldDto stockHoldDto;
+		
+	}
+	
+	
+	
+}
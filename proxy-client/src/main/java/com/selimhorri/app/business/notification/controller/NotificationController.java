@@ -0,0 +1,60 @@
+package com.selimhorri.app.business.notification.controller;
+
+import java.util.Set;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.selimhorri.app.business.notification.model.request.OrderEventNotificationRequest;
+import com.selimhorri.app.business.notification.model.request.PaymentNotificationRequest;
+import com.selimhorri.app.business.notification.service.NotificationService;
+import com.selimhorri.app.business.user.model.UserDetailsImpl;
+import com.selimhorri.app.config.filter.NotificationSecretFilter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/notifications")
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationController {
+	
+	private final NotificationService notificationService;
+	
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter subscribe(
+			@AuthenticationPrincipal final UserDetailsImpl userDetails,
+			@RequestParam(name = "orderIds", required = false) final Set<Integer> orderIds) {
+		log.info("*** SseEmitter, controller; subscribe to order and payment status changes *");
+		return this.notificationService.subscribe(userDetails.getUserId(), orderIds == null ? Set.of() : orderIds);
+	}
+	
+	@PostMapping("/events/orders")
+	public ResponseEntity<Integer> receiveOrderEvents(
+			@RequestBody final OrderEventNotificationRequest orderEvents,
+			@RequestHeader(name = NotificationSecretFilter.RELAYED_HEADER, defaultValue = "false") final boolean relayed) {
+		log.info("*** Integer, controller; receive order change notifications *");
+		return ResponseEntity.ok(this.notificationService.receiveOrderEvents(orderEvents.getCollection(), relayed));
+	}
+	
+	@PostMapping("/events/payments")
+	public ResponseEntity<Integer> receivePaymentChanges(
+			@RequestBody final PaymentNotificationRequest paymentChanges,
+			@RequestHeader(name = NotificationSecretFilter.RELAYED_HEADER, defaultValue = "false") final boolean relayed) {
+		log.info("*** Integer, controller; receive payment change notifications *");
+		return ResponseEntity.ok(this.notificationService.receivePaymentChanges(paymentChanges.getCollection(), relayed));
+	}
+	
+	
+	
+}
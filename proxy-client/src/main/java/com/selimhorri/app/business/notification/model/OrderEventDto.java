@@ -0,0 +1,23 @@
+package com.selimhorri.app.business.notification.model;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderEventDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Long sequenceNumber;
+	private String aggregateType;
+	private Integer aggregateId;
+	private String eventType;
+	
+}
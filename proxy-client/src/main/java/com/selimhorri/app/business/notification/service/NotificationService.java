@@ -0,0 +1,18 @@
+package com.selimhorri.app.business.notification.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.selimhorri.app.business.notification.model.OrderEventDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+
+public interface NotificationService {
+	
+	SseEmitter subscribe(final Integer userId, final Set<Integer> orderIds);
+	int receiveOrderEvents(final Collection<OrderEventDto> orderEvents, final boolean relayed);
+	int receivePaymentChanges(final Collection<PaymentDto> paymentDtos, final boolean relayed);
+	int heartbeat();
+	
+}
@@ -0,0 +1,342 @@
+package com.selimhorri.app.business.notification.service.impl;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.selimhorri.app.business.notification.model.OrderEventDto;
+import com.selimhorri.app.business.notification.model.request.OrderEventNotificationRequest;
+import com.selimhorri.app.business.notification.model.request.PaymentNotificationRequest;
+import com.selimhorri.app.business.notification.service.NotificationService;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoPageResponse;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.config.filter.NotificationSecretFilter;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationServiceImpl implements NotificationService, MeterBinder {
+	
+	static final String ORDER_EVENTS_PATH = "/api/notifications/events/orders";
+	static final String PAYMENT_EVENTS_PATH = "/api/notifications/events/payments";
+	private static final String ORDER_AGGREGATE = "ORDER";
+	private static final String SAVED_EVENT = "SAVED";
+	
+	private final OrderClientService orderClientService;
+	private final PaymentClientService paymentClientService;
+	private final DiscoveryClient discoveryClient;
+	private final ObjectProvider<Registration> registration;
+	private final Executor notificationExecutor;
+	// peers are addressed one by one, so this template bypasses the load balancer
+	private final RestTemplate peerRestTemplate = new RestTemplate();
+	private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+	private final Map<Integer, Set<Subscription>> subscriptionsByOrderId = new ConcurrentHashMap<>();
+	// streams not narrowed to given orders also follow the orders their user places later
+	private final Map<Integer, Set<Subscription>> subscriptionsByUserId = new ConcurrentHashMap<>();
+	private final AtomicLong pushed = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	// slots are taken before the blocking order lookup, so a burst of subscribers cannot overshoot the limit
+	private final AtomicInteger reservedSlots = new AtomicInteger();
+	
+	@Value("${spring.application.name:PROXY-CLIENT}")
+	private String applicationName;
+	
+	@Value("${server.servlet.context-path:}")
+	private String contextPath;
+	
+	@Value("${app.notification.emitter-timeout-ms:1800000}")
+	private long emitterTimeoutMs;
+	
+	@Value("${app.notification.max-orders:20}")
+	private int maxOrders;
+	
+	@Value("${app.notification.max-subscribers:8000}")
+	private int maxSubscribers;
+	
+	@Value("${app.notification.webhook-secret:}")
+	private String webhookSecret;
+	
+	// a stream covers the user's most recent orders, narrowed to the requested ones, so only owned orders are pushed
+	@Override
+	public SseEmitter subscribe(final Integer userId, final Set<Integer> orderIds) {
+		log.info("*** SseEmitter, service; subscribe to order and payment status changes *");
+		if (this.reservedSlots.incrementAndGet() > this.maxSubscribers) {
+			this.reservedSlots.decrementAndGet();
+			throw new IllegalStateException("Status stream is full on this instance, retry later");
+		}
+		final OrderOrderServiceDtoPageResponse page;
+		try {
+			page = this.orderClientService.findAllByUserId(String.valueOf(userId), 0, Math.max(this.maxOrders, 1))
+					.getBody();
+		}
+		catch (RuntimeException e) {
+			this.reservedSlots.decrementAndGet();
+			throw e;
+		}
+		final Set<Integer> ownOrderIds = (page == null || page.getCollection() == null ? List.<OrderDto>of() : page.getCollection())
+				.stream()
+					.map(OrderDto::getOrderId)
+					.filter(orderId -> orderId != null && (orderIds.isEmpty() || orderIds.contains(orderId)))
+					.collect(Collectors.toUnmodifiableSet());
+		final var subscription = new Subscription(new SseEmitter(this.emitterTimeoutMs), userId, orderIds.isEmpty());
+		subscription.getOrderIds().addAll(ownOrderIds);
+		subscription.getEmitter().onCompletion(() -> this.remove(subscription));
+		subscription.getEmitter().onTimeout(() -> this.remove(subscription));
+		subscription.getEmitter().onError(e -> this.remove(subscription));
+		this.subscriptions.add(subscription);
+		if (subscription.isFollowingNewOrders())
+			index(this.subscriptionsByUserId, userId, subscription);
+		ownOrderIds.forEach(orderId -> index(this.subscriptionsByOrderId, orderId, subscription));
+		// clients read the current state once this arrives, anything changing later is pushed
+		this.send(subscription, SseEmitter.event()
+				.name("subscribed")
+				.data(ownOrderIds));
+		return subscription.getEmitter();
+	}
+	
+	// notifications are hints: the state pushed is read back from its service, and only for orders someone follows here
+	@Override
+	public int receiveOrderEvents(final Collection<OrderEventDto> orderEvents, final boolean relayed) {
+		log.info("*** Integer, service; receive order change notifications *");
+		if (!relayed)
+			this.relay(ORDER_EVENTS_PATH, new OrderEventNotificationRequest(orderEvents));
+		final var orderEventsById = orderEvents.stream()
+				.filter(e -> ORDER_AGGREGATE.equals(e.getAggregateType()) && e.getAggregateId() != null)
+				.collect(Collectors.groupingBy(OrderEventDto::getAggregateId));
+		final var followedOrderIds = orderEventsById.keySet().stream()
+				.filter(this.subscriptionsByOrderId::containsKey)
+				.collect(Collectors.toUnmodifiableSet());
+		// an order nobody follows yet may be a new one of a subscribed user, only its owner can tell
+		final var newOrderIds = this.subscriptionsByUserId.isEmpty() ? Set.<Integer>of() : orderEventsById.entrySet().stream()
+				.filter(e -> !followedOrderIds.contains(e.getKey()))
+				.filter(e -> e.getValue().stream().anyMatch(orderEvent -> SAVED_EVENT.equals(orderEvent.getEventType())))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toUnmodifiableSet());
+		followedOrderIds.forEach(orderId -> this.execute(() -> this.pushOrder(orderId)));
+		newOrderIds.forEach(orderId -> this.execute(() -> this.pushNewOrder(orderId)));
+		return followedOrderIds.size() + newOrderIds.size();
+	}
+	
+	@Override
+	public int receivePaymentChanges(final Collection<PaymentDto> paymentDtos, final boolean relayed) {
+		log.info("*** Integer, service; receive payment change notifications *");
+		if (!relayed)
+			this.relay(PAYMENT_EVENTS_PATH, new PaymentNotificationRequest(paymentDtos));
+		final var orderIdsByPaymentId = paymentDtos.stream()
+				.filter(p -> p.getPaymentId() != null && p.getOrderDto() != null && p.getOrderDto().getOrderId() != null)
+				.filter(p -> this.subscriptionsByOrderId.containsKey(p.getOrderDto().getOrderId()))
+				.collect(Collectors.toMap(PaymentDto::getPaymentId, p -> p.getOrderDto().getOrderId(), (first, last) -> last));
+		orderIdsByPaymentId.forEach((paymentId, orderId) -> this.execute(() -> this.pushPayment(paymentId, orderId)));
+		return orderIdsByPaymentId.size();
+	}
+	
+	@Scheduled(fixedDelayString = "${app.notification.heartbeat-interval-ms:20000}",
+			initialDelayString = "${app.notification.heartbeat-interval-ms:20000}")
+	public void keepAlive() {
+		this.heartbeat();
+	}
+	
+	// keeps idle streams open through proxies and finds the clients that went away without closing
+	@Override
+	public int heartbeat() {
+		return (int) this.subscriptions.stream()
+				.filter(subscription -> this.send(subscription, SseEmitter.event().comment("heartbeat")))
+				.count();
+	}
+	
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		Gauge.builder("proxy.notification.subscribers", this.subscriptions, Set::size)
+				.description("Open order and payment status streams")
+				.register(registry);
+		FunctionCounter.builder("proxy.notification.pushes", this.pushed, AtomicLong::get)
+				.description("Status changes pushed to subscribers")
+				.register(registry);
+		FunctionCounter.builder("proxy.notification.drops", this.dropped, AtomicLong::get)
+				.description("Status changes dropped because the notification executor was saturated")
+				.register(registry);
+	}
+	
+	// order-service answers a missing order with a client error, which is what a deleted order looks like from here
+	private void pushOrder(final Integer orderId) {
+		try {
+			this.push(orderId, SseEmitter.event()
+					.name("order")
+					.data(this.orderClientService.findById(String.valueOf(orderId)).getBody()));
+		}
+		catch (FeignException.FeignClientException e) {
+			this.push(orderId, SseEmitter.event()
+					.name("order-deleted")
+					.data(Map.of("orderId", orderId)));
+		}
+		catch (FeignException e) {
+			log.warn("*** Void, service; order-service unreachable, change of order {} not pushed *", orderId);
+		}
+	}
+	
+	// read once to find its owner, whose open streams follow the order from then on
+	private void pushNewOrder(final Integer orderId) {
+		try {
+			final var orderDto = this.orderClientService.findById(String.valueOf(orderId)).getBody();
+			final var userId = orderDto == null || orderDto.getCartDto() == null ? null : orderDto.getCartDto().getUserId();
+			if (userId == null)
+				return;
+			this.subscriptionsByUserId.getOrDefault(userId, Set.of())
+					.forEach(subscription -> {
+						if (subscription.getOrderIds().add(orderId))
+							index(this.subscriptionsByOrderId, orderId, subscription);
+						// removed meanwhile, its cleanup may have missed the order just added
+						if (!this.subscriptions.contains(subscription))
+							unindex(this.subscriptionsByOrderId, orderId, subscription);
+					});
+			this.push(orderId, SseEmitter.event()
+					.name("order")
+					.data(orderDto));
+		}
+		catch (FeignException e) {
+			log.warn("*** Void, service; order-service unreachable, new order {} not pushed *", orderId);
+		}
+	}
+	
+	// routed by the payment as read, only a deleted payment goes by the order id the notification claimed
+	private void pushPayment(final Integer paymentId, final Integer orderId) {
+		try {
+			final var paymentDto = this.paymentClientService.findById(String.valueOf(paymentId)).getBody();
+			if (paymentDto != null && paymentDto.getOrderDto() != null && paymentDto.getOrderDto().getOrderId() != null)
+				this.push(paymentDto.getOrderDto().getOrderId(), SseEmitter.event()
+						.name("payment")
+						.data(paymentDto));
+		}
+		catch (FeignException.FeignClientException e) {
+			this.push(orderId, SseEmitter.event()
+					.name("payment-deleted")
+					.data(Map.of("paymentId", paymentId, "orderId", orderId)));
+		}
+		catch (FeignException e) {
+			log.warn("*** Void, service; payment-service unreachable, change of payment {} not pushed *", paymentId);
+		}
+	}
+	
+	private void push(final Integer orderId, final SseEmitter.SseEventBuilder event) {
+		this.subscriptionsByOrderId.getOrDefault(orderId, Set.of())
+				.forEach(subscription -> {
+					if (this.send(subscription, event))
+						this.pushed.incrementAndGet();
+				});
+	}
+	
+	private boolean send(final Subscription subscription, final SseEmitter.SseEventBuilder event) {
+		try {
+			subscription.getEmitter().send(event);
+			return true;
+		}
+		catch (IOException | IllegalStateException e) {
+			// the client went away, the container completes the emitter on its own
+			this.remove(subscription);
+			return false;
+		}
+	}
+	
+	private void remove(final Subscription subscription) {
+		if (!this.subscriptions.remove(subscription))
+			return;
+		this.reservedSlots.decrementAndGet();
+		if (subscription.isFollowingNewOrders())
+			unindex(this.subscriptionsByUserId, subscription.getUserId(), subscription);
+		subscription.getOrderIds().forEach(orderId -> unindex(this.subscriptionsByOrderId, orderId, subscription));
+	}
+	
+	private static void index(final Map<Integer, Set<Subscription>> index, final Integer key, final Subscription subscription) {
+		index.compute(key, (id, subscribed) -> {
+			final Set<Subscription> current = subscribed == null ? ConcurrentHashMap.newKeySet() : subscribed;
+			current.add(subscription);
+			return current;
+		});
+	}
+	
+	private static void unindex(final Map<Integer, Set<Subscription>> index, final Integer key, final Subscription subscription) {
+		index.computeIfPresent(key, (id, subscribed) -> {
+			subscribed.remove(subscription);
+			return subscribed.isEmpty() ? null : subscribed;
+		});
+	}
+	
+	// a notification reaches one instance through the load balancer while subscribers are spread over all of them
+	private void relay(final String path, final Object body) {
+		final var self = this.registration.getIfAvailable();
+		if (self == null)
+			return;
+		final var headers = new HttpHeaders();
+		headers.set(NotificationSecretFilter.SECRET_HEADER, this.webhookSecret);
+		headers.set(NotificationSecretFilter.RELAYED_HEADER, Boolean.TRUE.toString());
+		final var request = new HttpEntity<>(body, headers);
+		this.discoveryClient.getInstances(this.applicationName)
+				.stream()
+					.filter(instance -> !Objects.equals(instance.getInstanceId(), self.getInstanceId()))
+					.forEach(instance -> this.execute(() -> {
+						try {
+							this.peerRestTemplate.postForEntity(instance.getUri() + this.contextPath + path, request, Void.class);
+						}
+						catch (RestClientException e) {
+							log.warn("*** Void, service; peer {} unreachable, notification not relayed *", instance.getUri());
+						}
+					}));
+	}
+	
+	private void execute(final Runnable task) {
+		try {
+			this.notificationExecutor.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+			this.dropped.incrementAndGet();
+			log.warn("*** Void, service; notification executor saturated, status change dropped *");
+		}
+	}
+	
+	@RequiredArgsConstructor
+	@Getter
+	private static final class Subscription {
+		
+		private final SseEmitter emitter;
+		private final Integer userId;
+		private final boolean followingNewOrders;
+		private final Set<Integer> orderIds = ConcurrentHashMap.newKeySet();
+		
+	}
+	
+	
+	
+}
@@ -1,5 +1,7 @@
 package com.selimhorri.app.business.order.controller;
 
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.order.model.CartDto;
@@ -40,6 +43,14 @@ public class CartController {
 		return ResponseEntity.ok(this.cartClientService.findById(cartId).getBody());
 	}
 	
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<CartOrderServiceDtoCollectionResponse> findAllByUserId(
+			@PathVariable("userId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String userId) {
+		return ResponseEntity.ok(this.cartClientService.findAllByUserId(userId).getBody());
+	}
+	
 	@PostMapping
 	public ResponseEntity<CartDto> save(
 			@RequestBody 
@@ -73,6 +84,11 @@ public class CartController {
 		return ResponseEntity.ok(true);
 	}
 	
+	@DeleteMapping
+	public ResponseEntity<Integer> deleteAllById(@RequestParam("ids") final Set<Integer> cartIds) {
+		return ResponseEntity.ok(this.cartClientService.deleteAllById(cartIds).getBody());
+	}
+	
 	
 	
 }
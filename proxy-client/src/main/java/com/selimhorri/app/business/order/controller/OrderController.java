@@ -1,5 +1,7 @@
 package com.selimhorri.app.business.order.controller;
 
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,10 +14,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoPageResponse;
 import com.selimhorri.app.business.order.service.OrderClientService;
 
 import lombok.RequiredArgsConstructor;
@@ -40,6 +44,16 @@ public class OrderController {
 		return ResponseEntity.ok(this.orderClientService.findById(orderId).getBody());
 	}
 	
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<OrderOrderServiceDtoPageResponse> findAllByUserId(
+			@PathVariable("userId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String userId,
+			@RequestParam(name = "page", defaultValue = "0") final int page,
+			@RequestParam(name = "size", defaultValue = "20") final int size) {
+		return ResponseEntity.ok(this.orderClientService.findAllByUserId(userId, page, size).getBody());
+	}
+	
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
 			@RequestBody 
@@ -73,6 +87,11 @@ public class OrderController {
 		return ResponseEntity.ok(true);
 	}
 	
+	@DeleteMapping
+	public ResponseEntity<Integer> deleteAllById(@RequestParam("ids") final Set<Integer> orderIds) {
+		return ResponseEntity.ok(this.orderClientService.deleteAllById(orderIds).getBody());
+	}
+	
 	
 	
 }
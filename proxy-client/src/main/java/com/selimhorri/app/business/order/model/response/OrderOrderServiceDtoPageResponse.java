@@ -0,0 +1,26 @@
+package com.selimhorri.app.business.order.model.response;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import com.selimhorri.app.business.order.model.OrderDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderOrderServiceDtoPageResponse implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	private Collection<OrderDto> collection;
+	private int page;
+	private int size;
+	private long totalElements;
+	private int totalPages;
+	
+}
@@ -1,5 +1,7 @@
 package com.selimhorri.app.business.order.service;
 
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.order.model.CartDto;
 import com.selimhorri.app.business.order.model.response.CartOrderServiceDtoCollectionResponse;
@@ -28,6 +31,12 @@ public interface CartClientService {
 			@NotBlank(message = "Input must not be blank!") 
 			@Valid final String cartId);
 	
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<CartOrderServiceDtoCollectionResponse> findAllByUserId(
+			@PathVariable("userId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String userId);
+	
 	@PostMapping
 	public ResponseEntity<CartDto> save(
 			@RequestBody 
@@ -52,6 +61,9 @@ public interface CartClientService {
 	@DeleteMapping("/{cartId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("cartId") final String cartId);
 	
+	@DeleteMapping
+	public ResponseEntity<Integer> deleteAllById(@RequestParam("ids") final Set<Integer> cartIds);
+	
 }
 
 
@@ -1,5 +1,7 @@
 package com.selimhorri.app.business.order.service;
 
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,9 +14,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoPageResponse;
 
 @FeignClient(name = "ORDER-SERVICE", contextId = "orderClientService", path = "/order-service/api/orders")
 public interface OrderClientService {
@@ -28,6 +32,14 @@ public interface OrderClientService {
 			@NotBlank(message = "Input must not be blank!") 
 			@Valid final String orderId);
 	
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<OrderOrderServiceDtoPageResponse> findAllByUserId(
+			@PathVariable("userId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String userId,
+			@RequestParam(name = "page", defaultValue = "0") final int page,
+			@RequestParam(name = "size", defaultValue = "20") final int size);
+	
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
 			@RequestBody 
@@ -52,6 +64,9 @@ public interface OrderClientService {
 	@DeleteMapping("/{orderId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("orderId") final String orderId);
 	
+	@DeleteMapping
+	public ResponseEntity<Integer> deleteAllById(@RequestParam("ids") final Set<Integer> orderIds);
+	
 }
 
 
@@ -0,0 +1,17 @@
+package com.selimhorri.app.business.product.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Getter
+public enum HoldStatus {
+	
+	ACTIVE("active"),
+	CONFIRMED("confirmed"),
+	RELEASED("released"),
+	EXPIRED("expired");
+	
+	private final String status;
+	
+}
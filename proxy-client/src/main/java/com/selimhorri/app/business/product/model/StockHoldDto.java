@@ -0,0 +1,40 @@
+package com.selimhorri.app.business.product.model;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockHoldDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	private Integer holdId;
+	private Integer productId;
+	private Integer orderId;
+	private Integer quantity;
+	private HoldStatus holdStatus;
+	
+	@JsonFormat(shape = Shape.STRING)
+	private Instant expiresAt;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,53 @@
+package com.selimhorri.app.business.product.service;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import com.selimhorri.app.business.product.model.StockHoldDto;
+
+@FeignClient(name = "PRODUCT-SERVICE", contextId = "stockHoldClientService", path = "/product-service/api/holds")
+public interface StockHoldClientService {
+	
+	@GetMapping("/{holdId}")
+	public ResponseEntity<StockHoldDto> findById(
+			@PathVariable("holdId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String holdId);
+	
+	@PostMapping
+	public ResponseEntity<StockHoldDto> save(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final StockHoldDto stockHoldDto);
+	
+	@PostMapping("/{holdId}/confirm")
+	public ResponseEntity<StockHoldDto> confirm(
+			@PathVariable("holdId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String holdId);
+	
+	@PostMapping("/{holdId}/release")
+	public ResponseEntity<StockHoldDto> release(
+			@PathVariable("holdId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String holdId);
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -8,7 +8,9 @@ import lombok.RequiredArgsConstructor;
 public enum RoleBasedAuthority {
 	
 	ROLE_USER("USER"),
-	ROLE_ADMIN("ADMIN");
+	ROLE_ADMIN("ADMIN"),
+	// never granted to users, only to callers holding the notification webhook secret
+	ROLE_SERVICE("SERVICE");
 	
 	private final String role;
 	
@@ -0,0 +1,43 @@
+package com.selimhorri.app.config.executor;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+	
+	@Bean
+	public Executor checkoutExecutor(
+			@Value("${app.checkout.executor.core-pool-size:8}") final int corePoolSize,
+			@Value("${app.checkout.executor.max-pool-size:32}") final int maxPoolSize,
+			@Value("${app.checkout.executor.queue-capacity:256}") final int queueCapacity) {
+		final var executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(corePoolSize);
+		executor.setMaxPoolSize(maxPoolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("checkout-");
+		executor.initialize();
+		return executor;
+	}
+	
+	@Bean
+	public Executor notificationExecutor(
+			@Value("${app.notification.executor.core-pool-size:4}") final int corePoolSize,
+			@Value("${app.notification.executor.max-pool-size:16}") final int maxPoolSize,
+			@Value("${app.notification.executor.queue-capacity:1024}") final int queueCapacity) {
+		final var executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(corePoolSize);
+		executor.setMaxPoolSize(maxPoolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("notification-");
+		executor.initialize();
+		return executor;
+	}
+	
+	
+	
+}
@@ -0,0 +1,79 @@
+package com.selimhorri.app.config.filter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.selimhorri.app.business.user.model.RoleBasedAuthority;
+
+import lombok.extern.slf4j.Slf4j;
+
+// authenticates order-service, payment-service and peer proxies posting status change notifications,
+// only callers presenting the shared secret reach the endpoints that may mark a notification as relayed
+@Component
+@Slf4j
+public class NotificationSecretFilter extends OncePerRequestFilter {
+	
+	public static final String SECRET_HEADER = "X-Notification-Secret";
+	public static final String RELAYED_HEADER = "X-Notification-Relayed";
+	private static final String SERVICE_PRINCIPAL = "notification-webhook";
+	
+	private final AntPathRequestMatcher eventsMatcher = new AntPathRequestMatcher("/api/notifications/events/**");
+	
+	@Value("${app.notification.webhook-secret:}")
+	private String webhookSecret;
+	
+	@Override
+	protected boolean shouldNotFilter(final HttpServletRequest request) {
+		return !this.eventsMatcher.matches(request);
+	}
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain) 
+			throws ServletException, IOException {
+		
+		// the relay flag used to travel as a query parameter anyone could append
+		if (request.getParameter("relayed") != null) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), "Relayed notifications are marked by header only");
+			return;
+		}
+		
+		if (this.isTrusted(request.getHeader(SECRET_HEADER))) {
+			SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(SERVICE_PRINCIPAL, null, 
+					List.of(new SimpleGrantedAuthority(RoleBasedAuthority.ROLE_SERVICE.name()))));
+		}
+		else {
+			log.warn("*** Void, filter; notification without a valid webhook secret rejected *");
+			SecurityContextHolder.clearContext();
+		}
+		
+		filterChain.doFilter(request, response);
+	}
+	
+	// fails closed while no secret is configured, and compares in constant time
+	private boolean isTrusted(final String presented) {
+		if (this.webhookSecret == null || this.webhookSecret.isBlank() || presented == null)
+			return false;
+		return MessageDigest.isEqual(this.webhookSecret.getBytes(StandardCharsets.UTF_8), 
+				presented.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	
+	
+}
+
@@ -15,6 +15,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import com.selimhorri.app.business.user.model.RoleBasedAuthority;
 import com.selimhorri.app.config.filter.JwtRequestFilter;
+import com.selimhorri.app.config.filter.NotificationSecretFilter;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,6 +27,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 	private final UserDetailsService userDetailsService;
 	private final PasswordEncoder passwordEncoder;
 	private final JwtRequestFilter jwtRequestFilter;
+	private final NotificationSecretFilter notificationSecretFilter;
 	
 	@Override
 	protected void configure(final AuthenticationManagerBuilder auth) throws Exception {
@@ -43,6 +45,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 				.antMatchers("/api/authenticate/**").permitAll()
 				.antMatchers("/api/categories/**").permitAll()
 				.antMatchers("/api/products/**").permitAll()
+				.antMatchers("/api/notifications/events/**")
+					.hasRole(RoleBasedAuthority.ROLE_SERVICE.getRole())
 				.antMatchers("/api/**")
 					.hasAnyRole(RoleBasedAuthority.ROLE_USER.getRole(), 
 							RoleBasedAuthority.ROLE_ADMIN.getRole())
@@ -59,7 +63,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 			.sessionManagement()
 				.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
 			.and()
-			.addFilterBefore(this.jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+			.addFilterBefore(this.jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+			.addFilterBefore(this.notificationSecretFilter, UsernamePasswordAuthenticationFilter.class);
 	}
 	
 	@Bean
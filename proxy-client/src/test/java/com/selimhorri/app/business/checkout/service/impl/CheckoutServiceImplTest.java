@@ -0,0 +1,144 @@
+package com.selimhorri.app.business.checkout.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import com.selimhorri.app.business.checkout.model.CheckoutItem;
+import com.selimhorri.app.business.checkout.model.request.CheckoutRequest;
+import com.selimhorri.app.business.checkout.model.response.CheckoutResponse;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.orderItem.service.OrderItemClientService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.product.model.StockHoldDto;
+import com.selimhorri.app.business.product.service.StockHoldClientService;
+import com.selimhorri.app.exception.wrapper.CheckoutFailedException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Checkout Service Implementation Tests")
+class CheckoutServiceImplTest {
+
+    @Mock
+    private CartClientService cartClientService;
+
+    @Mock
+    private OrderClientService orderClientService;
+
+    @Mock
+    private OrderItemClientService orderItemClientService;
+
+    @Mock
+    private StockHoldClientService stockHoldClientService;
+
+    @Mock
+    private PaymentClientService paymentClientService;
+
+    private CheckoutServiceImpl checkoutService;
+    private CheckoutRequest checkoutRequest;
+
+    @BeforeEach
+    void setUp() {
+        checkoutService = new CheckoutServiceImpl(cartClientService, orderClientService, orderItemClientService,
+                stockHoldClientService, paymentClientService, Runnable::run);
+        checkoutRequest = CheckoutRequest.builder()
+                .orderDesc("checkout")
+                .orderFee(30.0)
+                .items(List.of(
+                        CheckoutItem.builder().productId(1).orderedQuantity(2).build(),
+                        CheckoutItem.builder().productId(2).orderedQuantity(1).build()))
+                .build();
+
+        when(cartClientService.save(any(CartDto.class)))
+                .thenReturn(ResponseEntity.ok(CartDto.builder().cartId(10).userId(7).build()));
+        when(orderClientService.save(any(OrderDto.class)))
+                .thenReturn(ResponseEntity.ok(OrderDto.builder().orderId(20).build()));
+        when(stockHoldClientService.save(any(StockHoldDto.class)))
+                .thenAnswer(invocation -> {
+                    StockHoldDto request = invocation.getArgument(0);
+                    return ResponseEntity.ok(StockHoldDto.builder()
+                            .holdId(100 + request.getProductId())
+                            .productId(request.getProductId())
+                            .orderId(request.getOrderId())
+                            .quantity(request.getQuantity())
+                            .build());
+                });
+    }
+
+    @Test
+    @DisplayName("Should run the whole checkout in one call")
+    void checkout_ShouldCreateCartOrderItemsAndPayment() {
+        // Given
+        when(orderItemClientService.save(any(OrderItemDto.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok(invocation.getArgument(0)));
+        when(paymentClientService.save(any(PaymentDto.class)))
+                .thenReturn(ResponseEntity.ok(PaymentDto.builder().paymentId(30).build()));
+
+        // When
+        CheckoutResponse response = checkoutService.checkout(7, checkoutRequest);
+
+        // Then
+        assertEquals(10, response.getCartDto().getCartId());
+        assertEquals(20, response.getOrderDto().getOrderId());
+        assertEquals(2, response.getOrderItemDtos().size());
+        assertEquals(2, response.getStockHoldDtos().size());
+        assertEquals(30, response.getPaymentDto().getPaymentId());
+        verify(cartClientService).save(argThat(c -> c.getUserId() == 7));
+        verify(paymentClientService).save(argThat(p -> p.getOrderDto().getOrderId() == 20 && !p.getIsPayed()));
+        verify(cartClientService, never()).deleteById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should compensate completed steps in reverse order when an item fails")
+    void checkout_ShouldCompensate_WhenItemFails() {
+        // Given
+        when(orderItemClientService.save(argThat(i -> i != null && i.getProductId() == 1)))
+                .thenAnswer(invocation -> ResponseEntity.ok(invocation.getArgument(0)));
+        when(orderItemClientService.save(argThat(i -> i != null && i.getProductId() == 2)))
+                .thenThrow(new IllegalStateException("shipping-service unavailable"));
+
+        // When & Then
+        CheckoutFailedException exception = assertThrows(CheckoutFailedException.class,
+                () -> checkoutService.checkout(7, checkoutRequest));
+        assertTrue(exception.getMessage().contains("shipping-service unavailable"));
+
+        verify(orderItemClientService).deleteById("20", "1");
+        verify(stockHoldClientService).release("101");
+        verify(stockHoldClientService).release("102");
+        verify(orderClientService).deleteById("20");
+        verify(cartClientService).deleteById("10");
+        verify(paymentClientService, never()).save(any(PaymentDto.class));
+    }
+
+    @Test
+    @DisplayName("Should keep compensating when one compensation fails")
+    void checkout_ShouldContinueCompensating_WhenCompensationFails() {
+        // Given
+        when(orderItemClientService.save(any(OrderItemDto.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok(invocation.getArgument(0)));
+        when(paymentClientService.save(any(PaymentDto.class)))
+                .thenThrow(new IllegalStateException("payment-service unavailable"));
+        when(orderClientService.deleteById("20")).thenThrow(new IllegalStateException("order-service unavailable"));
+
+        // When & Then
+        CheckoutFailedException exception = assertThrows(CheckoutFailedException.class,
+                () -> checkoutService.checkout(7, checkoutRequest));
+        assertTrue(exception.getMessage().contains("1 compensation(s) failed"));
+        verify(cartClientService).deleteById("10");
+    }
+
+}
@@ -0,0 +1,266 @@
+package com.selimhorri.app.business.notification.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.business.notification.model.OrderEventDto;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoPageResponse;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.PaymentStatus;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.config.filter.NotificationSecretFilter;
+
+import feign.FeignException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Notification Service Implementation Tests")
+class NotificationServiceImplTest {
+
+    @Mock
+    private OrderClientService orderClientService;
+
+    @Mock
+    private PaymentClientService paymentClientService;
+
+    @Mock
+    private DiscoveryClient discoveryClient;
+
+    @Mock
+    private ObjectProvider<Registration> registration;
+
+    @Mock
+    private RestTemplate peerRestTemplate;
+
+    private NotificationServiceImpl notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationServiceImpl(orderClientService, paymentClientService,
+                discoveryClient, registration, Runnable::run);
+        ReflectionTestUtils.setField(notificationService, "peerRestTemplate", peerRestTemplate);
+        ReflectionTestUtils.setField(notificationService, "applicationName", "PROXY-CLIENT");
+        ReflectionTestUtils.setField(notificationService, "contextPath", "/app");
+        ReflectionTestUtils.setField(notificationService, "emitterTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(notificationService, "maxOrders", 20);
+        ReflectionTestUtils.setField(notificationService, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(notificationService, "webhookSecret", "s3cret");
+    }
+
+    @Test
+    @DisplayName("Should subscribe only to owned orders and read back changes of those alone")
+    void receivePaymentChanges_ShouldPushOnlyOwnedOrders() {
+        // Given
+        when(orderClientService.findAllByUserId("7", 0, 20)).thenReturn(ResponseEntity.ok(userOrders(1, 2)));
+        when(paymentClientService.findById("10")).thenReturn(ResponseEntity.ok(payment(10, 1)));
+        notificationService.subscribe(7, Set.of(1, 3));
+
+        // When
+        int pushed = notificationService.receivePaymentChanges(List.of(payment(10, 1), payment(20, 2), payment(30, 3)), true);
+
+        // Then
+        assertEquals(1, pushed);
+        verify(paymentClientService, times(1)).findById(anyString());
+        verifyNoInteractions(discoveryClient);
+    }
+
+    @Test
+    @DisplayName("Should relay a notification to every other instance and skip events of unfollowed orders")
+    void receiveOrderEvents_ShouldRelayToPeers() {
+        // Given
+        Registration self = mock(Registration.class);
+        when(self.getInstanceId()).thenReturn("proxy-a");
+        when(registration.getIfAvailable()).thenReturn(self);
+        when(discoveryClient.getInstances("PROXY-CLIENT")).thenReturn(List.of(
+                new DefaultServiceInstance("proxy-a", "PROXY-CLIENT", "10.0.0.1", 8900, false),
+                new DefaultServiceInstance("proxy-b", "PROXY-CLIENT", "10.0.0.2", 8900, false)));
+
+        // When
+        int pushed = notificationService.receiveOrderEvents(List.of(OrderEventDto.builder()
+                .sequenceNumber(1L)
+                .aggregateType("ORDER")
+                .aggregateId(1)
+                .eventType("SAVED")
+                .build()), false);
+
+        // Then
+        assertEquals(0, pushed);
+        verify(peerRestTemplate, times(1)).postForEntity(
+                eq("http://10.0.0.2:8900/app" + NotificationServiceImpl.ORDER_EVENTS_PATH),
+                argThat((HttpEntity<?> request) -> "s3cret".equals(request.getHeaders().getFirst(NotificationSecretFilter.SECRET_HEADER))
+                        && "true".equals(request.getHeaders().getFirst(NotificationSecretFilter.RELAYED_HEADER))),
+                eq(Void.class));
+        verifyNoInteractions(orderClientService);
+    }
+
+    @Test
+    @DisplayName("Should follow orders placed after subscribing on streams not narrowed to given orders")
+    void receiveOrderEvents_ShouldFollowNewOrdersOfSubscribedUser() {
+        // Given
+        when(orderClientService.findAllByUserId("7", 0, 20)).thenReturn(ResponseEntity.ok(userOrders(1)));
+        when(orderClientService.findAllByUserId("8", 0, 20)).thenReturn(ResponseEntity.ok(userOrders(2)));
+        when(orderClientService.findById("5")).thenReturn(ResponseEntity.ok(OrderDto.builder()
+                .orderId(5)
+                .cartDto(CartDto.builder().cartId(3).userId(7).build())
+                .build()));
+        when(paymentClientService.findById("50")).thenReturn(ResponseEntity.ok(payment(50, 5)));
+        notificationService.subscribe(7, Set.of());
+        notificationService.subscribe(8, Set.of());
+
+        // When
+        int pushed = notificationService.receiveOrderEvents(List.of(orderEvent(5, "SAVED"), orderEvent(6, "DELETED")), true);
+        int paymentsPushed = notificationService.receivePaymentChanges(List.of(payment(50, 5)), true);
+
+        // Then
+        assertEquals(1, pushed);
+        assertEquals(1, paymentsPushed);
+        verify(orderClientService, times(1)).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not look up new orders when every stream is narrowed to given orders")
+    void receiveOrderEvents_ShouldIgnoreNewOrders_WhenStreamsAreNarrowed() {
+        // Given
+        when(orderClientService.findAllByUserId("7", 0, 20)).thenReturn(ResponseEntity.ok(userOrders(1)));
+        notificationService.subscribe(7, Set.of(1));
+
+        // When
+        int pushed = notificationService.receiveOrderEvents(List.of(orderEvent(5, "SAVED")), true);
+
+        // Then
+        assertEquals(0, pushed);
+        verify(orderClientService, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should push a deleted payment to the order the notification named")
+    void receivePaymentChanges_ShouldPushDeletion_WhenPaymentIsGone() {
+        // Given
+        when(orderClientService.findAllByUserId("7", 0, 20)).thenReturn(ResponseEntity.ok(userOrders(1)));
+        when(paymentClientService.findById("10")).thenThrow(mock(FeignException.NotFound.class));
+        notificationService.subscribe(7, Set.of());
+
+        // When
+        int pushed = notificationService.receivePaymentChanges(List.of(payment(10, 1)), true);
+
+        // Then
+        assertEquals(1, pushed);
+        assertEquals(1L, ((AtomicLong) ReflectionTestUtils.getField(notificationService, "pushed")).get());
+    }
+
+    @Test
+    @DisplayName("Should turn new subscribers away once the instance is full")
+    void subscribe_ShouldRejectBeyondLimit() {
+        // Given
+        ReflectionTestUtils.setField(notificationService, "maxSubscribers", 1);
+        when(orderClientService.findAllByUserId("7", 0, 20)).thenReturn(ResponseEntity.ok(userOrders(1)));
+        notificationService.subscribe(7, Set.of());
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> notificationService.subscribe(7, Set.of()));
+        assertEquals(1, notificationService.heartbeat());
+    }
+
+    @Test
+    @DisplayName("Should count subscribers still waiting for their orders against the limit")
+    void subscribe_ShouldReserveSlotBeforeOrderLookup() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(notificationService, "maxSubscribers", 1);
+        CountDownLatch lookingUp = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderClientService.findAllByUserId("7", 0, 20)).thenAnswer(invocation -> {
+            lookingUp.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return ResponseEntity.ok(userOrders(1));
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> notificationService.subscribe(7, Set.of()));
+            assertTrue(lookingUp.await(5, TimeUnit.SECONDS));
+
+            // When / Then
+            assertThrows(IllegalStateException.class, () -> notificationService.subscribe(8, Set.of()));
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            assertEquals(1, notificationService.heartbeat());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should free the reserved slot when the order lookup fails")
+    void subscribe_ShouldReleaseSlot_WhenOrderLookupFails() {
+        // Given
+        ReflectionTestUtils.setField(notificationService, "maxSubscribers", 1);
+        when(orderClientService.findAllByUserId("7", 0, 20))
+                .thenThrow(mock(FeignException.ServiceUnavailable.class))
+                .thenReturn(ResponseEntity.ok(userOrders(1)));
+        assertThrows(FeignException.class, () -> notificationService.subscribe(7, Set.of()));
+
+        // When
+        notificationService.subscribe(7, Set.of());
+
+        // Then
+        assertEquals(1, notificationService.heartbeat());
+    }
+
+    private static OrderOrderServiceDtoPageResponse userOrders(final Integer... orderIds) {
+        return OrderOrderServiceDtoPageResponse.builder()
+                .collection(Stream.of(orderIds)
+                        .map(orderId -> OrderDto.builder().orderId(orderId).build())
+                        .collect(Collectors.toUnmodifiableList()))
+                .build();
+    }
+
+    private static OrderEventDto orderEvent(final Integer orderId, final String eventType) {
+        return OrderEventDto.builder()
+                .sequenceNumber(1L)
+                .aggregateType("ORDER")
+                .aggregateId(orderId)
+                .eventType(eventType)
+                .build();
+    }
+
+    private static PaymentDto payment(final Integer paymentId, final Integer orderId) {
+        return PaymentDto.builder()
+                .paymentId(paymentId)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .orderDto(com.selimhorri.app.business.payment.model.OrderDto.builder()
+                        .orderId(orderId)
+                        .build())
+                .build();
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.selimhorri.app.config.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("Notification Secret Filter Tests")
+class NotificationSecretFilterTest {
+
+    private NotificationSecretFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new NotificationSecretFilter();
+        ReflectionTestUtils.setField(filter, "webhookSecret", "s3cret");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should authenticate a notification carrying the shared secret as a service")
+    void doFilter_ShouldGrantServiceRole_WhenSecretMatches() throws Exception {
+        // Given
+        MockHttpServletRequest request = events();
+        request.addHeader(NotificationSecretFilter.SECRET_HEADER, "s3cret");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(chain.getRequest());
+        assertNotNull(authentication);
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> "ROLE_SERVICE".equals(a.getAuthority())));
+    }
+
+    @Test
+    @DisplayName("Should leave a notification with a wrong secret unauthenticated")
+    void doFilter_ShouldNotAuthenticate_WhenSecretDiffers() throws Exception {
+        // Given
+        MockHttpServletRequest request = events();
+        request.addHeader(NotificationSecretFilter.SECRET_HEADER, "guess");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Should refuse every notification while no secret is configured")
+    void doFilter_ShouldNotAuthenticate_WhenSecretUnset() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(filter, "webhookSecret", "");
+        MockHttpServletRequest request = events();
+        request.addHeader(NotificationSecretFilter.SECRET_HEADER, "");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Should reject a relayed flag passed as a query parameter")
+    void doFilter_ShouldRejectRelayedParameter() throws Exception {
+        // Given
+        MockHttpServletRequest request = events();
+        request.addHeader(NotificationSecretFilter.SECRET_HEADER, "s3cret");
+        request.setParameter("relayed", "true");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(400, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    private static MockHttpServletRequest events() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/notifications/events/orders");
+        request.setServletPath("/api/notifications/events/orders");
+        return request;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.selimhorri.app.config.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+	
+	// a saturated pool hands the work back to the committing thread, a rollup is late then but never lost
+	@Bean
+	public Executor rollupExecutor(
+			@Value("${app.rollup.executor.core-pool-size:2}") final int corePoolSize,
+			@Value("${app.rollup.executor.max-pool-size:8}") final int maxPoolSize,
+			@Value("${app.rollup.executor.queue-capacity:1024}") final int queueCapacity) {
+		final var executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(corePoolSize);
+		executor.setMaxPoolSize(maxPoolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("rollup-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+	
+	@Bean
+	public Executor projectionExecutor() {
+		final var executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("projection-");
+		executor.initialize();
+		return executor;
+	}
+	
+	
+	
+}
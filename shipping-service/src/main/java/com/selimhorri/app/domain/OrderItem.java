@@ -1,6 +1,7 @@
 package com.selimhorri.app.domain;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -39,6 +40,17 @@ public final class OrderItem extends AbstractMappedEntity implements Serializabl
 	@Column(name = "ordered_quantity")
 	private Integer orderedQuantity;
 	
+	// handed out by the sequencer once the row is committed, never written through the entity
+	@Column(name = "sequence_number", insertable = false, updatable = false)
+	private Long sequenceNumber;
+	
+	// what the sales rollups have counted for this row and under which day, only written by the rollup
+	@Column(name = "rolled_up_quantity", insertable = false, updatable = false)
+	private Integer rolledUpQuantity;
+	
+	@Column(name = "rolled_up_date", insertable = false, updatable = false)
+	private LocalDate rolledUpDate;
+	
 }
 
 
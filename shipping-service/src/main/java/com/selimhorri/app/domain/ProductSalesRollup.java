@@ -0,0 +1,56 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import com.selimhorri.app.domain.id.ProductSalesRollupId;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "product_sales_rollups")
+@IdClass(ProductSalesRollupId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class ProductSalesRollup extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "product_id", nullable = false, updatable = false)
+	private Integer productId;
+	
+	@Id
+	@Column(name = "sale_date", nullable = false, updatable = false)
+	private LocalDate saleDate;
+	
+	@Column(name = "category_id")
+	private Integer categoryId;
+	
+	@Column(name = "units", nullable = false)
+	private Long units;
+	
+}
+
+
+
+
+
+
+
+
+
+
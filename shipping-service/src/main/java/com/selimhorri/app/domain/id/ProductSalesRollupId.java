@@ -0,0 +1,29 @@
+package com.selimhorri.app.domain.id;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ProductSalesRollupId implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	private Integer productId;
+	private LocalDate saleDate;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,33 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderEventDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Long sequenceNumber;
+	private String aggregateType;
+	private Integer aggregateId;
+	private String eventType;
+	
+	@JsonFormat(shape = Shape.STRING)
+	private Instant occurredAt;
+	
+	// the saved order, absent for deletions and only meaningful for ORDER aggregates
+	private OrderDto payload;
+	
+}
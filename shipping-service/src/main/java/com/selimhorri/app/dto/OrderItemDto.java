@@ -1,7 +1,10 @@
 package com.selimhorri.app.dto;
 
 import java.io.Serializable;
+import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
@@ -23,6 +26,10 @@ public class OrderItemDto implements Serializable {
 	private Integer orderId;
 	private Integer orderedQuantity;
 	
+	@JsonFormat(shape = Shape.STRING)
+	@JsonInclude(Include.NON_NULL)
+	private Instant createdAt;
+	
 	@JsonProperty("product")
 	@JsonInclude(Include.NON_NULL)
 	private ProductDto productDto;
@@ -0,0 +1,38 @@
+package com.selimhorri.app.event;
+
+import java.util.Map;
+
+import com.selimhorri.app.domain.id.OrderItemId;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class OrderItemsChangedEvent {
+	
+	// signed change in ordered quantity per order item
+	private final Map<OrderItemId, Integer> unitDeltas;
+	
+	public static OrderItemsChangedEvent of(final Map<OrderItemId, Integer> unitDeltas) {
+		return new OrderItemsChangedEvent(Map.copyOf(unitDeltas));
+	}
+	
+	public static OrderItemsChangedEvent of(final OrderItemId orderItemId, final int unitDelta) {
+		return new OrderItemsChangedEvent(Map.of(orderItemId, unitDelta));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
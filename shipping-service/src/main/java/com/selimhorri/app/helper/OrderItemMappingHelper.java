@@ -12,6 +12,7 @@ public interface OrderItemMappingHelper {
 				.productId(orderItem.getProductId())
 				.orderId(orderItem.getOrderId())
 				.orderedQuantity(orderItem.getOrderedQuantity())
+				.createdAt(orderItem.getCreatedAt())
 				.productDto(
 						ProductDto.builder()
 							.productId(orderItem.getProductId())
@@ -0,0 +1,38 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.OrderProjection;
+import com.selimhorri.app.dto.OrderDto;
+
+public interface OrderProjectionMappingHelper {
+	
+	public static OrderDto map(final OrderProjection orderProjection) {
+		return OrderDto.builder()
+				.orderId(orderProjection.getOrderId())
+				.orderDate(orderProjection.getOrderDate())
+				.orderDesc(orderProjection.getOrderDesc())
+				.orderFee(orderProjection.getOrderFee())
+				.build();
+	}
+	
+	public static OrderProjection map(final OrderDto orderDto, final Long sequenceNumber) {
+		return OrderProjection.builder()
+				.orderId(orderDto.getOrderId())
+				.orderDate(orderDto.getOrderDate())
+				.orderDesc(orderDto.getOrderDesc())
+				.orderFee(orderDto.getOrderFee())
+				.sequenceNumber(sequenceNumber)
+				.build();
+	}
+	
+	public static OrderProjection patch(final OrderProjection orderProjection, final OrderDto orderDto, 
+			final Long sequenceNumber) {
+		orderProjection.setOrderDate(orderDto.getOrderDate());
+		orderProjection.setOrderDesc(orderDto.getOrderDesc());
+		orderProjection.setOrderFee(orderDto.getOrderFee());
+		orderProjection.setSequenceNumber(sequenceNumber);
+		return orderProjection;
+	}
+	
+	
+	
+}
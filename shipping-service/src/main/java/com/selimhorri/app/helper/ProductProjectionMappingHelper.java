@@ -0,0 +1,41 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.ProductProjection;
+import com.selimhorri.app.dto.ProductDto;
+
+public interface ProductProjectionMappingHelper {
+	
+	public static ProductDto map(final ProductProjection productProjection) {
+		return ProductDto.builder()
+				.productId(productProjection.getProductId())
+				.productTitle(productProjection.getProductTitle())
+				.imageUrl(productProjection.getImageUrl())
+				.sku(productProjection.getSku())
+				.priceUnit(productProjection.getPriceUnit())
+				.build();
+	}
+	
+	public static ProductProjection map(final ProductDto productDto, final Long sequenceNumber) {
+		return ProductProjection.builder()
+				.productId(productDto.getProductId())
+				.productTitle(productDto.getProductTitle())
+				.imageUrl(productDto.getImageUrl())
+				.sku(productDto.getSku())
+				.priceUnit(productDto.getPriceUnit())
+				.sequenceNumber(sequenceNumber)
+				.build();
+	}
+	
+	public static ProductProjection patch(final ProductProjection productProjection, final ProductDto productDto, 
+			final Long sequenceNumber) {
+		productProjection.setProductTitle(productDto.getProductTitle());
+		productProjection.setImageUrl(productDto.getImageUrl());
+		productProjection.setSku(productDto.getSku());
+		productProjection.setPriceUnit(productDto.getPriceUnit());
+		productProjection.setSequenceNumber(sequenceNumber);
+		return productProjection;
+	}
+	
+	
+	
+}
@@ -0,0 +1,13 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import com.selimhorri.app.domain.OrderItem;
+
+public interface OrderItemBatchRepository {
+	
+	List<OrderItem> persistAll(final List<OrderItem> orderItems);
+	int sequencePending(final int limit);
+	void markRolledUp(final List<OrderItem> orderItems);
+	
+}
@@ -0,0 +1,105 @@
+package com.selimhorri.app.repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.OrderItem;
+
+public class OrderItemBatchRepositoryImpl implements OrderItemBatchRepository {
+	
+	private static final String PENDING_SQL = "SELECT product_id, order_id FROM order_items WHERE sequence_number IS NULL "
+			+ "ORDER BY created_at, product_id, order_id LIMIT ? FOR UPDATE";
+	private static final String LAST_SEQUENCE_SQL = "SELECT MAX(sequence_number) FROM order_items";
+	private static final String SEQUENCE_SQL = "UPDATE order_items SET sequence_number = ? WHERE product_id = ? AND order_id = ?";
+	private static final String ROLLED_UP_SQL = "UPDATE order_items SET rolled_up_quantity = ?, rolled_up_date = ? "
+			+ "WHERE product_id = ? AND order_id = ?";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+	private int batchSize;
+	
+	// only the rows persisted here are detached after each flush, whatever else the caller's transaction manages stays attached
+	@Override
+	@Transactional
+	public List<OrderItem> persistAll(final List<OrderItem> orderItems) {
+		final int size = Math.max(this.batchSize, 1);
+		for (int from = 0; from < orderItems.size(); from += size) {
+			final var batch = orderItems.subList(from, Math.min(from + size, orderItems.size()));
+			batch.forEach(this.entityManager::persist);
+			this.entityManager.flush();
+			batch.forEach(this.entityManager::detach);
+		}
+		return orderItems;
+	}
+	
+	// numbers committed rows after the last one handed out; the rows stay locked until the caller commits,
+	// so sequencers of other instances queue behind this one instead of handing out the same numbers
+	@Override
+	@Transactional
+	public int sequencePending(final int limit) {
+		return this.entityManager.unwrap(Session.class).doReturningWork(connection -> {
+			final List<int[]> orderItemIds = new ArrayList<>();
+			try (final var pending = connection.prepareStatement(PENDING_SQL)) {
+				pending.setInt(1, limit);
+				try (final var rs = pending.executeQuery()) {
+					while (rs.next())
+						orderItemIds.add(new int[] {rs.getInt("product_id"), rs.getInt("order_id")});
+				}
+			}
+			if (orderItemIds.isEmpty())
+				return 0;
+			long next;
+			try (final var last = connection.prepareStatement(LAST_SEQUENCE_SQL);
+					final var rs = last.executeQuery()) {
+				next = rs.next() ? rs.getLong(1) : 0L;
+			}
+			try (final var sequence = connection.prepareStatement(SEQUENCE_SQL)) {
+				for (final var orderItemId : orderItemIds) {
+					sequence.setLong(1, ++next);
+					sequence.setInt(2, orderItemId[0]);
+					sequence.setInt(3, orderItemId[1]);
+					sequence.addBatch();
+				}
+				sequence.executeBatch();
+			}
+			return orderItemIds.size();
+		});
+	}
+	
+	// the ledger columns are not updatable through the entity, so they are written here as the caller left them
+	@Override
+	@Transactional
+	public void markRolledUp(final List<OrderItem> orderItems) {
+		if (orderItems.isEmpty())
+			return;
+		this.entityManager.unwrap(Session.class).doWork(connection -> {
+			try (final var rolledUp = connection.prepareStatement(ROLLED_UP_SQL)) {
+				for (final var orderItem : orderItems) {
+					rolledUp.setInt(1, orderItem.getRolledUpQuantity() == null ? 0 : orderItem.getRolledUpQuantity());
+					if (orderItem.getRolledUpDate() == null)
+						rolledUp.setNull(2, Types.DATE);
+					else
+						rolledUp.setDate(2, Date.valueOf(orderItem.getRolledUpDate()));
+					rolledUp.setInt(3, orderItem.getProductId());
+					rolledUp.setInt(4, orderItem.getOrderId());
+					rolledUp.addBatch();
+				}
+				rolledUp.executeBatch();
+			}
+		});
+	}
+	
+	
+	
+}
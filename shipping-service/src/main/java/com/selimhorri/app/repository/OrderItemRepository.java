@@ -1,11 +1,49 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
 
-public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId>, OrderItemBatchRepository {
+	
+	Page<OrderItem> findAllByOrderId(final Integer orderId, final Pageable pageable);
+	Page<OrderItem> findAllByProductId(final Integer productId, final Pageable pageable);
+	
+	@Query("SELECT o FROM OrderItem o WHERE o.sequenceNumber > :after ORDER BY o.sequenceNumber ASC")
+	List<OrderItem> findAllSequencedAfter(@Param("after") final Long after, final Pageable pageable);
+	
+	@Query("SELECT o FROM OrderItem o WHERE o.productId > :productId OR (o.productId = :productId AND o.orderId > :orderId) "
+			+ "ORDER BY o.productId ASC, o.orderId ASC")
+	List<OrderItem> findChunkAfter(@Param("productId") final Integer productId, @Param("orderId") final Integer orderId, 
+			final Pageable pageable);
+	
+	// may return more rows than asked for, callers keep the ids they want
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT o FROM OrderItem o WHERE o.orderId IN :orderIds AND o.productId IN :productIds")
+	List<OrderItem> findAllForUpdate(@Param("orderIds") final Collection<Integer> orderIds, 
+			@Param("productIds") final Collection<Integer> productIds);
+	
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE OrderItem o SET o.rolledUpQuantity = 0, o.rolledUpDate = NULL")
+	int resetRolledUp();
+	
+	@Query("SELECT DISTINCT o.productId FROM OrderItem o WHERE o.productId > :after ORDER BY o.productId ASC")
+	List<Integer> findProductIdsAfter(@Param("after") final Integer after, final Pageable pageable);
+	
+	@Query("SELECT DISTINCT o.orderId FROM OrderItem o WHERE o.orderId > :after ORDER BY o.orderId ASC")
+	List<Integer> findOrderIdsAfter(@Param("after") final Integer after, final Pageable pageable);
 	
 	
 	
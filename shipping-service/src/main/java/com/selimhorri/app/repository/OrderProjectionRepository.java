@@ -0,0 +1,20 @@
+package com.selimhorri.app.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OrderProjection;
+
+public interface OrderProjectionRepository extends JpaRepository<OrderProjection, Integer> {
+	
+	@Modifying
+	@Query("DELETE FROM OrderProjection o WHERE o.orderId IN :orderIds")
+	int deleteAllByIdIn(@Param("orderIds") final Collection<Integer> orderIds);
+	
+	
+	
+}
@@ -0,0 +1,20 @@
+package com.selimhorri.app.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.ProductProjection;
+
+public interface ProductProjectionRepository extends JpaRepository<ProductProjection, Integer> {
+	
+	@Modifying
+	@Query("DELETE FROM ProductProjection p WHERE p.productId IN :productIds")
+	int deleteAllByIdIn(@Param("productIds") final Collection<Integer> productIds);
+	
+	
+	
+}
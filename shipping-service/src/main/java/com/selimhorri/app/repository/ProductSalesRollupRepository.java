@@ -0,0 +1,30 @@
+package com.selimhorri.app.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.ProductSalesRollup;
+import com.selimhorri.app.domain.id.ProductSalesRollupId;
+
+public interface ProductSalesRollupRepository extends JpaRepository<ProductSalesRollup, ProductSalesRollupId> {
+	
+	List<ProductSalesRollup> findAllBySaleDateGreaterThanEqual(final LocalDate saleDate);
+	
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE ProductSalesRollup r SET r.units = r.units + :units "
+			+ "WHERE r.productId = :productId AND r.saleDate = :saleDate")
+	int addUnits(@Param("productId") final Integer productId, @Param("saleDate") final LocalDate saleDate, 
+			@Param("units") final Long units);
+	
+	@Modifying
+	@Query("DELETE FROM ProductSalesRollup r")
+	int deleteAllRollups();
+	
+	
+	
+}
@@ -1,6 +1,9 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.http.ResponseEntity;
@@ -11,11 +14,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
 import com.selimhorri.app.service.OrderItemService;
 
 import lombok.RequiredArgsConstructor;
@@ -41,7 +47,33 @@ public class OrderItemResource {
 			@PathVariable("productId") final String productId) {
 		log.info("*** OrderItemDto, resource; fetch orderItem by id *");
 		return ResponseEntity.ok(this.orderItemService.findById(
-				new OrderItemId(Integer.parseInt(orderId), Integer.parseInt(productId))));
+				new OrderItemId(Integer.parseInt(productId), Integer.parseInt(orderId))));
+	}
+	
+	@GetMapping("/order/{orderId}")
+	public ResponseEntity<DtoPageResponse<OrderItemDto>> findAllByOrderId(
+			@PathVariable("orderId") final String orderId,
+			@RequestParam(name = "page", defaultValue = "0") final int page,
+			@RequestParam(name = "size", defaultValue = "20") final int size) {
+		log.info("*** OrderItemDto Page, resource; fetch orderItems by order id *");
+		return ResponseEntity.ok(this.orderItemService.findAllByOrderId(Integer.parseInt(orderId), page, size));
+	}
+	
+	@GetMapping("/product/{productId}")
+	public ResponseEntity<DtoPageResponse<OrderItemDto>> findAllByProductId(
+			@PathVariable("productId") final String productId,
+			@RequestParam(name = "page", defaultValue = "0") final int page,
+			@RequestParam(name = "size", defaultValue = "20") final int size) {
+		log.info("*** OrderItemDto Page, resource; fetch orderItems by product id *");
+		return ResponseEntity.ok(this.orderItemService.findAllByProductId(Integer.parseInt(productId), page, size));
+	}
+	
+	@GetMapping("/feed")
+	public ResponseEntity<DtoFeedResponse<OrderItemDto>> findAllSequencedAfter(
+			@RequestParam(name = "after", defaultValue = "0") final Long after,
+			@RequestParam(name = "limit", defaultValue = "500") final int limit) {
+		log.info("*** OrderItemDto Feed, resource; fetch orderItems sequenced after cursor *");
+		return ResponseEntity.ok(this.orderItemService.findAllSequencedAfter(after, limit));
 	}
 	
 	@GetMapping("/find")
@@ -62,6 +94,15 @@ public class OrderItemResource {
 		return ResponseEntity.ok(this.orderItemService.save(orderItemDto));
 	}
 	
+	@PostMapping("/batch")
+	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> saveAll(
+			@RequestBody 
+			@NotEmpty(message = "Input must not be empty") 
+			@Valid final List<OrderItemDto> orderItemDtos) {
+		log.info("*** OrderItemDto List, resource; save orderItems in batch *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderItemService.saveAll(orderItemDtos)));
+	}
+	
 	@PutMapping
 	public ResponseEntity<OrderItemDto> update(
 			@RequestBody 
@@ -76,7 +117,7 @@ public class OrderItemResource {
 			@PathVariable("orderId") final String orderId, 
 			@PathVariable("productId") final String productId) {
 		log.info("*** Boolean, resource; delete orderItem by id *");
-		this.orderItemService.deleteById(new OrderItemId(Integer.parseInt(orderId), Integer.parseInt(productId)));
+		this.orderItemService.deleteById(new OrderItemId(Integer.parseInt(productId), Integer.parseInt(orderId)));
 		return ResponseEntity.ok(true);
 	}
 	
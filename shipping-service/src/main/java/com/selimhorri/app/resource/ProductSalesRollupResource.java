@@ -0,0 +1,72 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.UnitsSoldDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ProductSalesRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/shippings/rollups")
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSalesRollupResource {
+	
+	private final ProductSalesRollupService productSalesRollupService;
+	
+	@GetMapping("/products")
+	public ResponseEntity<DtoCollectionResponse<UnitsSoldDto>> findTopProducts(
+			@RequestParam(name = "days", defaultValue = "7") final int days,
+			@RequestParam(name = "limit", defaultValue = "20") final int limit) {
+		log.info("*** UnitsSoldDto List, resource; fetch best selling products *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productSalesRollupService.findTopProducts(days, limit)));
+	}
+	
+	@GetMapping("/products/{productId}")
+	public ResponseEntity<UnitsSoldDto> findByProductId(@PathVariable("productId") final String productId) {
+		log.info("*** UnitsSoldDto, resource; fetch units sold by product id *");
+		return ResponseEntity.ok(this.productSalesRollupService.findByProductId(Integer.parseInt(productId)));
+	}
+	
+	@GetMapping("/categories")
+	public ResponseEntity<DtoCollectionResponse<UnitsSoldDto>> findTopCategories(
+			@RequestParam(name = "days", defaultValue = "7") final int days,
+			@RequestParam(name = "limit", defaultValue = "20") final int limit) {
+		log.info("*** UnitsSoldDto List, resource; fetch best selling categories *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productSalesRollupService.findTopCategories(days, limit)));
+	}
+	
+	@GetMapping("/categories/{categoryId}")
+	public ResponseEntity<UnitsSoldDto> findByCategoryId(@PathVariable("categoryId") final String categoryId) {
+		log.info("*** UnitsSoldDto, resource; fetch units sold by category id *");
+		return ResponseEntity.ok(this.productSalesRollupService.findByCategoryId(Integer.parseInt(categoryId)));
+	}
+	
+	@PostMapping("/backfill")
+	public ResponseEntity<Integer> backfill() {
+		log.info("*** Integer, resource; backfill sales rollups from orderItems *");
+		return ResponseEntity.ok(this.productSalesRollupService.backfill());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,35 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.service.ProjectionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/projections")
+@Slf4j
+@RequiredArgsConstructor
+public class ProjectionResource {
+	
+	private final ProjectionService projectionService;
+	
+	@PostMapping("/sync")
+	public ResponseEntity<Integer> sync() {
+		log.info("*** Integer, resource; sync projections from the change feeds *");
+		return ResponseEntity.ok(this.projectionService.sync());
+	}
+	
+	@PostMapping("/reconcile")
+	public ResponseEntity<Integer> reconcile() {
+		log.info("*** Integer, resource; reconcile projections with their owning services *");
+		return ResponseEntity.ok(this.projectionService.reconcile());
+	}
+	
+	
+	
+}
@@ -4,12 +4,18 @@ import java.util.List;
 
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
 
 public interface OrderItemService {
 	
 	List<OrderItemDto> findAll();
 	OrderItemDto findById(final OrderItemId orderItemId);
+	DtoPageResponse<OrderItemDto> findAllByOrderId(final Integer orderId, final int page, final int size);
+	DtoPageResponse<OrderItemDto> findAllByProductId(final Integer productId, final int page, final int size);
+	DtoFeedResponse<OrderItemDto> findAllSequencedAfter(final Long after, final int limit);
 	OrderItemDto save(final OrderItemDto orderItemDto);
+	List<OrderItemDto> saveAll(final List<OrderItemDto> orderItemDtos);
 	OrderItemDto update(final OrderItemDto orderItemDto);
 	void deleteById(final OrderItemId orderItemId);
 	
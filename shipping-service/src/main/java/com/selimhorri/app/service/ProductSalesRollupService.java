@@ -0,0 +1,18 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.UnitsSoldDto;
+
+public interface ProductSalesRollupService {
+	
+	List<UnitsSoldDto> findTopProducts(final int days, final int limit);
+	List<UnitsSoldDto> findTopCategories(final int days, final int limit);
+	UnitsSoldDto findByProductId(final Integer productId);
+	UnitsSoldDto findByCategoryId(final Integer categoryId);
+	int backfill();
+	void reload();
+	void remove(final OrderItemId orderItemId);
+	
+}
@@ -0,0 +1,16 @@
+package com.selimhorri.app.service;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.ProductDto;
+
+public interface ProjectionService {
+	
+	Map<Integer, ProductDto> findAllProductsById(final Set<Integer> productIds);
+	Map<Integer, OrderDto> findAllOrdersById(final Set<Integer> orderIds);
+	int sync();
+	int reconcile();
+	
+}
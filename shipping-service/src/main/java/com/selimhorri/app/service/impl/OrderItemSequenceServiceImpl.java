@@ -0,0 +1,50 @@
+package com.selimhorri.app.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.OrderItemSequenceService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderItemSequenceServiceImpl implements OrderItemSequenceService {
+	
+	private final OrderItemRepository orderItemRepository;
+	private final PlatformTransactionManager transactionManager;
+	
+	@Value("${app.order-item.feed.sequence-batch-size:500}")
+	private int batchSize;
+	
+	// a row only gets its number once it is visible here, so numbers follow commit order rather than created_at
+	@Override
+	@Scheduled(fixedDelayString = "${app.order-item.feed.sequence-interval-ms:500}",
+			initialDelayString = "${app.order-item.feed.sequence-interval-ms:500}")
+	public synchronized int sequence() {
+		final int size = Math.max(this.batchSize, 1);
+		final var transactionTemplate = new TransactionTemplate(this.transactionManager,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+		int sequenced = 0;
+		int batch;
+		do {
+			batch = transactionTemplate.execute(status -> this.orderItemRepository.sequencePending(size));
+			sequenced += batch;
+		}
+		while (batch == size);
+		if (sequenced > 0)
+			log.info("*** Integer, service; sequenced {} orderItems *", sequenced);
+		return sequenced;
+	}
+	
+	
+	
+}
@@ -1,22 +1,28 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
-import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
-import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.event.OrderItemsChangedEvent;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
 import com.selimhorri.app.helper.OrderItemMappingHelper;
 import com.selimhorri.app.repository.OrderItemRepository;
 import com.selimhorri.app.service.OrderItemService;
+import com.selimhorri.app.service.ProductSalesRollupService;
+import com.selimhorri.app.service.ProjectionService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,61 +33,154 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderItemServiceImpl implements OrderItemService {
 	
+	private static final int MAX_PAGE_SIZE = 100;
+	private static final int MAX_FEED_SIZE = 1000;
+	
 	private final OrderItemRepository orderItemRepository;
-	private final RestTemplate restTemplate;
+	private final ProjectionService projectionService;
+	private final ProductSalesRollupService productSalesRollupService;
+	private final ApplicationEventPublisher eventPublisher;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<OrderItemDto> findAll() {
 		log.info("*** OrderItemDto List, service; fetch all orderItems *");
-		return this.orderItemRepository.findAll()
+		return this.enrich(this.orderItemRepository.findAll()
 				.stream()
 					.map(OrderItemMappingHelper::map)
-					.map(o -> {
-						o.setProductDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.PRODUCT_SERVICE_API_URL + "/" + o.getProductDto().getProductId(), ProductDto.class));
-						o.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.ORDER_SERVICE_API_URL + "/" + o.getOrderDto().getOrderId(), OrderDto.class));
-						return o;
-					})
+					.collect(Collectors.toUnmodifiableList()))
+				.stream()
 					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public OrderItemDto findById(final OrderItemId orderItemId) {
 		log.info("*** OrderItemDto, service; fetch orderItem by id *");
-		return this.orderItemRepository.findById(null)
+		return this.orderItemRepository.findById(orderItemId)
 				.map(OrderItemMappingHelper::map)
-				.map(o -> {
-					o.setProductDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-							.PRODUCT_SERVICE_API_URL + "/" + o.getProductDto().getProductId(), ProductDto.class));
-					o.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-							.ORDER_SERVICE_API_URL + "/" + o.getOrderDto().getOrderId(), OrderDto.class));
-					return o;
-				})
+				.map(o -> this.enrich(List.of(o)).get(0))
 				.orElseThrow(() -> new OrderItemNotFoundException(String.format("OrderItem with id: %s not found", orderItemId)));
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public DtoPageResponse<OrderItemDto> findAllByOrderId(final Integer orderId, final int page, final int size) {
+		log.info("*** OrderItemDto Page, service; fetch orderItems by order id *");
+		return this.enrich(this.orderItemRepository.findAllByOrderId(orderId, pageOf(page, size, "productId")));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public DtoPageResponse<OrderItemDto> findAllByProductId(final Integer productId, final int page, final int size) {
+		log.info("*** OrderItemDto Page, service; fetch orderItems by product id *");
+		return this.enrich(this.orderItemRepository.findAllByProductId(productId, pageOf(page, size, "orderId")));
+	}
+	
+	// numbered in commit order, so a consumer resuming after its last number never skips a late commit
+	@Override
+	@Transactional(readOnly = true)
+	public DtoFeedResponse<OrderItemDto> findAllSequencedAfter(final Long after, final int limit) {
+		log.info("*** OrderItemDto Feed, service; fetch orderItems sequenced after cursor *");
+		final var orderItems = this.orderItemRepository.findAllSequencedAfter(after,
+				PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_FEED_SIZE)));
+		return DtoFeedResponse.<OrderItemDto>builder()
+				.collection(orderItems.stream()
+						.map(OrderItemMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.cursor(orderItems.isEmpty() ? after : orderItems.get(orderItems.size() - 1).getSequenceNumber())
+				.build();
+	}
+	
 	@Override
 	public OrderItemDto save(final OrderItemDto orderItemDto) {
 		log.info("*** OrderItemDto, service; save orderItem *");
-		return OrderItemMappingHelper.map(this.orderItemRepository
-				.save(OrderItemMappingHelper.map(orderItemDto)));
+		final var orderItem = OrderItemMappingHelper.map(orderItemDto);
+		// saving over an existing key replaces its quantity, so only the difference is a change
+		final int previousQuantity = this.orderItemRepository.findById(idOf(orderItem))
+				.map(OrderItemServiceImpl::quantityOf)
+				.orElse(0);
+		final var saved = this.orderItemRepository.save(orderItem);
+		this.eventPublisher.publishEvent(OrderItemsChangedEvent.of(idOf(saved), quantityOf(saved) - previousQuantity));
+		return OrderItemMappingHelper.map(saved);
+	}
+	
+	@Override
+	public List<OrderItemDto> saveAll(final List<OrderItemDto> orderItemDtos) {
+		log.info("*** OrderItemDto List, service; save orderItems in batch *");
+		final var saved = this.orderItemRepository.persistAll(orderItemDtos.stream()
+					.map(OrderItemMappingHelper::map)
+					.collect(Collectors.toList()));
+		this.eventPublisher.publishEvent(OrderItemsChangedEvent.of(saved.stream()
+				.collect(Collectors.toMap(OrderItemServiceImpl::idOf, OrderItemServiceImpl::quantityOf, Integer::sum))));
+		return saved.stream()
+				.map(OrderItemMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
 	public OrderItemDto update(final OrderItemDto orderItemDto) {
 		log.info("*** OrderItemDto, service; update orderItem *");
-		return OrderItemMappingHelper.map(this.orderItemRepository
-				.save(OrderItemMappingHelper.map(orderItemDto)));
+		final var orderItem = OrderItemMappingHelper.map(orderItemDto);
+		final int previousQuantity = this.orderItemRepository.findById(idOf(orderItem))
+				.map(OrderItemServiceImpl::quantityOf)
+				.orElse(0);
+		final var updated = this.orderItemRepository.save(orderItem);
+		this.eventPublisher.publishEvent(OrderItemsChangedEvent.of(idOf(updated), quantityOf(updated) - previousQuantity));
+		return OrderItemMappingHelper.map(updated);
 	}
 	
 	@Override
 	public void deleteById(final OrderItemId orderItemId) {
 		log.info("*** Void, service; delete orderItem by id *");
+		// taken back out of the rollups in this transaction, once the row is gone nothing says what it counted
+		this.productSalesRollupService.remove(orderItemId);
 		this.orderItemRepository.deleteById(orderItemId);
 	}
 	
+	private DtoPageResponse<OrderItemDto> enrich(final Page<OrderItem> orderItems) {
+		return DtoPageResponse.<OrderItemDto>builder()
+				.collection(this.enrich(orderItems.getContent()
+						.stream()
+							.map(OrderItemMappingHelper::map)
+							.collect(Collectors.toUnmodifiableList())))
+				.page(orderItems.getNumber())
+				.size(orderItems.getSize())
+				.totalElements(orderItems.getTotalElements())
+				.totalPages(orderItems.getTotalPages())
+				.build();
+	}
+	
+	// product and order details come from the local projections, one lookup each for the whole list
+	private List<OrderItemDto> enrich(final List<OrderItemDto> orderItemDtos) {
+		if (orderItemDtos.isEmpty())
+			return orderItemDtos;
+		final var products = this.projectionService.findAllProductsById(orderItemDtos.stream()
+				.map(OrderItemDto::getProductId)
+				.collect(Collectors.toUnmodifiableSet()));
+		final var orders = this.projectionService.findAllOrdersById(orderItemDtos.stream()
+				.map(OrderItemDto::getOrderId)
+				.collect(Collectors.toUnmodifiableSet()));
+		orderItemDtos.forEach(o -> {
+			o.setProductDto(products.getOrDefault(o.getProductId(), o.getProductDto()));
+			o.setOrderDto(orders.getOrDefault(o.getOrderId(), o.getOrderDto()));
+		});
+		return orderItemDtos;
+	}
+	
+	private static OrderItemId idOf(final OrderItem orderItem) {
+		return new OrderItemId(orderItem.getProductId(), orderItem.getOrderId());
+	}
+	
+	private static int quantityOf(final OrderItem orderItem) {
+		return Objects.requireNonNullElse(orderItem.getOrderedQuantity(), 0);
+	}
+	
+	private static PageRequest pageOf(final int page, final int size, final String sortProperty) {
+		return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by(sortProperty));
+	}
+	
 	
 	
 }
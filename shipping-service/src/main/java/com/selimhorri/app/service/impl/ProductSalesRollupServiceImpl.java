@@ -0,0 +1,379 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.ProductSalesRollup;
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.domain.id.ProductSalesRollupId;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UnitsSoldDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.event.OrderItemsChangedEvent;
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.repository.ProductSalesRollupRepository;
+import com.selimhorri.app.service.ProductSalesRollupService;
+import com.selimhorri.app.util.RollingDailyCounters;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSalesRollupServiceImpl implements ProductSalesRollupService {
+	
+	private static final int HORIZON_DAYS = 30;
+	private static final int MAX_TOP_SIZE = 100;
+	private static final ParameterizedTypeReference<DtoCollectionResponse<OrderDto>> ORDER_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<OrderDto>>() {};
+	private static final ParameterizedTypeReference<DtoCollectionResponse<ProductDto>> PRODUCT_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>() {};
+	
+	private final ProductSalesRollupRepository productSalesRollupRepository;
+	private final OrderItemRepository orderItemRepository;
+	private final RestTemplate restTemplate;
+	private final PlatformTransactionManager transactionManager;
+	private final Executor rollupExecutor;
+	
+	// guards the table and both counters together, so a reload or backfill never interleaves with a live update
+	private final Object lock = new Object();
+	private final RollingDailyCounters productCounters = new RollingDailyCounters(HORIZON_DAYS);
+	private final RollingDailyCounters categoryCounters = new RollingDailyCounters(HORIZON_DAYS);
+	// bumped whenever a backfill clears the counters, so a removal counted after that is not applied twice
+	private volatile long generation;
+	private boolean backfilling;
+	
+	@Value("${app.rollup.backfill-chunk-size:500}")
+	private int backfillChunkSize;
+	
+	@Override
+	public List<UnitsSoldDto> findTopProducts(final int days, final int limit) {
+		log.info("*** UnitsSoldDto List, service; fetch best selling products *");
+		return this.findTop(this.productCounters, days, limit);
+	}
+	
+	@Override
+	public List<UnitsSoldDto> findTopCategories(final int days, final int limit) {
+		log.info("*** UnitsSoldDto List, service; fetch best selling categories *");
+		return this.findTop(this.categoryCounters, days, limit);
+	}
+	
+	@Override
+	public UnitsSoldDto findByProductId(final Integer productId) {
+		log.info("*** UnitsSoldDto, service; fetch units sold by product id *");
+		return unitsSold(this.productCounters, productId, LocalDate.now().toEpochDay());
+	}
+	
+	@Override
+	public UnitsSoldDto findByCategoryId(final Integer categoryId) {
+		log.info("*** UnitsSoldDto, service; fetch units sold by category id *");
+		return unitsSold(this.categoryCounters, categoryId, LocalDate.now().toEpochDay());
+	}
+	
+	// the ledger on each row makes recounting it a no-op, so live changes keep flowing while the scan runs
+	@Override
+	public int backfill() {
+		log.info("*** Integer, service; backfill sales rollups from orderItems *");
+		synchronized (this.lock) {
+			if (this.backfilling)
+				throw new IllegalStateException("Sales rollup backfill already running");
+			this.backfilling = true;
+		}
+		final int chunkSize = Math.max(this.backfillChunkSize, 1);
+		int processed = 0;
+		try {
+			synchronized (this.lock) {
+				this.inNewTransaction(() -> {
+					this.orderItemRepository.resetRolledUp();
+					return this.productSalesRollupRepository.deleteAllRollups();
+				});
+				this.productCounters.clear();
+				this.categoryCounters.clear();
+				this.generation++;
+			}
+			int lastProductId = Integer.MIN_VALUE;
+			int lastOrderId = Integer.MIN_VALUE;
+			List<OrderItem> chunk;
+			do {
+				chunk = this.orderItemRepository.findChunkAfter(lastProductId, lastOrderId, PageRequest.of(0, chunkSize));
+				if (chunk.isEmpty())
+					break;
+				this.rollUp(chunk.stream()
+						.map(ProductSalesRollupServiceImpl::idOf)
+						.collect(Collectors.toSet()));
+				processed += chunk.size();
+				lastProductId = chunk.get(chunk.size() - 1).getProductId();
+				lastOrderId = chunk.get(chunk.size() - 1).getOrderId();
+			}
+			while (chunk.size() == chunkSize);
+		}
+		finally {
+			synchronized (this.lock) {
+				this.backfilling = false;
+			}
+		}
+		log.info("*** Integer, service; backfilled {} orderItems into sales rollups *", processed);
+		return processed;
+	}
+	
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void reload() {
+		log.info("*** Void, service; reload sales rollups into memory *");
+		final var today = LocalDate.now();
+		synchronized (this.lock) {
+			this.productCounters.clear();
+			this.categoryCounters.clear();
+			this.productSalesRollupRepository.findAllBySaleDateGreaterThanEqual(today.minusDays(HORIZON_DAYS - 1L))
+					.forEach(r -> this.count(r.getProductId(), r.getCategoryId(), r.getSaleDate(), r.getUnits(), today));
+		}
+	}
+	
+	// runs in the deleting transaction: the row lock orders it against a roll-up or a backfill reset of the same row,
+	// and the generation read under that lock tells whether a reset has cleared the counters since
+	@Override
+	@Transactional
+	public void remove(final OrderItemId orderItemId) {
+		log.info("*** Void, service; remove orderItem from sales rollups *");
+		final var orderItem = this.orderItemRepository.findAllForUpdate(Set.of(orderItemId.getOrderId()), 
+					Set.of(orderItemId.getProductId()))
+				.stream()
+					.filter(o -> orderItemId.equals(idOf(o)))
+					.findFirst()
+					.orElse(null);
+		final long generation = this.generation;
+		if (orderItem == null || orderItem.getRolledUpDate() == null || rolledUpOf(orderItem) == 0)
+			return;
+		final long units = -rolledUpOf(orderItem);
+		final var saleDate = orderItem.getRolledUpDate();
+		if (this.productSalesRollupRepository.addUnits(orderItem.getProductId(), saleDate, units) == 0)
+			return;
+		final var categoryId = this.productSalesRollupRepository.findById(new ProductSalesRollupId(orderItem.getProductId(), saleDate))
+				.map(ProductSalesRollup::getCategoryId)
+				.orElse(null);
+		final Runnable count = () -> {
+			synchronized (this.lock) {
+				if (this.generation == generation)
+					this.count(orderItemId.getProductId(), categoryId, saleDate, units, LocalDate.now());
+			}
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			count.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCommit() {
+				count.run();
+			}
+			
+		});
+	}
+	
+	// the lookups behind a roll-up are remote calls, so they run off the thread that committed the change
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderItemsChanged(final OrderItemsChangedEvent event) {
+		final var orderItemIds = event.getUnitDeltas()
+				.entrySet()
+				.stream()
+					.filter(e -> e.getValue() != null && e.getValue() != 0)
+					.map(Map.Entry::getKey)
+					.collect(Collectors.toUnmodifiableSet());
+		if (orderItemIds.isEmpty())
+			return;
+		this.rollupExecutor.execute(() -> {
+			try {
+				this.rollUp(orderItemIds);
+			}
+			catch (RuntimeException e) {
+				// the ledger still holds the old counts, the next change of these items or a backfill catches up
+				log.warn("*** Void, service; rolling up {} orderItems failed *", orderItemIds.size(), e);
+			}
+		});
+	}
+	
+	private List<UnitsSoldDto> findTop(final RollingDailyCounters counters, final int days, final int limit) {
+		final long today = LocalDate.now().toEpochDay();
+		return counters.top(days, Math.min(Math.max(limit, 1), MAX_TOP_SIZE), today)
+				.keySet()
+				.stream()
+					.map(id -> unitsSold(counters, id, today))
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	// moves each row from what the ledger says was counted to its current quantity under its order date;
+	// rows are locked while that happens, so a change is counted once however often it is rolled up
+	private void rollUp(final Set<OrderItemId> orderItemIds) {
+		final var orderIds = orderItemIds.stream()
+				.map(OrderItemId::getOrderId)
+				.collect(Collectors.toSet());
+		final var productIds = orderItemIds.stream()
+				.map(OrderItemId::getProductId)
+				.collect(Collectors.toSet());
+		final var orderDates = this.fetchOrderDates(orderIds);
+		final var categoryIds = this.fetchCategoryIds(productIds);
+		final var today = LocalDate.now();
+		synchronized (this.lock) {
+			final var recorded = this.inNewTransaction(() -> {
+				final var orderItems = this.orderItemRepository.findAllForUpdate(orderIds, productIds)
+						.stream()
+							.filter(o -> orderItemIds.contains(idOf(o)))
+							.collect(Collectors.toList());
+				final Map<ProductSalesRollupId, Long> units = new HashMap<>();
+				orderItems.forEach(o -> {
+					// a failed lookup keeps the day counted before, only a row never counted falls back to today
+					final var saleDate = orderDates.getOrDefault(o.getOrderId(), 
+							Objects.requireNonNullElse(o.getRolledUpDate(), today));
+					if (o.getRolledUpDate() != null)
+						units.merge(new ProductSalesRollupId(o.getProductId(), o.getRolledUpDate()), 
+								(long) -rolledUpOf(o), Long::sum);
+					units.merge(new ProductSalesRollupId(o.getProductId(), saleDate), (long) quantityOf(o), Long::sum);
+					o.setRolledUpQuantity(quantityOf(o));
+					o.setRolledUpDate(saleDate);
+				});
+				this.orderItemRepository.markRolledUp(orderItems);
+				return this.record(units, categoryIds);
+			});
+			recorded.forEach((rollupId, units) -> this.count(rollupId.getProductId(),
+					categoryIds.get(rollupId.getProductId()), rollupId.getSaleDate(), units, today));
+		}
+	}
+	
+	private Map<ProductSalesRollupId, Long> record(final Map<ProductSalesRollupId, Long> units, 
+			final Map<Integer, Integer> categoryIds) {
+		final Map<ProductSalesRollupId, Long> recorded = new HashMap<>();
+		units.forEach((rollupId, delta) -> {
+			if (delta == 0L)
+				return;
+			if (this.productSalesRollupRepository.addUnits(rollupId.getProductId(), rollupId.getSaleDate(), delta) > 0)
+				recorded.put(rollupId, delta);
+			else if (delta > 0L) {
+				this.productSalesRollupRepository.save(ProductSalesRollup.builder()
+						.productId(rollupId.getProductId())
+						.saleDate(rollupId.getSaleDate())
+						.categoryId(categoryIds.get(rollupId.getProductId()))
+						.units(delta)
+						.build());
+				recorded.put(rollupId, delta);
+			}
+		});
+		return recorded;
+	}
+	
+	private void count(final Integer productId, final Integer categoryId, final LocalDate saleDate,
+			final long units, final LocalDate today) {
+		this.productCounters.add(productId, saleDate.toEpochDay(), units, today.toEpochDay());
+		if (categoryId != null)
+			this.categoryCounters.add(categoryId, saleDate.toEpochDay(), units, today.toEpochDay());
+	}
+	
+	private Map<Integer, LocalDate> fetchOrderDates(final Collection<Integer> orderIds) {
+		try {
+			return this.restTemplate.exchange(AppConstant.DiscoveredDomainsApi
+						.ORDER_SERVICE_API_URL + "?ids=" + csv(orderIds), HttpMethod.GET, null, ORDER_COLLECTION_TYPE)
+					.getBody()
+					.getCollection()
+					.stream()
+						.filter(o -> o.getOrderDate() != null)
+						.collect(Collectors.toMap(OrderDto::getOrderId, o -> o.getOrderDate().toLocalDate()));
+		}
+		catch (RestClientException e) {
+			log.warn("*** Map, service; order lookup failed, bucketing {} orders under today *", orderIds.size(), e);
+			return Map.of();
+		}
+	}
+	
+	private Map<Integer, Integer> fetchCategoryIds(final Collection<Integer> productIds) {
+		try {
+			return this.restTemplate.exchange(AppConstant.DiscoveredDomainsApi
+						.PRODUCT_SERVICE_API_URL + "?ids=" + csv(productIds), HttpMethod.GET, null, PRODUCT_COLLECTION_TYPE)
+					.getBody()
+					.getCollection()
+					.stream()
+						.filter(p -> p.getCategoryDto() != null && p.getCategoryDto().getCategoryId() != null)
+						.collect(Collectors.toMap(ProductDto::getProductId, p -> p.getCategoryDto().getCategoryId()));
+		}
+		catch (RestClientException e) {
+			log.warn("*** Map, service; product lookup failed, skipping categories of {} products *", productIds.size(), e);
+			return Map.of();
+		}
+	}
+	
+	private <T> T inNewTransaction(final Supplier<T> work) {
+		return new TransactionTemplate(this.transactionManager,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+				.execute(status -> work.get());
+	}
+	
+	private static UnitsSoldDto unitsSold(final RollingDailyCounters counters, final Integer id, final long today) {
+		return UnitsSoldDto.builder()
+				.id(id)
+				.lastDay(counters.sum(id, 1, today))
+				.lastWeek(counters.sum(id, 7, today))
+				.lastMonth(counters.sum(id, HORIZON_DAYS, today))
+				.build();
+	}
+	
+	private static OrderItemId idOf(final OrderItem orderItem) {
+		return new OrderItemId(orderItem.getProductId(), orderItem.getOrderId());
+	}
+	
+	private static int quantityOf(final OrderItem orderItem) {
+		return Objects.requireNonNullElse(orderItem.getOrderedQuantity(), 0);
+	}
+	
+	private static int rolledUpOf(final OrderItem orderItem) {
+		return Objects.requireNonNullElse(orderItem.getRolledUpQuantity(), 0);
+	}
+	
+	private static String csv(final Collection<Integer> ids) {
+		return ids.stream()
+				.map(String::valueOf)
+				.collect(Collectors.joining(","));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,472 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.FeedCursor;
+import com.selimhorri.app.domain.OrderProjection;
+import com.selimhorri.app.domain.ProductProjection;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.ProductChangeDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.OrderProjectionMappingHelper;
+import com.selimhorri.app.helper.ProductProjectionMappingHelper;
+import com.selimhorri.app.repository.FeedCursorRepository;
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.repository.OrderProjectionRepository;
+import com.selimhorri.app.repository.ProductProjectionRepository;
+import com.selimhorri.app.service.ProjectionService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProjectionServiceImpl implements ProjectionService, MeterBinder {
+	
+	static final String PRODUCT_FEED = "product-service.changes";
+	static final String ORDER_FEED = "order-service.outbox";
+	private static final String ORDER_AGGREGATE = "ORDER";
+	private static final String DELETED = "DELETED";
+	private static final int FETCH_CHUNK_SIZE = 100;
+	private static final ParameterizedTypeReference<DtoChangeFeedResponse<ProductChangeDto>> PRODUCT_CHANGE_FEED_TYPE =
+			new ParameterizedTypeReference<DtoChangeFeedResponse<ProductChangeDto>>() {};
+	private static final ParameterizedTypeReference<DtoChangeFeedResponse<OrderEventDto>> ORDER_EVENT_FEED_TYPE =
+			new ParameterizedTypeReference<DtoChangeFeedResponse<OrderEventDto>>() {};
+	private static final ParameterizedTypeReference<DtoCollectionResponse<ProductDto>> PRODUCT_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>() {};
+	private static final ParameterizedTypeReference<DtoCollectionResponse<OrderDto>> ORDER_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<OrderDto>>() {};
+	
+	private final ProductProjectionRepository productProjectionRepository;
+	private final OrderProjectionRepository orderProjectionRepository;
+	private final FeedCursorRepository feedCursorRepository;
+	private final OrderItemRepository orderItemRepository;
+	private final RestTemplate restTemplate;
+	private final PlatformTransactionManager transactionManager;
+	private final Executor projectionExecutor;
+	private final AtomicLong productHits = new AtomicLong();
+	private final AtomicLong productMisses = new AtomicLong();
+	private final AtomicLong orderHits = new AtomicLong();
+	private final AtomicLong orderMisses = new AtomicLong();
+	private final AtomicLong repairs = new AtomicLong();
+	private volatile long productsSyncedAtMillis = System.currentTimeMillis();
+	private volatile long ordersSyncedAtMillis = System.currentTimeMillis();
+	
+	@Value("${app.projection.sync-enabled:true}")
+	private boolean syncEnabled;
+	
+	@Value("${app.projection.batch-size:200}")
+	private int batchSize;
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Integer, ProductDto> findAllProductsById(final Set<Integer> productIds) {
+		if (productIds.isEmpty())
+			return Map.of();
+		final Map<Integer, ProductDto> products = new HashMap<>();
+		this.productProjectionRepository.findAllById(productIds)
+				.forEach(p -> products.put(p.getProductId(), ProductProjectionMappingHelper.map(p)));
+		this.fillMisses(productIds, products, this.productHits, this.productMisses, ProductDto::getProductId,
+				missing -> this.fetchAll(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, missing, PRODUCT_COLLECTION_TYPE));
+		return products;
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Integer, OrderDto> findAllOrdersById(final Set<Integer> orderIds) {
+		if (orderIds.isEmpty())
+			return Map.of();
+		final Map<Integer, OrderDto> orders = new HashMap<>();
+		this.orderProjectionRepository.findAllById(orderIds)
+				.forEach(o -> orders.put(o.getOrderId(), OrderProjectionMappingHelper.map(o)));
+		this.fillMisses(orderIds, orders, this.orderHits, this.orderMisses, OrderDto::getOrderId,
+				missing -> this.fetchAll(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL, missing, ORDER_COLLECTION_TYPE));
+		return orders;
+	}
+	
+	@Scheduled(fixedDelayString = "${app.projection.poll-interval-ms:1000}")
+	public void poll() {
+		if (this.syncEnabled)
+			this.sync();
+	}
+	
+	@Scheduled(fixedDelayString = "${app.projection.reconcile-interval-ms:3600000}",
+			initialDelayString = "${app.projection.reconcile-interval-ms:3600000}")
+	public void reconcilePeriodically() {
+		if (this.syncEnabled)
+			this.reconcile();
+	}
+	
+	// the first reconciliation also fills the projections of orders older than the outbox feed; it runs in the
+	// background so the instance registers and serves right away, reads missing a projection fall back to the owners
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!this.syncEnabled)
+			return;
+		this.projectionExecutor.execute(() -> {
+			this.sync();
+			this.reconcile();
+		});
+	}
+	
+	@Override
+	public synchronized int sync() {
+		int applied = 0;
+		try {
+			applied += this.readFeed(PRODUCT_FEED, AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/changes",
+					PRODUCT_CHANGE_FEED_TYPE, this::applyProductChanges);
+			this.productsSyncedAtMillis = System.currentTimeMillis();
+		}
+		catch (RestClientException e) {
+			log.warn("*** Integer, service; product change feed unreachable, serving the last product projections *");
+		}
+		try {
+			applied += this.readFeed(ORDER_FEED, AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/outbox/events",
+					ORDER_EVENT_FEED_TYPE, this::applyOrderEvents);
+			this.ordersSyncedAtMillis = System.currentTimeMillis();
+		}
+		catch (RestClientException e) {
+			log.warn("*** Integer, service; order change feed unreachable, serving the last order projections *");
+		}
+		return applied;
+	}
+	
+	// compares the projections of everything order items refer to with the owning service and rewrites what drifted;
+	// sequence numbers are kept, so feed changes that are still on their way apply on top as usual
+	@Override
+	public int reconcile() {
+		log.info("*** Integer, service; reconcile product and order projections *");
+		int repaired = 0;
+		try {
+			repaired += this.reconcileAll(this.orderItemRepository::findProductIdsAfter, this::reconcileProducts);
+		}
+		catch (RestClientException e) {
+			log.warn("*** Integer, service; product-service unreachable, product reconciliation stopped *");
+		}
+		try {
+			repaired += this.reconcileAll(this.orderItemRepository::findOrderIdsAfter, this::reconcileOrders);
+		}
+		catch (RestClientException e) {
+			log.warn("*** Integer, service; order-service unreachable, order reconciliation stopped *");
+		}
+		if (repaired > 0)
+			log.info("*** Integer, service; repaired {} projections *", repaired);
+		this.repairs.addAndGet(repaired);
+		return repaired;
+	}
+	
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		this.bindLookups(registry, "product", this.productHits, this.productMisses);
+		this.bindLookups(registry, "order", this.orderHits, this.orderMisses);
+		FunctionCounter.builder("shipping.projection.repairs", this.repairs, AtomicLong::get)
+				.description("Projection rows rewritten by reconciliation")
+				.register(registry);
+		Gauge.builder("shipping.projection.lag", this, s -> (System.currentTimeMillis() - s.productsSyncedAtMillis) / 1000.0)
+				.description("Time since the change feed was last read to its end")
+				.tag("feed", PRODUCT_FEED)
+				.baseUnit("seconds")
+				.register(registry);
+		Gauge.builder("shipping.projection.lag", this, s -> (System.currentTimeMillis() - s.ordersSyncedAtMillis) / 1000.0)
+				.description("Time since the change feed was last read to its end")
+				.tag("feed", ORDER_FEED)
+				.baseUnit("seconds")
+				.register(registry);
+	}
+	
+	private void bindLookups(final MeterRegistry registry, final String entity, final AtomicLong hits, final AtomicLong misses) {
+		FunctionCounter.builder("shipping.projection.lookups", hits, AtomicLong::get)
+				.description("Lookups answered from the local projection")
+				.tags("entity", entity, "result", "hit")
+				.register(registry);
+		FunctionCounter.builder("shipping.projection.lookups", misses, AtomicLong::get)
+				.description("Lookups that fell back to the owning service")
+				.tags("entity", entity, "result", "miss")
+				.register(registry);
+	}
+	
+	// ids without a projection yet are fetched from their service, and simply stay bare when it is unreachable
+	private <T> void fillMisses(final Set<Integer> ids, final Map<Integer, T> found, final AtomicLong hits,
+			final AtomicLong misses, final Function<T, Integer> idOf, final Function<List<Integer>, List<T>> fetch) {
+		hits.addAndGet(found.size());
+		final var missing = ids.stream()
+				.filter(id -> !found.containsKey(id))
+				.collect(Collectors.toUnmodifiableList());
+		if (missing.isEmpty())
+			return;
+		misses.addAndGet(missing.size());
+		try {
+			fetch.apply(missing).forEach(dto -> found.put(idOf.apply(dto), dto));
+		}
+		catch (RestClientException e) {
+			log.warn("*** Map, service; {} ids left without details, owning service unreachable *", missing.size());
+		}
+	}
+	
+	// reads a feed from the stored cursor until a short batch shows its end
+	private <T> int readFeed(final String feedName, final String feedUrl,
+			final ParameterizedTypeReference<DtoChangeFeedResponse<T>> feedType, final ToIntBiFunction<Collection<T>, Long> apply) {
+		final int size = Math.max(this.batchSize, 1);
+		int applied = 0;
+		Collection<T> batch;
+		do {
+			final long cursor = this.findCursor(feedName);
+			batch = this.restTemplate.exchange(feedUrl + "?after=" + cursor + "&limit=" + size, HttpMethod.GET, null, feedType)
+					.getBody()
+					.getCollection();
+			applied += apply.applyAsInt(batch, cursor);
+		}
+		while (batch.size() == size);
+		return applied;
+	}
+	
+	// the feed carries every product as it is now, so only the latest entry per product matters
+	private int applyProductChanges(final Collection<ProductChangeDto> productChanges, final long cursor) {
+		final var pending = productChanges.stream()
+				.filter(c -> c.getSequenceNumber() > cursor)
+				.collect(Collectors.toUnmodifiableList());
+		if (pending.isEmpty())
+			return 0;
+		return this.inNewTransaction(() -> {
+			final Map<Integer, ProductChangeDto> latest = new LinkedHashMap<>();
+			pending.forEach(c -> latest.put(c.getProductId(), c));
+			final var deleted = latest.values()
+					.stream()
+						.filter(c -> c.getProductDto() == null)
+						.map(ProductChangeDto::getProductId)
+						.collect(Collectors.toUnmodifiableSet());
+			if (!deleted.isEmpty())
+				this.productProjectionRepository.deleteAllByIdIn(deleted);
+			latest.keySet().removeAll(deleted);
+			final Map<Integer, ProductProjection> existing = this.productProjectionRepository.findAllById(latest.keySet())
+					.stream()
+						.collect(Collectors.toMap(ProductProjection::getProductId, Function.identity()));
+			final List<ProductProjection> created = new ArrayList<>();
+			latest.values().forEach(c -> {
+				final var projection = existing.get(c.getProductId());
+				if (projection == null)
+					created.add(ProductProjectionMappingHelper.map(c.getProductDto(), c.getSequenceNumber()));
+				else if (isBehind(projection.getSequenceNumber(), c.getSequenceNumber()))
+					ProductProjectionMappingHelper.patch(projection, c.getProductDto(), c.getSequenceNumber());
+			});
+			this.productProjectionRepository.saveAll(created);
+			this.saveCursor(PRODUCT_FEED, pending.get(pending.size() - 1).getSequenceNumber());
+			return pending.size();
+		});
+	}
+	
+	// the outbox carries every change of orders and carts, the last change of every order in the batch wins
+	private int applyOrderEvents(final Collection<OrderEventDto> orderEvents, final long cursor) {
+		final var pending = orderEvents.stream()
+				.filter(e -> e.getSequenceNumber() > cursor)
+				.collect(Collectors.toUnmodifiableList());
+		if (pending.isEmpty())
+			return 0;
+		return this.inNewTransaction(() -> {
+			final Map<Integer, OrderEventDto> latest = new LinkedHashMap<>();
+			pending.stream()
+					.filter(e -> ORDER_AGGREGATE.equals(e.getAggregateType()))
+					.forEach(e -> latest.put(e.getAggregateId(), e));
+			final var deleted = latest.values()
+					.stream()
+						.filter(e -> DELETED.equals(e.getEventType()) || e.getPayload() == null)
+						.map(OrderEventDto::getAggregateId)
+						.collect(Collectors.toUnmodifiableSet());
+			if (!deleted.isEmpty())
+				this.orderProjectionRepository.deleteAllByIdIn(deleted);
+			latest.keySet().removeAll(deleted);
+			final Map<Integer, OrderProjection> existing = this.orderProjectionRepository.findAllById(latest.keySet())
+					.stream()
+						.collect(Collectors.toMap(OrderProjection::getOrderId, Function.identity()));
+			final List<OrderProjection> created = new ArrayList<>();
+			latest.values().forEach(e -> {
+				final var projection = existing.get(e.getAggregateId());
+				if (projection == null)
+					created.add(OrderProjectionMappingHelper.map(e.getPayload(), e.getSequenceNumber()));
+				else if (isBehind(projection.getSequenceNumber(), e.getSequenceNumber()))
+					OrderProjectionMappingHelper.patch(projection, e.getPayload(), e.getSequenceNumber());
+			});
+			this.orderProjectionRepository.saveAll(created);
+			this.saveCursor(ORDER_FEED, pending.get(pending.size() - 1).getSequenceNumber());
+			return pending.size();
+		});
+	}
+	
+	private int reconcileAll(final BiFunction<Integer, Pageable, List<Integer>> findIdsAfter,
+			final ToIntFunction<List<Integer>> reconcileChunk) {
+		int repaired = 0;
+		int after = Integer.MIN_VALUE;
+		List<Integer> chunk;
+		do {
+			chunk = findIdsAfter.apply(after, PageRequest.of(0, FETCH_CHUNK_SIZE));
+			if (chunk.isEmpty())
+				break;
+			repaired += reconcileChunk.applyAsInt(chunk);
+			after = chunk.get(chunk.size() - 1);
+		}
+		while (chunk.size() == FETCH_CHUNK_SIZE);
+		return repaired;
+	}
+	
+	// holds the sync lock from the remote read to the commit, so no feed change can land in between and be overwritten
+	private synchronized int reconcileProducts(final List<Integer> productIds) {
+		final Map<Integer, ProductDto> remote = this.fetchAll(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL,
+					productIds, PRODUCT_COLLECTION_TYPE)
+				.stream()
+					.collect(Collectors.toMap(ProductDto::getProductId, Function.identity(), (left, right) -> left));
+		return this.inNewTransaction(() -> {
+			final Map<Integer, ProductProjection> local = this.productProjectionRepository.findAllById(productIds)
+					.stream()
+						.collect(Collectors.toMap(ProductProjection::getProductId, Function.identity()));
+			final var gone = local.keySet()
+					.stream()
+						.filter(productId -> !remote.containsKey(productId))
+						.collect(Collectors.toUnmodifiableList());
+			if (!gone.isEmpty())
+				this.productProjectionRepository.deleteAllByIdIn(gone);
+			final List<ProductProjection> created = new ArrayList<>();
+			int repaired = gone.size();
+			for (final var productDto : remote.values()) {
+				final var projection = local.get(productDto.getProductId());
+				if (projection == null)
+					created.add(ProductProjectionMappingHelper.map(productDto, null));
+				else if (!matches(projection, productDto))
+					ProductProjectionMappingHelper.patch(projection, productDto, projection.getSequenceNumber());
+				else
+					continue;
+				repaired++;
+			}
+			this.productProjectionRepository.saveAll(created);
+			return repaired;
+		});
+	}
+	
+	private synchronized int reconcileOrders(final List<Integer> orderIds) {
+		final Map<Integer, OrderDto> remote = this.fetchAll(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL,
+					orderIds, ORDER_COLLECTION_TYPE)
+				.stream()
+					.collect(Collectors.toMap(OrderDto::getOrderId, Function.identity(), (left, right) -> left));
+		return this.inNewTransaction(() -> {
+			final Map<Integer, OrderProjection> local = this.orderProjectionRepository.findAllById(orderIds)
+					.stream()
+						.collect(Collectors.toMap(OrderProjection::getOrderId, Function.identity()));
+			final var gone = local.keySet()
+					.stream()
+						.filter(orderId -> !remote.containsKey(orderId))
+						.collect(Collectors.toUnmodifiableList());
+			if (!gone.isEmpty())
+				this.orderProjectionRepository.deleteAllByIdIn(gone);
+			final List<OrderProjection> created = new ArrayList<>();
+			int repaired = gone.size();
+			for (final var orderDto : remote.values()) {
+				final var projection = local.get(orderDto.getOrderId());
+				if (projection == null)
+					created.add(OrderProjectionMappingHelper.map(orderDto, null));
+				else if (!matches(projection, orderDto))
+					OrderProjectionMappingHelper.patch(projection, orderDto, projection.getSequenceNumber());
+				else
+					continue;
+				repaired++;
+			}
+			this.orderProjectionRepository.saveAll(created);
+			return repaired;
+		});
+	}
+	
+	private <T> List<T> fetchAll(final String apiUrl, final Collection<Integer> ids,
+			final ParameterizedTypeReference<DtoCollectionResponse<T>> collectionType) {
+		final var idList = List.copyOf(ids);
+		final List<T> found = new ArrayList<>();
+		for (int from = 0; from < idList.size(); from += FETCH_CHUNK_SIZE)
+			found.addAll(this.restTemplate.exchange(apiUrl + "?ids=" + idList.subList(from, Math.min(from + FETCH_CHUNK_SIZE, idList.size()))
+						.stream()
+							.map(String::valueOf)
+							.collect(Collectors.joining(",")), HttpMethod.GET, null, collectionType)
+					.getBody()
+					.getCollection());
+		return found;
+	}
+	
+	private long findCursor(final String feedName) {
+		return this.feedCursorRepository.findById(feedName)
+				.map(FeedCursor::getLastSequenceNumber)
+				.orElse(0L);
+	}
+	
+	private void saveCursor(final String feedName, final Long lastSequenceNumber) {
+		final var feedCursor = this.feedCursorRepository.findById(feedName)
+				.orElseGet(() -> FeedCursor.builder()
+						.feedName(feedName)
+						.build());
+		feedCursor.setLastSequenceNumber(lastSequenceNumber);
+		this.feedCursorRepository.save(feedCursor);
+	}
+	
+	private int inNewTransaction(final Supplier<Integer> work) {
+		return new TransactionTemplate(this.transactionManager,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+				.execute(status -> work.get());
+	}
+	
+	// rows filled by reconciliation have no sequence number yet, so any feed change supersedes them
+	private static boolean isBehind(final Long stored, final Long incoming) {
+		return stored == null || stored < incoming;
+	}
+	
+	private static boolean matches(final ProductProjection projection, final ProductDto productDto) {
+		return Objects.equals(projection.getProductTitle(), productDto.getProductTitle())
+				&& Objects.equals(projection.getImageUrl(), productDto.getImageUrl())
+				&& Objects.equals(projection.getSku(), productDto.getSku())
+				&& Objects.equals(projection.getPriceUnit(), productDto.getPriceUnit());
+	}
+	
+	private static boolean matches(final OrderProjection projection, final OrderDto orderDto) {
+		return Objects.equals(projection.getOrderDate(), orderDto.getOrderDate())
+				&& Objects.equals(projection.getOrderDesc(), orderDto.getOrderDesc())
+				&& Objects.equals(projection.getOrderFee(), orderDto.getOrderFee());
+	}
+	
+	
+	
+}
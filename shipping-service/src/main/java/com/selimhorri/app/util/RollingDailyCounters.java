@@ -0,0 +1,110 @@
+package com.selimhorri.app.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+public final class RollingDailyCounters {
+	
+	private static final Comparator<Map.Entry<Integer, Long>> BY_UNITS = Map.Entry.<Integer, Long>comparingByValue()
+			.thenComparing(Map.Entry.<Integer, Long>comparingByKey().reversed());
+	
+	// one ring of daily buckets per key, slot = epoch day modulo the horizon
+	private final int days;
+	private final Map<Integer, long[]> buckets = new HashMap<>();
+	private long currentDay = Long.MIN_VALUE;
+	
+	public RollingDailyCounters(final int days) {
+		if (days < 1)
+			throw new IllegalArgumentException("days must be positive");
+		this.days = days;
+	}
+	
+	public synchronized void add(final int key, final long epochDay, final long units, final long today) {
+		final long day = this.advance(today);
+		if (epochDay > day || epochDay <= day - this.days || units == 0)
+			return;
+		this.buckets.computeIfAbsent(key, k -> new long[this.days])[this.slot(epochDay)] += units;
+	}
+	
+	public synchronized long sum(final int key, final int window, final long today) {
+		final long day = this.advance(today);
+		final long[] counts = this.buckets.get(key);
+		return counts == null ? 0L : this.sum(counts, window, day);
+	}
+	
+	public synchronized Map<Integer, Long> top(final int window, final int limit, final long today) {
+		final long day = this.advance(today);
+		final int size = Math.max(limit, 1);
+		final PriorityQueue<Map.Entry<Integer, Long>> heap = new PriorityQueue<>(size + 1, BY_UNITS);
+		this.buckets.forEach((key, counts) -> {
+			final long units = this.sum(counts, window, day);
+			if (units <= 0)
+				return;
+			heap.offer(Map.entry(key, units));
+			if (heap.size() > size)
+				heap.poll();
+		});
+		final List<Map.Entry<Integer, Long>> ranked = new ArrayList<>(heap);
+		ranked.sort(BY_UNITS.reversed());
+		final Map<Integer, Long> top = new LinkedHashMap<>();
+		ranked.forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+		return top;
+	}
+	
+	public synchronized int size() {
+		return this.buckets.size();
+	}
+	
+	public synchronized void clear() {
+		this.buckets.clear();
+		this.currentDay = Long.MIN_VALUE;
+	}
+	
+	private long sum(final long[] counts, final int window, final long day) {
+		long units = 0L;
+		for (long d = day - Math.min(Math.max(window, 1), this.days) + 1; d <= day; d++)
+			units += counts[this.slot(d)];
+		return units;
+	}
+	
+	// zeroes the slots of the days that fell out of the horizon and drops keys left without sales
+	private long advance(final long today) {
+		if (today <= this.currentDay)
+			return this.currentDay;
+		if (this.currentDay != Long.MIN_VALUE) {
+			final long expired = Math.min(today - this.currentDay, this.days);
+			this.buckets.values().removeIf(counts -> {
+				boolean empty = true;
+				for (long d = 1; d <= expired; d++)
+					counts[this.slot(this.currentDay + d)] = 0L;
+				for (final long units : counts)
+					empty &= units == 0L;
+				return empty;
+			});
+		}
+		this.currentDay = today;
+		return today;
+	}
+	
+	private int slot(final long epochDay) {
+		return (int) Math.floorMod(epochDay, (long) this.days);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,7 @@
+
+ALTER TABLE order_items ADD COLUMN rolled_up_quantity INT(11) DEFAULT 0 NOT NULL;
+ALTER TABLE order_items ADD COLUMN rolled_up_date DATE;
+
+-- nothing is recorded as counted yet, so the rollups start empty and the next backfill rebuilds them
+DELETE FROM product_sales_rollups;
+
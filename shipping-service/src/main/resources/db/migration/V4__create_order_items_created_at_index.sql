@@ -0,0 +1,3 @@
+
+CREATE INDEX idx_order_items_created_at ON order_items (created_at);
+
@@ -0,0 +1,13 @@
+
+CREATE TABLE product_sales_rollups (
+	product_id INT(11) NOT NULL,
+	sale_date DATE NOT NULL,
+	category_id INT(11),
+	units BIGINT NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP,
+	PRIMARY KEY (product_id, sale_date)
+);
+
+CREATE INDEX idx_product_sales_rollups_sale_date ON product_sales_rollups (sale_date);
+
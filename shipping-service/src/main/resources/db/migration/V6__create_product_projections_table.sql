@@ -0,0 +1,12 @@
+
+CREATE TABLE product_projections (
+	product_id INT(11) NOT NULL PRIMARY KEY,
+	product_title VARCHAR(255),
+	image_url VARCHAR(255),
+	sku VARCHAR(255),
+	price_unit DECIMAL(7, 2),
+	sequence_number BIGINT,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
@@ -0,0 +1,5 @@
+
+ALTER TABLE order_items ADD COLUMN sequence_number BIGINT;
+
+CREATE UNIQUE INDEX uk_order_items_sequence_number ON order_items (sequence_number);
+
@@ -0,0 +1,106 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OrderItem;
+
+import lombok.extern.slf4j.Slf4j;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+@Slf4j
+@DisplayName("Order Item Batch Insert Benchmark")
+class OrderItemBatchRepositoryBenchmarkTest {
+
+    private static final int ITEMS = 10_000;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        orderItemRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should insert 10k items with far fewer statements than the single-item path")
+    void persistAll_ShouldBatchInserts() {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        statistics.clear();
+        long singleStart = System.nanoTime();
+        items(1).forEach(item -> transactionTemplate.executeWithoutResult(status -> orderItemRepository.save(item)));
+        long singleMillis = (System.nanoTime() - singleStart) / 1_000_000;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long batchStart = System.nanoTime();
+        orderItemRepository.persistAll(items(2));
+        long batchMillis = (System.nanoTime() - batchStart) / 1_000_000;
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        assertEquals(2L * ITEMS, orderItemRepository.count());
+        assertTrue(singleStatements >= ITEMS);
+        assertTrue(batchStatements <= ITEMS / 50 + 1);
+        log.info("Inserted {} order items: single-item path {} ms ({} statements, {} items/s), batch path {} ms ({} statements, {} items/s)",
+                ITEMS, singleMillis, singleStatements, ITEMS * 1000L / Math.max(singleMillis, 1),
+                batchMillis, batchStatements, ITEMS * 1000L / Math.max(batchMillis, 1));
+    }
+
+    private static List<OrderItem> items(final int orderId) {
+        return IntStream.rangeClosed(1, ITEMS)
+                .mapToObj(productId -> OrderItem.builder()
+                        .orderId(orderId)
+                        .productId(productId)
+                        .orderedQuantity(productId % 5 + 1)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.domain.OrderItem;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=2")
+@ActiveProfiles("test")
+@DisplayName("Order Item Batch Repository Tests")
+class OrderItemBatchRepositoryTest {
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Should detach only the inserted items and leave the caller's entities managed")
+    void persistAll_ShouldKeepCallerEntitiesManaged() {
+        // Given
+        OrderItem existing = orderItemRepository.saveAndFlush(OrderItem.builder()
+                .orderId(1)
+                .productId(1)
+                .orderedQuantity(1)
+                .build());
+        List<OrderItem> items = IntStream.rangeClosed(1, 5)
+                .mapToObj(productId -> OrderItem.builder()
+                        .orderId(2)
+                        .productId(productId)
+                        .orderedQuantity(productId)
+                        .build())
+                .collect(Collectors.toList());
+
+        // When
+        orderItemRepository.persistAll(items);
+
+        // Then
+        assertTrue(entityManager.contains(existing));
+        assertTrue(items.stream().noneMatch(entityManager::contains));
+        assertEquals(6, orderItemRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should number unsequenced items after the last number handed out")
+    void sequencePending_ShouldContinueAfterLastNumber() {
+        // Given
+        orderItemRepository.persistAll(IntStream.rangeClosed(1, 3)
+                .mapToObj(productId -> OrderItem.builder()
+                        .orderId(3)
+                        .productId(productId)
+                        .orderedQuantity(1)
+                        .build())
+                .collect(Collectors.toList()));
+        int first = orderItemRepository.sequencePending(2);
+        orderItemRepository.persistAll(List.of(OrderItem.builder()
+                .orderId(4)
+                .productId(1)
+                .orderedQuantity(1)
+                .build()));
+
+        // When
+        int second = orderItemRepository.sequencePending(10);
+        entityManager.clear();
+
+        // Then
+        assertEquals(2, first);
+        assertEquals(2, second);
+        List<OrderItem> sequenced = orderItemRepository.findAllSequencedAfter(0L, PageRequest.of(0, 10));
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequenced.stream()
+                .map(OrderItem::getSequenceNumber)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(3, 3), List.of(sequenced.get(0).getOrderId(), sequenced.get(1).getOrderId()));
+        assertEquals(0, orderItemRepository.sequencePending(10));
+    }
+
+
+    @Test
+    @DisplayName("Should record what was rolled up per item and clear it again on reset")
+    void markRolledUp_ShouldWriteLedgerUntilReset() {
+        // Given
+        LocalDate saleDate = LocalDate.of(2024, 5, 1);
+        orderItemRepository.persistAll(List.of(OrderItem.builder()
+                .orderId(5)
+                .productId(1)
+                .orderedQuantity(4)
+                .build()));
+        List<OrderItem> locked = orderItemRepository.findAllForUpdate(Set.of(5), Set.of(1));
+        locked.forEach(o -> {
+            o.setRolledUpQuantity(o.getOrderedQuantity());
+            o.setRolledUpDate(saleDate);
+        });
+
+        // When
+        orderItemRepository.markRolledUp(locked);
+        entityManager.clear();
+        OrderItem rolledUp = orderItemRepository.findAllForUpdate(Set.of(5), Set.of(1)).get(0);
+        int reset = orderItemRepository.resetRolledUp();
+
+        // Then
+        assertEquals(4, rolledUp.getRolledUpQuantity());
+        assertEquals(saleDate, rolledUp.getRolledUpDate());
+        assertEquals(1, reset);
+        OrderItem cleared = orderItemRepository.findAllForUpdate(Set.of(5), Set.of(1)).get(0);
+        assertEquals(0, cleared.getRolledUpQuantity());
+        assertNull(cleared.getRolledUpDate());
+    }
+
+}
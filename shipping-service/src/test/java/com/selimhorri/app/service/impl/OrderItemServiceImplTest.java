@@ -0,0 +1,190 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.event.OrderItemsChangedEvent;
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.ProductSalesRollupService;
+import com.selimhorri.app.service.ProjectionService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Item Service Implementation Tests")
+class OrderItemServiceImplTest {
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ProjectionService projectionService;
+
+    @Mock
+    private ProductSalesRollupService productSalesRollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private OrderItemServiceImpl orderItemService;
+
+    @Test
+    @DisplayName("Should look up an order item by its composite id")
+    void findById_ShouldUseGivenId() {
+        // Given
+        OrderItemId orderItemId = new OrderItemId(2, 1);
+        when(orderItemRepository.findById(orderItemId)).thenReturn(Optional.of(OrderItem.builder()
+                .productId(2)
+                .orderId(1)
+                .orderedQuantity(3)
+                .build()));
+        when(projectionService.findAllProductsById(Set.of(2)))
+                .thenReturn(Map.of(2, ProductDto.builder().productId(2).productTitle("asus").build()));
+        when(projectionService.findAllOrdersById(Set.of(1)))
+                .thenReturn(Map.of(1, OrderDto.builder().orderId(1).orderDesc("init").build()));
+
+        // When
+        OrderItemDto result = orderItemService.findById(orderItemId);
+
+        // Then
+        assertEquals(2, result.getProductId());
+        assertEquals(1, result.getOrderId());
+        assertEquals(3, result.getOrderedQuantity());
+        assertEquals("asus", result.getProductDto().getProductTitle());
+        assertEquals("init", result.getOrderDto().getOrderDesc());
+    }
+
+    @Test
+    @DisplayName("Should page the items of an order and look up their products and order once")
+    void findAllByOrderId_ShouldBatchProjectionLookups() {
+        // Given
+        List<OrderItem> orderItems = List.of(
+                OrderItem.builder().productId(1).orderId(7).orderedQuantity(1).build(),
+                OrderItem.builder().productId(2).orderId(7).orderedQuantity(4).build());
+        when(orderItemRepository.findAllByOrderId(eq(7), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(orderItems, PageRequest.of(0, 20), 2));
+        when(projectionService.findAllProductsById(Set.of(1, 2)))
+                .thenReturn(Map.of(
+                        1, ProductDto.builder().productId(1).productTitle("asus").build(),
+                        2, ProductDto.builder().productId(2).productTitle("hp").build()));
+        when(projectionService.findAllOrdersById(Set.of(7)))
+                .thenReturn(Map.of(7, OrderDto.builder().orderId(7).orderDesc("init").build()));
+
+        // When
+        DtoPageResponse<OrderItemDto> result = orderItemService.findAllByOrderId(7, 0, 20);
+
+        // Then
+        assertEquals(2, result.getTotalElements());
+        assertTrue(result.getCollection().stream()
+                .allMatch(o -> o.getProductDto().getProductTitle() != null && "init".equals(o.getOrderDto().getOrderDesc())));
+        verify(projectionService, times(1)).findAllProductsById(anySet());
+        verify(projectionService, times(1)).findAllOrdersById(anySet());
+    }
+
+    @Test
+    @DisplayName("Should not call other services when a product has no order items")
+    void findAllByProductId_ShouldSkipLookups_WhenEmpty() {
+        // Given
+        when(orderItemRepository.findAllByProductId(eq(9), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+        // When
+        DtoPageResponse<OrderItemDto> result = orderItemService.findAllByProductId(9, 0, 20);
+
+        // Then
+        assertTrue(result.getCollection().isEmpty());
+        verifyNoInteractions(projectionService);
+    }
+
+    @Test
+    @DisplayName("Should publish only the change in ordered quantity when an order item is updated")
+    void update_ShouldPublishQuantityDelta() {
+        // Given
+        OrderItemId orderItemId = new OrderItemId(2, 1);
+        when(orderItemRepository.findById(orderItemId)).thenReturn(Optional.of(OrderItem.builder()
+                .productId(2)
+                .orderId(1)
+                .orderedQuantity(3)
+                .build()));
+        when(orderItemRepository.save(any(OrderItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderItemService.update(OrderItemDto.builder()
+                .productId(2)
+                .orderId(1)
+                .orderedQuantity(5)
+                .build());
+
+        // Then
+        ArgumentCaptor<OrderItemsChangedEvent> event = ArgumentCaptor.forClass(OrderItemsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2, event.getValue().getUnitDeltas().get(orderItemId));
+    }
+
+
+    @Test
+    @DisplayName("Should publish only the quantity difference when saving over an existing item")
+    void save_ShouldPublishDifference_WhenItemExists() {
+        // Given
+        OrderItemId orderItemId = new OrderItemId(2, 1);
+        when(orderItemRepository.findById(orderItemId)).thenReturn(Optional.of(OrderItem.builder()
+                .productId(2)
+                .orderId(1)
+                .orderedQuantity(3)
+                .build()));
+        when(orderItemRepository.save(any(OrderItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderItemService.save(OrderItemDto.builder()
+                .productId(2)
+                .orderId(1)
+                .orderedQuantity(4)
+                .build());
+
+        // Then
+        ArgumentCaptor<OrderItemsChangedEvent> event = ArgumentCaptor.forClass(OrderItemsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1, event.getValue().getUnitDeltas().get(orderItemId));
+    }
+
+    @Test
+    @DisplayName("Should take a deleted item out of the sales rollups before the row goes")
+    void deleteById_ShouldRemoveFromRollupsFirst() {
+        // Given
+        OrderItemId orderItemId = new OrderItemId(2, 1);
+
+        // When
+        orderItemService.deleteById(orderItemId);
+
+        // Then
+        InOrder inOrder = inOrder(productSalesRollupService, orderItemRepository);
+        inOrder.verify(productSalesRollupService).remove(orderItemId);
+        inOrder.verify(orderItemRepository).deleteById(orderItemId);
+        verifyNoInteractions(eventPublisher);
+    }
+
+}
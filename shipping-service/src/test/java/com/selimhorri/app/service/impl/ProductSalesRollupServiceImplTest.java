@@ -0,0 +1,245 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.ProductSalesRollup;
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.domain.id.ProductSalesRollupId;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UnitsSoldDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.event.OrderItemsChangedEvent;
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.repository.ProductSalesRollupRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Sales Rollup Service Implementation Tests")
+class ProductSalesRollupServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private ProductSalesRollupRepository productSalesRollupRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Executor rollupExecutor;
+
+    @InjectMocks
+    private ProductSalesRollupServiceImpl productSalesRollupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productSalesRollupService, "backfillChunkSize", 2);
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(rollupExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Should bucket units by order date and roll them up per product and category")
+    void onOrderItemsChanged_ShouldBucketByOrderDate() {
+        // Given
+        stubLookups(Map.of(1, TODAY, 2, TODAY.minusDays(5)), Map.of(10, 100, 20, 100));
+        when(orderItemRepository.findAllForUpdate(anyCollection(), anyCollection()))
+                .thenReturn(List.of(item(10, 1, 3, null, null), item(10, 2, 4, null, null), item(20, 2, 1, null, null)));
+        when(productSalesRollupRepository.addUnits(anyInt(), any(LocalDate.class), anyLong())).thenReturn(0);
+
+        // When
+        productSalesRollupService.onOrderItemsChanged(OrderItemsChangedEvent.of(Map.of(
+                new OrderItemId(10, 1), 3,
+                new OrderItemId(10, 2), 4,
+                new OrderItemId(20, 2), 1)));
+
+        // Then
+        UnitsSoldDto product = productSalesRollupService.findByProductId(10);
+        assertEquals(3L, product.getLastDay());
+        assertEquals(7L, product.getLastWeek());
+        assertEquals(7L, product.getLastMonth());
+        assertEquals(8L, productSalesRollupService.findByCategoryId(100).getLastWeek());
+        assertEquals(List.of(10, 20), productSalesRollupService.findTopProducts(7, 5)
+                .stream()
+                .map(UnitsSoldDto::getId)
+                .collect(Collectors.toList()));
+        verify(productSalesRollupRepository, times(3)).save(any(ProductSalesRollup.class));
+        verify(rollupExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Should count only the part of an item the ledger has not counted yet")
+    void onOrderItemsChanged_ShouldCountDifferenceToLedger() {
+        // Given
+        stubLookups(Map.of(1, TODAY), Map.of());
+        OrderItem orderItem = item(10, 1, 5, 3, TODAY);
+        when(orderItemRepository.findAllForUpdate(anyCollection(), anyCollection())).thenReturn(List.of(orderItem));
+        when(productSalesRollupRepository.addUnits(10, TODAY, 2L)).thenReturn(1);
+
+        // When
+        productSalesRollupService.onOrderItemsChanged(OrderItemsChangedEvent.of(new OrderItemId(10, 1), 2));
+
+        // Then
+        assertEquals(2L, productSalesRollupService.findByProductId(10).getLastDay());
+        assertEquals(5, orderItem.getRolledUpQuantity());
+        verify(orderItemRepository).markRolledUp(List.of(orderItem));
+        verify(productSalesRollupRepository, never()).save(any(ProductSalesRollup.class));
+    }
+
+    @Test
+    @DisplayName("Should move counted units to the new day when the order date changed")
+    void onOrderItemsChanged_ShouldMoveUnits_WhenOrderDateChanged() {
+        // Given
+        stubLookups(Map.of(1, TODAY), Map.of());
+        when(orderItemRepository.findAllForUpdate(anyCollection(), anyCollection()))
+                .thenReturn(List.of(item(10, 1, 4, 4, TODAY.minusDays(3))));
+        when(productSalesRollupRepository.addUnits(anyInt(), any(LocalDate.class), anyLong())).thenReturn(1);
+
+        // When
+        productSalesRollupService.onOrderItemsChanged(OrderItemsChangedEvent.of(new OrderItemId(10, 1), 1));
+
+        // Then
+        verify(productSalesRollupRepository).addUnits(10, TODAY.minusDays(3), -4L);
+        verify(productSalesRollupRepository).addUnits(10, TODAY, 4L);
+    }
+
+    @Test
+    @DisplayName("Should skip events whose items did not change quantity")
+    void onOrderItemsChanged_ShouldSkipZeroDeltas() {
+        // When
+        productSalesRollupService.onOrderItemsChanged(OrderItemsChangedEvent.of(new OrderItemId(10, 1), 0));
+
+        // Then
+        verifyNoInteractions(rollupExecutor, restTemplate, orderItemRepository);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the rollups by streaming order items in keyset chunks")
+    void backfill_ShouldStreamOrderItemsInChunks() {
+        // Given
+        stubLookups(Map.of(1, TODAY, 2, TODAY), Map.of());
+        when(productSalesRollupRepository.addUnits(anyInt(), any(LocalDate.class), anyLong())).thenReturn(0);
+        when(orderItemRepository.findChunkAfter(eq(Integer.MIN_VALUE), eq(Integer.MIN_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(item(10, 1, 2, null, null), item(10, 2, 1, null, null)));
+        when(orderItemRepository.findChunkAfter(eq(10), eq(2), any(Pageable.class)))
+                .thenReturn(List.of(item(20, 1, 5, null, null)));
+        when(orderItemRepository.findAllForUpdate(anyCollection(), anyCollection()))
+                .thenReturn(List.of(item(10, 1, 2, null, null), item(10, 2, 1, null, null)))
+                .thenReturn(List.of(item(20, 1, 5, null, null)));
+
+        // When
+        int processed = productSalesRollupService.backfill();
+
+        // Then
+        assertEquals(3, processed);
+        assertEquals(3L, productSalesRollupService.findByProductId(10).getLastDay());
+        assertEquals(5L, productSalesRollupService.findByProductId(20).getLastDay());
+        verify(orderItemRepository).resetRolledUp();
+        verify(productSalesRollupRepository).deleteAllRollups();
+        verify(orderItemRepository, times(2)).findChunkAfter(anyInt(), anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should not count an item again when a live change rolled it up while the backfill ran")
+    void backfill_ShouldSkipItemsAlreadyRolledUp() {
+        // Given
+        stubLookups(Map.of(1, TODAY), Map.of());
+        when(orderItemRepository.findChunkAfter(eq(Integer.MIN_VALUE), eq(Integer.MIN_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(item(10, 1, 2, null, null)));
+        when(orderItemRepository.findAllForUpdate(anyCollection(), anyCollection()))
+                .thenReturn(List.of(item(10, 1, 2, 2, TODAY)));
+
+        // When
+        int processed = productSalesRollupService.backfill();
+
+        // Then
+        assertEquals(1, processed);
+        verify(productSalesRollupRepository, never()).addUnits(anyInt(), any(LocalDate.class), anyLong());
+        verify(productSalesRollupRepository, never()).save(any(ProductSalesRollup.class));
+    }
+
+    @Test
+    @DisplayName("Should take a removed item's counted units back out of its day")
+    void remove_ShouldSubtractCountedUnits() {
+        // Given
+        stubLookups(Map.of(1, TODAY), Map.of(10, 100));
+        when(orderItemRepository.findAllForUpdate(anyCollection(), anyCollection()))
+                .thenReturn(List.of(item(10, 1, 3, null, null)))
+                .thenReturn(List.of(item(10, 1, 3, 3, TODAY)));
+        when(productSalesRollupRepository.addUnits(10, TODAY, 3L)).thenReturn(0);
+        when(productSalesRollupRepository.addUnits(10, TODAY, -3L)).thenReturn(1);
+        when(productSalesRollupRepository.findById(new ProductSalesRollupId(10, TODAY)))
+                .thenReturn(Optional.of(ProductSalesRollup.builder().productId(10).saleDate(TODAY).categoryId(100).units(0L).build()));
+        productSalesRollupService.onOrderItemsChanged(OrderItemsChangedEvent.of(new OrderItemId(10, 1), 3));
+
+        // When
+        productSalesRollupService.remove(new OrderItemId(10, 1));
+
+        // Then
+        assertEquals(0L, productSalesRollupService.findByProductId(10).getLastDay());
+        assertEquals(0L, productSalesRollupService.findByCategoryId(100).getLastDay());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubLookups(final Map<Integer, LocalDate> orderDates, final Map<Integer, Integer> categoryIds) {
+        lenient().when(restTemplate.exchange(contains("/api/orders?ids="), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(orderDates.entrySet()
+                        .stream()
+                        .map(e -> OrderDto.builder().orderId(e.getKey()).orderDate(e.getValue().atTime(12, 0)).build())
+                        .collect(Collectors.toList()))));
+        lenient().when(restTemplate.exchange(contains("/api/products?ids="), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(categoryIds.entrySet()
+                        .stream()
+                        .map(e -> ProductDto.builder()
+                                .productId(e.getKey())
+                                .categoryDto(CategoryDto.builder().categoryId(e.getValue()).build())
+                                .build())
+                        .collect(Collectors.toList()))));
+    }
+
+    private static OrderItem item(final int productId, final int orderId, final int quantity,
+            final Integer rolledUpQuantity, final LocalDate rolledUpDate) {
+        return OrderItem.builder()
+                .productId(productId)
+                .orderId(orderId)
+                .orderedQuantity(quantity)
+                .rolledUpQuantity(rolledUpQuantity)
+                .rolledUpDate(rolledUpDate)
+                .build();
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.config.executor.ExecutorConfig;
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.OrderProjection;
+import com.selimhorri.app.domain.ProductProjection;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.ProductChangeDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.repository.FeedCursorRepository;
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.repository.OrderProjectionRepository;
+import com.selimhorri.app.repository.ProductProjectionRepository;
+
+@DataJpaTest
+@Import({ProjectionServiceImpl.class, ExecutorConfig.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Projection Service Tests")
+class ProjectionServiceImplTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2021, 3, 1, 10, 30);
+
+    @Autowired
+    private ProjectionServiceImpl projectionService;
+
+    @Autowired
+    private ProductProjectionRepository productProjectionRepository;
+
+    @Autowired
+    private OrderProjectionRepository orderProjectionRepository;
+
+    @Autowired
+    private FeedCursorRepository feedCursorRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @AfterEach
+    void tearDown() {
+        productProjectionRepository.deleteAllInBatch();
+        orderProjectionRepository.deleteAllInBatch();
+        feedCursorRepository.deleteAllInBatch();
+        orderItemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should apply the latest change of every product and order and move both cursors")
+    void sync_ShouldApplyBothFeeds() {
+        // Given
+        stubExchange("/api/products/changes?after=0&", new DtoChangeFeedResponse<>(List.of(
+                productChange(1L, 10, "asus"),
+                productChange(2L, 11, "hp"),
+                productChange(3L, 10, "asus rog"),
+                ProductChangeDto.builder().sequenceNumber(4L).productId(11).build()), 4L));
+        stubExchange("/api/outbox/events?after=0&", new DtoChangeFeedResponse<>(List.of(
+                orderSaved(1L, 7, "init"),
+                OrderEventDto.builder().sequenceNumber(2L).aggregateType("CART").aggregateId(3).eventType("SAVED").build()), 2L));
+
+        // When
+        int applied = projectionService.sync();
+
+        // Then
+        assertEquals(6, applied);
+        ProductProjection product = productProjectionRepository.findById(10).orElseThrow();
+        assertEquals("asus rog", product.getProductTitle());
+        assertEquals(3L, product.getSequenceNumber());
+        assertFalse(productProjectionRepository.existsById(11));
+        assertEquals("init", orderProjectionRepository.findById(7).orElseThrow().getOrderDesc());
+        assertEquals(4L, feedCursorRepository.findById(ProjectionServiceImpl.PRODUCT_FEED).orElseThrow().getLastSequenceNumber());
+        assertEquals(2L, feedCursorRepository.findById(ProjectionServiceImpl.ORDER_FEED).orElseThrow().getLastSequenceNumber());
+    }
+
+    @Test
+    @DisplayName("Should answer from projections and fetch only the missing products in one call")
+    @SuppressWarnings("unchecked")
+    void findAllProductsById_ShouldFetchOnlyMisses() {
+        // Given
+        productProjectionRepository.save(ProductProjection.builder().productId(1).productTitle("asus").build());
+        stubExchange("/api/products?ids=2", new DtoCollectionResponse<>(List.of(
+                ProductDto.builder().productId(2).productTitle("hp").build())));
+
+        // When
+        Map<Integer, ProductDto> products = projectionService.findAllProductsById(Set.of(1, 2));
+
+        // Then
+        assertEquals("asus", products.get(1).getProductTitle());
+        assertEquals("hp", products.get(2).getProductTitle());
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @DisplayName("Should keep serving projections when order-service is unreachable")
+    @SuppressWarnings("unchecked")
+    void findAllOrdersById_ShouldDegradeWhenOrderServiceIsDown() {
+        // Given
+        orderProjectionRepository.save(OrderProjection.builder().orderId(1).orderDate(ORDER_DATE).build());
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenThrow(new ResourceAccessException("order-service down"));
+
+        // When
+        Map<Integer, OrderDto> orders = projectionService.findAllOrdersById(Set.of(1, 2));
+
+        // Then
+        assertEquals(Set.of(1), orders.keySet());
+        assertEquals(ORDER_DATE, orders.get(1).getOrderDate());
+        assertEquals(0, projectionService.sync());
+    }
+
+    @Test
+    @DisplayName("Should rewrite drifted rows, drop deleted ones and fill missing ones for referenced ids only")
+    void reconcile_ShouldRepairDrift() {
+        // Given
+        orderItemRepository.saveAll(List.of(
+                OrderItem.builder().productId(1).orderId(7).orderedQuantity(1).build(),
+                OrderItem.builder().productId(2).orderId(7).orderedQuantity(2).build()));
+        productProjectionRepository.saveAll(List.of(
+                ProductProjection.builder().productId(1).productTitle("old").sequenceNumber(5L).build(),
+                ProductProjection.builder().productId(2).productTitle("hp").build(),
+                ProductProjection.builder().productId(3).productTitle("unreferenced").build()));
+        stubExchange("/api/products?ids=1,2", new DtoCollectionResponse<>(List.of(
+                ProductDto.builder().productId(1).productTitle("asus").build())));
+        stubExchange("/api/orders?ids=7", new DtoCollectionResponse<>(List.of(
+                OrderDto.builder().orderId(7).orderDate(ORDER_DATE).orderDesc("init").build())));
+
+        // When
+        int repaired = projectionService.reconcile();
+
+        // Then
+        assertEquals(3, repaired);
+        ProductProjection product = productProjectionRepository.findById(1).orElseThrow();
+        assertEquals("asus", product.getProductTitle());
+        assertEquals(5L, product.getSequenceNumber());
+        assertFalse(productProjectionRepository.existsById(2));
+        assertTrue(productProjectionRepository.existsById(3));
+        assertNull(orderProjectionRepository.findById(7).orElseThrow().getSequenceNumber());
+        assertEquals(0, projectionService.reconcile());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubExchange(final String url, final Object body) {
+        when(restTemplate.exchange(contains(url), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(body));
+    }
+
+    private static ProductChangeDto productChange(final Long sequenceNumber, final Integer productId, final String productTitle) {
+        return ProductChangeDto.builder()
+                .sequenceNumber(sequenceNumber)
+                .productId(productId)
+                .productDto(ProductDto.builder().productId(productId).productTitle(productTitle).build())
+                .build();
+    }
+
+    private static OrderEventDto orderSaved(final Long sequenceNumber, final Integer orderId, final String orderDesc) {
+        return OrderEventDto.builder()
+                .sequenceNumber(sequenceNumber)
+                .aggregateType("ORDER")
+                .aggregateId(orderId)
+                .eventType("SAVED")
+                .payload(OrderDto.builder().orderId(orderId).orderDate(ORDER_DATE).orderDesc(orderDesc).build())
+                .build();
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.selimhorri.app.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Rolling Daily Counters Tests")
+class RollingDailyCountersTest {
+
+    private static final long TODAY = 19_000L;
+
+    @Test
+    @DisplayName("Should sum only the days inside the requested window")
+    void sum_ShouldRespectWindow() {
+        // Given
+        RollingDailyCounters counters = new RollingDailyCounters(30);
+        counters.add(1, TODAY, 2, TODAY);
+        counters.add(1, TODAY - 3, 5, TODAY);
+        counters.add(1, TODAY - 20, 7, TODAY);
+        counters.add(1, TODAY - 30, 100, TODAY);
+
+        // When / Then
+        assertEquals(2, counters.sum(1, 1, TODAY));
+        assertEquals(7, counters.sum(1, 7, TODAY));
+        assertEquals(14, counters.sum(1, 30, TODAY));
+        assertEquals(0, counters.sum(2, 30, TODAY));
+    }
+
+    @Test
+    @DisplayName("Should expire days that roll out of the horizon and drop keys left empty")
+    void add_ShouldExpireOldDays_WhenDayAdvances() {
+        // Given
+        RollingDailyCounters counters = new RollingDailyCounters(7);
+        counters.add(1, TODAY, 4, TODAY);
+        counters.add(2, TODAY - 6, 3, TODAY);
+
+        // When
+        long later = TODAY + 3;
+        long recent = counters.sum(1, 7, later);
+
+        // Then
+        assertEquals(4, recent);
+        assertEquals(0, counters.sum(2, 7, later));
+        assertEquals(1, counters.size());
+        assertEquals(0, counters.sum(1, 7, TODAY + 7));
+        assertEquals(0, counters.size());
+    }
+
+    @Test
+    @DisplayName("Should rank keys by units, breaking ties by the lower key")
+    void top_ShouldRankByUnits() {
+        // Given
+        RollingDailyCounters counters = new RollingDailyCounters(30);
+        counters.add(1, TODAY, 3, TODAY);
+        counters.add(2, TODAY, 9, TODAY);
+        counters.add(3, TODAY - 10, 20, TODAY);
+        counters.add(4, TODAY, 3, TODAY);
+        counters.add(5, TODAY, 1, TODAY);
+        counters.add(5, TODAY, -1, TODAY);
+
+        // When
+        Map<Integer, Long> week = counters.top(7, 3, TODAY);
+        Map<Integer, Long> month = counters.top(30, 2, TODAY);
+
+        // Then
+        assertEquals(List.of(2, 1, 4), List.copyOf(week.keySet()));
+        assertEquals(9L, week.get(2));
+        assertEquals(List.of(3, 2), List.copyOf(month.keySet()));
+    }
+
+}
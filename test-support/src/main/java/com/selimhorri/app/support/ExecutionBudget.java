@@ -0,0 +1,63 @@
+package com.selimhorri.app.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+import org.springframework.web.client.RestOperations;
+
+public final class ExecutionBudget {
+	
+	private ExecutionBudget() {
+	}
+	
+	public static void resetCounters(final RestOperations... restTemplates) {
+		SqlStatementCounter.reset();
+		Arrays.stream(restTemplates)
+				.filter(restTemplate -> Mockito.mockingDetails(restTemplate).isMock())
+				.forEach(Mockito::clearInvocations);
+	}
+	
+	public static void assertSelects(final long expected) {
+		assertStatements(SqlStatementType.SELECT, expected);
+	}
+	
+	public static void assertInserts(final long expected) {
+		assertStatements(SqlStatementType.INSERT, expected);
+	}
+	
+	public static void assertUpdates(final long expected) {
+		assertStatements(SqlStatementType.UPDATE, expected);
+	}
+	
+	public static void assertDeletes(final long expected) {
+		assertStatements(SqlStatementType.DELETE, expected);
+	}
+	
+	public static void assertStatements(final SqlStatementType type, final long expected) {
+		assertEquals(expected, SqlStatementCounter.count(type), () -> type + " statement budget exceeded or missed");
+	}
+	
+	public static void assertRestCalls(final RestOperations restTemplate, final long expected) {
+		final long actual = Mockito.mockingDetails(restTemplate).getInvocations().stream()
+				.map(Invocation::getMethod)
+				.filter(ExecutionBudget::isRestOperation)
+				.count();
+		assertEquals(expected, actual, "outbound RestTemplate call budget exceeded or missed");
+	}
+	
+	private static boolean isRestOperation(final Method method) {
+		try {
+			RestOperations.class.getMethod(method.getName(), method.getParameterTypes());
+			return true;
+		}
+		catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+	
+}
+
@@ -0,0 +1,37 @@
+package com.selimhorri.app.support;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class SqlStatementCounter implements StatementInspector {
+	
+	private static final long serialVersionUID = 1L;
+	private static final Map<SqlStatementType, AtomicLong> COUNTS = newCounts();
+	
+	@Override
+	public String inspect(final String sql) {
+		COUNTS.get(SqlStatementType.of(sql)).incrementAndGet();
+		return sql;
+	}
+	
+	public static long count(final SqlStatementType type) {
+		return COUNTS.get(type).get();
+	}
+	
+	public static void reset() {
+		COUNTS.values().forEach(count -> count.set(0));
+	}
+	
+	private static Map<SqlStatementType, AtomicLong> newCounts() {
+		final Map<SqlStatementType, AtomicLong> counts = new EnumMap<>(SqlStatementType.class);
+		for (final SqlStatementType type : SqlStatementType.values())
+			counts.put(type, new AtomicLong());
+		return Collections.unmodifiableMap(counts);
+	}
+	
+}
+
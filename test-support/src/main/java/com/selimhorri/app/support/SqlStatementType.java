@@ -0,0 +1,23 @@
+package com.selimhorri.app.support;
+
+import java.util.Locale;
+
+public enum SqlStatementType {
+	
+	SELECT, INSERT, UPDATE, DELETE, OTHER;
+	
+	public static SqlStatementType of(final String sql) {
+		final String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+		if (normalized.startsWith("select") || normalized.startsWith("with"))
+			return SELECT;
+		if (normalized.startsWith("insert"))
+			return INSERT;
+		if (normalized.startsWith("update"))
+			return UPDATE;
+		if (normalized.startsWith("delete"))
+			return DELETE;
+		return OTHER;
+	}
+	
+}
+
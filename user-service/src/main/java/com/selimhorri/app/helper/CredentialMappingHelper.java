@@ -1,5 +1,7 @@
 package com.selimhorri.app.helper;
 
+import java.util.Optional;
+
 import com.selimhorri.app.domain.Credential;
 import com.selimhorri.app.domain.User;
 import com.selimhorri.app.dto.CredentialDto;
@@ -51,6 +53,17 @@ public interface CredentialMappingHelper {
 				.build();
 	}
 	
+	public static Credential patch(final Credential credential, final CredentialDto credentialDto) {
+		Optional.ofNullable(credentialDto.getUsername()).ifPresent(credential::setUsername);
+		Optional.ofNullable(credentialDto.getPassword()).ifPresent(credential::setPassword);
+		Optional.ofNullable(credentialDto.getRoleBasedAuthority()).ifPresent(credential::setRoleBasedAuthority);
+		Optional.ofNullable(credentialDto.getIsEnabled()).ifPresent(credential::setIsEnabled);
+		Optional.ofNullable(credentialDto.getIsAccountNonExpired()).ifPresent(credential::setIsAccountNonExpired);
+		Optional.ofNullable(credentialDto.getIsAccountNonLocked()).ifPresent(credential::setIsAccountNonLocked);
+		Optional.ofNullable(credentialDto.getIsCredentialsNonExpired()).ifPresent(credential::setIsCredentialsNonExpired);
+		return credential;
+	}
+	
 	
 	
 }
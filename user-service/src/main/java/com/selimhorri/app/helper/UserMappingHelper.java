@@ -1,5 +1,7 @@
 package com.selimhorri.app.helper;
 
+import java.util.Optional;
+
 import com.selimhorri.app.domain.Credential;
 import com.selimhorri.app.domain.User;
 import com.selimhorri.app.dto.CredentialDto;
@@ -51,6 +53,17 @@ public interface UserMappingHelper {
 				.build();
 	}
 	
+	public static User patch(final User user, final UserDto userDto) {
+		Optional.ofNullable(userDto.getFirstName()).ifPresent(user::setFirstName);
+		Optional.ofNullable(userDto.getLastName()).ifPresent(user::setLastName);
+		Optional.ofNullable(userDto.getImageUrl()).ifPresent(user::setImageUrl);
+		Optional.ofNullable(userDto.getEmail()).ifPresent(user::setEmail);
+		Optional.ofNullable(userDto.getPhone()).ifPresent(user::setPhone);
+		if (userDto.getCredentialDto() != null && user.getCredential() != null)
+			CredentialMappingHelper.patch(user.getCredential(), userDto.getCredentialDto());
+		return user;
+	}
+	
 	
 	
 }
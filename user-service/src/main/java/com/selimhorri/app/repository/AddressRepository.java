@@ -1,11 +1,23 @@
 package com.selimhorri.app.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.selimhorri.app.domain.Address;
 
 public interface AddressRepository extends JpaRepository<Address, Integer> {
 	
+	@Override
+	@EntityGraph(attributePaths = {"user", "user.credential"})
+	List<Address> findAll();
+	
+	@Override
+	@EntityGraph(attributePaths = {"user", "user.credential"})
+	Optional<Address> findById(final Integer addressId);
+	
 	
 	
 }
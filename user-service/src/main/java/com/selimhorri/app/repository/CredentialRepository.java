@@ -1,13 +1,26 @@
 package com.selimhorri.app.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.selimhorri.app.domain.Credential;
 
 public interface CredentialRepository extends JpaRepository<Credential, Integer> {
 	
+	@Override
+	@EntityGraph(attributePaths = {"user", "user.credential"})
+	List<Credential> findAll();
+	
+	@EntityGraph(attributePaths = {"user", "user.credential"})
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
 	Optional<Credential> findByUsername(final String username);
 	
 }
@@ -1,13 +1,40 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.User;
+import com.selimhorri.app.dto.UserDto;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
 	
+	@Override
+	@EntityGraph(attributePaths = "credential")
+	List<User> findAll();
+	
+	@Override
+	@EntityGraph(attributePaths = "credential")
+	Optional<User> findById(final Integer userId);
+	
+	@EntityGraph(attributePaths = "credential")
 	Optional<User> findByCredentialUsername(final String username);
 	
+	@Query("SELECT new com.selimhorri.app.dto.UserDto(u.userId, u.firstName, u.lastName, u.imageUrl, u.email, u.phone, "
+			+ "c.credentialId, c.username, c.password, c.roleBasedAuthority, c.isEnabled, "
+			+ "c.isAccountNonExpired, c.isAccountNonLocked, c.isCredentialsNonExpired) "
+			+ "FROM User u LEFT JOIN u.credential c")
+	List<UserDto> findAllDtos();
+	
+	@Query("SELECT new com.selimhorri.app.dto.UserDto(u.userId, u.firstName, u.lastName, u.imageUrl, u.email, u.phone, "
+			+ "c.credentialId, c.username, c.password, c.roleBasedAuthority, c.isEnabled, "
+			+ "c.isAccountNonExpired, c.isAccountNonLocked, c.isCredentialsNonExpired) "
+			+ "FROM User u LEFT JOIN u.credential c WHERE u.userId IN :userIds")
+	List<UserDto> findAllDtosByIdIn(@Param("userIds") final Collection<Integer> userIds);
+	
 }
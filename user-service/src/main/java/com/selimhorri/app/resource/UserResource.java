@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -7,11 +9,13 @@ import javax.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.dto.UserDto;
@@ -35,6 +39,13 @@ public class UserResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.userService.findAll()));
 	}
 	
+	@GetMapping(params = "ids")
+	public ResponseEntity<DtoCollectionResponse<UserDto>> findAllById(
+			@RequestParam("ids") final Set<Integer> userIds) {
+		log.info("*** UserDto List, resource; fetch users by ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.userService.findAllById(userIds)));
+	}
+	
 	@GetMapping("/{userId}")
 	public ResponseEntity<UserDto> findById(
 			@PathVariable("userId") 
@@ -73,6 +84,17 @@ public class UserResource {
 		return ResponseEntity.ok(this.userService.update(Integer.parseInt(userId.strip()), userDto));
 	}
 	
+	@PatchMapping("/{userId}")
+	public ResponseEntity<UserDto> patch(
+			@PathVariable("userId") 
+			@NotBlank(message = "Input must not blank") final String userId, 
+			@RequestBody 
+			@NotNull(message = "Input must not NULL") 
+			@Valid final UserDto userDto) {
+		log.info("*** UserDto, resource; patch user with userId *");
+		return ResponseEntity.ok(this.userService.patch(Integer.parseInt(userId.strip()), userDto));
+	}
+	
 	@DeleteMapping("/{userId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("userId") @NotBlank(message = "Input must not blank") @Valid final String userId) {
 		log.info("*** Boolean, resource; delete user by id *");
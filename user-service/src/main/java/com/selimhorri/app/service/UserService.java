@@ -1,6 +1,7 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.Set;
 
 import com.selimhorri.app.dto.UserDto;
 
@@ -8,9 +9,11 @@ public interface UserService {
 	
 	List<UserDto> findAll();
 	UserDto findById(final Integer userId);
+	List<UserDto> findAllById(final Set<Integer> userIds);
 	UserDto save(final UserDto userDto);
 	UserDto update(final UserDto userDto);
 	UserDto update(final Integer userId, final UserDto userDto);
+	UserDto patch(final Integer userId, final UserDto userDto);
 	void deleteById(final Integer userId);
 	UserDto findByUsername(final String username);
 	
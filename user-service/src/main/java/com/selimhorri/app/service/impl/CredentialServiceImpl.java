@@ -3,9 +3,8 @@ package com.selimhorri.app.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.selimhorri.app.dto.CredentialDto;
 import com.selimhorri.app.exception.wrapper.CredentialNotFoundException;
@@ -26,6 +25,7 @@ public class CredentialServiceImpl implements CredentialService {
 	private final CredentialRepository credentialRepository;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<CredentialDto> findAll() {
 		log.info("*** CredentialDto List, service; fetch all credentials *");
 		return this.credentialRepository.findAll()
@@ -36,6 +36,7 @@ public class CredentialServiceImpl implements CredentialService {
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public CredentialDto findById(final Integer credentialId) {
 		log.info("*** CredentialDto, service; fetch credential by ids *");
 		return this.credentialRepository.findById(credentialId)
@@ -55,11 +56,21 @@ public class CredentialServiceImpl implements CredentialService {
 		return CredentialMappingHelper.map(this.credentialRepository.save(CredentialMappingHelper.map(credentialDto)));
 	}
 	
+	// PUT replaces the whole credential, the path id wins over whatever id the body carries
 	@Override
 	public CredentialDto update(final Integer credentialId, final CredentialDto credentialDto) {
 		log.info("*** CredentialDto, service; update credential with credentialId *");
-		return CredentialMappingHelper.map(this.credentialRepository.save(
-				CredentialMappingHelper.map(this.findById(credentialId))));
+		if (!this.credentialRepository.existsById(credentialId))
+			throw new CredentialNotFoundException(String.format("#### Credential with id: %d not found! ####", credentialId));
+		credentialDto.setCredentialId(credentialId);
+		return CredentialMappingHelper.map(this.credentialRepository.save(CredentialMappingHelper.map(credentialDto)));
+	}
+	
+	@Override
+	public CredentialDto patch(final Integer credentialId, final CredentialDto credentialDto) {
+		log.info("*** CredentialDto, service; patch credential with credentialId *");
+		return CredentialMappingHelper.map(CredentialMappingHelper.patch(this.credentialRepository.findById(credentialId)
+				.orElseThrow(() -> new CredentialNotFoundException(String.format("#### Credential with id: %d not found! ####", credentialId))), credentialDto));
 	}
 	
 	@Override
@@ -69,6 +80,7 @@ public class CredentialServiceImpl implements CredentialService {
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public CredentialDto findByUsername(final String username) {
 		return CredentialMappingHelper.map(this.credentialRepository.findByUsername(username)
 				.orElseThrow(() -> new UserObjectNotFoundException(String.format("#### Credential with username: %s not found! ####", username))));
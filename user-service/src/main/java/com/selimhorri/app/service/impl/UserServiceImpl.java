@@ -1,11 +1,11 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
@@ -25,16 +25,17 @@ public class UserServiceImpl implements UserService {
 	private final UserRepository userRepository;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<UserDto> findAll() {
 		log.info("*** UserDto List, service; fetch all users *");
-		return this.userRepository.findAll()
+		return this.userRepository.findAllDtos()
 				.stream()
-					.map(UserMappingHelper::map)
 					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public UserDto findById(final Integer userId) {
 		log.info("*** UserDto, service; fetch user by id *");
 		return this.userRepository.findById(userId)
@@ -42,6 +43,13 @@ public class UserServiceImpl implements UserService {
 				.orElseThrow(() -> new UserObjectNotFoundException(String.format("User with id: %d not found", userId)));
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public List<UserDto> findAllById(final Set<Integer> userIds) {
+		log.info("*** UserDto List, service; fetch users by ids *");
+		return userIds.isEmpty() ? List.of() : this.userRepository.findAllDtosByIdIn(userIds);
+	}
+	
 	@Override
 	public UserDto save(final UserDto userDto) {
 		log.info("*** UserDto, service; save user *");
@@ -54,11 +62,21 @@ public class UserServiceImpl implements UserService {
 		return UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(userDto)));
 	}
 	
+	// PUT replaces the whole user, the path id wins over whatever id the body carries
 	@Override
 	public UserDto update(final Integer userId, final UserDto userDto) {
 		log.info("*** UserDto, service; update user with userId *");
-		return UserMappingHelper.map(this.userRepository.save(
-				UserMappingHelper.map(this.findById(userId))));
+		if (!this.userRepository.existsById(userId))
+			throw new UserObjectNotFoundException(String.format("User with id: %d not found", userId));
+		userDto.setUserId(userId);
+		return UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(userDto)));
+	}
+	
+	@Override
+	public UserDto patch(final Integer userId, final UserDto userDto) {
+		log.info("*** UserDto, service; patch user with userId *");
+		return UserMappingHelper.map(UserMappingHelper.patch(this.userRepository.findById(userId)
+				.orElseThrow(() -> new UserObjectNotFoundException(String.format("User with id: %d not found", userId))), userDto));
 	}
 	
 	@Override
@@ -68,6 +86,7 @@ public class UserServiceImpl implements UserService {
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public UserDto findByUsername(final String username) {
 		log.info("*** UserDto, service; fetch user with username *");
 		return UserMappingHelper.map(this.userRepository.findByCredentialUsername(username)
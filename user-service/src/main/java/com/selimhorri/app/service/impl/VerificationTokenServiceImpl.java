@@ -3,9 +3,8 @@ package com.selimhorri.app.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.selimhorri.app.dto.VerificationTokenDto;
 import com.selimhorri.app.exception.wrapper.VerificationTokenNotFoundException;
@@ -25,6 +24,7 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
 	private final VerificationTokenRepository verificationTokenRepository;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<VerificationTokenDto> findAll() {
 		log.info("*** VerificationTokenDto List, service; fetch all verificationTokens *");
 		return this.verificationTokenRepository.findAll()
@@ -35,6 +35,7 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public VerificationTokenDto findById(final Integer verificationTokenId) {
 		log.info("*** VerificationTokenDto, service; fetch verificationToken by ids *");
 		return this.verificationTokenRepository.findById(verificationTokenId)
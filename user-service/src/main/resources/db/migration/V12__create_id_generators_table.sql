@@ -0,0 +1,15 @@
+
+CREATE TABLE IF NOT EXISTS id_generators (
+	sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+	next_val BIGINT
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'users', COALESCE(MAX(user_id), 0) + 1 FROM users;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'address', COALESCE(MAX(address_id), 0) + 1 FROM address;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'credentials', COALESCE(MAX(credential_id), 0) + 1 FROM credentials;
+
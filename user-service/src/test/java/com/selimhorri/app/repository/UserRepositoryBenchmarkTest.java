@@ -0,0 +1,107 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.User;
+
+import lombok.extern.slf4j.Slf4j;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+@Slf4j
+@DisplayName("User Bulk Insert Benchmark")
+class UserRepositoryBenchmarkTest {
+
+    private static final int USERS = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should insert 10k users in batches instead of one round trip per row")
+    void saveAll_ShouldBatchInsertsWithPooledIds() {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        statistics.clear();
+        long rowStart = System.nanoTime();
+        users("row").forEach(user -> transactionTemplate.executeWithoutResult(status -> userRepository.saveAndFlush(user)));
+        long rowMillis = (System.nanoTime() - rowStart) / 1_000_000;
+        long rowStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long batchStart = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users("batch")));
+        long batchMillis = (System.nanoTime() - batchStart) / 1_000_000;
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        assertEquals(2L * USERS, userRepository.count());
+        assertTrue(rowStatements >= USERS);
+        assertTrue(batchStatements <= 3L * USERS / 50 + 3);
+        log.info("Inserted {} users: per-row path {} ms ({} statements, {} users/s), batched path {} ms ({} statements, {} users/s)",
+                USERS, rowMillis, rowStatements, USERS * 1000L / Math.max(rowMillis, 1),
+                batchMillis, batchStatements, USERS * 1000L / Math.max(batchMillis, 1));
+    }
+
+    private static List<User> users(final String prefix) {
+        return IntStream.rangeClosed(1, USERS)
+                .mapToObj(i -> User.builder()
+                        .firstName(prefix)
+                        .lastName("user" + i)
+                        .email(prefix + i + "@example.com")
+                        .phone(String.format("+1%09d", i))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.domain.Address;
+import com.selimhorri.app.domain.Credential;
+import com.selimhorri.app.domain.RoleBasedAuthority;
+import com.selimhorri.app.domain.User;
+import com.selimhorri.app.dto.AddressDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.helper.AddressMappingHelper;
+import com.selimhorri.app.helper.UserMappingHelper;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@DisplayName("User Repository Query Count Tests")
+class UserRepositoryQueryCountTest {
+
+    private static final int USERS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        IntStream.rangeClosed(1, USERS).forEach(i -> {
+            User user = entityManager.persist(User.builder()
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("user" + i + "@example.com")
+                    .build());
+            entityManager.persist(Credential.builder()
+                    .username("user" + i)
+                    .password("secret")
+                    .roleBasedAuthority(RoleBasedAuthority.ROLE_USER)
+                    .isEnabled(true)
+                    .user(user)
+                    .build());
+            entityManager.persist(Address.builder()
+                    .fullAddress(i + " Main Street")
+                    .postalCode("1000" + i)
+                    .city("Springfield")
+                    .user(user)
+                    .build());
+        });
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should list users with their credentials in a single query")
+    void findAll_ShouldLoadCredentialsWithoutExtraQueries() {
+        // When
+        List<UserDto> users = userRepository.findAll()
+                .stream()
+                .map(UserMappingHelper::map)
+                .collect(Collectors.toList());
+
+        // Then
+        assertEquals(USERS, users.size());
+        assertTrue(users.stream().allMatch(u -> u.getCredentialDto().getUsername() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should find a user by username in a single query")
+    void findByCredentialUsername_ShouldLoadCredentialWithoutExtraQueries() {
+        // When
+        UserDto user = userRepository.findByCredentialUsername("user7")
+                .map(UserMappingHelper::map)
+                .orElseThrow();
+
+        // Then
+        assertEquals("first7", user.getFirstName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should list addresses with their users in a single query")
+    void findAllAddresses_ShouldLoadUsersWithoutExtraQueries() {
+        // When
+        List<AddressDto> addresses = addressRepository.findAll()
+                .stream()
+                .map(AddressMappingHelper::map)
+                .collect(Collectors.toList());
+
+        // Then
+        assertEquals(USERS, addresses.size());
+        assertTrue(addresses.stream().allMatch(a -> a.getUserDto().getFirstName() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+}
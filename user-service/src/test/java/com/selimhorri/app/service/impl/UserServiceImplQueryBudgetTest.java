@@ -0,0 +1,160 @@
+package com.selimhorri.app.service.impl;
+
+import static com.selimhorri.app.support.ExecutionBudget.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.domain.Address;
+import com.selimhorri.app.domain.Credential;
+import com.selimhorri.app.domain.RoleBasedAuthority;
+import com.selimhorri.app.domain.User;
+import com.selimhorri.app.dto.UserDto;
+
+@DataJpaTest
+@Import({UserServiceImpl.class, AddressServiceImpl.class, CredentialServiceImpl.class})
+@ActiveProfiles("test")
+@DisplayName("User Service Query Budget Tests")
+class UserServiceImplQueryBudgetTest {
+
+    private static final int USERS = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private AddressServiceImpl addressService;
+
+    @Autowired
+    private CredentialServiceImpl credentialService;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= USERS; i++) {
+            User user = entityManager.persist(User.builder()
+                    .firstName("first" + i)
+                    .email("user" + i + "@example.com")
+                    .build());
+            entityManager.persist(Credential.builder()
+                    .username("user" + i)
+                    .password("secret")
+                    .roleBasedAuthority(RoleBasedAuthority.ROLE_USER)
+                    .user(user)
+                    .build());
+            entityManager.persist(Address.builder()
+                    .fullAddress(i + " Main Street")
+                    .city("Springfield")
+                    .user(user)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        resetCounters();
+    }
+
+    @Test
+    @DisplayName("Should list users with one SELECT")
+    void findAll_ShouldStayWithinBudget() {
+        // When
+        List<UserDto> users = userService.findAll();
+
+        // Then
+        assertEquals(USERS, users.size());
+        assertSelects(1);
+    }
+
+    @Test
+    @DisplayName("Should look up a batch of users with their credentials in one SELECT")
+    void findAllById_ShouldStayWithinBudget() {
+        // Given
+        Set<Integer> userIds = userService.findAll()
+                .stream()
+                .limit(3)
+                .map(UserDto::getUserId)
+                .collect(Collectors.toSet());
+        resetCounters();
+
+        // When
+        List<UserDto> users = userService.findAllById(userIds);
+
+        // Then
+        assertEquals(3, users.size());
+        assertTrue(users.stream().allMatch(u -> u.getCredentialDto().getUsername() != null));
+        assertSelects(1);
+    }
+
+    @Test
+    @DisplayName("Should find a user by username with one SELECT")
+    void findByUsername_ShouldStayWithinBudget() {
+        // When
+        UserDto user = userService.findByUsername("user3");
+
+        // Then
+        assertEquals("first3", user.getFirstName());
+        assertSelects(1);
+    }
+
+    @Test
+    @DisplayName("Should list addresses and credentials with one SELECT each")
+    void findAllAddressesAndCredentials_ShouldStayWithinBudget() {
+        // When
+        addressService.findAll();
+        credentialService.findAll();
+
+        // Then
+        assertSelects(2);
+        assertInserts(0);
+        assertUpdates(0);
+    }
+
+    @Test
+    @DisplayName("Should patch a user with one SELECT and one UPDATE")
+    void patchById_ShouldStayWithinBudget() {
+        // Given
+        Integer userId = userService.findByUsername("user3").getUserId();
+        entityManager.clear();
+        resetCounters();
+
+        // When
+        UserDto user = userService.patch(userId, UserDto.builder().phone("+21600000000").build());
+        entityManager.flush();
+
+        // Then
+        assertEquals("first3", user.getFirstName());
+        assertEquals("+21600000000", user.getPhone());
+        assertSelects(1);
+        assertUpdates(1);
+    }
+
+    @Test
+    @DisplayName("Should not write when a patch changes nothing")
+    void patchById_ShouldSkipUpdate_WhenNothingChanged() {
+        // Given
+        Integer userId = userService.findByUsername("user3").getUserId();
+        entityManager.clear();
+        resetCounters();
+
+        // When
+        userService.patch(userId, UserDto.builder().firstName("first3").build());
+        entityManager.flush();
+
+        // Then
+        assertSelects(1);
+        assertUpdates(0);
+    }
+
+}